@@ -12,7 +12,7 @@ public class Driver {
 	
 	public static void main(String[] args) throws IOException, APIRequestStateException {
 
-        PAPIInteraction apiInteractionManager = new PAPIInteraction();
+        PAPIInteraction apiInteractionManager = PAPIClient.getDefault().interaction();
 
 
         PUserContext context = apiInteractionManager.getUserContext("k", "abc123");
@@ -4,14 +4,13 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import tv.present.exceptions.APIRequestPrereqException;
 import tv.present.models.PUserContext;
+import tv.present.util.PLogger;
 
-import javax.net.ssl.HttpsURLConnection;
 import java.io.*;
+import java.net.HttpURLConnection;
 import java.net.ProtocolException;
 import java.net.URL;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.logging.Logger;
 
 /**
  * Present API Bridge -- Provides a connection to the Present API.
@@ -28,23 +27,35 @@ public final class PAPIBridge {
 	}
 
     private static final String TAG = "tv.present.api.APIBridge";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 	
 	public static final int MAX_SUCCESS_CODE = 300;
 
-    private static final String BOUNDARY = "!PP!!PP!";
-    private static final String CHARSET = "UTF-8";
-    private static final String LINE_FEED = "\r\n";
-    private static final String TWO_DASHES = "--";
+    /* ########################################
+
+        !!! API CONNECTION URL HERE !!!
+
+    ######################################## */
+
+    public static final String DEFAULT_API_BASE_URL = "https://api.present.tv/v1/";
+
+    private static final String BOUNDARY = PMultipartEncoder.DEFAULT_BOUNDARY;
     
 	
 	private String route = null;
 	private JSONObject payload = null;
 	private URL url = null;
-	private HttpsURLConnection connection = null;
+	private HttpURLConnection connection = null;
 	private HTTPRequestMethod requestMethod = HTTPRequestMethod.POST;
 	private int responseCode = 0;
+	private String errorMessage = null;
+	private JSONObject errorResponse = null;
 	private PUserContext userContext = null;
+	private PAPICancellationToken cancellationToken = null;
+	private String baseURL = DEFAULT_API_BASE_URL;
+	private int connectTimeoutMillis = 0;
+	private int readTimeoutMillis = 0;
+	private PAPIMetrics metrics = null;
 	
 	private HashMap<String, File> multipartFileData = null;
 	private HashMap<String, String> multipartTextualData = null;
@@ -125,6 +136,28 @@ public final class PAPIBridge {
 		}
 	}
 	
+	/**
+	 * Sets a token that can abandon this request from another thread (see PAPICancellationToken).
+	 * @param cancellationToken is the PAPICancellationToken to obey, or null for none.
+	 */
+	public void setCancellationToken(PAPICancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
+	
+	/**
+	 * Applies a PAPIClient's transport settings and metrics.  Called by PAPIClient.newBridge().
+	 * @param baseURL is the base URL that the route is resolved against.
+	 * @param connectTimeoutMillis is the connect timeout in milliseconds (0 for the platform's default).
+	 * @param readTimeoutMillis is the read timeout in milliseconds (0 for the platform's default).
+	 * @param metrics is the PAPIMetrics to record the request in, or null.
+	 */
+	void configure(String baseURL, int connectTimeoutMillis, int readTimeoutMillis, PAPIMetrics metrics) {
+		this.baseURL = (baseURL != null) ? baseURL : DEFAULT_API_BASE_URL;
+		this.connectTimeoutMillis = connectTimeoutMillis;
+		this.readTimeoutMillis = readTimeoutMillis;
+		this.metrics = metrics;
+	}
+	
 	/* #################### HELPING #################### */
 	
 	public void addMultipartFile(String key, File value) {
@@ -155,32 +188,30 @@ public final class PAPIBridge {
 	private boolean createConnection() {
 		try {
 
-            /* ########################################
-
-                !!! API CONNECTION URL HERE !!!
-
-            ######################################## */
-
-            String API_BASE_URL = "https://api.present.tv/v1/";
-
-            this.url = new URL(API_BASE_URL + this.route);
-            PLog.info("About to create connection to: " + url.toString());
+            this.url = new URL(this.baseURL + this.route);
+            PLog.fine("About to create connection to: {0}", this.url);
 			this.checkPrereqs();
-			this.connection = (HttpsURLConnection) this.url.openConnection();
+			this.connection = (HttpURLConnection) this.url.openConnection();
 			this.setHeaders();
+			if (this.connectTimeoutMillis > 0) {
+				this.connection.setConnectTimeout(this.connectTimeoutMillis);
+			}
+			if (this.readTimeoutMillis > 0) {
+				this.connection.setReadTimeout(this.readTimeoutMillis);
+			}
 			// Set the user ID and session token headers if there is a user context
 			if (this.userContext != null) {
-                PLog.info("This connection is being made with a user context.");
+                PLog.fine("This connection is being made with a user context.");
 				final String userID = this.userContext.getUserID();
 				final String sessionToken = this.userContext.getSessionToken();
 				this.connection.setRequestProperty("Present-User-Context-User-Id", userID);
 				this.connection.setRequestProperty("Present-User-Context-Session-Token", sessionToken);
 			}
 		} catch (APIRequestPrereqException e) {
-            PLog.severe("Caught an APIRequestPrereqException that says: " + e.getMessage());
+            PLog.severe("Caught an APIRequestPrereqException that says: {0}", e.getMessage());
 			return false;
 		} catch (IOException e) {
-            PLog.severe("Caught an IOException that says: " + e.getMessage());
+            PLog.severe("Caught an IOException that says: {0}", e.getMessage());
 			return false;
 		}
 		
@@ -191,11 +222,15 @@ public final class PAPIBridge {
 	 * Controls the collection of the error response from the server.
 	 * @throws IOException when unable to get an error stream from the connection (ie: the connection
 	 * may not exist).
-	 * @return a String that is the server's error response to our request.
+	 * @return a String that is the server's error response to our request (empty if it sent none).
 	 */
 	private String getError() throws IOException {
 		
 		String response;
+		if (this.connection.getErrorStream() == null) {
+			// Some errors come without a body.
+			return "";
+		}
 		BufferedReader inputStream = new BufferedReader(new InputStreamReader(this.connection.getErrorStream()));
 		String inputLine;
 		StringBuilder buffResponse = new StringBuilder();
@@ -236,21 +271,90 @@ public final class PAPIBridge {
 	public int getResponseCode() {
 		return this.responseCode;		
 	}
+
+	/**
+	 * Gets a short description of why the request failed, for logging instead of the whole response.
+	 * @return the error message the API gave (or the HTTP status message, or the exception message when the request
+	 * never got a response), or null if the request succeeded or has not been made.
+	 */
+	public String getErrorMessage() {
+		return this.errorMessage;
+	}
 	
+	/**
+	 * Checks whether the request failed in a way that asking again would not change (ie: the user or video asked for
+	 * does not exist), as opposed to a failure that might pass (no connection, a server error, an expired login or rate
+	 * limiting).
+	 * @return true if the response code was a 4xx other than 401, 403, 408 or 429, false otherwise.
+	 */
+	public boolean isDefinitiveFailure() {
+		switch (this.responseCode) {
+			case 401:
+			case 403:
+			case 408:
+			case 429:
+				return false;
+			default:
+				return this.responseCode >= 400 && this.responseCode < 500;
+		}
+	}
+
 	/**
 	 * Makes the request to the API via a connection.
 	 * @return a regular or error stream response as a JSON object depending on the success
-	 * status of the connection.
+	 * status of the connection, or null if the request failed or was cancelled.
 	 */
 	public final JSONObject makeRequest() {
 		
-		JSONObject response = null;
+		final String body = this.exchange();
+		if (body == null) {
+			return this.errorResponse;
+		}
+		
+		// We really make a bold assumption here.  Something should probably be done about this at some
+		// point??? -- KW (06/04/2014)
+		final JSONObject response = new JSONObject(body);
+		PLog.payload("The response from the API was: {0}", response);
+		return response;
+		
+	}
+	
+	/**
+	 * Makes the request to the API and hands back a successful response undecoded, for callers that bind the text
+	 * straight to model objects (see PObjectBinder) instead of building a JSONObject first.
+	 * @return the response body as a String, or null if the request failed (see getResponseCode() and
+	 * getErrorMessage()) or was cancelled.
+	 */
+	public final String makeRawRequest() {
+		
+		final String body = this.exchange();
+		if (body != null) {
+			PLog.payload("The response from the API was: {0}", body);
+		}
+		return body;
+		
+	}
+	
+	/**
+	 * Performs the request.  An error response is kept in errorResponse for makeRequest() to hand back.
+	 * @return the body of a successful response as a String, or null if the request failed or was cancelled.
+	 */
+	private String exchange() {
+		
+		String body = null;
+		long start = System.nanoTime();
 		
 		try {
 			
 			if(this.createConnection()) {
 
-                PLog.info("A connection has been created, and request data (if any) will now be posted.");
+                // Don't start a request that has already been cancelled
+                if (this.cancellationToken != null && !this.cancellationToken.attach(this.connection)) {
+                    PLog.fine("The request to {0} was cancelled before it started.", this.url);
+                    return null;
+                }
+
+                PLog.fine("A connection has been created, and request data (if any) will now be posted.");
 
                 // If the request is POST, write it to the connection by calling the writeRequest() method
 				if(this.requestMethod == HTTPRequestMethod.POST) {
@@ -263,49 +367,86 @@ public final class PAPIBridge {
 				this.responseCode = this.connection.getResponseCode();
 				
 				if (this.responseCode <= PAPIBridge.MAX_SUCCESS_CODE) {
-                    // We really make a bold assumption here.  Something should probably be done about this at some
-                    // point??? -- KW (06/04/2014)
-					response = new JSONObject(this.getResponse());
-                    PLog.info("The response from the API was: " + response.toString());
+					body = this.getResponse();
 				}
 				
 				else {
-                    PLog.severe("The API responded with error: " + this.getError());
+                    // The error stream can only be read once, so keep what it said.
+                    String error = this.getError();
+                    // A session the API refuses is no good to anything else holding the same context either.
+                    if (this.userContext != null && (this.responseCode == 401 || this.responseCode == 403)) {
+                        this.userContext.markRejected();
+                    }
 					try {
-						response = new JSONObject(this.getError());
+						this.errorResponse = new JSONObject(error);
+						this.errorMessage = PAPIBridge.describeError(this.errorResponse);
 					} catch(JSONException e) {
 						JSONObject errorJSON = new JSONObject();
 						errorJSON.put("status", "ERROR");
-						errorJSON.put("subject", this.getError());
+						errorJSON.put("subject", error);
 						
-						response = errorJSON;
+						this.errorResponse = errorJSON;
+					}
+					if (this.errorMessage == null) {
+						this.errorMessage = this.connection.getResponseMessage();
 					}
+					// The query (ie: a search term or username) stays out of anything above FINE.
+					final int query = this.route.indexOf('?');
+					PLog.severe("The API responded to {0} with status {1}: {2}", (query < 0) ? this.route : this.route.substring(0, query), this.responseCode, this.errorMessage);
+					PLog.payload("The error response from the API was: {0}", error);
 					
 				}
 				
 			}
 			
 		} catch (IOException e) {
-            PLog.severe("An IOException was thrown when trying to make the request.  Message was: " + e.getMessage());
+            if (this.cancellationToken != null && this.cancellationToken.isCancelled()) {
+                PLog.fine("The request to {0} was cancelled.", this.url);
+            }
+            else {
+                this.errorMessage = e.getMessage();
+                PLog.severe("An IOException was thrown when trying to make the request.  Message was: {0}", this.errorMessage);
+            }
+		} finally {
+            if (this.cancellationToken != null && this.connection != null) {
+                this.cancellationToken.detach(this.connection);
+            }
+            if (this.metrics != null) {
+                boolean cancelled = this.cancellationToken != null && this.cancellationToken.isCancelled();
+                this.metrics.recordRequest(this.responseCode, body != null || this.errorResponse != null, cancelled, System.nanoTime() - start);
+            }
 		}
 		
-		return response;
+		return body;
 		
 	}
 	
+	/**
+	 * Picks the message out of an error response, which the API puts either in result.message or in message.
+	 * @param errorJSON is the error response as a JSONObject.
+	 * @return the message as a String, or null if the response has none.
+	 */
+	private static String describeError(final JSONObject errorJSON) {
+		final JSONObject result = errorJSON.optJSONObject("result");
+		if (result != null && result.has("message")) {
+			return result.optString("message");
+		}
+		return errorJSON.has("message") ? errorJSON.optString("message") : null;
+	}
+
 	/**
 	 * Sets the headers and connection details for the connection that this object is
 	 * making.
 	 * @throws ProtocolException when an invalid request method is specified (ie: not GET or POST).
 	 */
 	private void setHeaders() throws ProtocolException {
-        PLog.info("Setting headers for the connection.");
+        PLog.fine("Setting headers for the connection.");
 		this.connection.setRequestMethod(this.getRequestMethodAsString());
 		this.connection.setDefaultUseCaches(false);
 		this.connection.setUseCaches(false);
 		this.connection.setDoInput(true);
         if (!this.requestMethod.equals(HTTPRequestMethod.GET)) {
-            PLog.info("setHeaders() -> Setting do output to true.");
+            PLog.fine("setHeaders() -> Setting do output to true.");
             this.connection.setDoOutput(true);
         }
 		this.connection.setRequestProperty("Connection", "Keep-Alive");
@@ -314,7 +455,7 @@ public final class PAPIBridge {
 		
 		// On a multipart upload, set the header accordingly
 		if (this.requestMethod == HTTPRequestMethod.POST_MULTIPART) {
-            PLog.info("This connection is multipart.  Initialize a few more things...");
+            PLog.fine("This connection is multipart.  Initialize a few more things...");
 			String contentType = "multipart/form-data; boundary=" + BOUNDARY;
 			this.connection.setRequestProperty("Content-Type", contentType);
 		}
@@ -330,96 +471,35 @@ public final class PAPIBridge {
 	 * may not exist).
 	 */
 	private void writeRequest() throws IOException {
-        PLog.info("Writing the request.");
+        PLog.fine("Writing the request.");
 		DataOutputStream outputStream = new DataOutputStream(this.connection.getOutputStream());
 		outputStream.writeBytes(this.payload.toString());
 		outputStream.flush();
 		outputStream.close();
 	}
 	
+	/**
+	 * Controls the submission of a multipart body (the payload fields, any textual data and any files) to the
+	 * connection with the server.  The exact length is worked out first so the body can be streamed in fixed length
+	 * mode instead of being buffered whole by the connection.
+	 * @throws IOException when unable to get an outputStream from the connection, or a file cannot be read.
+	 */
 	private void writeMultipart() throws IOException {
-        PLog.info("Writing multipart request.");
-        DataOutputStream outputStream = new DataOutputStream(this.connection.getOutputStream());
-		PrintWriter writer = new PrintWriter(new OutputStreamWriter(outputStream, CHARSET), true);
-		
-		// Iterate over the JSON and the multipart HashMap and upload
-		@SuppressWarnings("unchecked") // The payload is type checked!
-		Iterator<String> keys = this.payload.keys();
-		
-		while (keys.hasNext()) {
-			String key = keys.next();
-			String value;
-			
-			try {
-				JSONObject temp = this.payload.getJSONObject(key);
-				value = temp.toString();
-				// Recursively call this function again to go objects deep
-				// parse(value, out)
-			} catch (JSONException e) {
-				try {
-					value = this.payload.getString(key);
-				}
-				catch (JSONException f) {
-					try {
-						value = ((Integer) this.payload.getInt(key)).toString();
-					}
-					catch (JSONException g) {
-						value = ((Double) this.payload.getDouble(key)).toString();
-					}
-				}
-				
-			}
-			
-			if (value != null) {
-				writer.append(TWO_DASHES + BOUNDARY).append(LINE_FEED);
-                final String contentDisposition = "\"Content-Disposition: form-data; name=\\\"\" + key + \"\\\"\"";
-		        writer.append(contentDisposition).append(LINE_FEED);
-		        writer.append("Content-Type: text/plain; charset=" + CHARSET).append(LINE_FEED);
-		        writer.append(LINE_FEED);
-		        writer.append(value).append(LINE_FEED);
-		        writer.flush();
-			}
-			
-		}
-		
-		// Iterate over multipart Hashmap
-		for (String key : this.multipartFileData.keySet()) {
-			
-			String fileName = this.multipartFileData.get(key).getName();
-			
-	        writer.append(TWO_DASHES + BOUNDARY).append(LINE_FEED);
-            final String contentDisposition = "Content-Disposition: form-data; name=\"" + key + "\"; filename=\"" + fileName + "\"";
-	        writer.append(contentDisposition).append(LINE_FEED);
-            final String contentType = "\"Content-Type: \" + URLConnection.guessContentTypeFromName(fileName)";
-	        writer.append(contentType).append(LINE_FEED);
-	        writer.append("Content-Transfer-Encoding: binary").append(LINE_FEED);
-	        writer.append(LINE_FEED);
-	        writer.flush();
-	 
-	        FileInputStream inputStream = new FileInputStream(this.multipartFileData.get(key));
-	        byte[] buffer = new byte[4096];
-	        int bytesRead;
-	        while ((bytesRead = inputStream.read(buffer)) != -1) {
-	            outputStream.write(buffer, 0, bytesRead);
-	        }
-	        outputStream.flush();
-	        inputStream.close();
-	         
-	        writer.append(LINE_FEED);
-	        writer.flush();
-			
-		}
-		
-		// Closing signature
-		writer.append(LINE_FEED).flush();
-        writer.append(TWO_DASHES + BOUNDARY + TWO_DASHES).append(LINE_FEED);
-        writer.flush();
-        writer.close();
-        
-        // Close the entire output stream
-		outputStream.writeBytes(this.payload.toString());
-		outputStream.flush();
-		outputStream.close();
+        PLog.fine("Writing multipart request.");
+
+        PMultipartEncoder encoder = new PMultipartEncoder();
+        encoder.addFields(this.payload);
+        for (String key : this.multipartTextualData.keySet()) {
+            encoder.addField(key, this.multipartTextualData.get(key));
+        }
+        for (String key : this.multipartFileData.keySet()) {
+            encoder.addFile(key, this.multipartFileData.get(key));
+        }
+
+        this.connection.setFixedLengthStreamingMode(encoder.getContentLength());
+        OutputStream outputStream = new BufferedOutputStream(this.connection.getOutputStream(), 16 * 1024);
+        encoder.writeTo(outputStream);
+        outputStream.close();
 	}
 	
 }
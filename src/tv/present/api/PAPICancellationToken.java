@@ -0,0 +1,77 @@
+package tv.present.api;
+
+import tv.present.util.PLogger;
+
+import java.net.HttpURLConnection;
+
+/**
+ * Present API Cancellation Token
+ * October 19, 2026
+ *
+ * Lets one thread abandon a request another thread is making.  Hand the token to PAPIBridge.setCancellationToken()
+ * (or to a PAPIInteraction method that takes one); cancel() then disconnects the request's connection, so a request
+ * blocked on the network fails straight away instead of running to completion, and a request not yet started never
+ * connects.  A cancelled request's makeRequest() returns null.
+ *
+ * A token is single use: once cancelled it stays cancelled.
+ */
+public final class PAPICancellationToken {
+
+    private static final String TAG = "tv.present.api.PAPICancellationToken";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    // Guarded by this.
+    private boolean cancelled = false;
+    private HttpURLConnection connection = null;
+
+    /**
+     * Cancels the request, disconnecting it if it is in flight.  Does nothing if it is already cancelled.
+     */
+    public void cancel() {
+        final HttpURLConnection inFlight;
+        synchronized (this) {
+            if (this.cancelled) {
+                return;
+            }
+            this.cancelled = true;
+            inFlight = this.connection;
+            this.connection = null;
+        }
+        if (inFlight != null) {
+            PLog.fine("cancel() -> Disconnecting {0}", inFlight.getURL());
+            inFlight.disconnect();
+        }
+    }
+
+    /**
+     * Checks whether the token has been cancelled.
+     * @return true if cancel() has been called, false otherwise.
+     */
+    public synchronized boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Ties a connection to the token, for the length of a request.
+     * @param connection is the HttpURLConnection about to be used.
+     * @return true if the request may go ahead, false if the token is already cancelled.
+     */
+    synchronized boolean attach(final HttpURLConnection connection) {
+        if (this.cancelled) {
+            return false;
+        }
+        this.connection = connection;
+        return true;
+    }
+
+    /**
+     * Unties a connection from the token once its request is over.
+     * @param connection is the HttpURLConnection that was attached.
+     */
+    synchronized void detach(final HttpURLConnection connection) {
+        if (this.connection == connection) {
+            this.connection = null;
+        }
+    }
+
+}
@@ -0,0 +1,386 @@
+package tv.present.api;
+
+import org.json.JSONObject;
+import tv.present.cache.PMediaPrefetcher;
+import tv.present.cache.PModelCache;
+import tv.present.cache.POfflineStore;
+import tv.present.cache.PUserPrefixIndex;
+import tv.present.factories.PObjectFactory;
+import tv.present.managers.PActivitySyncManager;
+import tv.present.managers.PRecordingSessionManager;
+import tv.present.managers.PUserContextManager;
+import tv.present.models.PUserContext;
+import tv.present.util.PExecutors;
+import tv.present.util.PLogger;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Present API Client
+ * October 19, 2026
+ *
+ * The one object an application needs to talk to the API.  It is built once with a Builder and never changes, so a
+ * single client can be shared by any number of threads.  It holds everything requests share:
+ *
+ *   - the transport settings (base URL and timeouts) every PAPIBridge it hands out is configured with,
+ *   - the PModelCache and POfflineStore that lookups and feeds go through,
+ *   - the PUserPrefixIndex that typeahead matches against, and the PMediaPrefetcher that feeds hand their pages to,
+ *   - the ExecutorService that background work (refreshes and lookahead) runs on,
+ *   - the PAPIMetrics that every request is counted in,
+ *   - a single PAPIInteraction, and the PObjectFactory it decodes with.
+ *
+ * Recording sessions, activity sync managers and user context managers are made from the client so that they share the same settings.
+ */
+public final class PAPIClient {
+
+    private static final String TAG = "tv.present.api.PAPIClient";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    private static volatile PAPIClient defaultClient = null;
+
+    private final String baseURL;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final PModelCache modelCache;
+    private final POfflineStore offlineStore;
+    private final PUserPrefixIndex userPrefixIndex;
+    private final PMediaPrefetcher mediaPrefetcher;
+    private final ExecutorService executor;
+    private final PAPIMetrics metrics;
+    private final PAPIInteraction interaction;
+
+    /**
+     * Gets the client used wherever none is given (ie: by new PAPIInteraction()).
+     * @return the installed PAPIClient, or one built with the defaults if none has been installed.
+     */
+    public static PAPIClient getDefault() {
+        PAPIClient client = defaultClient;
+        if (client == null) {
+            synchronized (PAPIClient.class) {
+                client = defaultClient;
+                if (client == null) {
+                    client = builder().build();
+                    defaultClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Installs the client used wherever none is given.
+     * @param client is the PAPIClient to use, or null to go back to one built with the defaults.
+     */
+    @SuppressWarnings("unused")
+    public static void setDefault(final PAPIClient client) {
+        defaultClient = client;
+    }
+
+    /**
+     * Starts building a client.
+     * @return a new Builder with every setting at its default.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private PAPIClient(final Builder builder) {
+        this.baseURL = builder.baseURL;
+        this.connectTimeoutMillis = builder.connectTimeoutMillis;
+        this.readTimeoutMillis = builder.readTimeoutMillis;
+        this.modelCache = builder.modelCacheSet ? builder.modelCache : PModelCache.getDefault();
+        this.offlineStore = builder.offlineStore;
+        this.userPrefixIndex = builder.userPrefixIndexSet ? builder.userPrefixIndex : PUserPrefixIndex.getDefault();
+        this.mediaPrefetcher = builder.mediaPrefetcherSet ? builder.mediaPrefetcher : PMediaPrefetcher.getDefault();
+        this.executor = (builder.executor != null) ? builder.executor : PExecutors.getIOExecutor();
+        this.metrics = (builder.metrics != null) ? builder.metrics : new PAPIMetrics();
+        // Last, so that every component the interaction takes from this client is already set.
+        this.interaction = new PAPIInteraction(this);
+        PLog.fine("Built a PAPIClient for {0}", this.baseURL);
+    }
+
+    /* #################### COMPONENTS #################### */
+
+    /**
+     * Gets the client's PAPIInteraction, which every API operation hangs off.
+     * @return the PAPIInteraction, shared by every caller.
+     */
+    public PAPIInteraction interaction() {
+        return this.interaction;
+    }
+
+    /**
+     * Starts a recording session that makes its requests through this client.
+     * @param userContext is the PUserContext to record as.
+     * @return a new PRecordingSessionManager.
+     */
+    @SuppressWarnings("unused")
+    public PRecordingSessionManager newRecordingSession(final PUserContext userContext) {
+        return new PRecordingSessionManager(this, userContext);
+    }
+
+    /**
+     * Makes an activity sync manager that makes its requests through this client.
+     * @param userContext is the PUserContext whose activities to follow.
+     * @return a new PActivitySyncManager (not yet started).
+     */
+    @SuppressWarnings("unused")
+    public PActivitySyncManager newActivitySync(final PUserContext userContext) {
+        return new PActivitySyncManager(this, userContext);
+    }
+
+    /**
+     * Makes a manager that keeps accounts signed in through this client.
+     * @return a new PUserContextManager with no accounts.
+     */
+    @SuppressWarnings("unused")
+    public PUserContextManager newUserContextManager() {
+        return new PUserContextManager(this);
+    }
+
+    /**
+     * Gets the factory that responses are decoded with, which looks up unembedded users through this client.
+     * @return the PObjectFactory, shared by every caller.
+     */
+    public PObjectFactory getObjectFactory() {
+        return this.interaction.getObjectFactory();
+    }
+
+    /**
+     * Gets the model cache that lookups go through.
+     * @return the PModelCache, or null if lookups always go to the network.
+     */
+    public PModelCache getModelCache() {
+        return this.modelCache;
+    }
+
+    /**
+     * Gets the offline store that first pages of feeds are saved to and served from.
+     * @return the POfflineStore, or null if there is none.
+     */
+    public POfflineStore getOfflineStore() {
+        return this.offlineStore;
+    }
+
+    /**
+     * Gets the index that users seen by this client are filed in for typeahead.
+     * @return the PUserPrefixIndex, or null if typeahead always goes to the network.
+     */
+    public PUserPrefixIndex getUserPrefixIndex() {
+        return this.userPrefixIndex;
+    }
+
+    /**
+     * Gets the prefetcher that feed methods hand their decoded pages to.
+     * @return the PMediaPrefetcher given to the builder, or else the PMediaPrefetcher.getDefault() installed when the
+     *         client was built; null if there is none.
+     */
+    public PMediaPrefetcher getMediaPrefetcher() {
+        return this.mediaPrefetcher;
+    }
+
+    /**
+     * Gets the executor that background network work runs on.
+     * @return the ExecutorService.
+     */
+    public ExecutorService getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Gets the counters of the requests made through this client.
+     * @return the PAPIMetrics.
+     */
+    @SuppressWarnings("unused")
+    public PAPIMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Gets the base URL that routes are resolved against.
+     * @return the base URL as a String.
+     */
+    @SuppressWarnings("unused")
+    public String getBaseURL() {
+        return this.baseURL;
+    }
+
+    /* #################### TRANSPORT #################### */
+
+    /**
+     * Makes a PAPIBridge configured with this client's transport settings and metrics.
+     * @param requestMethod is the HTTPRequestMethod to use when making the request (ie: GET, POST, POST_MULTIPART).
+     * @param route is route that the call should be made to as a String.
+     * @return the PAPIBridge.
+     */
+    public PAPIBridge newBridge(final PAPIBridge.HTTPRequestMethod requestMethod, final String route) {
+        return this.configure(new PAPIBridge(requestMethod, route));
+    }
+
+    /**
+     * Makes a PAPIBridge configured with this client's transport settings and metrics.
+     * @param requestMethod is the HTTPRequestMethod to use when making the request (ie: GET, POST, POST_MULTIPART).
+     * @param route is route that the call should be made to as a String.
+     * @param userContext is a UserContext that should be used when making the request.
+     * @return the PAPIBridge.
+     */
+    public PAPIBridge newBridge(final PAPIBridge.HTTPRequestMethod requestMethod, final String route, final PUserContext userContext) {
+        return this.configure(new PAPIBridge(requestMethod, route, userContext));
+    }
+
+    /**
+     * Makes a PAPIBridge configured with this client's transport settings and metrics.
+     * @param requestMethod is the HTTPRequestMethod to use when making the request (ie: GET, POST, POST_MULTIPART).
+     * @param route is route that the call should be made to as a String.
+     * @param userContext is a UserContext that should be used when making the request.
+     * @param payload is a JSONObject that contains key-value pairs of data to submit with the request.
+     * @return the PAPIBridge.
+     */
+    public PAPIBridge newBridge(final PAPIBridge.HTTPRequestMethod requestMethod, final String route, final PUserContext userContext, final JSONObject payload) {
+        return this.configure(new PAPIBridge(requestMethod, route, userContext, payload));
+    }
+
+    /**
+     * Makes a PAPIBridge configured with this client's transport settings and metrics.
+     * @param requestMethod is the HTTPRequestMethod to use when making the request (ie: GET, POST, POST_MULTIPART).
+     * @param route is route that the call should be made to as a String.
+     * @param payload is a JSONObject that contains key-value pairs of data to submit with the request.
+     * @return the PAPIBridge.
+     */
+    public PAPIBridge newBridge(final PAPIBridge.HTTPRequestMethod requestMethod, final String route, final JSONObject payload) {
+        return this.configure(new PAPIBridge(requestMethod, route, payload));
+    }
+
+    private PAPIBridge configure(final PAPIBridge bridge) {
+        bridge.configure(this.baseURL, this.connectTimeoutMillis, this.readTimeoutMillis, this.metrics);
+        return bridge;
+    }
+
+    /**
+     * Collects the settings for a PAPIClient.  Not thread safe; build the client once and share that instead.
+     */
+    public static final class Builder {
+
+        private String baseURL = PAPIBridge.DEFAULT_API_BASE_URL;
+        private int connectTimeoutMillis = 0;
+        private int readTimeoutMillis = 0;
+        private PModelCache modelCache = null;
+        private boolean modelCacheSet = false;
+        private POfflineStore offlineStore = null;
+        private PUserPrefixIndex userPrefixIndex = null;
+        private boolean userPrefixIndexSet = false;
+        private PMediaPrefetcher mediaPrefetcher = null;
+        private boolean mediaPrefetcherSet = false;
+        private ExecutorService executor = null;
+        private PAPIMetrics metrics = null;
+
+        private Builder() {
+            /* use PAPIClient.builder() */
+        }
+
+        /**
+         * Sets the base URL that routes are resolved against.
+         * @param baseURL is the base URL as a String, ending in a slash (default PAPIBridge.DEFAULT_API_BASE_URL).
+         * @return this Builder.
+         */
+        public Builder baseURL(final String baseURL) {
+            this.baseURL = baseURL;
+            return this;
+        }
+
+        /**
+         * Sets how long to wait for a connection.
+         * @param connectTimeoutMillis is the timeout in milliseconds (default 0, the platform's default).
+         * @return this Builder.
+         */
+        public Builder connectTimeoutMillis(final int connectTimeoutMillis) {
+            this.connectTimeoutMillis = Math.max(0, connectTimeoutMillis);
+            return this;
+        }
+
+        /**
+         * Sets how long to wait for a response to arrive.
+         * @param readTimeoutMillis is the timeout in milliseconds (default 0, the platform's default).
+         * @return this Builder.
+         */
+        public Builder readTimeoutMillis(final int readTimeoutMillis) {
+            this.readTimeoutMillis = Math.max(0, readTimeoutMillis);
+            return this;
+        }
+
+        /**
+         * Sets the model cache that lookups go through.
+         * @param modelCache is the PModelCache, or null to always go to the network (default PModelCache.getDefault()).
+         * @return this Builder.
+         */
+        public Builder modelCache(final PModelCache modelCache) {
+            this.modelCache = modelCache;
+            this.modelCacheSet = true;
+            return this;
+        }
+
+        /**
+         * Sets the offline store that first pages of feeds are saved to and served from.
+         * @param offlineStore is the POfflineStore, or null for none (the default).
+         * @return this Builder.
+         */
+        public Builder offlineStore(final POfflineStore offlineStore) {
+            this.offlineStore = offlineStore;
+            return this;
+        }
+
+        /**
+         * Sets the index that users seen by the client are filed in for typeahead.
+         * @param userPrefixIndex is the PUserPrefixIndex, or null to always search the network (default
+         *                        PUserPrefixIndex.getDefault()).
+         * @return this Builder.
+         */
+        public Builder userPrefixIndex(final PUserPrefixIndex userPrefixIndex) {
+            this.userPrefixIndex = userPrefixIndex;
+            this.userPrefixIndexSet = true;
+            return this;
+        }
+
+        /**
+         * Sets the prefetcher that feed methods hand their decoded pages to.
+         * @param mediaPrefetcher is the PMediaPrefetcher, or null for none (default whichever PMediaPrefetcher.getDefault()
+         *                        is installed when the client is built).
+         * @return this Builder.
+         */
+        public Builder mediaPrefetcher(final PMediaPrefetcher mediaPrefetcher) {
+            this.mediaPrefetcher = mediaPrefetcher;
+            this.mediaPrefetcherSet = true;
+            return this;
+        }
+
+        /**
+         * Sets the executor that background network work runs on.  The caller stays responsible for shutting it down.
+         * @param executor is the ExecutorService, or null for PExecutors.getIOExecutor() (the default).
+         * @return this Builder.
+         */
+        public Builder executor(final ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the counters that requests are recorded in (ie: to share them between clients).
+         * @param metrics is the PAPIMetrics, or null for a new one (the default).
+         * @return this Builder.
+         */
+        public Builder metrics(final PAPIMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Builds the client.
+         * @return the PAPIClient.
+         */
+        public PAPIClient build() {
+            return new PAPIClient(this);
+        }
+
+    }
+
+}
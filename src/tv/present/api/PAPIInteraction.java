@@ -1,15 +1,36 @@
 package tv.present.api;
 
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import tv.present.cache.PCacheLoader;
+import tv.present.cache.PMediaPrefetcher;
+import tv.present.cache.PModelCache;
+import tv.present.cache.PUserPrefixIndex;
+import tv.present.cache.POfflineStore;
 import tv.present.enumerations.PGender;
+import tv.present.enumerations.SubjectiveMetaDirection;
+import tv.present.factories.PObjectBinder;
 import tv.present.factories.PObjectFactory;
 import tv.present.models.*;
+import tv.present.util.PBulkExecutor;
+import tv.present.util.PBulkResult;
+import tv.present.util.PLogger;
+import tv.present.util.POffsetPageFetcher;
+import tv.present.util.PPageFanOut;
+import tv.present.util.PPageFetcher;
+import tv.present.util.PPagedPublisher;
+import tv.present.util.PPagedResults;
 import tv.present.util.PUtilities;
 import tv.present.util.PResultSet;
 
 import java.util.ArrayList;
-import java.util.logging.Logger;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
 
 /**
  * Created by kbw28 on 6/5/14.
@@ -17,7 +38,75 @@ import java.util.logging.Logger;
 public class PAPIInteraction {
 
     private final String TAG = "tv.present.api.PAPIInteractionManager";
-    private final Logger PLog = Logger.getLogger(TAG);
+    private final PLogger PLog = PLogger.getLogger(TAG);
+
+    private static final String ACTIVITIES_PAGE = "activities:";
+    private static final String HOME_VIDEOS_PAGE = "home_videos:";
+
+    private final PAPIClient client;
+    private final PModelCache modelCache;
+    private final POfflineStore offlineStore;
+    private final PUserPrefixIndex userPrefixIndex;
+    private final PObjectFactory objectFactory;
+    private final PObjectBinder objectBinder;
+
+    /**
+     * Constructs a PAPIInteraction that makes its requests through the default PAPIClient.  Prefer sharing
+     * PAPIClient.interaction() over constructing these.
+     */
+    public PAPIInteraction() {
+        this(PAPIClient.getDefault());
+    }
+
+    /**
+     * Constructs a PAPIInteraction without an offline store (see PAPIInteraction(PModelCache, POfflineStore)).
+     * @param modelCache is the PModelCache for user and video lookups, or null to always go to the network.
+     */
+    public PAPIInteraction(final PModelCache modelCache) {
+        this(modelCache, null);
+    }
+
+    /**
+     * Constructs a PAPIInteraction with a client of its own, built with the default settings and these components.
+     * getClient().interaction() is a second PAPIInteraction sharing the same components, so managers made from that
+     * client see the same cache and store as this one.
+     * @param modelCache is the PModelCache for user and video lookups, or null to always go to the network.
+     * @param offlineStore is the POfflineStore that first pages of feeds are saved to and served from, or null.
+     */
+    public PAPIInteraction(final PModelCache modelCache, final POfflineStore offlineStore) {
+        this(PAPIClient.builder().modelCache(modelCache).offlineStore(offlineStore).build());
+    }
+
+    /**
+     * Constructs a PAPIInteraction that makes its requests through a client and shares its components.  Holds no state
+     * of its own besides them, so it is safe to share across threads.
+     * @param client is the PAPIClient to use.
+     */
+    public PAPIInteraction(final PAPIClient client) {
+        this.client = client;
+        this.modelCache = client.getModelCache();
+        this.offlineStore = client.getOfflineStore();
+        this.userPrefixIndex = client.getUserPrefixIndex();
+        this.objectFactory = new PObjectFactory(this);
+        this.objectBinder = new PObjectBinder(this);
+    }
+
+    /**
+     * Gets the client this PAPIInteraction makes its requests through.
+     * @return the PAPIClient.
+     */
+    @SuppressWarnings("unused")
+    public PAPIClient getClient() {
+        return this.client;
+    }
+
+    /**
+     * Gets the factory this PAPIInteraction decodes responses with.
+     * @return the PObjectFactory.
+     */
+    PObjectFactory getObjectFactory() {
+        return this.objectFactory;
+    }
 
     /* ########## DEMANDS ########## */
 
@@ -33,6 +122,20 @@ public class PAPIInteraction {
      * 			response, null otherwise.
      */
     public ArrayList<PDemand> listUserForwardDemands(String userID, String username, Integer limit, Integer cursor) {
+        return this.listUserForwardDemands(userID, username, limit, cursor, null);
+    }
+
+    /**
+     * Lists demands that a user has made to other users, in a way another thread can abandon.
+     * @param userID is the String value of the user ID.
+     * @param username is the String value of the username.
+     * @param limit is an Integer value.
+     * @param cursor is an Integer value.
+     * @param cancellationToken is a PAPICancellationToken that can abandon the request, or null.
+     * @return 	an ArrayList of PDemand objects for the user on a successful
+     * 			response, null otherwise (including when cancelled).
+     */
+    private ArrayList<PDemand> listUserForwardDemands(String userID, String username, Integer limit, Integer cursor, PAPICancellationToken cancellationToken) {
 
         if (limit == null) { limit = 20; }
         if (cursor == null) { cursor = 0; }
@@ -40,24 +143,25 @@ public class PAPIInteraction {
         PAPIBridge connector;
 
         if (userID != null) {
-            connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "demands/list_user_forward_demands?user_id=" + userID + "&limit=" + limit.toString() + "&cursor=" + cursor.toString());
+            connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "demands/list_user_forward_demands?user_id=" + userID + "&limit=" + limit.toString() + "&cursor=" + cursor.toString());
         }
         else if (username != null) {
-            connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "demands/list_user_forward_demands?username=" + username + "&limit=" + limit.toString() + "&cursor=" + cursor.toString());
+            connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "demands/list_user_forward_demands?username=" + username + "&limit=" + limit.toString() + "&cursor=" + cursor.toString());
         }
         else {
             return null;
         }
 
+        connector.setCancellationToken(cancellationToken);
         JSONObject response = connector.makeRequest();
 
         // Continue only if there is a non-failing result code
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
 
             JSONArray resultsJSON = response.getJSONArray("results");
             ArrayList<PDemand> product = new ArrayList<PDemand>();
 
-            final PObjectFactory pObjectFactory = new PObjectFactory();
+            final PObjectFactory pObjectFactory = this.objectFactory;
             // Loop through the JSON user objects and create Java objects
             for (int i = 0; i < resultsJSON.length(); i++) {
                 JSONObject demandRootJSON = resultsJSON.getJSONObject(i);
@@ -68,12 +172,34 @@ public class PAPIInteraction {
 
         }
         else {
-            PLog.warning("Error in request from PDemand->listUserForwardDemands() -- Response is: " + response.toString());
+            PLog.warning("Error in request from PDemand->listUserForwardDemands() -- Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("Error in request from PDemand->listUserForwardDemands() -- Response is: {0}", response);
             return null;
         }
 
     }
 
+    /**
+     * Lists up to maxResults demands that a user has made, fetching several pages at the same time.  Either userID or
+     * username must be non-null.
+     * @param userID is the String value of the user ID.
+     * @param username is the String value of the username.
+     * @param maxResults is the maximum number of demands wanted.
+     * @return an ArrayList of PDemand objects in list order without duplicates.
+     */
+    @SuppressWarnings("unused")
+    public ArrayList<PDemand> listAllUserForwardDemands(final String userID, final String username, final int maxResults) {
+        if (userID == null && username == null) {
+            return null;
+        }
+        return PPageFanOut.fetchAll(new POffsetPageFetcher<PDemand>() {
+            @Override
+            public ArrayList<PDemand> fetchPage(int offset, int limit, PAPICancellationToken cancellationToken) {
+                return PAPIInteraction.this.listUserForwardDemands(userID, username, limit, offset, cancellationToken);
+            }
+        }, maxResults, PPageFanOut.DEFAULT_PAGE_SIZE, PPageFanOut.DEFAULT_PARALLELISM, this.client.getExecutor());
+    }
+
     /**
      * Makes a demand for a user.
      * @param userContext is the UserContext from which to make the demand from.
@@ -81,8 +207,16 @@ public class PAPIInteraction {
      * @return true if the demand was created successfully, false otherwise
      */
     public boolean makeDemand(PUserContext userContext, String username) {
+        return this.makeDemand(userContext, username, null);
+    }
 
-        PLog.info("User " + userContext.getUserID() + " is trying to demand " + username);
+    /**
+     * Makes a demand for a user (see makeDemand(PUserContext, String)).
+     * @param responseCode is an int[1] to put the status of a refused request in, or null.
+     */
+    private boolean makeDemand(PUserContext userContext, String username, int[] responseCode) {
+
+        PLog.fine("User {0} is trying to demand {1}", userContext.getUserID(), username);
 
         // Create the JSONObject to pass the parameters to the request and then eventually
         // store the response parameters.
@@ -91,19 +225,29 @@ public class PAPIInteraction {
         // Add data to the request bundle
         requestBundle.put("username", username);
 
+        // Show the demand straight away; it is undone below if the API refuses it
+        Runnable rollback = this.patchDemand(userContext, username, true);
+
         // Create a connection, pass the data, and get a response string
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "demands/create", userContext, requestBundle);
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "demands/create", userContext, requestBundle);
         JSONObject response = connector.makeRequest();
 
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
-            PLog.info("makeDemand() --> Response: " + response.toString());
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+            PLog.payload("makeDemand() --> Response: {0}", response);
+            this.removeStoredPage(HOME_VIDEOS_PAGE + userContext.getUserID());
             return true;
         }
 
         // Return null if we are unable to get a context
         else {
-            PLog.info("makeDemand() --> Unable to make demand");
+            PLog.warning("makeDemand() --> Unable to make demand");
+            if (responseCode != null) {
+                responseCode[0] = connector.getResponseCode();
+            }
+            if (rollback != null) {
+                rollback.run();
+            }
             return false;
         }
     }
@@ -115,8 +259,16 @@ public class PAPIInteraction {
      * @return true if the demand was removed successfully, false otherwise
      */
     public boolean removeDemand(PUserContext userContext, String username) {
+        return this.removeDemand(userContext, username, null);
+    }
+
+    /**
+     * Removes a demand for a user (see removeDemand(PUserContext, String)).
+     * @param responseCode is an int[1] to put the status of a refused request in, or null.
+     */
+    private boolean removeDemand(PUserContext userContext, String username, int[] responseCode) {
 
-        PLog.info("User " + userContext.getUserID() + " is trying to remove demand from " + username);
+        PLog.fine("User {0} is trying to remove demand from {1}", userContext.getUserID(), username);
 
         // Create the JSONObject to pass the parameters to the request and then eventually
         // store the response parameters.
@@ -125,19 +277,30 @@ public class PAPIInteraction {
         // Add data to the request bundle
         requestBundle.put("username", username);
 
+        // Show the demand as gone straight away; it is undone below if the API refuses it
+        Runnable rollback = this.patchDemand(userContext, username, false);
+
         // Create a connection, pass the data, and get a response string
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "demands/destroy", userContext, requestBundle);
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "demands/destroy", userContext, requestBundle);
         JSONObject response = connector.makeRequest();
 
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
-            PLog.info("removeDemand() --> Response: " + response.toString());
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+            PLog.payload("removeDemand() --> Response: {0}", response);
+            this.removeStoredPage(HOME_VIDEOS_PAGE + userContext.getUserID());
             return true;
         }
 
         // Return null if we are unable to get a context
         else {
-            PLog.info("removeDemand() --> Unable to remove demand.  Response: " + response.toString());
+            PLog.warning("removeDemand() --> Unable to remove demand.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("removeDemand() --> Unable to remove demand.  Response: {0}", response);
+            if (responseCode != null) {
+                responseCode[0] = connector.getResponseCode();
+            }
+            if (rollback != null) {
+                rollback.run();
+            }
             return false;
         }
     }
@@ -159,19 +322,20 @@ public class PAPIInteraction {
         requestBundle.put("password", password);
         requestBundle.put("email", emailAddress);
 
-        connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "users/create", requestBundle);
+        connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "users/create", requestBundle);
         JSONObject response = connector.makeRequest();
 
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
-            PObjectFactory pObjectFactory = new PObjectFactory();
-            PLog.info("add() -> Response from server: " + response.toString());
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+            PObjectFactory pObjectFactory = this.objectFactory;
+            PLog.payload("add() -> Response from server: {0}", response);
             return pObjectFactory.constructUserFromJSON(response.getJSONObject("result"));
         }
 
         // Return null if we are unable to get a context
         else {
-            PLog.severe("add() -> Error getting context.  Response is: " + response.toString());
+            PLog.severe("add() -> Error getting context.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("add() -> Error getting context.  Response is: {0}", response);
             return null;
         }
 
@@ -183,17 +347,18 @@ public class PAPIInteraction {
     public void destroyUser(PUserContext PUserContext) {
 
         JSONObject garbage = new JSONObject();
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "users/destroy", PUserContext, garbage);
-        JSONObject response = new JSONObject(connector.makeRequest());
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "users/destroy", PUserContext, garbage);
+        JSONObject response = connector.makeRequest();
 
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
-            PLog.info("destroyAccount() -> Success.  Result is: " + response.toString());
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+            PLog.payload("destroyAccount() -> Success.  Result is: {0}", response);
         }
 
         // Return null if we are unable to get a context
         else {
-            PLog.severe("destroyAccount -> Error destroying account.  Result is: " + response.toString());
+            PLog.severe("destroyAccount -> Error destroying account.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("destroyAccount -> Error destroying account.  Result is: {0}", response);
         }
 
     }
@@ -205,20 +370,23 @@ public class PAPIInteraction {
      */
     public PUser getMyself(PUserContext PUserContext) {
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "users/show_me", PUserContext);
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "users/show_me", PUserContext);
         JSONObject response = connector.makeRequest();
 
         // Continue only if there is a non-failing result code
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
 
             JSONObject resultJSON = response.getJSONObject("result");
-            PObjectFactory pObjectFactory = new PObjectFactory();
-            return pObjectFactory.constructUserFromJSON(resultJSON);
+            PObjectFactory pObjectFactory = this.objectFactory;
+            PUser user = pObjectFactory.constructUserFromJSON(resultJSON);
+            this.indexUser(user);
+            return user;
 
         }
         else {
             // Log the error to somewhere
-            PLog.severe("getMe() -> Error.  Response is: " + response.toString());
+            PLog.severe("getMe() -> Error.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("getMe() -> Error.  Response is: {0}", response);
             return null;
         }
     }
@@ -256,29 +424,23 @@ public class PAPIInteraction {
      */
     private ArrayList<PUser> getUserList(String resource, int limit) {
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "users/" + resource + "?limit=" + limit);
-        JSONObject response = connector.makeRequest();
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "users/" + resource + "?limit=" + limit);
+        String response = connector.makeRawRequest();
 
         // Continue only if there is a non-failing result code
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
-
-            JSONArray resultsJSON = response.getJSONArray("results");
-            ArrayList<PUser> product = new ArrayList<PUser>();
-            PObjectFactory pObjectFactory = new PObjectFactory();
+        if (response != null) {
 
-            // Loop through the JSON user objects and create Java objects
-            for (int i = 0; i < resultsJSON.length(); i++) {
-                JSONObject userRootJSON = resultsJSON.getJSONObject(i);
-                product.add(pObjectFactory.constructUserFromJSON(userRootJSON));
-            }
+            // Users carry nothing to decode lazily, so the page is bound straight from the response text
+            ArrayList<PUser> product = this.objectBinder.bindUserResults(response).getResults();
+            this.prefetchUserMedia(product);
+            this.indexUsers(product);
 
             return product;
 
         }
         else {
             // Log the error to somewhere
-            PLog.severe("getUserList() -> Error.  Response is: " + response.toString());
-            System.out.println("Error from PUser->getUserList() -- response is: " + response.toString());
+            PLog.severe("getUserList() -> Error.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
             return null;
         }
 
@@ -294,10 +456,10 @@ public class PAPIInteraction {
 
         PAPIBridge connector;
         if(username != null) {
-            connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "users/show?username=" + username);
+            connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "users/show?username=" + username);
         }
         else if (id != null) {
-            connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "users/show?user_id=" + id);
+            connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "users/show?user_id=" + id);
         }
         else {
             return null;
@@ -306,14 +468,26 @@ public class PAPIInteraction {
         JSONObject response = connector.makeRequest();
 
         // Continue only if there is a non-failing result code
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
             JSONObject resultJSON = response.getJSONObject("result");
-            PObjectFactory pObjectFactory = new PObjectFactory();
-            return pObjectFactory.constructUserFromJSON(resultJSON);
+            PObjectFactory pObjectFactory = this.objectFactory;
+            PUser user = pObjectFactory.constructUserFromJSON(resultJSON);
+            this.indexUser(user);
+            return user;
         }
         else {
+            // Remember names and IDs that do not exist, so asking again does not cost a round trip
+            if (this.modelCache != null && connector.isDefinitiveFailure()) {
+                if (username != null) {
+                    this.modelCache.markUsernameMissing(username);
+                }
+                else {
+                    this.modelCache.markUserMissing(id);
+                }
+            }
             // Log the error to somewhere
-            PLog.severe("showUser() -> Error.  Response is: " + response.toString());
+            PLog.severe("showUser() -> Error.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("showUser() -> Error.  Response is: {0}", response);
             return null;
         }
 
@@ -325,7 +499,29 @@ public class PAPIInteraction {
      * @return a PUser object that corresponds to that user ID.
      */
     public PUser getUserByID(String id) {
-        return this.getUser(null, id);
+        if (this.modelCache == null) {
+            return this.getUser(null, id);
+        }
+        return this.modelCache.getUserByID(id, new PCacheLoader<String, PUser>() {
+            @Override
+            public PUser load(String key) {
+                return PAPIInteraction.this.getUser(null, key);
+            }
+        });
+    }
+
+    /**
+     * Gets the user who created a video, fetching it if the video only carries the creator's ID and the user is not
+     * cached.  Once fetched the user is cached, so the video's own getCreatorUser() finds it from then on.
+     * @param video is the PVideo whose creator to get.
+     * @return the PUser who created the video, or null if there is none or it could not be fetched.
+     */
+    public PUser loadCreatorUser(PVideo video) {
+        final PUser creatorUser = video.getCreatorUser();
+        if (creatorUser != null || video.getCreatorUserID() == null) {
+            return creatorUser;
+        }
+        return this.getUserByID(video.getCreatorUserID());
     }
 
     /**
@@ -334,7 +530,65 @@ public class PAPIInteraction {
      * @return a PUser object that corresponds to that username.
      */
     public PUser getUserByUsername(String username) {
-        return this.getUser(username, null);
+        if (this.modelCache == null) {
+            return this.getUser(username, null);
+        }
+        return this.modelCache.getUserByUsername(username, new PCacheLoader<String, PUser>() {
+            @Override
+            public PUser load(String key) {
+                return PAPIInteraction.this.getUser(key, null);
+            }
+        });
+    }
+
+    /**
+     * Gets a user by their ID as a signed in user sees them: the forward demand flag is the one recorded on the context
+     * for demands made or removed through it, overlaid on a copy so the shared cached user is left as it is.
+     * @param userContext is the PUserContext to see the user as (null is valid, and returns the shared user).
+     * @param id is the user ID to query for as a String.
+     * @return a PUser object that corresponds to that ID.
+     */
+    public PUser getUserByID(PUserContext userContext, String id) {
+        return PAPIInteraction.forContext(userContext, this.getUserByID(id));
+    }
+
+    /**
+     * Gets a user by their username as a signed in user sees them (see getUserByID(PUserContext, String)).
+     * @param userContext is the PUserContext to see the user as (null is valid, and returns the shared user).
+     * @param username is the username to query for as a String.
+     * @return a PUser object that corresponds to that username.
+     */
+    public PUser getUserByUsername(PUserContext userContext, String username) {
+        return PAPIInteraction.forContext(userContext, this.getUserByUsername(username));
+    }
+
+    /**
+     * Overlays a context's demand flag on a user.
+     * @param userContext is the PUserContext whose flag to overlay, or null.
+     * @param user is the shared PUser, or null.
+     * @return user itself if the context has no flag for them, or else a copy carrying the context's flag.
+     */
+    private static PUser forContext(final PUserContext userContext, final PUser user) {
+
+        final Boolean demanded = (userContext == null || user == null) ? null : userContext.getDemand(user.getUsername());
+        if (demanded == null) {
+            return user;
+        }
+
+        // The cached user is patched under its own lock (see patchDemand), so copy it under the same lock
+        synchronized (user) {
+            final PSubjectiveMeta shared = user.getSubjectiveMeta();
+            final PSubjectiveMeta subjectiveMeta = new PSubjectiveMeta();
+            if (shared != null) {
+                subjectiveMeta.setDemand(SubjectiveMetaDirection.Backward, shared.getDemand(SubjectiveMetaDirection.Backward));
+                subjectiveMeta.setFriendship(SubjectiveMetaDirection.Backward, shared.getFriendship(SubjectiveMetaDirection.Backward));
+                subjectiveMeta.setFriendship(SubjectiveMetaDirection.Forward, shared.getFriendship(SubjectiveMetaDirection.Forward));
+            }
+            subjectiveMeta.setDemand(SubjectiveMetaDirection.Forward, demanded);
+            return new PUser(user.getID(), subjectiveMeta, user.getCreationDate(), user.getLastUpdateDate(), user.getUsername(), user.getVanityUsername(), user.getEmailAddress(),
+                    user.getProfile(), user.getNumDemands(), user.getNumFollowers(), user.getNumFriends(), user.getNumLikes(), user.getNumVideos(), user.getNumViews());
+        }
+
     }
 
     /**
@@ -348,12 +602,12 @@ public class PAPIInteraction {
         JSONObject requestBundle = new JSONObject();
         requestBundle.put("email", emailAddress);
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "users/invite", PUserContext, requestBundle);;
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "users/invite", PUserContext, requestBundle);;
 
         JSONObject response = connector.makeRequest();
 
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
             String status = response.getString("status");
             String resultMessage = response.getJSONObject("result").getString("message");
             if(status.equals("OK")) {
@@ -366,7 +620,8 @@ public class PAPIInteraction {
 
         // Return null if we are unable do the invite
         else {
-            PLog.severe("invite() -> Error.  Response is: " + response.toString());
+            PLog.severe("invite() -> Error.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("invite() -> Error.  Response is: {0}", response);
             return false;
         }
 
@@ -382,13 +637,13 @@ public class PAPIInteraction {
         JSONObject requestBundle = new JSONObject();
         requestBundle.put("username", username);
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "users/request_password_reset", requestBundle);;
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "users/request_password_reset", requestBundle);;
 
         JSONObject response = connector.makeRequest();
 
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
-            PLog.info("requestPasswordReset() -> Result from server: " + response.toString());
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+            PLog.payload("requestPasswordReset() -> Result from server: {0}", response);
             String status = response.getString("status");
             String resultMessage = response.getJSONObject("result").getString("message");
             if(status.equals("OK")) {
@@ -402,7 +657,8 @@ public class PAPIInteraction {
 
         // Return null if we are unable to get a context
         else {
-            PLog.severe("requestPasswordReset() -> Error requesting password reset.  Result from server: " + response.toString());
+            PLog.severe("requestPasswordReset() -> Error requesting password reset.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("requestPasswordReset() -> Error requesting password reset.  Result from server: {0}", response);
             return false;
         }
 
@@ -419,11 +675,12 @@ public class PAPIInteraction {
      * @param username is the String query to search for.
      * @param limit is the Integer value to limit the results to.
      * @param cursor is the Integer value to start the results cursor at.
+     * @param cancellationToken is a PAPICancellationToken that can abandon the request, or null.
      * @return 	an empty ArrayList of PUser objects if there are no results,
-     * 			null if there weren't enough parameters supplied, or there was
-     * 			an invalid search response.
+     * 			null if there weren't enough parameters supplied, there was
+     * 			an invalid search response, or the search was cancelled.
      */
-    private ArrayList<PUser> search(String query, String username, Integer limit, Integer cursor) {
+    private ArrayList<PUser> search(String query, String username, Integer limit, Integer cursor, PAPICancellationToken cancellationToken) {
 
         if (limit == null || limit <= 0) { limit = 20; }
         if (cursor == null || cursor < 0) { cursor = 0; }
@@ -431,35 +688,36 @@ public class PAPIInteraction {
         PAPIBridge connector;
 
         if (query != null) {
-            connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "users/search?query=" + query + "&limit=" + limit.toString() + "&cursor=" + cursor.toString());
+            connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "users/search?query=" + query + "&limit=" + limit.toString() + "&cursor=" + cursor.toString());
         }
         else if (username != null) {
-            connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "users/search?username=" + username + "&limit=" + limit.toString() + "&cursor=" + cursor.toString());
+            connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "users/search?username=" + username + "&limit=" + limit.toString() + "&cursor=" + cursor.toString());
         }
         else {
             return null;
         }
 
-        JSONObject response = connector.makeRequest();
+        connector.setCancellationToken(cancellationToken);
+        String response = connector.makeRawRequest();
+
+        // A cancelled search's results (if any came back) are not wanted
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            return null;
+        }
 
         // Continue only if there is a non-failing result code
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null) {
 
-            JSONArray resultsJSON = response.getJSONArray("results");
-            ArrayList<PUser> product = new ArrayList<PUser>();
-
-            // Loop through the JSON user objects and create Java objects
-            for (int i = 0; i < resultsJSON.length(); i++) {
-                JSONObject userRootJSON = resultsJSON.getJSONObject(i);
-                PObjectFactory pObjectFactory = new PObjectFactory();
-                product.add(pObjectFactory.constructUserFromJSON(userRootJSON));
-            }
+            // Users carry nothing to decode lazily, so the page is bound straight from the response text
+            ArrayList<PUser> product = this.objectBinder.bindUserResults(response).getResults();
+            this.prefetchUserMedia(product);
+            this.indexUsers(product);
 
             return product;
 
         }
         else {
-            PLog.severe("search() -> Error seraching.  Result from server: " + response.toString());
+            PLog.severe("search() -> Error seraching.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
             return null;
         }
 
@@ -475,7 +733,7 @@ public class PAPIInteraction {
      * 			an invalid search response.
      */
     public ArrayList<PUser> searchByQuery(String query, Integer limit, Integer cursor) {
-        return this.search(query, null, limit, cursor);
+        return this.search(query, null, limit, cursor, null);
     }
 
     /**
@@ -488,7 +746,81 @@ public class PAPIInteraction {
      * 			an invalid search response.
      */
     public ArrayList<PUser> searchByUsername(String username, Integer limit, Integer cursor) {
-        return this.search(null, username, limit, cursor);
+        return this.search(null, username, limit, cursor, null);
+    }
+
+    /**
+     * Searches for a user by a general query, in a way another thread can abandon (ie: when the query it was typed for
+     * has been superseded).
+     * @param query is the String query to search for.
+     * @param limit is the Integer value to limit the results to.
+     * @param cursor is the Integer value to start the results cursor at.
+     * @param cancellationToken is the PAPICancellationToken that can abandon the request.
+     * @return 	an empty ArrayList of PUser objects if there are no results,
+     * 			null if there was an invalid search response or the search was
+     * 			cancelled.
+     */
+    public ArrayList<PUser> searchByQuery(String query, Integer limit, Integer cursor, PAPICancellationToken cancellationToken) {
+        return this.search(query, null, limit, cursor, cancellationToken);
+    }
+
+    /**
+     * Finds users for a typeahead.  Users the client has seen are matched by prefix locally, and those still in the
+     * model cache are returned without a request; the API is only searched when that turns up fewer than limit of them.
+     * @param query is the String typed so far.
+     * @param limit is the most users wanted.
+     * @return an ArrayList of PUser objects, local matches first, without duplicates (empty if there are none).
+     */
+    @SuppressWarnings("unused")
+    public ArrayList<PUser> typeahead(String query, int limit) {
+
+        ArrayList<PUser> product = new ArrayList<PUser>();
+        if (this.userPrefixIndex != null && this.modelCache != null) {
+            for (PUserPrefixIndex.Entry entry : this.userPrefixIndex.search(query, limit)) {
+                PUser user = this.modelCache.getCachedUser(entry.getID());
+                if (user != null) {
+                    product.add(user);
+                }
+            }
+        }
+        if (product.size() >= limit || query == null || query.trim().isEmpty()) {
+            return product;
+        }
+
+        ArrayList<PUser> remote = this.search(query, null, limit, 0, null);
+        if (remote != null) {
+            HashSet<String> seen = new HashSet<String>();
+            for (PUser user : product) {
+                seen.add(user.getID());
+            }
+            for (PUser user : remote) {
+                if (product.size() >= limit) {
+                    break;
+                }
+                if (seen.add(user.getID())) {
+                    product.add(user);
+                }
+            }
+        }
+        return product;
+
+    }
+
+    /**
+     * Searches for users by a general query and returns up to maxResults of them, fetching several pages at the same
+     * time.
+     * @param query is the String query to search for.
+     * @param maxResults is the maximum number of users wanted.
+     * @return an ArrayList of PUser objects in result order without duplicates.
+     */
+    @SuppressWarnings("unused")
+    public ArrayList<PUser> searchAllByQuery(final String query, final int maxResults) {
+        return PPageFanOut.fetchAll(new POffsetPageFetcher<PUser>() {
+            @Override
+            public ArrayList<PUser> fetchPage(int offset, int limit, PAPICancellationToken cancellationToken) {
+                return PAPIInteraction.this.search(query, null, limit, offset, cancellationToken);
+            }
+        }, maxResults, PPageFanOut.DEFAULT_PAGE_SIZE, PPageFanOut.DEFAULT_PARALLELISM, this.client.getExecutor());
     }
 
 
@@ -530,19 +862,32 @@ public class PAPIInteraction {
             requestBundle.put("phone_number", phoneNumber);
         }
 
-        connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "users/update", PUserContext, requestBundle);
+        // Show the new details on the cached user straight away; they are undone below if the API refuses them
+        Runnable rollback = this.patchUserDetails(PUserContext.getUserID(), fullName, description, gender, website, emailAddress);
+
+        connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "users/update", PUserContext, requestBundle);
         JSONObject response = connector.makeRequest();
 
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
-            PObjectFactory pObjectFactory = new PObjectFactory();
-            PUserContext.setUser(pObjectFactory.constructUserFromJSON(response.getJSONObject("result")));
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+            PObjectFactory pObjectFactory = this.objectFactory;
+            PUser updated = pObjectFactory.constructUserFromJSON(response.getJSONObject("result"));
+            if (this.modelCache != null) {
+                this.modelCache.mergeUser(updated);
+            }
+            PUserContext.setUser(updated);
+            this.removeStoredPage(HOME_VIDEOS_PAGE + PUserContext.getUserID());
+            this.removeStoredPage(ACTIVITIES_PAGE + PUserContext.getUserID());
             return true;
         }
 
         // Return null if we are unable to get a context
         else {
-            PLog.severe("updateDetails() -> Error updating user.  Response was: " + response.toString());
+            PLog.severe("updateDetails() -> Error updating user.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("updateDetails() -> Error updating user.  Response was: {0}", response);
+            if (rollback != null) {
+                rollback.run();
+            }
             return false;
         }
 
@@ -551,33 +896,46 @@ public class PAPIInteraction {
     /* ########## USER ACTIVITIES ########## */
 
     public PResultSet<PUserActivity> getUserActivities(final PUserContext PUserContext, Integer limit, Integer cursor) {
+        return this.getUserActivities(PUserContext, limit, cursor, null);
+    }
+
+    /**
+     * Gets a page of a user's activities, in a way another thread can abandon (ie: when a paged walk is closed).
+     * @param PUserContext is the PUserContext to get the activities for.
+     * @param limit is the page size as an Integer (null for the default).
+     * @param cursor is the cursor of the page as an Integer (null for the first page).
+     * @param cancellationToken is a PAPICancellationToken that can abandon the request, or null.
+     * @return the PResultSet of PUserActivity objects, or null if the request failed or was cancelled.
+     */
+    public PResultSet<PUserActivity> getUserActivities(final PUserContext PUserContext, Integer limit, Integer cursor, PAPICancellationToken cancellationToken) {
 
         if (limit == null || limit == 0) { limit = 20; }
         if (cursor == null || cursor == 0) { cursor = 0; }
 
         final String requestString = "activities/list_my_activities?cursor=" + cursor + "&limit=" + limit;
-        final PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, requestString, PUserContext);
+        final PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, requestString, PUserContext);
+        connector.setCancellationToken(cancellationToken);
         JSONObject response = connector.makeRequest();
 
-        PLog.info("getActivities -> Response is: " + response.toString());
+        PLog.payload("getActivities -> Response is: {0}", response);
 
         int responseCode = connector.getResponseCode();
 
         // Continue only if there is a non-failing result code
-        if (responseCode <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && responseCode <= PAPIBridge.MAX_SUCCESS_CODE) {
             JSONArray resultsJSON = response.getJSONArray("results");
-            ArrayList<PUserActivity> product = new ArrayList<PUserActivity>();
 
-            // Loop through the JSON user objects and create Java objects
-            PObjectFactory pObjectFactory = new PObjectFactory();
-            for (int i = 0; i < resultsJSON.length(); i++) {
-                JSONObject userActivityJSON = resultsJSON.getJSONObject(i);
-                PLog.info("getActivities() --> UserActivityJSON is: " + userActivityJSON.toString());
-                product.add(pObjectFactory.constructUserActivityFromJSON(userActivityJSON));
-            }
+            // Create the Java objects (in parallel for large pages)
+            PObjectFactory pObjectFactory = this.objectFactory;
+            ArrayList<PUserActivity> product = pObjectFactory.constructUserActivitiesFromJSON(resultsJSON);
 
-            PLog.info("getActivities() -> There will be " + product.size() + " elements in the results array");
+            PLog.fine("getActivities() -> There will be {0} elements in the results array", product.size());
             PResultSet<PUserActivity> resultSet = new PResultSet<PUserActivity>(response.getInt("nextCursor"), product);
+
+            // Keep the newest page for the next cold start, as sent, so storing it does not force anything lazy
+            if (this.offlineStore != null && cursor == 0) {
+                this.offlineStore.putRawPage(ACTIVITIES_PAGE + PUserContext.getUserID(), response.toString());
+            }
             return resultSet;
 
         }
@@ -586,6 +944,65 @@ public class PAPIInteraction {
 
     }
 
+    /**
+     * Gets the first page of a user's activities from the offline store right away, and fetches a fresh one in the
+     * background.  Without an offline store, this just fetches the page.
+     * @param userContext is the PUserContext to get the activities for.
+     * @param limit is the page size as an Integer (null for the default).
+     * @param listener is the POfflineStore.RefreshListener to hand the fresh page to, or null.
+     * @return the stored PResultSet of PUserActivity objects, or null if none is stored.
+     */
+    @SuppressWarnings("unused")
+    public PResultSet<PUserActivity> getUserActivitiesOffline(final PUserContext userContext, final Integer limit, final POfflineStore.RefreshListener<PUserActivity> listener) {
+        if (this.offlineStore == null) {
+            return this.getUserActivities(userContext, limit, 0);
+        }
+        final JSONObject storedJSON = this.getStoredPage(ACTIVITIES_PAGE + userContext.getUserID());
+        final PResultSet<PUserActivity> stored = (storedJSON == null) ? null
+                : new PResultSet<PUserActivity>(storedJSON.optInt("nextCursor"), this.objectFactory.constructUserActivitiesFromJSON(storedJSON.getJSONArray("results")));
+        this.refreshInBackground(new PPageFetcher<PUserActivity>() {
+            @Override
+            public PResultSet<PUserActivity> fetchPage(int cursor, PAPICancellationToken cancellationToken) {
+                return PAPIInteraction.this.getUserActivities(userContext, limit, cursor, cancellationToken);
+            }
+        }, listener);
+        return stored;
+    }
+
+    /**
+     * Gets every activity for a user as one lazy sequence that follows the cursor from page to page, fetching the next
+     * page in the background while the current one is consumed.
+     * @param userContext is the PUserContext to get the activities for.
+     * @param limit is the page size as an Integer (null for the default).
+     * @param lookahead is the number of pages to prefetch as an integer.
+     * @return a PPagedResults of PUserActivity objects.
+     */
+    @SuppressWarnings("unused")
+    public PPagedResults<PUserActivity> iterateUserActivities(final PUserContext userContext, final Integer limit, final int lookahead) {
+        return new PPagedResults<PUserActivity>(new PPageFetcher<PUserActivity>() {
+            @Override
+            public PResultSet<PUserActivity> fetchPage(int cursor, PAPICancellationToken cancellationToken) {
+                return PAPIInteraction.this.getUserActivities(userContext, limit, cursor, cancellationToken);
+            }
+        }, 0, lookahead, this.client.getExecutor());
+    }
+
+    /**
+     * Publishes every activity for a user to Flow subscribers.  Pages are only fetched as subscribers request more.
+     * @param userContext is the PUserContext to get the activities for.
+     * @param limit is the page size as an Integer (null for the default).
+     * @return a Flow.Publisher of PUserActivity objects.
+     */
+    @SuppressWarnings("unused")
+    public Flow.Publisher<PUserActivity> publishUserActivities(final PUserContext userContext, final Integer limit) {
+        return new PPagedPublisher<PUserActivity>(new PPageFetcher<PUserActivity>() {
+            @Override
+            public PResultSet<PUserActivity> fetchPage(int cursor, PAPICancellationToken cancellationToken) {
+                return PAPIInteraction.this.getUserActivities(userContext, limit, cursor, cancellationToken);
+            }
+        }, 0, this.client.getExecutor());
+    }
+
     /* ########## USER CONTEXTS ########## */
     /**
      * Creates a user context from a given username and password.
@@ -595,7 +1012,7 @@ public class PAPIInteraction {
      */
     public PUserContext getUserContext(String username, String password) {
 
-        System.out.println("Trying to get a userContext with username " + username + " and password " + password);
+        PLog.fine("getUserContext() -> Trying to get a user context for username {0}", username);
 
         // Final strings to format the request parameters correctly.
         final int MAX_SUCCESS_CODE = 300;
@@ -612,20 +1029,21 @@ public class PAPIInteraction {
         requestBundle.put("password", password);
 
         // Create a connection, pass the data, and get a response string
-        connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "user_contexts/create", requestBundle);
+        connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "user_contexts/create", requestBundle);
         response = connector.makeRequest();
 
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= MAX_SUCCESS_CODE) {
             JSONObject resultJSON = response.getJSONObject("result").getJSONObject("object");
             JSONObject userRootJSON = resultJSON.getJSONObject("user");
-            PObjectFactory pObjectFactory = new PObjectFactory();
+            PObjectFactory pObjectFactory = this.objectFactory;
             return new PUserContext(resultJSON.getString("_id"), null, null, resultJSON.getString("sessionToken"), pObjectFactory.constructUserFromJSON(userRootJSON));
         }
 
         // Return null if we are unable to get a context
         else {
-            PLog.warning("Unable to get a user context.  Response was: " + response.toString());
+            PLog.warning("Unable to get a user context.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("Unable to get a user context.  Response was: {0}", response);
             return null;
         }
 
@@ -641,12 +1059,18 @@ public class PAPIInteraction {
 
         JSONObject requestBundle = new JSONObject();
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "user_contexts/destroy", userContext, requestBundle);
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "user_contexts/destroy", userContext, requestBundle);
 
         JSONObject response = connector.makeRequest();
 
+        // Whatever the API says, this account's demand flags and stored feeds must not outlive its session.  The shared
+        // cache holds nothing of theirs, so it is left alone.
+        userContext.clearDemands();
+        this.removeStoredPage(HOME_VIDEOS_PAGE + userContext.getUserID());
+        this.removeStoredPage(ACTIVITIES_PAGE + userContext.getUserID());
+
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
             String status = response.getString("status");
             if(status.equals("OK")) {
                 return true;
@@ -658,7 +1082,8 @@ public class PAPIInteraction {
 
         // Return null if we are unable to get a context
         else {
-            System.out.print("Error from PUserContext->invalidate() -- response is: " + response.toString());
+            PLog.severe("Error from PUserContext->invalidate() -- Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("Error from PUserContext->invalidate() -- response is: {0}", response);
             return false;
         }
     }
@@ -668,21 +1093,22 @@ public class PAPIInteraction {
         JSONObject requestBundle = new JSONObject();
         requestBundle.put("title", title);
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "videos/create", userContext, requestBundle);
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "videos/create", userContext, requestBundle);
 
         JSONObject response = connector.makeRequest();
 
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
 
-            System.out.println("Response from server: " + response.toString());
+            PLog.payload("create() -> Response from server: {0}", response);
             return null;
 
         }
 
         // Return null if we are unable to get a context
         else {
-            System.out.print("Error from PVideo->create() -- response is: " + response.toString());
+            PLog.severe("Error from PVideo->create() -- Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("Error from PVideo->create() -- response is: {0}", response);
             return null;
         }
 
@@ -694,31 +1120,45 @@ public class PAPIInteraction {
      * @return an ArrayList of PVideo objects of size less than or equal to limit.
      */
     public PResultSet<PVideo> getHomeVideos(PUserContext userContext, Integer limit, Integer cursor) {
+        return this.getHomeVideos(userContext, limit, cursor, null);
+    }
+
+    /**
+     * Gets a page of a user's feed, in a way another thread can abandon (ie: when a paged walk is closed).
+     * @param userContext is the PUserContext whose feed to read.
+     * @param limit is the page size as an Integer (null for the default).
+     * @param cursor is the cursor of the page as an Integer (null for the first page).
+     * @param cancellationToken is a PAPICancellationToken that can abandon the request, or null.
+     * @return the PResultSet of PVideo objects, or null if the request failed or was cancelled.
+     */
+    public PResultSet<PVideo> getHomeVideos(PUserContext userContext, Integer limit, Integer cursor, PAPICancellationToken cancellationToken) {
 
         if (limit == null || limit == 0) { limit = 20; }
         if (cursor == null || cursor == 0) { cursor = 0; }
 
         final String requestString = "videos/list_home_videos?cursor=" + cursor + "&limit=" + limit;
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, requestString, userContext);
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, requestString, userContext);
+        connector.setCancellationToken(cancellationToken);
         JSONObject response = connector.makeRequest();
 
         // Continue only if there is a non-failing result code
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
 
-            System.out.println("The response for get videos is: " + response);
+            PLog.payload("The response for get videos is: {0}", response);
             JSONArray resultsJSON = response.getJSONArray("results");
-            ArrayList<PVideo> product = new ArrayList<PVideo>();
 
-            // Loop through the JSON user objects and create Java objects
-            PObjectFactory objectFactory = new PObjectFactory();
-            for (int i = 0; i < resultsJSON.length(); i++) {
-                JSONObject videoJSON = resultsJSON.getJSONObject(i);
-                System.out.println("VideoJSON is : " + videoJSON.toString());
-                product.add(objectFactory.constructVideoFromJSON(videoJSON));
-            }
+            // Create the Java objects (in parallel for large pages)
+            PObjectFactory objectFactory = this.objectFactory;
+            ArrayList<PVideo> product = objectFactory.constructVideosFromJSON(resultsJSON);
+            this.prefetchVideoMedia(product);
+            this.indexCreators(product, userContext);
 
             PResultSet<PVideo> resultSet = new PResultSet<PVideo>(response.getInt("nextCursor"), product);
 
+            // Keep the newest page for the next cold start, as sent, so storing it does not force anything lazy
+            if (this.offlineStore != null && cursor == 0) {
+                this.offlineStore.putRawPage(HOME_VIDEOS_PAGE + userContext.getUserID(), response.toString());
+            }
             return resultSet;
 
         }
@@ -727,6 +1167,65 @@ public class PAPIInteraction {
 
     }
 
+    /**
+     * Gets the first page of a user's feed from the offline store right away, and fetches a fresh one in the background.
+     * Without an offline store, this just fetches the page.
+     * @param userContext is the PUserContext whose feed to read.
+     * @param limit is the page size as an Integer (null for the default).
+     * @param listener is the POfflineStore.RefreshListener to hand the fresh page to, or null.
+     * @return the stored PResultSet of PVideo objects, or null if none is stored.
+     */
+    @SuppressWarnings("unused")
+    public PResultSet<PVideo> getHomeVideosOffline(final PUserContext userContext, final Integer limit, final POfflineStore.RefreshListener<PVideo> listener) {
+        if (this.offlineStore == null) {
+            return this.getHomeVideos(userContext, limit, 0);
+        }
+        final JSONObject storedJSON = this.getStoredPage(HOME_VIDEOS_PAGE + userContext.getUserID());
+        final PResultSet<PVideo> stored = (storedJSON == null) ? null
+                : new PResultSet<PVideo>(storedJSON.optInt("nextCursor"), this.objectFactory.constructVideosFromJSON(storedJSON.getJSONArray("results")));
+        this.refreshInBackground(new PPageFetcher<PVideo>() {
+            @Override
+            public PResultSet<PVideo> fetchPage(int cursor, PAPICancellationToken cancellationToken) {
+                return PAPIInteraction.this.getHomeVideos(userContext, limit, cursor, cancellationToken);
+            }
+        }, listener);
+        return stored;
+    }
+
+    /**
+     * Gets every video on a user's feed as one lazy sequence that follows the cursor from page to page, fetching the
+     * next page in the background while the current one is consumed.
+     * @param userContext is the PUserContext whose feed to read.
+     * @param limit is the page size as an Integer (null for the default).
+     * @param lookahead is the number of pages to prefetch as an integer.
+     * @return a PPagedResults of PVideo objects.
+     */
+    @SuppressWarnings("unused")
+    public PPagedResults<PVideo> iterateHomeVideos(final PUserContext userContext, final Integer limit, final int lookahead) {
+        return new PPagedResults<PVideo>(new PPageFetcher<PVideo>() {
+            @Override
+            public PResultSet<PVideo> fetchPage(int cursor, PAPICancellationToken cancellationToken) {
+                return PAPIInteraction.this.getHomeVideos(userContext, limit, cursor, cancellationToken);
+            }
+        }, 0, lookahead, this.client.getExecutor());
+    }
+
+    /**
+     * Publishes every video on a user's feed to Flow subscribers.  Pages are only fetched as subscribers request more.
+     * @param userContext is the PUserContext whose feed to read.
+     * @param limit is the page size as an Integer (null for the default).
+     * @return a Flow.Publisher of PVideo objects.
+     */
+    @SuppressWarnings("unused")
+    public Flow.Publisher<PVideo> publishHomeVideos(final PUserContext userContext, final Integer limit) {
+        return new PPagedPublisher<PVideo>(new PPageFetcher<PVideo>() {
+            @Override
+            public PResultSet<PVideo> fetchPage(int cursor, PAPICancellationToken cancellationToken) {
+                return PAPIInteraction.this.getHomeVideos(userContext, limit, cursor, cancellationToken);
+            }
+        }, 0, this.client.getExecutor());
+    }
+
     /**
      * Gets the most popular videos.
      * @param limit
@@ -738,29 +1237,27 @@ public class PAPIInteraction {
         if (limit == null) { limit = 20; }
         if (cursor == null) { cursor = 0; }
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/list_popular_videos?limit=" + limit.toString() + "&cursor=" + cursor.toString());
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/list_popular_videos?limit=" + limit.toString() + "&cursor=" + cursor.toString());
         JSONObject response = connector.makeRequest();
 
         // Continue only if there is a non-failing result code
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
 
             JSONArray resultsJSON = response.getJSONArray("results");
-            ArrayList<PVideo> product = new ArrayList<PVideo>();
 
-            // Loop through the JSON user objects and create Java objects
-            PObjectFactory objectFactory = new PObjectFactory();
-            for (int i = 0; i < resultsJSON.length(); i++) {
-                JSONObject videoRootJSON = resultsJSON.getJSONObject(i);
-                System.out.println("Raw JSON: " + videoRootJSON.toString());
-                product.add(objectFactory.constructVideoFromJSON(videoRootJSON));
-            }
+            // Create the Java objects (in parallel for large pages)
+            PObjectFactory objectFactory = this.objectFactory;
+            ArrayList<PVideo> product = objectFactory.constructVideosFromJSON(resultsJSON);
+            this.prefetchVideoMedia(product);
+            this.indexCreators(product, null);
 
             return product;
 
         }
         else {
             // Log the error to somewhere
-            System.out.println("Error from PVideo->listBrandNew() -- response is: " + response.toString());
+            PLog.severe("Error from PVideo->listBrandNew() -- Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("Error from PVideo->listBrandNew() -- response is: {0}", response);
             return null;
         }
 
@@ -771,35 +1268,33 @@ public class PAPIInteraction {
         if (limit == null) { limit = 20; }
         if (cursor == null) { cursor = 0; }
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/list_brand_new_videos?limit=" + limit.toString() + "&cursor=" + cursor.toString());
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/list_brand_new_videos?limit=" + limit.toString() + "&cursor=" + cursor.toString());
         JSONObject response = connector.makeRequest();
 
         // Continue only if there is a non-failing result code
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
 
             JSONArray resultsJSON = response.getJSONArray("results");
-            ArrayList<PVideo> product = new ArrayList<PVideo>();
 
-            // Loop through the JSON user objects and create Java objects
-            PObjectFactory objectFactory = new PObjectFactory();
-            for (int i = 0; i < resultsJSON.length(); i++) {
-                JSONObject videoRootJSON = resultsJSON.getJSONObject(i);
-                System.out.println("Raw JSON: " + videoRootJSON.toString());
-                product.add(objectFactory.constructVideoFromJSON(videoRootJSON));
-            }
+            // Create the Java objects (in parallel for large pages)
+            PObjectFactory objectFactory = this.objectFactory;
+            ArrayList<PVideo> product = objectFactory.constructVideosFromJSON(resultsJSON);
+            this.prefetchVideoMedia(product);
+            this.indexCreators(product, null);
 
             return product;
 
         }
         else {
             // Log the error to somewhere
-            System.out.println("Error from PVideo->listBrandNew() -- response is: " + response.toString());
+            PLog.severe("Error from PVideo->listBrandNew() -- Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("Error from PVideo->listBrandNew() -- response is: {0}", response);
             return null;
         }
 
     }
 
-    private ArrayList<PVideo> getVideosByUser(String id, String username, Integer limit, Integer cursor) {
+    private ArrayList<PVideo> getVideosByUser(String id, String username, Integer limit, Integer cursor, PAPICancellationToken cancellationToken) {
 
         if (limit == null) { limit = 20; }
         if (cursor == null) { cursor = 0; }
@@ -807,78 +1302,127 @@ public class PAPIInteraction {
         PAPIBridge connector;
 
         if (id != null) {
-            connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/list_user_videos?user_id=" + id + "&limit=" + limit + "&cursor=" + cursor);
+            connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/list_user_videos?user_id=" + id + "&limit=" + limit + "&cursor=" + cursor);
         }
         else if (username != null) {
-            connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/list_user_videos?username=" + username + "&limit=" + limit + "&cursor=" + cursor);
+            connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/list_user_videos?username=" + username + "&limit=" + limit + "&cursor=" + cursor);
         }
         else {
             return null;
         }
 
+        connector.setCancellationToken(cancellationToken);
         JSONObject response = connector.makeRequest();
 
         // Continue only if there is a non-failing result code
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
 
             JSONArray resultsJSON = response.getJSONArray("results");
-            ArrayList<PVideo> product = new ArrayList<PVideo>();
 
-            // Loop through the JSON user objects and create Java objects
-            PObjectFactory objectFactory = new PObjectFactory();
-            for (int i = 0; i < resultsJSON.length(); i++) {
-                JSONObject videoRootJSON = resultsJSON.getJSONObject(i);
-                System.out.println("Raw JSON: " + videoRootJSON.toString());
-                product.add(objectFactory.constructVideoFromJSON(videoRootJSON));
-            }
+            // Create the Java objects (in parallel for large pages)
+            PObjectFactory objectFactory = this.objectFactory;
+            ArrayList<PVideo> product = objectFactory.constructVideosFromJSON(resultsJSON);
+            this.prefetchVideoMedia(product);
+            this.indexCreators(product, null);
 
             return product;
 
         }
         else {
             // Log the error to somewhere
-            System.out.println("Error from PVideo->getVideosForUser() -- response is: " + response.toString());
+            PLog.severe("Error from PVideo->getVideosForUser() -- Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("Error from PVideo->getVideosForUser() -- response is: {0}", response);
             return null;
         }
 
     }
 
     public ArrayList<PVideo> getVideosByUserID(String id, Integer limit, Integer cursor) {
-        return this.getVideosByUser(id, null, limit, cursor);
+        return this.getVideosByUser(id, null, limit, cursor, null);
     }
 
     public ArrayList<PVideo> getVideosByUsername(String username, Integer limit, Integer cursor) {
-        return this.getVideosByUser(null, username, limit, cursor);
+        return this.getVideosByUser(null, username, limit, cursor, null);
+    }
+
+    /**
+     * Gets up to maxResults videos of a user, fetching several pages at the same time.
+     * @param id is the String user ID.
+     * @param maxResults is the maximum number of videos wanted.
+     * @return an ArrayList of PVideo objects in list order without duplicates.
+     */
+    @SuppressWarnings("unused")
+    public ArrayList<PVideo> getAllVideosByUserID(final String id, final int maxResults) {
+        return PPageFanOut.fetchAll(new POffsetPageFetcher<PVideo>() {
+            @Override
+            public ArrayList<PVideo> fetchPage(int offset, int limit, PAPICancellationToken cancellationToken) {
+                return PAPIInteraction.this.getVideosByUser(id, null, limit, offset, cancellationToken);
+            }
+        }, maxResults, PPageFanOut.DEFAULT_PAGE_SIZE, PPageFanOut.DEFAULT_PARALLELISM, this.client.getExecutor());
+    }
+
+    /**
+     * Gets up to maxResults videos of a user, fetching several pages at the same time.
+     * @param username is the String username.
+     * @param maxResults is the maximum number of videos wanted.
+     * @return an ArrayList of PVideo objects in list order without duplicates.
+     */
+    @SuppressWarnings("unused")
+    public ArrayList<PVideo> getAllVideosByUsername(final String username, final int maxResults) {
+        return PPageFanOut.fetchAll(new POffsetPageFetcher<PVideo>() {
+            @Override
+            public ArrayList<PVideo> fetchPage(int offset, int limit, PAPICancellationToken cancellationToken) {
+                return PAPIInteraction.this.getVideosByUser(null, username, limit, offset, cancellationToken);
+            }
+        }, maxResults, PPageFanOut.DEFAULT_PAGE_SIZE, PPageFanOut.DEFAULT_PARALLELISM, this.client.getExecutor());
     }
 
     public ArrayList<PVideo> search(String query, Integer limit, Integer cursor) {
+        return this.search(query, limit, cursor, null);
+    }
+
+    /**
+     * Searches for videos, in a way another thread can abandon (ie: when the query it was typed for has been
+     * superseded).
+     * @param query is the String query to search for.
+     * @param limit is the Integer value to limit the results to.
+     * @param cursor is the Integer value to start the results cursor at.
+     * @param cancellationToken is a PAPICancellationToken that can abandon the request, or null.
+     * @return an ArrayList of PVideo objects, or null if there was an invalid search response or the search was
+     *         cancelled.
+     */
+    public ArrayList<PVideo> search(String query, Integer limit, Integer cursor, PAPICancellationToken cancellationToken) {
 
         if (cursor == null || cursor == 0) { cursor = 0; }
         if (limit == null || limit == 0) { limit = 20; }
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/search?query=" + query + "&limit=" + limit.toString() + "&cursor=" + cursor.toString());
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/search?query=" + query + "&limit=" + limit.toString() + "&cursor=" + cursor.toString());
+        connector.setCancellationToken(cancellationToken);
         JSONObject response = connector.makeRequest();
 
+        // A cancelled search's results (if any came back) are not wanted
+        if (response == null || (cancellationToken != null && cancellationToken.isCancelled())) {
+            return null;
+        }
+
         // Continue only if there is a non-failing result code
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
 
             JSONArray resultsJSON = response.getJSONArray("results");
-            ArrayList<PVideo> product = new ArrayList<PVideo>();
 
-            // Loop through the JSON user objects and create Java objects
-            PObjectFactory objectFactory = new PObjectFactory();
-            for (int i = 0; i < resultsJSON.length(); i++) {
-                JSONObject videoRootJSON = resultsJSON.getJSONObject(i);
-                System.out.println("Raw JSON: " + videoRootJSON.toString());
-                product.add(objectFactory.constructVideoFromJSON(videoRootJSON));
-            }
+            // Create the Java objects (in parallel for large pages)
+            PObjectFactory objectFactory = this.objectFactory;
+            ArrayList<PVideo> product = objectFactory.constructVideosFromJSON(resultsJSON);
+            this.prefetchVideoMedia(product);
+            this.indexCreators(product, null);
 
             return product;
 
         }
         else {
             // Log the error to somewhere
-            System.out.println("Error from PVideo->search() -- response is: " + response.toString());
+            PLog.severe("Error from PVideo->search() -- Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("Error from PVideo->search() -- response is: {0}", response);
             return null;
         }
 
@@ -890,12 +1434,390 @@ public class PAPIInteraction {
      * @return a PVideo object that is the video represented by the String.
      */
     public PVideo show(String videoID) {
+        if (this.modelCache == null) {
+            return this.fetchVideo(videoID);
+        }
+        return this.modelCache.getVideo(videoID, new PCacheLoader<String, PVideo>() {
+            @Override
+            public PVideo load(String key) {
+                return PAPIInteraction.this.fetchVideo(key);
+            }
+        });
+    }
+
+    /**
+     * Fetches a video by it's ID from the API, bypassing the cache.
+     * @param videoID the ID of the video as a String.
+     * @return a PVideo object that is the video represented by the String.
+     */
+    private PVideo fetchVideo(String videoID) {
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/show?comment_id=" + videoID);
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, "videos/show?comment_id=" + videoID);
         JSONObject response = connector.makeRequest();
-        PObjectFactory objectFactory = new PObjectFactory();
-        return objectFactory.constructVideoFromJSON(response.getJSONObject("result"));
 
+        // Continue only if there is a non-failing result code
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+            PObjectFactory objectFactory = this.objectFactory;
+            return objectFactory.constructVideoFromJSON(response.getJSONObject("result"));
+        }
+        else {
+            if (this.modelCache != null && connector.isDefinitiveFailure()) {
+                this.modelCache.markVideoMissing(videoID);
+            }
+            PLog.severe("show() -> Error.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("show() -> Error.  Response is: {0}", response);
+            return null;
+        }
+
+    }
+
+    /* ########## BULK ########## */
+
+    /**
+     * Makes demands for many users, several at a time, on the client's executor.
+     * @param userContext is the UserContext from which to make the demands.
+     * @param usernames is a Collection of the usernames to demand.
+     * @return a PBulkResult with an outcome for every username.
+     */
+    @SuppressWarnings("unused")
+    public PBulkResult<Boolean> makeDemands(PUserContext userContext, Collection<String> usernames) {
+        return this.makeDemands(userContext, usernames, this.bulkExecutor());
+    }
+
+    /**
+     * Makes demands for many users with a PBulkExecutor (ie: one on virtual threads, or with a different parallelism).
+     * @param userContext is the UserContext from which to make the demands.
+     * @param usernames is a Collection of the usernames to demand.
+     * @param bulkExecutor is the PBulkExecutor to run the demands with.
+     * @return a PBulkResult with an outcome for every username.
+     */
+    public PBulkResult<Boolean> makeDemands(final PUserContext userContext, Collection<String> usernames, PBulkExecutor bulkExecutor) {
+        return bulkExecutor.run(usernames, new DemandOperation() {
+            @Override
+            boolean request(String username, int[] responseCode) {
+                return PAPIInteraction.this.makeDemand(userContext, username, responseCode);
+            }
+        });
+    }
+
+    /**
+     * Removes demands for many users, several at a time, on the client's executor.
+     * @param userContext is the UserContext from which to remove the demands.
+     * @param usernames is a Collection of the usernames to stop demanding.
+     * @return a PBulkResult with an outcome for every username.
+     */
+    @SuppressWarnings("unused")
+    public PBulkResult<Boolean> removeDemands(PUserContext userContext, Collection<String> usernames) {
+        return this.removeDemands(userContext, usernames, this.bulkExecutor());
+    }
+
+    /**
+     * Removes demands for many users with a PBulkExecutor.
+     * @param userContext is the UserContext from which to remove the demands.
+     * @param usernames is a Collection of the usernames to stop demanding.
+     * @param bulkExecutor is the PBulkExecutor to run the removals with.
+     * @return a PBulkResult with an outcome for every username.
+     */
+    public PBulkResult<Boolean> removeDemands(final PUserContext userContext, Collection<String> usernames, PBulkExecutor bulkExecutor) {
+        return bulkExecutor.run(usernames, new DemandOperation() {
+            @Override
+            boolean request(String username, int[] responseCode) {
+                return PAPIInteraction.this.removeDemand(userContext, username, responseCode);
+            }
+        });
+    }
+
+    /**
+     * Gets many users by username, several at a time, on the client's executor.  Cached users cost no request.
+     * @param usernames is a Collection of the usernames to look up.
+     * @return a PBulkResult with the PUser for every username found.
+     */
+    @SuppressWarnings("unused")
+    public PBulkResult<PUser> getUsersByUsername(Collection<String> usernames) {
+        return this.getUsersByUsername(usernames, this.bulkExecutor());
+    }
+
+    /**
+     * Gets many users by username with a PBulkExecutor.
+     * @param usernames is a Collection of the usernames to look up.
+     * @param bulkExecutor is the PBulkExecutor to run the lookups with.
+     * @return a PBulkResult with the PUser for every username found.
+     */
+    public PBulkResult<PUser> getUsersByUsername(Collection<String> usernames, PBulkExecutor bulkExecutor) {
+        return bulkExecutor.run(usernames, new UsernameOperation<PUser>() {
+            @Override
+            public PUser apply(String username) {
+                return PAPIInteraction.this.getUserByUsername(username);
+            }
+        });
+    }
+
+    /**
+     * Gets many users by ID, several at a time, on the client's executor.  Cached users cost no request.
+     * @param ids is a Collection of the user IDs to look up.
+     * @return a PBulkResult with the PUser for every ID found.
+     */
+    @SuppressWarnings("unused")
+    public PBulkResult<PUser> getUsersByID(Collection<String> ids) {
+        return this.getUsersByID(ids, this.bulkExecutor());
+    }
+
+    /**
+     * Gets many users by ID with a PBulkExecutor.
+     * @param ids is a Collection of the user IDs to look up.
+     * @param bulkExecutor is the PBulkExecutor to run the lookups with.
+     * @return a PBulkResult with the PUser for every ID found.
+     */
+    public PBulkResult<PUser> getUsersByID(Collection<String> ids, PBulkExecutor bulkExecutor) {
+        return bulkExecutor.run(ids, new PBulkExecutor.Operation<PUser>() {
+            @Override
+            public PUser apply(String id) {
+                return PAPIInteraction.this.getUserByID(id);
+            }
+
+            @Override
+            public boolean isNotFound(String id) {
+                return PAPIInteraction.this.modelCache != null && PAPIInteraction.this.modelCache.isUserMissing(id);
+            }
+        });
+    }
+
+    private PBulkExecutor bulkExecutor() {
+        return new PBulkExecutor(this.client.getExecutor(), PBulkExecutor.DEFAULT_PARALLELISM, PBulkExecutor.DEFAULT_TRIP_AFTER_FAILURES);
+    }
+
+    /**
+     * An Operation over usernames, which knows a username does not exist once a lookup of it has failed definitively.
+     */
+    private abstract class UsernameOperation<R> implements PBulkExecutor.Operation<R> {
+        @Override
+        public boolean isNotFound(String username) {
+            return PAPIInteraction.this.modelCache != null && PAPIInteraction.this.modelCache.isUsernameMissing(username);
+        }
+    }
+
+    /**
+     * An Operation that makes or removes demands, which knows a username does not exist when the API answered its own
+     * request with 404.
+     */
+    private abstract static class DemandOperation implements PBulkExecutor.Operation<Boolean> {
+
+        private final Set<String> notFound = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+        abstract boolean request(String username, int[] responseCode);
+
+        @Override
+        public Boolean apply(String username) {
+            final int[] responseCode = new int[1];
+            if (this.request(username, responseCode)) {
+                return Boolean.TRUE;
+            }
+            if (responseCode[0] == 404) {
+                this.notFound.add(username);
+            }
+            return null;
+        }
+
+        @Override
+        public boolean isNotFound(String username) {
+            return this.notFound.contains(username);
+        }
+
+    }
+
+    /* ########## WRITE-THROUGH ########## */
+
+    /**
+     * Sets a context's demand flag for a username, and moves the demand count of the cached user to match.  The flag
+     * lives on the context, not on the shared cached user, so no other account sees it.
+     * @return a Runnable that undoes the change (unless something has changed the flag since), or null if the context
+     *         already had the flag.
+     */
+    private Runnable patchDemand(final PUserContext userContext, final String username, final boolean demanded) {
+
+        final Boolean previous = userContext.putDemand(username, demanded);
+        if ((previous != null && previous) == demanded) {
+            return null;
+        }
+
+        final PUser user = (this.modelCache == null) ? null : this.modelCache.peekUserByUsername(username);
+        if (user != null) {
+            synchronized (user) {
+                user.setNumProps(Math.max(0, user.getNumDemands() + (demanded ? 1 : -1)), null, null, null, null, null);
+            }
+        }
+
+        return new Runnable() {
+            @Override
+            public void run() {
+                if (userContext.restoreDemand(username, demanded, previous) && user != null) {
+                    synchronized (user) {
+                        user.setNumProps(Math.max(0, user.getNumDemands() + (demanded ? -1 : 1)), null, null, null, null, null);
+                    }
+                }
+            }
+        };
+
+    }
+
+    /**
+     * Applies the given (non-null) profile details to the cached user with an ID.
+     * @return a Runnable that puts back the old details (leaving any that have changed since), or null if the user is
+     *         not cached.
+     */
+    private Runnable patchUserDetails(final String userID, final String fullName, final String description, final PGender gender, final String website, final String emailAddress) {
+
+        final PUser user = (this.modelCache == null) ? null : this.modelCache.peekUser(userID);
+        if (user == null) {
+            return null;
+        }
+
+        final PUserProfile profile;
+        final String oldFullName;
+        final String oldDescription;
+        final PGender oldGender;
+        final String oldWebsite;
+        final String oldEmailAddress;
+        synchronized (user) {
+            profile = user.getProfile();
+            oldFullName = (profile == null) ? null : profile.getFullName();
+            oldDescription = (profile == null) ? null : profile.getDescription();
+            oldGender = (profile == null) ? null : profile.getGender();
+            oldWebsite = (profile == null) ? null : profile.getWebsiteURL();
+            oldEmailAddress = user.getEmailAddress();
+            if (profile != null) {
+                if (fullName != null) { profile.setFullName(fullName); }
+                if (description != null) { profile.setDescription(description); }
+                if (gender != null) { profile.setGender(gender); }
+                if (website != null) { profile.setWebsiteURL(website); }
+            }
+            if (emailAddress != null) { user.setEmailAddress(emailAddress); }
+        }
+
+        return new Runnable() {
+            @Override
+            public void run() {
+                synchronized (user) {
+                    if (profile != null && user.getProfile() == profile) {
+                        if (fullName != null && fullName.equals(profile.getFullName())) { profile.setFullName(oldFullName); }
+                        if (description != null && description.equals(profile.getDescription())) { profile.setDescription(oldDescription); }
+                        if (gender != null && gender == profile.getGender()) { profile.setGender(oldGender); }
+                        if (website != null && website.equals(profile.getWebsiteURL())) { profile.setWebsiteURL(oldWebsite); }
+                    }
+                    if (emailAddress != null && emailAddress.equals(user.getEmailAddress())) { user.setEmailAddress(oldEmailAddress); }
+                }
+            }
+        };
+
+    }
+
+    /**
+     * Drops a stored feed page that a write has made stale, so the next offline read does not serve it.
+     */
+    private void removeStoredPage(final String name) {
+        if (this.offlineStore != null) {
+            this.offlineStore.removePage(name);
+        }
+    }
+
+    /* ########## OFFLINE ########## */
+
+    /**
+     * Reads a feed page stored as the raw response, for decoding like a fresh one.
+     * @return the stored response, or null if none is stored or it no longer parses.
+     */
+    private JSONObject getStoredPage(final String name) {
+        final String raw = this.offlineStore.getRawPage(name);
+        if (raw == null) {
+            return null;
+        }
+        try {
+            final JSONObject response = new JSONObject(raw);
+            return (response.optJSONArray("results") == null) ? null : response;
+        } catch (JSONException e) {
+            PLog.warning("getStoredPage() -> Stored page {0} does not parse; ignoring it", name);
+            return null;
+        }
+    }
+
+    /**
+     * Fetches the first page of a feed on the I/O executor (which saves it to the offline store) and hands it on.
+     */
+    private <Z> void refreshInBackground(final PPageFetcher<Z> fetcher, final POfflineStore.RefreshListener<Z> listener) {
+        this.client.getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final PResultSet<Z> fresh = fetcher.fetchPage(0, null);
+                if (fresh != null && listener != null) {
+                    listener.onRefreshed(fresh);
+                }
+            }
+        });
+    }
+
+    /* ########## MEDIA ########## */
+
+    /**
+     * Files a user in the typeahead index, if the client has one.  Typeahead only finds the user while they are cached.
+     */
+    private void indexUser(final PUser user) {
+        if (this.userPrefixIndex != null) {
+            this.userPrefixIndex.add(user);
+        }
+    }
+
+    /**
+     * Files a decoded page of users that came back without a session in the typeahead index, and offers them to the
+     * model cache so typeahead can find them.
+     */
+    private void indexUsers(final ArrayList<PUser> users) {
+        if (this.userPrefixIndex == null || users == null) {
+            return;
+        }
+        this.userPrefixIndex.addAll(users);
+        if (this.modelCache != null) {
+            for (PUser user : users) {
+                this.modelCache.offerUser(user);
+            }
+        }
+    }
+
+    /**
+     * Files the creators of a decoded page of videos in the typeahead index, where they have been decoded already.
+     * They are offered to the model cache too, unless they came back on a signed in request.
+     */
+    private void indexCreators(final ArrayList<PVideo> videos, final PUserContext userContext) {
+        if (videos == null || this.userPrefixIndex == null) {
+            return;
+        }
+        for (PVideo video : videos) {
+            if (video != null && video.isCreatorUserLoaded()) {
+                this.userPrefixIndex.add(video.getCreatorUser());
+                if (this.modelCache != null && userContext == null) {
+                    this.modelCache.offerUser(video.getCreatorUser());
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands a decoded page of videos to the client's PMediaPrefetcher, if there is one.
+     */
+    private void prefetchVideoMedia(final ArrayList<PVideo> videos) {
+        final PMediaPrefetcher prefetcher = this.client.getMediaPrefetcher();
+        if (prefetcher != null) {
+            prefetcher.prefetchVideos(videos);
+        }
+    }
+
+    /**
+     * Hands a decoded page of users to the client's PMediaPrefetcher, if there is one.
+     */
+    private void prefetchUserMedia(final ArrayList<PUser> users) {
+        final PMediaPrefetcher prefetcher = this.client.getMediaPrefetcher();
+        if (prefetcher != null) {
+            prefetcher.prefetchUsers(users);
+        }
     }
 
 }
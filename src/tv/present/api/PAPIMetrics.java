@@ -0,0 +1,81 @@
+package tv.present.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Present API Metrics
+ * October 19, 2026
+ *
+ * Running counters for the requests one PAPIClient makes.  Counters are only ever added to, so a reader that wants a
+ * rate over an interval should take the difference between two readings.
+ */
+public final class PAPIMetrics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder cancellations = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+
+    /**
+     * Records one finished request.
+     * @param responseCode is the HTTP response code (0 if there was none).
+     * @param answered is true if a response body came back, false otherwise.
+     * @param cancelled is true if the request was cancelled.
+     * @param nanos is how long the request took in nanoseconds.
+     */
+    void recordRequest(final int responseCode, final boolean answered, final boolean cancelled, final long nanos) {
+        this.requests.increment();
+        this.latencyNanos.add(nanos);
+        if (cancelled) {
+            this.cancellations.increment();
+        }
+        else if (!answered || responseCode > PAPIBridge.MAX_SUCCESS_CODE) {
+            this.failures.increment();
+        }
+    }
+
+    /**
+     * Gets the number of requests made.
+     * @return the request count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getRequests() {
+        return this.requests.sum();
+    }
+
+    /**
+     * Gets the number of requests that got no response or an error response (not counting cancelled ones).
+     * @return the failure count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    /**
+     * Gets the number of requests cancelled through a PAPICancellationToken.
+     * @return the cancellation count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getCancellations() {
+        return this.cancellations.sum();
+    }
+
+    /**
+     * Gets the mean time a request took, from connecting to reading the last of the response.
+     * @return the mean latency in milliseconds as a double, or 0 before the first request.
+     */
+    @SuppressWarnings("unused")
+    public double getMeanLatencyMillis() {
+        final long count = this.requests.sum();
+        return (count == 0) ? 0 : (double) this.latencyNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "PAPIMetrics{requests=" + this.getRequests() + ", failures=" + this.getFailures() + ", cancellations="
+                + this.getCancellations() + ", meanLatencyMillis=" + this.getMeanLatencyMillis() + "}";
+    }
+
+}
@@ -0,0 +1,244 @@
+package tv.present.api;
+
+import org.json.JSONObject;
+import tv.present.util.PLogger;
+
+import java.io.*;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * Present Multipart Encoder
+ * October 19, 2026
+ *
+ * Builds a multipart/form-data request body.  Text fields are encoded from their real Java type (String, Number,
+ * Boolean, JSONObject, JSONArray) when they are added, and file parts only record the file and its length, so the exact
+ * Content-Length is known before anything is written and the body can be streamed with fixed length streaming.  The
+ * boundary and the constant header fragments are encoded to bytes once per class; per part only the field name and
+ * value are encoded.  An encoder can be reset() and reused.
+ */
+public final class PMultipartEncoder {
+
+    private static final String TAG = "tv.present.api.PMultipartEncoder";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final String DEFAULT_BOUNDARY = "!PP!!PP!";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final byte[] CRLF = bytes("\r\n");
+    private static final byte[] DISPOSITION = bytes("Content-Disposition: form-data; name=\"");
+    private static final byte[] FILENAME = bytes("\"; filename=\"");
+    private static final byte[] TEXT_HEADERS_END = bytes("\"\r\nContent-Type: text/plain; charset=UTF-8\r\n\r\n");
+    private static final byte[] FILE_CONTENT_TYPE = bytes("\"\r\nContent-Type: ");
+    private static final byte[] FILE_HEADERS_END = bytes("\r\nContent-Transfer-Encoding: binary\r\n\r\n");
+    private static final String DEFAULT_FILE_CONTENT_TYPE = "application/octet-stream";
+
+    private static final byte[] DEFAULT_DELIMITER = bytes("--" + DEFAULT_BOUNDARY + "\r\n");
+    private static final byte[] DEFAULT_CLOSE = bytes("--" + DEFAULT_BOUNDARY + "--\r\n");
+
+    // File parts are copied through one buffer per thread rather than one per upload.
+    private static final ThreadLocal<byte[]> COPY_BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[16 * 1024];
+        }
+    };
+
+    private final String boundary;
+    private final byte[] delimiter;
+    private final byte[] close;
+    private final ArrayList<Part> parts = new ArrayList<Part>();
+    private final ByteArrayOutputStream headerBuffer = new ByteArrayOutputStream(128);
+
+    private static final class Part {
+        final byte[] header;
+        final byte[] body;
+        final File file;
+        final long bodyLength;
+
+        Part(final byte[] header, final byte[] body, final File file, final long bodyLength) {
+            this.header = header;
+            this.body = body;
+            this.file = file;
+            this.bodyLength = bodyLength;
+        }
+    }
+
+    /**
+     * Constructs a PMultipartEncoder that uses the default boundary.
+     */
+    public PMultipartEncoder() {
+        this.boundary = DEFAULT_BOUNDARY;
+        this.delimiter = DEFAULT_DELIMITER;
+        this.close = DEFAULT_CLOSE;
+    }
+
+    /**
+     * Constructs a PMultipartEncoder that uses a given boundary.
+     * @param boundary is the boundary String.  It must not appear in any of the parts.
+     */
+    @SuppressWarnings("unused")
+    public PMultipartEncoder(final String boundary) {
+        this.boundary = boundary;
+        this.delimiter = bytes("--" + boundary + "\r\n");
+        this.close = bytes("--" + boundary + "--\r\n");
+    }
+
+    /* #################### GETTERS #################### */
+
+    /**
+     * Gets the value for the Content-Type request header.
+     * @return the Content-Type, including the boundary, as a String.
+     */
+    public final String getContentType() {
+        return "multipart/form-data; boundary=" + this.boundary;
+    }
+
+    /**
+     * Gets the exact number of bytes that writeTo() will write.
+     * @return the Content-Length as a long.
+     */
+    public final long getContentLength() {
+        long length = this.close.length;
+        for (int i = 0; i < this.parts.size(); i++) {
+            final Part part = this.parts.get(i);
+            length += this.delimiter.length + part.header.length + part.bodyLength + CRLF.length;
+        }
+        return length;
+    }
+
+    /* #################### BUILDING #################### */
+
+    /**
+     * Adds every key of a JSONObject as a text field.
+     * @param payload is the JSONObject to add (null is valid and adds nothing).
+     */
+    public final void addFields(final JSONObject payload) {
+        if (payload == null) {
+            return;
+        }
+        @SuppressWarnings("unchecked") // org.json only ever has String keys.
+        final Iterator<String> keys = payload.keys();
+        while (keys.hasNext()) {
+            final String key = keys.next();
+            this.addField(key, payload.opt(key));
+        }
+    }
+
+    /**
+     * Adds a text field.  The value is converted according to its type: Strings as they are, Numbers and Booleans in
+     * their usual decimal form, and JSONObjects and JSONArrays as JSON text.  Null values are skipped.
+     * @param name is the field name as a String.
+     * @param value is the field value.
+     */
+    public final void addField(final String name, final Object value) {
+
+        if (value == null || JSONObject.NULL.equals(value)) {
+            PLog.fine("addField() -> Skipping null value for {0}", name);
+            return;
+        }
+
+        final String text = (value instanceof String) ? (String) value : value.toString();
+        final byte[] body = text.getBytes(UTF_8);
+
+        this.headerBuffer.reset();
+        this.headerBuffer.write(DISPOSITION, 0, DISPOSITION.length);
+        this.writeUTF8(name);
+        this.headerBuffer.write(TEXT_HEADERS_END, 0, TEXT_HEADERS_END.length);
+
+        this.parts.add(new Part(this.headerBuffer.toByteArray(), body, null, body.length));
+
+    }
+
+    /**
+     * Adds a file part.  The file is only read when the body is written.
+     * @param name is the field name as a String.
+     * @param file is the File to upload.
+     */
+    public final void addFile(final String name, final File file) {
+
+        final String fileName = file.getName();
+        final String guessedType = URLConnection.guessContentTypeFromName(fileName);
+
+        this.headerBuffer.reset();
+        this.headerBuffer.write(DISPOSITION, 0, DISPOSITION.length);
+        this.writeUTF8(name);
+        this.headerBuffer.write(FILENAME, 0, FILENAME.length);
+        this.writeUTF8(fileName);
+        this.headerBuffer.write(FILE_CONTENT_TYPE, 0, FILE_CONTENT_TYPE.length);
+        this.writeUTF8((guessedType == null) ? DEFAULT_FILE_CONTENT_TYPE : guessedType);
+        this.headerBuffer.write(FILE_HEADERS_END, 0, FILE_HEADERS_END.length);
+
+        this.parts.add(new Part(this.headerBuffer.toByteArray(), null, file, file.length()));
+
+    }
+
+    /**
+     * Removes every part so the encoder can be reused for another body.
+     */
+    @SuppressWarnings("unused")
+    public final void reset() {
+        this.parts.clear();
+    }
+
+    /* #################### WRITING #################### */
+
+    /**
+     * Writes the whole body.  Exactly getContentLength() bytes are written, provided no file changed size in between.
+     * @param outputStream is the OutputStream to write to.  It is flushed but not closed.
+     * @throws IOException when writing fails or a file cannot be read.
+     */
+    public final void writeTo(final OutputStream outputStream) throws IOException {
+
+        final byte[] copyBuffer = COPY_BUFFER.get();
+
+        for (int i = 0; i < this.parts.size(); i++) {
+
+            final Part part = this.parts.get(i);
+            outputStream.write(this.delimiter);
+            outputStream.write(part.header);
+
+            if (part.file == null) {
+                outputStream.write(part.body);
+            }
+            else {
+                final FileInputStream inputStream = new FileInputStream(part.file);
+                try {
+                    long remaining = part.bodyLength;
+                    int bytesRead;
+                    while (remaining > 0 && (bytesRead = inputStream.read(copyBuffer, 0, (int) Math.min(copyBuffer.length, remaining))) != -1) {
+                        outputStream.write(copyBuffer, 0, bytesRead);
+                        remaining -= bytesRead;
+                    }
+                    if (remaining > 0) {
+                        throw new IOException("File " + part.file + " shrank while it was being uploaded.");
+                    }
+                }
+                finally {
+                    inputStream.close();
+                }
+            }
+
+            outputStream.write(CRLF);
+
+        }
+
+        outputStream.write(this.close);
+        outputStream.flush();
+
+    }
+
+    /* #################### HELPING #################### */
+
+    private void writeUTF8(final String value) {
+        final byte[] encoded = value.getBytes(UTF_8);
+        this.headerBuffer.write(encoded, 0, encoded.length);
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(UTF_8);
+    }
+
+}
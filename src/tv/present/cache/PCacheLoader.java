@@ -0,0 +1,19 @@
+package tv.present.cache;
+
+/**
+ * Present Cache Loader
+ * October 19, 2026
+ *
+ * Loads the value for a key that is missing from a cache, or that is due to be refreshed (ie: getUserByID against the
+ * API).
+ */
+public interface PCacheLoader<K, V> {
+
+    /**
+     * Loads the value for a key.
+     * @param key is the key to load.
+     * @return the value, or null if it could not be loaded (null values are never cached).
+     */
+    V load(K key);
+
+}
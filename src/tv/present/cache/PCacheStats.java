@@ -0,0 +1,111 @@
+package tv.present.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Present Cache Stats
+ * October 19, 2026
+ *
+ * Running counters for one cache.  Counters are only ever added to, so a reader that wants a rate over an interval
+ * should take the difference between two readings.
+ */
+public final class PCacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    void recordHit() { this.hits.increment(); }
+    void recordMiss() { this.misses.increment(); }
+    void recordLoadSuccess() { this.loadSuccesses.increment(); }
+    void recordLoadFailure() { this.loadFailures.increment(); }
+    void recordRefresh() { this.refreshes.increment(); }
+    void recordEviction() { this.evictions.increment(); }
+    void recordExpiration() { this.expirations.increment(); }
+
+    /**
+     * Gets the number of lookups that found a live entry.
+     * @return the hit count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that found no live entry.
+     * @return the miss count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the number of loads (on a miss) that produced a value.
+     * @return the successful load count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getLoadSuccesses() {
+        return this.loadSuccesses.sum();
+    }
+
+    /**
+     * Gets the number of loads (on a miss or a refresh) that produced nothing.
+     * @return the failed load count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getLoadFailures() {
+        return this.loadFailures.sum();
+    }
+
+    /**
+     * Gets the number of background refreshes that replaced a value.
+     * @return the refresh count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getRefreshes() {
+        return this.refreshes.sum();
+    }
+
+    /**
+     * Gets the number of entries dropped to stay within the maximum size.
+     * @return the eviction count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Gets the number of entries dropped because they outlived their time to live.
+     * @return the expiration count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getExpirations() {
+        return this.expirations.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups that were hits.
+     * @return the hit rate between 0 and 1 (1 if there have been no lookups).
+     */
+    @SuppressWarnings("unused")
+    public double getHitRate() {
+        final long hits = this.hits.sum();
+        final long total = hits + this.misses.sum();
+        return (total == 0) ? 1.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "PCacheStats{hits=" + this.getHits() + ", misses=" + this.getMisses() + ", loadSuccesses=" + this.getLoadSuccesses()
+                + ", loadFailures=" + this.getLoadFailures() + ", refreshes=" + this.getRefreshes() + ", evictions=" + this.getEvictions()
+                + ", expirations=" + this.getExpirations() + "}";
+    }
+
+}
@@ -0,0 +1,231 @@
+package tv.present.cache;
+
+import tv.present.factories.PBinaryCodec;
+import tv.present.util.PLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Present Mapped Spill Tier
+ * October 19, 2026
+ *
+ * A second cache tier for entries evicted from memory.  Values are encoded with PBinaryCodec into a fixed size,
+ * memory-mapped file that is written as a ring: once the end is reached, writing wraps to the start and the entries it
+ * overwrites are dropped.  The mapped pages belong to the OS page cache rather than the Java heap, so the tier can be
+ * many times larger than the in-memory cache without adding to GC work.
+ *
+ * The tier is a cache, not a store: its index lives only in memory, and the file is deleted on close (or at exit).
+ */
+public final class PMappedSpillTier {
+
+    private static final String TAG = "tv.present.cache.PMappedSpillTier";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final MappedByteBuffer mapped;
+    private final int capacity;
+    private final PBinaryCodec codec = new PBinaryCodec();
+
+    // Guarded by this.
+    private final HashMap<String, Slot> index = new HashMap<String, Slot>();
+    private final TreeMap<Integer, String> byOffset = new TreeMap<Integer, String>();
+    private int writePosition = 0;
+    private boolean closed = false;
+
+    /**
+     * Constructs a PMappedSpillTier backed by a new temporary file.
+     * @param capacityBytes is the size of the file in bytes.
+     * @return the PMappedSpillTier, or null if the file could not be created or mapped.
+     */
+    public static PMappedSpillTier createTemporary(final int capacityBytes) {
+        try {
+            final File file = File.createTempFile("present-spill-", ".bin");
+            file.deleteOnExit();
+            return new PMappedSpillTier(file, capacityBytes);
+        } catch (IOException e) {
+            PLog.severe("createTemporary() -> Caught IOException!");
+            return null;
+        }
+    }
+
+    /**
+     * Constructs a PMappedSpillTier.  Anything already in the file is overwritten.
+     * @param file is the File to map.
+     * @param capacityBytes is the size of the file in bytes.
+     * @throws IOException if the file could not be opened or mapped.
+     */
+    public PMappedSpillTier(final File file, final int capacityBytes) throws IOException {
+        this.file = file;
+        this.capacity = capacityBytes;
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        this.randomAccessFile.setLength(capacityBytes);
+        this.mapped = this.randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+    }
+
+    /**
+     * Stores a value, replacing any earlier value under the same key.
+     * @param key is the key to store under.
+     * @param value is the value to store; it must be something PBinaryCodec can encode.
+     * @param writeMillis is the time the value was originally written in milliseconds.
+     * @return true if the value was stored, false if it could not be encoded or is too large for the tier.
+     */
+    public synchronized boolean put(final String key, final Object value, final long writeMillis) {
+
+        if (this.closed) {
+            return false;
+        }
+
+        final ByteBuffer encoded = this.codec.encode(value);
+        if (encoded == null || encoded.remaining() > this.capacity / 4) {
+            return false;
+        }
+
+        this.remove(key);
+
+        final int length = encoded.remaining();
+        if (this.writePosition + length > this.capacity) {
+            this.writePosition = 0;
+        }
+        this.dropOverlapping(this.writePosition, this.writePosition + length);
+
+        final ByteBuffer target = this.mapped.duplicate();
+        target.position(this.writePosition);
+        target.put(encoded);
+
+        this.index.put(key, new Slot(this.writePosition, length, writeMillis));
+        this.byOffset.put(this.writePosition, key);
+        this.writePosition += length;
+        return true;
+
+    }
+
+    /**
+     * Gets a value if it is in the tier and young enough.
+     * @param key is the key to look up.
+     * @param type is the Class the value must have.
+     * @param maxAgeMillis is the maximum time since the value was originally written in milliseconds.
+     * @return the decoded value, or null if it is missing, too old, or of another type.
+     */
+    public synchronized <Z> Z get(final String key, final Class<Z> type, final long maxAgeMillis) {
+
+        final Slot slot = this.index.get(key);
+        if (slot == null || this.closed) {
+            return null;
+        }
+        if (System.currentTimeMillis() - slot.writeMillis >= maxAgeMillis) {
+            this.remove(key);
+            return null;
+        }
+
+        final ByteBuffer source = this.mapped.duplicate();
+        source.limit(slot.offset + slot.length);
+        source.position(slot.offset);
+        return this.codec.decode(source.slice(), type);
+
+    }
+
+    /**
+     * Gets the time a value in the tier was originally written, without decoding it.
+     * @param key is the key to look up.
+     * @return the write time in milliseconds, or -1 if the key is not in the tier.
+     */
+    public synchronized long getWriteMillis(final String key) {
+        final Slot slot = this.index.get(key);
+        return (slot == null || this.closed) ? -1 : slot.writeMillis;
+    }
+
+    /**
+     * Removes a key.
+     * @param key is the key to remove.
+     */
+    public synchronized void remove(final String key) {
+        final Slot slot = this.index.remove(key);
+        if (slot != null) {
+            this.byOffset.remove(slot.offset);
+        }
+    }
+
+    /**
+     * Removes every key.
+     */
+    public synchronized void clear() {
+        this.index.clear();
+        this.byOffset.clear();
+        this.writePosition = 0;
+    }
+
+    /**
+     * Gets the number of entries in the tier.
+     * @return the entry count as an integer.
+     */
+    @SuppressWarnings("unused")
+    public synchronized int size() {
+        return this.index.size();
+    }
+
+    /**
+     * Closes the tier and deletes its file.
+     */
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.clear();
+        try {
+            this.randomAccessFile.close();
+        } catch (IOException e) {
+            PLog.warning("close() -> Caught IOException closing {0}", this.file);
+        }
+        if (!this.file.delete()) {
+            PLog.fine("close() -> Could not delete {0} yet; it will be removed at exit", this.file);
+        }
+    }
+
+    /**
+     * Drops every entry whose bytes overlap a range that is about to be overwritten.  Called with the lock held.
+     */
+    private void dropOverlapping(final int start, final int end) {
+        final Map.Entry<Integer, String> before = this.byOffset.lowerEntry(start);
+        if (before != null) {
+            final Slot slot = this.index.get(before.getValue());
+            if (slot != null && slot.offset + slot.length > start) {
+                this.remove(before.getValue());
+            }
+        }
+        while (true) {
+            final Map.Entry<Integer, String> entry = this.byOffset.ceilingEntry(start);
+            if (entry == null || entry.getKey() >= end) {
+                return;
+            }
+            this.remove(entry.getValue());
+        }
+    }
+
+    /**
+     * Where one value lives in the file.
+     */
+    private static final class Slot {
+
+        final int offset;
+        final int length;
+        final long writeMillis;
+
+        Slot(final int offset, final int length, final long writeMillis) {
+            this.offset = offset;
+            this.length = length;
+            this.writeMillis = writeMillis;
+        }
+
+    }
+
+}
@@ -0,0 +1,274 @@
+package tv.present.cache;
+
+import tv.present.util.PLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Present Media Disk Cache
+ * October 19, 2026
+ *
+ * A size capped directory of downloaded media (ie: video stills and profile pictures), one file per URL, named by the
+ * SHA-1 of the URL.  When the total size goes over the cap, the least recently used files are deleted.  Recency is
+ * kept in memory and mirrored to each file's modification time, so the order survives a restart.
+ *
+ * Reads never copy the bytes onto the Java heap: get() maps the file read only, and transferTo() hands it straight to
+ * a channel (ie: a socket) with FileChannel.transferTo.  Files are written to a temporary name and renamed into place,
+ * so a reader never sees a partial file.
+ */
+public final class PMediaDiskCache {
+
+    private static final String TAG = "tv.present.cache.PMediaDiskCache";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    private static final String SUFFIX = ".media";
+    private static final String TEMPORARY_SUFFIX = ".part";
+
+    private final File directory;
+    private final long maximumBytes;
+    private final PCacheStats stats = new PCacheStats();
+
+    // File sizes by key, least recently used first.  Guarded by this.
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<String, Long>(64, 0.75f, true);
+    private long totalBytes = 0;
+
+    /**
+     * Constructs a PMediaDiskCache, picking up whatever an earlier run left in the directory.
+     * @param directory is the directory to keep the files in.
+     * @param maximumBytes is the cap on the total size of the files in bytes.
+     * @throws IOException if the directory could not be created.
+     */
+    public PMediaDiskCache(final File directory, final long maximumBytes) throws IOException {
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        this.directory = directory;
+        this.maximumBytes = maximumBytes;
+
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File first, File second) {
+                return Long.compare(first.lastModified(), second.lastModified());
+            }
+        });
+        for (File file : files) {
+            final String name = file.getName();
+            if (name.endsWith(TEMPORARY_SUFFIX)) {
+                // Left over from a download that never finished.
+                file.delete();
+            }
+            else if (name.endsWith(SUFFIX)) {
+                this.entries.put(name.substring(0, name.length() - SUFFIX.length()), file.length());
+                this.totalBytes += file.length();
+            }
+        }
+        this.trim();
+
+    }
+
+    /**
+     * Checks whether a URL is cached, without counting as a use.
+     * @param url is the URL as a String.
+     * @return true if its bytes are on disk, false otherwise.
+     */
+    public synchronized boolean contains(final String url) {
+        return this.entries.containsKey(keyFor(url));
+    }
+
+    /**
+     * Gets the bytes for a URL as a read only mapping of its file.
+     * @param url is the URL as a String.
+     * @return a ByteBuffer over the bytes, or null if the URL is not cached.
+     */
+    public ByteBuffer get(final String url) {
+
+        final File file = this.touch(keyFor(url));
+        if (file == null) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            PLog.warning("get() -> Caught IOException mapping {0}: {1}", file, e.getMessage());
+            this.remove(url);
+            return null;
+        }
+
+    }
+
+    /**
+     * Writes the bytes for a URL to a channel without copying them through the Java heap.
+     * @param url is the URL as a String.
+     * @param target is the WritableByteChannel to write to.
+     * @return the number of bytes written, or -1 if the URL is not cached or could not be read.
+     */
+    @SuppressWarnings("unused")
+    public long transferTo(final String url, final WritableByteChannel target) {
+
+        final File file = this.touch(keyFor(url));
+        if (file == null) {
+            return -1;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return size;
+        } catch (IOException e) {
+            PLog.warning("transferTo() -> Caught IOException reading {0}: {1}", file, e.getMessage());
+            return -1;
+        }
+
+    }
+
+    /**
+     * Stores the bytes for a URL, evicting the least recently used files if the cache goes over its cap.
+     * @param url is the URL as a String.
+     * @param in is the InputStream to read the bytes from (it is not closed).
+     * @param limitBytes is the most bytes to accept; larger media is not cached.
+     * @return true if the bytes were stored, false otherwise.
+     */
+    public boolean put(final String url, final InputStream in, final long limitBytes) {
+
+        final String key = keyFor(url);
+        final File temporary = new File(this.directory, key + "." + Thread.currentThread().getId() + TEMPORARY_SUFFIX);
+        final File file = new File(this.directory, key + SUFFIX);
+
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary.toPath())) {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > limitBytes) {
+                        break;
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            // The stream has been closed by now, so the partial file can be deleted.
+            if (size > limitBytes) {
+                PLog.fine("put() -> Not caching {0}, which is over {1} bytes", url, limitBytes);
+                temporary.delete();
+                return false;
+            }
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            PLog.warning("put() -> Caught IOException storing {0}: {1}", url, e.getMessage());
+            temporary.delete();
+            return false;
+        }
+
+        synchronized (this) {
+            final Long previous = this.entries.put(key, size);
+            this.totalBytes += size - ((previous == null) ? 0 : previous);
+            this.trim();
+        }
+        return true;
+
+    }
+
+    /**
+     * Removes the bytes for a URL.
+     * @param url is the URL as a String.
+     */
+    public synchronized void remove(final String url) {
+        final String key = keyFor(url);
+        final Long size = this.entries.remove(key);
+        if (size != null) {
+            this.totalBytes -= size;
+            new File(this.directory, key + SUFFIX).delete();
+        }
+    }
+
+    /**
+     * Gets the total size of the cached files.
+     * @return the size in bytes as a long.
+     */
+    @SuppressWarnings("unused")
+    public synchronized long getTotalBytes() {
+        return this.totalBytes;
+    }
+
+    /**
+     * Gets the cache's running counters (hits, misses and evictions).
+     * @return the PCacheStats.
+     */
+    @SuppressWarnings("unused")
+    public PCacheStats getStats() {
+        return this.stats;
+    }
+
+    /**
+     * Marks a key as just used.
+     * @return the key's File, or null if it is not cached.
+     */
+    private File touch(final String key) {
+        synchronized (this) {
+            if (this.entries.get(key) == null) {
+                this.stats.recordMiss();
+                return null;
+            }
+        }
+        this.stats.recordHit();
+        final File file = new File(this.directory, key + SUFFIX);
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /**
+     * Deletes least recently used files until the total is within the cap.  Called with the lock held.
+     */
+    private void trim() {
+        final Iterator<Map.Entry<String, Long>> iterator = this.entries.entrySet().iterator();
+        while (this.totalBytes > this.maximumBytes && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            this.totalBytes -= eldest.getValue();
+            new File(this.directory, eldest.getKey() + SUFFIX).delete();
+            this.stats.recordEviction();
+        }
+    }
+
+    private static String keyFor(final String url) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM has SHA-1.
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,320 @@
+package tv.present.cache;
+
+import tv.present.models.PUser;
+import tv.present.models.PUserProfile;
+import tv.present.models.PVideo;
+import tv.present.util.PLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Present Media Prefetcher
+ * October 19, 2026
+ *
+ * Downloads video stills and profile pictures into a PMediaDiskCache ahead of the renderers asking for them.  Feed
+ * methods hand each decoded page to their client's prefetcher (see PAPIClient.Builder.mediaPrefetcher(), or else
+ * setDefault()), which queues one download per image that is not already cached or on its way.
+ *
+ * Downloads run on a fixed number of daemon threads and are taken in priority order: stills before pictures, and
+ * within each, in the order they appear on the page.  The queue is bounded; once it is full, further prefetches are
+ * dropped, since a page the user has scrolled past is not worth catching up on.  get() never waits behind the queue: a
+ * URL that is queued but not started is downloaded on the calling thread instead.
+ */
+public final class PMediaPrefetcher {
+
+    private static final String TAG = "tv.present.cache.PMediaPrefetcher";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int PRIORITY_STILL = 0;
+    public static final int PRIORITY_PICTURE = 1000;
+    public static final int DEFAULT_THREADS = 4;
+    public static final int DEFAULT_MAXIMUM_QUEUED = 256;
+    public static final long MAXIMUM_MEDIA_BYTES = 4 * 1024 * 1024;
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int READ_TIMEOUT_MILLIS = 15000;
+
+    private static volatile PMediaPrefetcher defaultPrefetcher = null;
+
+    private final PMediaDiskCache diskCache;
+    private final int maximumQueued;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, Fetch> pending = new ConcurrentHashMap<String, Fetch>();
+    private final AtomicInteger queued = new AtomicInteger(0);
+    private final AtomicLong sequence = new AtomicLong(0);
+
+    /**
+     * Gets the prefetcher that feed methods hand their pages to.
+     * @return the installed PMediaPrefetcher, or null if none is installed (the default).
+     */
+    public static PMediaPrefetcher getDefault() {
+        return defaultPrefetcher;
+    }
+
+    /**
+     * Installs the prefetcher that feed methods hand their pages to.
+     * @param prefetcher is the PMediaPrefetcher to use, or null to stop prefetching.
+     */
+    @SuppressWarnings("unused")
+    public static void setDefault(final PMediaPrefetcher prefetcher) {
+        defaultPrefetcher = prefetcher;
+    }
+
+    /**
+     * Constructs a PMediaPrefetcher with the default thread count and queue bound.
+     * @param diskCache is the PMediaDiskCache to download into.
+     */
+    public PMediaPrefetcher(final PMediaDiskCache diskCache) {
+        this(diskCache, DEFAULT_THREADS, DEFAULT_MAXIMUM_QUEUED);
+    }
+
+    /**
+     * Constructs a PMediaPrefetcher.
+     * @param diskCache is the PMediaDiskCache to download into.
+     * @param threads is the number of concurrent downloads.
+     * @param maximumQueued is the most downloads to hold waiting before dropping prefetches.
+     */
+    public PMediaPrefetcher(final PMediaDiskCache diskCache, final int threads, final int maximumQueued) {
+        this.diskCache = diskCache;
+        this.maximumQueued = maximumQueued;
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "PresentClient-media-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            }
+        }) {
+            @Override
+            protected void beforeExecute(final Thread thread, final Runnable runnable) {
+                super.beforeExecute(thread, runnable);
+                if (runnable instanceof Fetch) {
+                    ((Fetch) runnable).dequeued();
+                }
+            }
+        };
+    }
+
+    /**
+     * Queues the stills of a page of videos, and the pictures of any creators that are already loaded.
+     * @param videos is the List of PVideo objects, in page order.
+     */
+    public void prefetchVideos(final List<PVideo> videos) {
+        if (videos == null) {
+            return;
+        }
+        for (int i = 0; i < videos.size(); i++) {
+            final PVideo video = videos.get(i);
+            if (video == null) {
+                continue;
+            }
+            this.prefetch(video.getStillImage(), PRIORITY_STILL + i);
+            if (video.isCreatorUserLoaded()) {
+                this.prefetchPicture(video.getCreatorUser(), PRIORITY_PICTURE + i);
+            }
+        }
+    }
+
+    /**
+     * Queues the profile pictures of a page of users.
+     * @param users is the List of PUser objects, in page order.
+     */
+    public void prefetchUsers(final List<PUser> users) {
+        if (users == null) {
+            return;
+        }
+        for (int i = 0; i < users.size(); i++) {
+            this.prefetchPicture(users.get(i), PRIORITY_PICTURE + i);
+        }
+    }
+
+    /**
+     * Queues one download.  Does nothing if the URL is cached or already queued, or if the queue is full.
+     * @param url is the URL to download.
+     * @param priority is the priority as an integer (lower goes first).
+     */
+    public void prefetch(final URL url, final int priority) {
+
+        if (url == null) {
+            return;
+        }
+        final String key = url.toString();
+        if (this.pending.containsKey(key) || this.diskCache.contains(key)) {
+            return;
+        }
+        if (this.queued.get() >= this.maximumQueued) {
+            PLog.finest("prefetch() -> Queue is full, dropping {0}", key);
+            return;
+        }
+
+        final Fetch fetch = new Fetch(url, priority, this.sequence.getAndIncrement());
+        if (this.pending.putIfAbsent(key, fetch) != null) {
+            return;
+        }
+        this.queued.incrementAndGet();
+        try {
+            this.executor.execute(fetch);
+        } catch (RejectedExecutionException e) {
+            this.queued.decrementAndGet();
+            this.pending.remove(key, fetch);
+        }
+
+    }
+
+    /**
+     * Gets the bytes for a URL, downloading them on the calling thread if they are not cached yet.
+     * @param url is the URL of the media.
+     * @return a read only ByteBuffer over the bytes, or null if they could not be downloaded.
+     */
+    public ByteBuffer get(final URL url) {
+
+        if (url == null) {
+            return null;
+        }
+        final String key = url.toString();
+        final ByteBuffer cached = this.diskCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Fetch fetch = this.pending.get(key);
+        if (fetch == null) {
+            final Fetch created = new Fetch(url, Integer.MIN_VALUE, this.sequence.getAndIncrement());
+            fetch = this.pending.putIfAbsent(key, created);
+            if (fetch == null) {
+                created.run();
+                return this.diskCache.get(key);
+            }
+        }
+
+        // Queued but not started: take it over.  Already running: wait for it.
+        fetch.run();
+        fetch.await();
+        return this.diskCache.get(key);
+
+    }
+
+    /**
+     * Stops the download threads.  Queued downloads are dropped.
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private void prefetchPicture(final PUser user, final int priority) {
+        final PUserProfile profile = (user == null) ? null : user.getProfile();
+        final String pictureURL = (profile == null) ? null : profile.getProfilePictureURL();
+        if (pictureURL == null || pictureURL.isEmpty()) {
+            return;
+        }
+        try {
+            this.prefetch(new URL(pictureURL), priority);
+        } catch (IOException e) {
+            PLog.finest("prefetchPicture() -> Skipping malformed URL {0}", pictureURL);
+        }
+    }
+
+    private void download(final URL url) {
+
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            final int responseCode = connection.getResponseCode();
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                PLog.warning("download() -> Got {0} for {1}", responseCode, url);
+                return;
+            }
+            if (connection.getContentLengthLong() > MAXIMUM_MEDIA_BYTES) {
+                PLog.fine("download() -> Not caching {0}, which is {1} bytes", url, connection.getContentLengthLong());
+                return;
+            }
+            try (InputStream in = connection.getInputStream()) {
+                this.diskCache.put(url.toString(), in, MAXIMUM_MEDIA_BYTES);
+            }
+        } catch (IOException e) {
+            PLog.warning("download() -> Caught IOException fetching {0}: {1}", url, e.getMessage());
+        } catch (ClassCastException e) {
+            PLog.warning("download() -> {0} is not an HTTP URL", url);
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+
+    }
+
+    /**
+     * One download, shared by everyone who asks for the same URL.  Whichever thread claims it first runs it.
+     */
+    private final class Fetch implements Runnable, Comparable<Fetch> {
+
+        private final URL url;
+        private final int priority;
+        private final long sequence;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        Fetch(final URL url, final int priority, final long sequence) {
+            this.url = url;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            if (!this.claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                PMediaPrefetcher.this.download(this.url);
+            } finally {
+                PMediaPrefetcher.this.pending.remove(this.url.toString(), this);
+                this.done.countDown();
+            }
+        }
+
+        /**
+         * Called by the pool when it takes the task, whether or not somebody else has already run it.
+         */
+        void dequeued() {
+            PMediaPrefetcher.this.queued.decrementAndGet();
+        }
+
+        void await() {
+            try {
+                this.done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public int compareTo(final Fetch other) {
+            if (this.priority != other.priority) {
+                return (this.priority < other.priority) ? -1 : 1;
+            }
+            return Long.compare(this.sequence, other.sequence);
+        }
+
+    }
+
+}
@@ -0,0 +1,553 @@
+package tv.present.cache;
+
+import tv.present.models.PObject;
+import tv.present.models.PUser;
+import tv.present.models.PVideo;
+import tv.present.util.PExecutors;
+
+import java.util.Calendar;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Present Model Cache
+ * October 19, 2026
+ *
+ * Caches PUser and PVideo objects by ID, and users secondarily by username, so repeated lookups (ie: the source user of
+ * every demand on a page) are served from memory.  Each kind lives in its own PTinyLFUCache with a time to live.
+ *
+ * Hits are refreshed in the background before they expire.  How soon depends on the object's _lastUpdateDate: an object
+ * that changed a minute ago is likely to change again and is refreshed sooner than one untouched for a month, but never
+ * sooner than MIN_REFRESH_MILLIS after it was cached.  At most MAX_CONCURRENT_REFRESHES refreshes run at a time; the
+ * rest wait their turn rather than taking more of the shared I/O threads.
+ *
+ * With a PMappedSpillTier, entries evicted from memory are spilled to it and promoted back on a miss, as long as they
+ * are still within their time to live.  A promoted entry keeps its original write time, so it expires when it would
+ * have if it had never left memory.  Spilling is handed to the I/O executor, one spill at a time, rather than done on
+ * the thread whose put caused the eviction, and a video whose creator has not been looked up yet is not spilled at all,
+ * since encoding it would mean fetching the creator.
+ *
+ * Only what every viewer sees is cached.  Users and videos are loaded without a session, and mergeUser() leaves out the
+ * PSubjectiveMeta of a signed in response; what one account sees of another (ie: whether it demands them) is kept on
+ * its PUserContext instead, so one cache can be shared by every account a client acts as.
+ *
+ * IDs and usernames the API has said do not exist (ie: stale mentions, deleted accounts, typos) are remembered for
+ * MISSING_TTL_MILLIS in small caches of their own, and lookups of them return null without calling the loader.  Putting
+ * a user or video clears its missing mark.
+ */
+public final class PModelCache {
+
+    public static final int DEFAULT_MAXIMUM_USERS = 2000;
+    public static final int DEFAULT_MAXIMUM_VIDEOS = 2000;
+    public static final long USER_TTL_MILLIS = 5 * 60 * 1000;
+    public static final long VIDEO_TTL_MILLIS = 2 * 60 * 1000;
+    public static final long MIN_REFRESH_MILLIS = 15 * 1000;
+    public static final int DEFAULT_MAXIMUM_MISSING = 512;
+    public static final long MISSING_TTL_MILLIS = 30 * 1000;
+    public static final int MAX_CONCURRENT_REFRESHES = 4;
+
+    private static final String USER_SPILL_PREFIX = "u:";
+    private static final String VIDEO_SPILL_PREFIX = "v:";
+
+    private static volatile PModelCache defaultCache = null;
+
+    private final PTinyLFUCache<String, PUser> users;
+    private final PTinyLFUCache<String, String> userIDsByUsername;
+    private final PTinyLFUCache<String, PVideo> videos;
+    private final PTinyLFUCache<String, Boolean> missingUsers;
+    private final PTinyLFUCache<String, Boolean> missingUsernames;
+    private final PTinyLFUCache<String, Boolean> missingVideos;
+    private final PMappedSpillTier spillTier;
+    private final Executor spillExecutor;
+    private final ConcurrentHashMap<String, PendingSpill> pendingSpills = new ConcurrentHashMap<String, PendingSpill>();
+    private final LongAdder spillHits = new LongAdder();
+
+    /**
+     * Gets the cache shared by every PAPIClient built without one of its own (see PAPIClient.Builder.modelCache()).
+     * @return the installed PModelCache, or a default sized one if none has been installed.
+     */
+    public static PModelCache getDefault() {
+        PModelCache cache = defaultCache;
+        if (cache == null) {
+            synchronized (PModelCache.class) {
+                cache = defaultCache;
+                if (cache == null) {
+                    cache = new PModelCache(DEFAULT_MAXIMUM_USERS, DEFAULT_MAXIMUM_VIDEOS, null);
+                    defaultCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Installs the cache shared by every PAPIClient built without one of its own.  Clients already built keep theirs.
+     * @param cache is the PModelCache to share, or null to go back to a default sized one.
+     */
+    @SuppressWarnings("unused")
+    public static void setDefault(final PModelCache cache) {
+        defaultCache = cache;
+    }
+
+    /**
+     * Constructs a PModelCache.
+     * @param maximumUsers is the maximum number of users kept in memory.
+     * @param maximumVideos is the maximum number of videos kept in memory.
+     * @param spillTier is the PMappedSpillTier to spill evicted entries to, or null for none.
+     */
+    public PModelCache(final int maximumUsers, final int maximumVideos, final PMappedSpillTier spillTier) {
+
+        this.spillTier = spillTier;
+        // Spills take the tier's lock, so running more than one at a time would only park I/O threads on it.
+        this.spillExecutor = PExecutors.limit(PExecutors.getIOExecutor(), 1);
+        final Executor refreshExecutor = PExecutors.limit(PExecutors.getIOExecutor(), MAX_CONCURRENT_REFRESHES);
+
+        final PTinyLFUCache.RefreshPolicy<PUser> userRefresh = new PTinyLFUCache.RefreshPolicy<PUser>() {
+            @Override
+            public long refreshAfterMillis(PUser value, long nowMillis) {
+                return PModelCache.refreshAfterMillis(value, nowMillis, USER_TTL_MILLIS);
+            }
+        };
+        final PTinyLFUCache.RefreshPolicy<PVideo> videoRefresh = new PTinyLFUCache.RefreshPolicy<PVideo>() {
+            @Override
+            public long refreshAfterMillis(PVideo value, long nowMillis) {
+                return PModelCache.refreshAfterMillis(value, nowMillis, VIDEO_TTL_MILLIS);
+            }
+        };
+
+        PTinyLFUCache.RemovalListener<String, PUser> userSpill = null;
+        PTinyLFUCache.RemovalListener<String, PVideo> videoSpill = null;
+        if (spillTier != null) {
+            userSpill = new PTinyLFUCache.RemovalListener<String, PUser>() {
+                @Override
+                public void onEvicted(String key, PUser value, long writeMillis) {
+                    PModelCache.this.spill(USER_SPILL_PREFIX + key, value, writeMillis);
+                }
+            };
+            videoSpill = new PTinyLFUCache.RemovalListener<String, PVideo>() {
+                @Override
+                public void onEvicted(String key, PVideo value, long writeMillis) {
+                    if (value.isCreatorUserLoaded()) {
+                        PModelCache.this.spill(VIDEO_SPILL_PREFIX + key, value, writeMillis);
+                    }
+                }
+            };
+        }
+
+        this.users = new PTinyLFUCache<String, PUser>(maximumUsers, USER_TTL_MILLIS, userRefresh, userSpill, refreshExecutor);
+        this.userIDsByUsername = new PTinyLFUCache<String, String>(maximumUsers, USER_TTL_MILLIS);
+        this.videos = new PTinyLFUCache<String, PVideo>(maximumVideos, VIDEO_TTL_MILLIS, videoRefresh, videoSpill, refreshExecutor);
+        this.missingUsers = new PTinyLFUCache<String, Boolean>(DEFAULT_MAXIMUM_MISSING, MISSING_TTL_MILLIS);
+        this.missingUsernames = new PTinyLFUCache<String, Boolean>(DEFAULT_MAXIMUM_MISSING, MISSING_TTL_MILLIS);
+        this.missingVideos = new PTinyLFUCache<String, Boolean>(DEFAULT_MAXIMUM_MISSING, MISSING_TTL_MILLIS);
+
+    }
+
+    /* #################### USERS #################### */
+
+    /**
+     * Gets a user by ID, loading it on a miss.
+     * @param id is the user ID as a String.
+     * @param loader is the PCacheLoader that fetches a user by ID.
+     * @return the PUser, or null if it is not cached and could not be loaded.
+     */
+    public PUser getUserByID(final String id, final PCacheLoader<String, PUser> loader) {
+        if (id == null || this.missingUsers.getIfPresent(id) != null) {
+            return null;
+        }
+        return this.users.get(id, new PCacheLoader<String, PUser>() {
+            @Override
+            public PUser load(String key) {
+                final PUser spilled = PModelCache.this.promote(PModelCache.this.users, USER_SPILL_PREFIX, key, PUser.class, USER_TTL_MILLIS);
+                final PUser user = (spilled != null) ? spilled : loader.load(key);
+                PModelCache.this.indexUsername(user);
+                return user;
+            }
+        });
+    }
+
+    /**
+     * Gets a user by username, loading it on a miss.
+     * @param username is the username as a String.
+     * @param loader is the PCacheLoader that fetches a user by username.
+     * @return the PUser, or null if it is not cached and could not be loaded.
+     */
+    public PUser getUserByUsername(final String username, final PCacheLoader<String, PUser> loader) {
+        if (username == null) {
+            return null;
+        }
+        final String id = this.userIDsByUsername.getIfPresent(username);
+        if (id != null) {
+            final PUser cached = this.users.getIfPresent(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        if (this.missingUsernames.getIfPresent(username) != null) {
+            return null;
+        }
+        final PUser user = loader.load(username);
+        this.putUser(user);
+        return user;
+    }
+
+    /**
+     * Gets a cached user by ID without loading it.
+     * @param id is the user ID as a String.
+     * @return the cached PUser, or null if it is not in memory.
+     */
+    public PUser peekUser(final String id) {
+        return (id == null) ? null : this.users.getIfPresent(id);
+    }
+
+    /**
+     * Gets a cached user by username without loading it.
+     * @param username is the username as a String.
+     * @return the cached PUser, or null if it is not in memory.
+     */
+    public PUser peekUserByUsername(final String username) {
+        final String id = (username == null) ? null : this.userIDsByUsername.getIfPresent(username);
+        return this.peekUser(id);
+    }
+
+    /**
+     * Gets a cached user by ID without loading it, promoting it from the spill tier if it was spilled there.
+     * @param id is the user ID as a String.
+     * @return the cached PUser, or null if it is in neither tier.
+     */
+    public PUser getCachedUser(final String id) {
+        if (id == null) {
+            return null;
+        }
+        final PUser cached = this.users.getIfPresent(id);
+        return (cached != null) ? cached : this.promote(this.users, USER_SPILL_PREFIX, id, PUser.class, USER_TTL_MILLIS);
+    }
+
+    /**
+     * Caches a user that came back without a session (ie: in search results) unless it is already cached, so that the
+     * cached object stays the one everything holds.
+     * @param user is the PUser to offer (null is ignored).
+     */
+    public void offerUser(final PUser user) {
+        if (user != null && user.getID() != null && this.users.getIfPresent(user.getID()) == null) {
+            this.putUser(user);
+        }
+    }
+
+    /**
+     * Takes in a fresh copy of a user returned on a signed in request.  If the user is already cached, the cached object
+     * is updated in place so that everything holding it sees the change.  Its PSubjectiveMeta is left out, since it is
+     * what the signed in user sees; for the same reason fresh is not cached if the user was not.
+     * @param fresh is the PUser just returned by the API (null is ignored).
+     */
+    public void mergeUser(final PUser fresh) {
+        if (fresh == null || fresh.getID() == null) {
+            return;
+        }
+        final PUser cached = this.users.getIfPresent(fresh.getID());
+        if (cached == null || cached == fresh) {
+            return;
+        }
+        synchronized (cached) {
+            cached.setProfile(fresh.getProfile());
+            cached.setEmailAddress(fresh.getEmailAddress());
+            cached.setVanityUsername(fresh.getVanityUsername());
+            cached.setNumProps(fresh.getNumDemands(), fresh.getNumFollowers(), fresh.getNumFriends(), fresh.getNumLikes(), fresh.getNumVideos(), fresh.getNumViews());
+            if (fresh.getLastUpdateDate() != null) {
+                cached.setLastUpdate(fresh.getLastUpdateDate());
+            }
+        }
+        this.putUser(cached);
+    }
+
+    /**
+     * Adds or replaces a user (ie: one that came back embedded in another response).
+     * @param user is the PUser to cache (null is ignored).
+     */
+    public void putUser(final PUser user) {
+        if (user == null || user.getID() == null) {
+            return;
+        }
+        this.users.put(user.getID(), user);
+        this.indexUsername(user);
+        this.missingUsers.invalidate(user.getID());
+        if (user.getUsername() != null) {
+            this.missingUsernames.invalidate(user.getUsername());
+        }
+        this.unspill(USER_SPILL_PREFIX + user.getID());
+    }
+
+    /**
+     * Removes a user.
+     * @param id is the user ID as a String.
+     */
+    public void invalidateUser(final String id) {
+        final PUser user = this.users.getIfPresent(id);
+        if (user != null && user.getUsername() != null) {
+            this.userIDsByUsername.invalidate(user.getUsername());
+        }
+        this.users.invalidate(id);
+        this.unspill(USER_SPILL_PREFIX + id);
+    }
+
+    /**
+     * Remembers that the API has no user with an ID, and drops any cached copy.
+     * @param id is the user ID as a String.
+     */
+    public void markUserMissing(final String id) {
+        if (id != null) {
+            this.invalidateUser(id);
+            this.missingUsers.put(id, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Remembers that the API has no user with a username.
+     * @param username is the username as a String.
+     */
+    public void markUsernameMissing(final String username) {
+        if (username != null) {
+            this.userIDsByUsername.invalidate(username);
+            this.missingUsernames.put(username, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Checks whether a username is remembered as not existing (ie: after a lookup of it failed).
+     * @param username is the username as a String.
+     * @return true if the API recently said there is no such user, false otherwise.
+     */
+    public boolean isUsernameMissing(final String username) {
+        return username != null && this.missingUsernames.getIfPresent(username) != null;
+    }
+
+    /**
+     * Checks whether a user ID is remembered as not existing (ie: after a lookup of it failed).
+     * @param id is the user ID as a String.
+     * @return true if the API recently said there is no such user, false otherwise.
+     */
+    public boolean isUserMissing(final String id) {
+        return id != null && this.missingUsers.getIfPresent(id) != null;
+    }
+
+    /* #################### VIDEOS #################### */
+
+    /**
+     * Gets a video by ID, loading it on a miss.
+     * @param id is the video ID as a String.
+     * @param loader is the PCacheLoader that fetches a video by ID.
+     * @return the PVideo, or null if it is not cached and could not be loaded.
+     */
+    public PVideo getVideo(final String id, final PCacheLoader<String, PVideo> loader) {
+        if (id == null || this.missingVideos.getIfPresent(id) != null) {
+            return null;
+        }
+        return this.videos.get(id, new PCacheLoader<String, PVideo>() {
+            @Override
+            public PVideo load(String key) {
+                final PVideo spilled = PModelCache.this.promote(PModelCache.this.videos, VIDEO_SPILL_PREFIX, key, PVideo.class, VIDEO_TTL_MILLIS);
+                return (spilled != null) ? spilled : loader.load(key);
+            }
+        });
+    }
+
+    /**
+     * Adds or replaces a video.
+     * @param video is the PVideo to cache (null is ignored).
+     */
+    public void putVideo(final PVideo video) {
+        if (video == null || video.getID() == null) {
+            return;
+        }
+        this.videos.put(video.getID(), video);
+        this.missingVideos.invalidate(video.getID());
+        this.unspill(VIDEO_SPILL_PREFIX + video.getID());
+    }
+
+    /**
+     * Removes a video.
+     * @param id is the video ID as a String.
+     */
+    public void invalidateVideo(final String id) {
+        this.videos.invalidate(id);
+        this.unspill(VIDEO_SPILL_PREFIX + id);
+    }
+
+    /**
+     * Remembers that the API has no video with an ID, and drops any cached copy.
+     * @param id is the video ID as a String.
+     */
+    public void markVideoMissing(final String id) {
+        if (id != null) {
+            this.invalidateVideo(id);
+            this.missingVideos.put(id, Boolean.TRUE);
+        }
+    }
+
+    /* #################### MAINTENANCE #################### */
+
+    /**
+     * Removes everything, from both tiers.
+     */
+    public void invalidateAll() {
+        this.users.invalidateAll();
+        this.userIDsByUsername.invalidateAll();
+        this.videos.invalidateAll();
+        this.missingUsers.invalidateAll();
+        this.missingUsernames.invalidateAll();
+        this.missingVideos.invalidateAll();
+        if (this.spillTier != null) {
+            synchronized (this.spillTier) {
+                this.pendingSpills.clear();
+                this.spillTier.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the counters of the user cache.
+     * @return the user PCacheStats.
+     */
+    @SuppressWarnings("unused")
+    public PCacheStats getUserStats() {
+        return this.users.getStats();
+    }
+
+    /**
+     * Gets the counters of the video cache.
+     * @return the video PCacheStats.
+     */
+    @SuppressWarnings("unused")
+    public PCacheStats getVideoStats() {
+        return this.videos.getStats();
+    }
+
+    /**
+     * Gets the number of lookups answered from the missing marks instead of the loader.
+     * @return the count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getMissingHits() {
+        return this.missingUsers.getStats().getHits() + this.missingUsernames.getStats().getHits() + this.missingVideos.getStats().getHits();
+    }
+
+    /**
+     * Gets the number of misses in memory that were served from the spill tier.
+     * @return the spill hit count as a long.
+     */
+    @SuppressWarnings("unused")
+    public long getSpillHits() {
+        return this.spillHits.sum();
+    }
+
+    /**
+     * Spills an evicted entry on the spill executor, so that encoding it does not hold up the put that evicted it.
+     * Until the spill has run, the entry can still be promoted straight from memory.
+     */
+    private void spill(final String key, final Object value, final long writeMillis) {
+        final PendingSpill pending = new PendingSpill(value, writeMillis);
+        this.pendingSpills.put(key, pending);
+        try {
+            this.spillExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    // Holding the tier's lock keeps a put or invalidate of the key from slipping in between.
+                    synchronized (PModelCache.this.spillTier) {
+                        if (PModelCache.this.pendingSpills.remove(key, pending)) {
+                            PModelCache.this.spillTier.put(key, value, writeMillis);
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.pendingSpills.remove(key, pending);
+        }
+    }
+
+    /**
+     * Drops a key from the spill tier, including a spill of it that has not run yet.
+     */
+    private void unspill(final String key) {
+        if (this.spillTier == null) {
+            return;
+        }
+        synchronized (this.spillTier) {
+            this.pendingSpills.remove(key);
+            this.spillTier.remove(key);
+        }
+    }
+
+    /**
+     * Moves a spilled entry back into memory with its original write time.
+     * @return the promoted value, or null if it was not spilled or is past its time to live.
+     */
+    private <Z> Z promote(final PTinyLFUCache<String, Z> cache, final String prefix, final String key, final Class<Z> type, final long ttlMillis) {
+
+        if (this.spillTier == null) {
+            return null;
+        }
+
+        final String spillKey = prefix + key;
+        Z value = null;
+        long writeMillis;
+        synchronized (this.spillTier) {
+            final PendingSpill pending = this.pendingSpills.remove(spillKey);
+            if (pending != null) {
+                writeMillis = pending.writeMillis;
+                if (System.currentTimeMillis() - writeMillis < ttlMillis) {
+                    value = type.cast(pending.value);
+                }
+            }
+            else {
+                writeMillis = this.spillTier.getWriteMillis(spillKey);
+                value = (writeMillis < 0) ? null : this.spillTier.get(spillKey, type, ttlMillis);
+                this.spillTier.remove(spillKey);
+            }
+        }
+
+        if (value != null) {
+            this.spillHits.increment();
+            cache.putIfAbsent(key, value, writeMillis);
+        }
+        return value;
+
+    }
+
+    /**
+     * An evicted entry waiting to be written to the spill tier.
+     */
+    private static final class PendingSpill {
+
+        private final Object value;
+        private final long writeMillis;
+
+        private PendingSpill(final Object value, final long writeMillis) {
+            this.value = value;
+            this.writeMillis = writeMillis;
+        }
+
+    }
+
+    private void indexUsername(final PUser user) {
+        if (user != null && user.getUsername() != null && user.getID() != null) {
+            this.userIDsByUsername.put(user.getUsername(), user.getID());
+        }
+    }
+
+    /**
+     * Picks the refresh delay for an object: a quarter of the time since it last changed, between MIN_REFRESH_MILLIS
+     * and three quarters of its time to live.
+     */
+    private static long refreshAfterMillis(final PObject value, final long nowMillis, final long ttlMillis) {
+        final long latest = ttlMillis * 3 / 4;
+        final Calendar lastUpdate = value.getLastUpdateDate();
+        if (lastUpdate == null) {
+            return latest;
+        }
+        final long sinceUpdate = Math.max(0, nowMillis - lastUpdate.getTimeInMillis());
+        return Math.max(MIN_REFRESH_MILLIS, Math.min(latest, sinceUpdate / 4));
+    }
+
+}
@@ -0,0 +1,661 @@
+package tv.present.cache;
+
+import tv.present.factories.PBinaryCodec;
+import tv.present.models.PUser;
+import tv.present.models.PUserActivity;
+import tv.present.models.PVideo;
+import tv.present.util.PLogger;
+import tv.present.util.PResultSet;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Present Offline Store
+ * October 19, 2026
+ *
+ * A persistent local store for users, videos, activities and feed pages, so a restarted client can show what it last
+ * saw before the network answers.  Values are encoded with PBinaryCodec and appended to a log of fixed size,
+ * memory-mapped segment files in one directory; an in-memory index maps each key to its newest record.
+ *
+ * Each record is [length][CRC32][op, key, value].  On open, every segment is scanned in order and the index rebuilt;
+ * the scan of a segment stops at the first record that is incomplete or fails its checksum, which is where a crash
+ * mid-write leaves off, and new records are written from there.  Writes go to the OS page cache through the mapping, so
+ * they survive the process dying; flush() forces them to the device to survive the machine dying too.
+ *
+ * Feed pages are best stored raw, as the response text the API sent (putRawPage()), and decoded again on the way out.
+ * Encoding a decoded page would force every lazy field of its objects (ie: a video's creator, which may have to be
+ * fetched) while the store is locked.
+ *
+ * Replaced and removed records are garbage.  Once the garbage outweighs the live data, the live records of every sealed
+ * segment are copied forward and the sealed segments deleted, oldest first, so a crash during compaction only leaves
+ * duplicates behind.
+ */
+public final class POfflineStore implements Closeable {
+
+    private static final String TAG = "tv.present.cache.POfflineStore";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int DEFAULT_SEGMENT_BYTES = 8 * 1024 * 1024;
+
+    public static final String USER_PREFIX = "user:";
+    public static final String VIDEO_PREFIX = "video:";
+    public static final String ACTIVITY_PREFIX = "activity:";
+    public static final String PAGE_PREFIX = "page:";
+    public static final String RAW_PAGE_PREFIX = "rawpage:";
+
+    private static final int SEGMENT_MAGIC = 0x50534731; // "PSG1"
+    private static final int SEGMENT_VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{8})\\.log");
+
+    /**
+     * Hears about the fresh copy of something that was first served from the store.
+     */
+    public interface RefreshListener<Z> {
+
+        /**
+         * Called once the fresh copy has been fetched and stored.
+         * @param fresh is the fresh PResultSet.
+         */
+        void onRefreshed(PResultSet<Z> fresh);
+
+    }
+
+    private final File directory;
+    private final int segmentBytes;
+    private final PBinaryCodec codec = new PBinaryCodec();
+    private final CRC32 crc = new CRC32();
+
+    // Guarded by this.
+    private final TreeMap<Integer, Segment> segments = new TreeMap<Integer, Segment>();
+    private final HashMap<String, Location> index = new HashMap<String, Location>();
+    private Segment active = null;
+    private long liveBytes = 0;
+    private long totalBytes = 0;
+    private boolean compacting = false;
+    private boolean closed = false;
+
+    /**
+     * Opens (or creates) a store with the default segment size.
+     * @param directory is the directory that holds the segment files.
+     * @return the POfflineStore, or null if the directory could not be opened.
+     */
+    public static POfflineStore open(final File directory) {
+        try {
+            return new POfflineStore(directory, DEFAULT_SEGMENT_BYTES);
+        } catch (IOException e) {
+            PLog.severe("open() -> Caught IOException opening {0}: {1}", directory, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Opens (or creates) a store, recovering whatever the segment files hold.
+     * @param directory is the directory that holds the segment files.
+     * @param segmentBytes is the size of each new segment file in bytes.
+     * @throws IOException if the directory or a segment could not be opened.
+     */
+    public POfflineStore(final File directory, final int segmentBytes) throws IOException {
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+
+        final File[] files = directory.listFiles();
+        final TreeMap<Integer, File> found = new TreeMap<Integer, File>();
+        if (files != null) {
+            for (File file : files) {
+                final Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+                if (matcher.matches()) {
+                    found.put(Integer.parseInt(matcher.group(1)), file);
+                }
+            }
+        }
+
+        for (Map.Entry<Integer, File> entry : found.entrySet()) {
+            final Segment segment = Segment.map(entry.getKey(), entry.getValue(), (int) Math.max(entry.getValue().length(), SEGMENT_HEADER_BYTES));
+            if (segment.buffer.getInt(0) != SEGMENT_MAGIC) {
+                // Only a segment that was being created when the process died should look like this.
+                PLog.warning("POfflineStore() -> Dropping {0}, which has no segment header", entry.getValue());
+                segment.delete();
+                continue;
+            }
+            this.segments.put(segment.number, segment);
+            this.recover(segment);
+        }
+
+        if (!this.segments.isEmpty()) {
+            this.active = this.segments.lastEntry().getValue();
+            this.clearTail(this.active);
+        }
+        PLog.fine("POfflineStore() -> Recovered {0} keys from {1} segments", this.index.size(), this.segments.size());
+
+    }
+
+    /* #################### MODELS #################### */
+
+    /**
+     * Stores a user under its ID.
+     * @param user is the PUser to store.
+     * @return true if it was stored, false otherwise.
+     */
+    public boolean putUser(final PUser user) {
+        return user != null && this.put(USER_PREFIX + user.getID(), user);
+    }
+
+    /**
+     * Gets a stored user.
+     * @param id is the user ID as a String.
+     * @return the PUser, or null if it is not stored.
+     */
+    public PUser getUser(final String id) {
+        return this.get(USER_PREFIX + id, PUser.class);
+    }
+
+    /**
+     * Stores a video under its ID.
+     * @param video is the PVideo to store.
+     * @return true if it was stored, false otherwise.
+     */
+    public boolean putVideo(final PVideo video) {
+        return video != null && this.put(VIDEO_PREFIX + video.getID(), video);
+    }
+
+    /**
+     * Gets a stored video.
+     * @param id is the video ID as a String.
+     * @return the PVideo, or null if it is not stored.
+     */
+    public PVideo getVideo(final String id) {
+        return this.get(VIDEO_PREFIX + id, PVideo.class);
+    }
+
+    /**
+     * Stores an activity under its ID.
+     * @param activity is the PUserActivity to store.
+     * @return true if it was stored, false otherwise.
+     */
+    public boolean putActivity(final PUserActivity activity) {
+        return activity != null && this.put(ACTIVITY_PREFIX + activity.getID(), activity);
+    }
+
+    /**
+     * Gets a stored activity.
+     * @param id is the activity ID as a String.
+     * @return the PUserActivity, or null if it is not stored.
+     */
+    public PUserActivity getActivity(final String id) {
+        return this.get(ACTIVITY_PREFIX + id, PUserActivity.class);
+    }
+
+    /**
+     * Stores a page of a feed (ie: the first page of a user's home videos).
+     * @param name is the name of the page as a String.
+     * @param page is the PResultSet to store.
+     * @return true if it was stored, false otherwise.
+     */
+    public boolean putPage(final String name, final PResultSet<?> page) {
+        return page != null && this.put(PAGE_PREFIX + name, page);
+    }
+
+    /**
+     * Gets a stored page of a feed.
+     * @param name is the name of the page as a String.
+     * @param type is the Class every result must have.
+     * @return the PResultSet, or null if it is not stored or holds something other than type.
+     */
+    @SuppressWarnings("unchecked")
+    public <Z> PResultSet<Z> getPage(final String name, final Class<Z> type) {
+        final PResultSet<?> page = this.get(PAGE_PREFIX + name, PResultSet.class);
+        if (page == null) {
+            return null;
+        }
+        for (Object result : page.getResults()) {
+            if (result != null && !type.isInstance(result)) {
+                return null;
+            }
+        }
+        return (PResultSet<Z>) page;
+    }
+
+    /**
+     * Stores a page of a feed as the raw response the API sent for it, so nothing has to be decoded to store it.
+     * @param name is the name of the page as a String.
+     * @param response is the response text (ie: the JSON document) as a String.
+     * @return true if it was stored, false otherwise.
+     */
+    public boolean putRawPage(final String name, final String response) {
+        if (response == null || name == null) {
+            return false;
+        }
+        final ByteBuffer encoded = ByteBuffer.wrap(response.getBytes(StandardCharsets.UTF_8));
+        synchronized (this) {
+            return !this.closed && this.append(OP_PUT, RAW_PAGE_PREFIX + name, encoded);
+        }
+    }
+
+    /**
+     * Gets the raw response stored for a page of a feed.
+     * @param name is the name of the page as a String.
+     * @return the response text as a String, or null if it is not stored.
+     */
+    public synchronized String getRawPage(final String name) {
+        final Location location = this.index.get(RAW_PAGE_PREFIX + name);
+        if (this.closed || location == null) {
+            return null;
+        }
+        final ByteBuffer source = location.segment.buffer.duplicate();
+        source.limit(location.valueOffset + location.valueLength);
+        source.position(location.valueOffset);
+        return StandardCharsets.UTF_8.decode(source).toString();
+    }
+
+    /**
+     * Removes a stored page of a feed (ie: one a write has made stale), whether it was stored decoded or raw.
+     * @param name is the name of the page as a String.
+     * @return true if a page was removed, false otherwise.
+     */
+    public synchronized boolean removePage(final String name) {
+        final boolean removed = this.remove(PAGE_PREFIX + name);
+        return this.remove(RAW_PAGE_PREFIX + name) || removed;
+    }
+
+    /* #################### KEYS #################### */
+
+    /**
+     * Stores a value under a key, replacing any earlier value.
+     * @param key is the key as a String.
+     * @param value is anything PBinaryCodec can encode.
+     * @return true if it was stored, false if it could not be encoded, is larger than a segment, or the write failed.
+     */
+    public synchronized boolean put(final String key, final Object value) {
+        if (this.closed || key == null) {
+            return false;
+        }
+        final ByteBuffer encoded;
+        try {
+            encoded = this.codec.encode(value);
+        } catch (RuntimeException e) {
+            PLog.severe("put() -> Caught {0} encoding {1}!", e.getClass().getName(), key);
+            return false;
+        }
+        return this.append(OP_PUT, key, encoded);
+    }
+
+    /**
+     * Gets the value stored under a key.
+     * @param key is the key as a String.
+     * @param type is the Class the value must have.
+     * @return the value, or null if nothing is stored or it has another type.
+     */
+    public synchronized <Z> Z get(final String key, final Class<Z> type) {
+        final Location location = this.index.get(key);
+        if (this.closed || location == null) {
+            return null;
+        }
+        final ByteBuffer source = location.segment.buffer.duplicate();
+        source.limit(location.valueOffset + location.valueLength);
+        source.position(location.valueOffset);
+        return this.codec.decode(source.slice(), type);
+    }
+
+    /**
+     * Removes the value stored under a key.
+     * @param key is the key as a String.
+     * @return true if a value was removed, false otherwise.
+     */
+    public synchronized boolean remove(final String key) {
+        if (this.closed || !this.index.containsKey(key)) {
+            return false;
+        }
+        return this.append(OP_DELETE, key, ByteBuffer.allocate(0));
+    }
+
+    /**
+     * Checks whether a key is stored.
+     * @param key is the key as a String.
+     * @return true if a value is stored under it, false otherwise.
+     */
+    public synchronized boolean contains(final String key) {
+        return this.index.containsKey(key);
+    }
+
+    /**
+     * Gets the number of stored keys.
+     * @return the key count as an integer.
+     */
+    @SuppressWarnings("unused")
+    public synchronized int size() {
+        return this.index.size();
+    }
+
+    /**
+     * Gets the bytes held by the newest record of every key.
+     * @return the live byte count as a long.
+     */
+    @SuppressWarnings("unused")
+    public synchronized long getLiveBytes() {
+        return this.liveBytes;
+    }
+
+    /**
+     * Gets the bytes held by every record in every segment, live or not.
+     * @return the total byte count as a long.
+     */
+    @SuppressWarnings("unused")
+    public synchronized long getTotalBytes() {
+        return this.totalBytes;
+    }
+
+    /* #################### MAINTENANCE #################### */
+
+    /**
+     * Forces every written record to the storage device.
+     */
+    public synchronized void flush() {
+        for (Segment segment : this.segments.values()) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * Copies the live records of every sealed segment forward and deletes the sealed segments.
+     */
+    public synchronized void compact() {
+
+        if (this.closed || this.compacting || this.segments.size() < 2) {
+            return;
+        }
+        this.compacting = true;
+        try {
+            this.compactSealed();
+        } finally {
+            this.compacting = false;
+        }
+
+    }
+
+    private void compactSealed() {
+
+        final ArrayList<Segment> sealed = new ArrayList<Segment>(this.segments.headMap(this.active.number).values());
+        final long before = this.totalBytes;
+
+        // Copy newest locations that live in sealed segments, in their original order within each segment.
+        for (Segment segment : sealed) {
+            final TreeMap<Integer, String> live = new TreeMap<Integer, String>();
+            for (Map.Entry<String, Location> entry : this.index.entrySet()) {
+                if (entry.getValue().segment == segment) {
+                    live.put(entry.getValue().offset, entry.getKey());
+                }
+            }
+            for (Map.Entry<Integer, String> entry : live.entrySet()) {
+                final Location location = this.index.get(entry.getValue());
+                final ByteBuffer value = location.segment.buffer.duplicate();
+                value.limit(location.valueOffset + location.valueLength);
+                value.position(location.valueOffset);
+                if (!this.append(OP_PUT, entry.getValue(), value.slice())) {
+                    PLog.severe("compact() -> Could not copy {0}; leaving the sealed segments in place", entry.getValue());
+                    return;
+                }
+            }
+        }
+
+        // Oldest first, so a tombstone is never deleted before the record it hides.
+        for (Segment segment : sealed) {
+            this.segments.remove(segment.number);
+            this.totalBytes -= segment.writePosition - SEGMENT_HEADER_BYTES;
+            segment.delete();
+        }
+        PLog.fine("compact() -> Compacted {0} segments, {1} bytes down to {2}", sealed.size(), before, this.totalBytes);
+
+    }
+
+    /**
+     * Closes the store, flushing every segment first.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+        this.flush();
+        this.closed = true;
+        for (Segment segment : this.segments.values()) {
+            segment.close();
+        }
+        this.segments.clear();
+        this.index.clear();
+    }
+
+    /* #################### LOG #################### */
+
+    /**
+     * Appends a record to the active segment, starting a new one if it does not fit.  Called with the lock held.
+     */
+    private boolean append(final byte op, final String key, final ByteBuffer value) {
+
+        final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        final int payloadLength = 1 + 2 + keyBytes.length + value.remaining();
+        final int recordLength = RECORD_HEADER_BYTES + payloadLength;
+        if (keyBytes.length > Short.MAX_VALUE || SEGMENT_HEADER_BYTES + recordLength > this.segmentBytes) {
+            PLog.warning("append() -> {0} is too large for a segment", key);
+            return false;
+        }
+
+        if (this.active == null || this.active.writePosition + recordLength > this.active.buffer.capacity()) {
+            if (!this.roll()) {
+                return false;
+            }
+        }
+
+        final Segment segment = this.active;
+        final int offset = segment.writePosition;
+        final ByteBuffer payload = segment.buffer.duplicate();
+        payload.position(offset + RECORD_HEADER_BYTES);
+        payload.put(op);
+        payload.putShort((short) keyBytes.length);
+        payload.put(keyBytes);
+        final int valueOffset = payload.position();
+        payload.put(value);
+
+        payload.limit(offset + recordLength);
+        payload.position(offset + RECORD_HEADER_BYTES);
+        this.crc.reset();
+        this.crc.update(payload);
+
+        // The length goes in last; until then the record reads as the end of the log.
+        segment.buffer.putInt(offset + 4, (int) this.crc.getValue());
+        segment.buffer.putInt(offset, payloadLength);
+        segment.writePosition = offset + recordLength;
+        this.totalBytes += recordLength;
+
+        this.apply(op, key, new Location(segment, offset, recordLength, valueOffset, recordLength - (valueOffset - offset)));
+
+        if (this.segments.size() > 2 && this.totalBytes > 2 * this.liveBytes) {
+            this.compact();
+        }
+        return true;
+
+    }
+
+    private boolean roll() {
+        final int number = this.segments.isEmpty() ? 1 : this.segments.lastKey() + 1;
+        final File file = new File(this.directory, String.format("segment-%08d.log", number));
+        try {
+            final Segment segment = Segment.map(number, file, this.segmentBytes);
+            segment.buffer.putInt(4, SEGMENT_VERSION);
+            segment.buffer.putInt(0, SEGMENT_MAGIC);
+            segment.writePosition = SEGMENT_HEADER_BYTES;
+            this.segments.put(number, segment);
+            this.active = segment;
+            return true;
+        } catch (IOException e) {
+            PLog.severe("roll() -> Caught IOException creating {0}: {1}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Points the index at a record (or drops the key for a tombstone), keeping the live byte count.
+     */
+    private void apply(final byte op, final String key, final Location location) {
+        final Location previous = (op == OP_PUT) ? this.index.put(key, location) : this.index.remove(key);
+        if (previous != null) {
+            this.liveBytes -= previous.length;
+        }
+        if (op == OP_PUT) {
+            this.liveBytes += location.length;
+        }
+    }
+
+    /**
+     * Replays a segment into the index, stopping at the first record that is incomplete or corrupt.
+     */
+    private void recover(final Segment segment) {
+
+        final ByteBuffer buffer = segment.buffer;
+        final int capacity = buffer.capacity();
+        int position = SEGMENT_HEADER_BYTES;
+
+        while (position + RECORD_HEADER_BYTES <= capacity) {
+
+            final int payloadLength = buffer.getInt(position);
+            if (payloadLength < 3 || position + RECORD_HEADER_BYTES + payloadLength > capacity) {
+                break;
+            }
+
+            final ByteBuffer payload = buffer.duplicate();
+            payload.limit(position + RECORD_HEADER_BYTES + payloadLength);
+            payload.position(position + RECORD_HEADER_BYTES);
+            this.crc.reset();
+            this.crc.update(payload);
+            if ((int) this.crc.getValue() != buffer.getInt(position + 4)) {
+                PLog.warning("recover() -> Checksum mismatch in segment {0} at {1}; ignoring the rest", segment.number, position);
+                break;
+            }
+
+            payload.position(position + RECORD_HEADER_BYTES);
+            final byte op = payload.get();
+            final int keyLength = payload.getShort();
+            if (keyLength < 0 || payload.remaining() < keyLength) {
+                break;
+            }
+            final byte[] keyBytes = new byte[keyLength];
+            payload.get(keyBytes);
+            final int recordLength = RECORD_HEADER_BYTES + payloadLength;
+            final int valueOffset = payload.position();
+
+            this.apply(op, new String(keyBytes, StandardCharsets.UTF_8), new Location(segment, position, recordLength, valueOffset, payload.remaining()));
+            this.totalBytes += recordLength;
+            position += recordLength;
+
+        }
+
+        segment.writePosition = position;
+
+    }
+
+    /**
+     * Zeroes whatever a torn write left after the last good record of the active segment.
+     */
+    private void clearTail(final Segment segment) {
+        final int capacity = segment.buffer.capacity();
+        if (segment.writePosition + 4 > capacity || segment.buffer.getInt(segment.writePosition) == 0) {
+            return;
+        }
+        PLog.warning("clearTail() -> Clearing a partial record at {0} in segment {1}", segment.writePosition, segment.number);
+        for (int i = segment.writePosition; i < capacity; i++) {
+            segment.buffer.put(i, (byte) 0);
+        }
+    }
+
+    /**
+     * Where the newest record of a key lives.
+     */
+    private static final class Location {
+
+        final Segment segment;
+        final int offset;
+        final int length;
+        final int valueOffset;
+        final int valueLength;
+
+        Location(final Segment segment, final int offset, final int length, final int valueOffset, final int valueLength) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.valueOffset = valueOffset;
+            this.valueLength = valueLength;
+        }
+
+    }
+
+    /**
+     * One memory-mapped segment file.
+     */
+    private static final class Segment {
+
+        final int number;
+        final File file;
+        final RandomAccessFile randomAccessFile;
+        final MappedByteBuffer buffer;
+        int writePosition = SEGMENT_HEADER_BYTES;
+
+        private Segment(final int number, final File file, final RandomAccessFile randomAccessFile, final MappedByteBuffer buffer) {
+            this.number = number;
+            this.file = file;
+            this.randomAccessFile = randomAccessFile;
+            this.buffer = buffer;
+        }
+
+        static Segment map(final int number, final File file, final int bytes) throws IOException {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try {
+                if (randomAccessFile.length() < bytes) {
+                    randomAccessFile.setLength(bytes);
+                }
+                final MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                return new Segment(number, file, randomAccessFile, buffer);
+            } catch (IOException e) {
+                randomAccessFile.close();
+                throw e;
+            }
+        }
+
+        void close() {
+            try {
+                this.randomAccessFile.close();
+            } catch (IOException e) {
+                PLog.warning("close() -> Caught IOException closing {0}", this.file);
+            }
+        }
+
+        void delete() {
+            this.close();
+            if (!this.file.delete()) {
+                PLog.warning("delete() -> Could not delete {0}", this.file);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,665 @@
+package tv.present.cache;
+
+import tv.present.util.PLogger;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Present TinyLFU Cache
+ * October 19, 2026
+ *
+ * A concurrent, size bounded cache with W-TinyLFU eviction.  New entries land in a small LRU window (1% of the cache);
+ * entries pushed out of the window compete with the main area's least recently used entry, and only the one that the
+ * PFrequencySketch says is more popular stays.  The main area is a segmented LRU (20% probation, 80% protected) so a
+ * single re-read is enough to shield an entry from a burst of one-off lookups.
+ *
+ * Reads never block: they go straight to a ConcurrentHashMap and record the access in a lossy, per-thread striped
+ * buffer that is replayed into the eviction policy whenever the lock happens to be free.  Writes and evictions take the
+ * lock.
+ *
+ * Entries expire a fixed time after they were written.  With a RefreshPolicy, get() also reloads an entry in the
+ * background once it is due, handing out the current value in the meantime, so popular entries never expire under a
+ * caller.  Concurrent misses on the same key share a single load.
+ */
+public final class PTinyLFUCache<K, V> {
+
+    private static final String TAG = "tv.present.cache.PTinyLFUCache";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private static final int READ_BUFFER_SIZE = 32;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+    /**
+     * Decides when a cached value is due for a background refresh.
+     */
+    public interface RefreshPolicy<V> {
+
+        /**
+         * Gets how long after being written a value should be refreshed.
+         * @param value is the value that was written.
+         * @param nowMillis is the time of the write in milliseconds.
+         * @return the delay in milliseconds, or a negative number to never refresh it.
+         */
+        long refreshAfterMillis(V value, long nowMillis);
+
+    }
+
+    /**
+     * Hears about entries that were evicted to keep the cache within its maximum size.
+     */
+    public interface RemovalListener<K, V> {
+
+        /**
+         * Called after an entry has been evicted, outside of the cache's lock.
+         * @param key is the evicted key.
+         * @param value is the evicted value.
+         * @param writeMillis is the time the value was written in milliseconds.
+         */
+        void onEvicted(K key, V value, long writeMillis);
+
+    }
+
+    private final ConcurrentHashMap<K, Node<K, V>> data;
+    private final ConcurrentHashMap<K, FutureTask<V>> loading = new ConcurrentHashMap<K, FutureTask<V>>();
+    private final ConcurrentHashMap<K, Boolean> refreshing = new ConcurrentHashMap<K, Boolean>();
+    private final PCacheStats stats = new PCacheStats();
+
+    private final int maximumSize;
+    private final long expireAfterWriteMillis;
+    private final RefreshPolicy<V> refreshPolicy;
+    private final RemovalListener<K, V> removalListener;
+    private final Executor refreshExecutor;
+
+    // Read buffers, one stripe per few threads.
+    private final AtomicReferenceArray<Node<K, V>>[] readBuffers;
+    private final AtomicLong[] readCounters;
+    private final int stripeMask;
+
+    // Eviction policy, guarded by evictionLock.
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final PFrequencySketch sketch;
+    private final AccessDeque<K, V> window = new AccessDeque<K, V>();
+    private final AccessDeque<K, V> probation = new AccessDeque<K, V>();
+    private final AccessDeque<K, V> protectedArea = new AccessDeque<K, V>();
+    private final int windowMaximum;
+    private final int protectedMaximum;
+
+    /**
+     * Constructs a PTinyLFUCache without refreshing or an eviction listener.
+     * @param maximumSize is the maximum number of entries.
+     * @param expireAfterWriteMillis is how long an entry lives after being written in milliseconds.
+     */
+    public PTinyLFUCache(final int maximumSize, final long expireAfterWriteMillis) {
+        this(maximumSize, expireAfterWriteMillis, null, null, null);
+    }
+
+    /**
+     * Constructs a PTinyLFUCache.
+     * @param maximumSize is the maximum number of entries.
+     * @param expireAfterWriteMillis is how long an entry lives after being written in milliseconds.
+     * @param refreshPolicy is the RefreshPolicy for background refreshes, or null for none.
+     * @param removalListener is the RemovalListener to tell about evictions, or null for none.
+     * @param refreshExecutor is the Executor to refresh on (needed only with a refresh policy).
+     */
+    public PTinyLFUCache(final int maximumSize, final long expireAfterWriteMillis, final RefreshPolicy<V> refreshPolicy,
+                         final RemovalListener<K, V> removalListener, final Executor refreshExecutor) {
+
+        this.maximumSize = Math.max(1, maximumSize);
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.refreshPolicy = refreshPolicy;
+        this.removalListener = removalListener;
+        this.refreshExecutor = refreshExecutor;
+
+        this.data = new ConcurrentHashMap<K, Node<K, V>>(Math.min(this.maximumSize, 1024));
+        this.sketch = new PFrequencySketch(this.maximumSize);
+        this.windowMaximum = Math.max(1, this.maximumSize / 100);
+        this.protectedMaximum = (this.maximumSize - this.windowMaximum) * 4 / 5;
+
+        final int stripes = Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.stripeMask = stripes - 1;
+        @SuppressWarnings("unchecked")
+        final AtomicReferenceArray<Node<K, V>>[] buffers = (AtomicReferenceArray<Node<K, V>>[]) new AtomicReferenceArray<?>[stripes];
+        this.readBuffers = buffers;
+        this.readCounters = new AtomicLong[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.readBuffers[i] = new AtomicReferenceArray<Node<K, V>>(READ_BUFFER_SIZE);
+            this.readCounters[i] = new AtomicLong();
+        }
+
+    }
+
+    /**
+     * Gets a live cached value without loading it.
+     * @param key is the key to look up.
+     * @return the value, or null if the key is missing or expired.
+     */
+    public V getIfPresent(final K key) {
+        final Node<K, V> node = this.getLiveNode(key, System.currentTimeMillis());
+        return (node == null) ? null : node.value;
+    }
+
+    /**
+     * Gets a cached value, loading it on a miss.  A hit that is due for a refresh starts one in the background.
+     * @param key is the key to look up.
+     * @param loader is the PCacheLoader to load (or refresh) the value with.
+     * @return the value, or null if it is missing and could not be loaded.
+     */
+    public V get(final K key, final PCacheLoader<K, V> loader) {
+
+        final long now = System.currentTimeMillis();
+        final Node<K, V> node = this.getLiveNode(key, now);
+        if (node != null) {
+            if (now >= node.refreshAtMillis) {
+                this.refreshAsync(key, loader);
+            }
+            return node.value;
+        }
+
+        // Single flight: the first caller to miss loads, the rest wait on its result.
+        final FutureTask<V> task = new FutureTask<V>(new Callable<V>() {
+            @Override
+            public V call() {
+                return loader.load(key);
+            }
+        });
+        final FutureTask<V> existing = this.loading.putIfAbsent(key, task);
+        if (existing != null) {
+            return this.await(existing);
+        }
+
+        try {
+            task.run();
+            final V value = this.await(task);
+            if (value != null) {
+                this.stats.recordLoadSuccess();
+                // A loader that promoted the value from a slower tier has already put it with its original write time.
+                final Node<K, V> loaded = this.data.get(key);
+                if (loaded == null || loaded.value != value) {
+                    this.put(key, value);
+                }
+            }
+            else {
+                this.stats.recordLoadFailure();
+            }
+            return value;
+        } finally {
+            this.loading.remove(key, task);
+        }
+
+    }
+
+    /**
+     * Adds or replaces a value.
+     * @param key is the key to store under.
+     * @param value is the value to store (null is ignored).
+     */
+    public void put(final K key, final V value) {
+
+        if (key == null || value == null) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        final long refreshAt = this.refreshAtMillis(value, now);
+        ArrayList<Node<K, V>> evicted = null;
+
+        this.evictionLock.lock();
+        try {
+            Node<K, V> node = this.data.get(key);
+            if (node != null && node.alive) {
+                node.value = value;
+                node.writeMillis = now;
+                node.refreshAtMillis = refreshAt;
+                this.onAccess(node);
+            }
+            else {
+                node = new Node<K, V>(key, value, now, refreshAt);
+                this.data.put(key, node);
+                this.window.addLast(node);
+                this.sketch.increment(key);
+                evicted = this.evict();
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+
+        this.notifyEvicted(evicted);
+
+    }
+
+    /**
+     * Adds a value that was written earlier (ie: one promoted back from a slower tier), keeping its original write time
+     * so that it expires (and is refreshed) when it would have if it had never left.  Does nothing if the key already
+     * has a value.
+     * @param key is the key to store under.
+     * @param value is the value to store (null is ignored).
+     * @param writeMillis is the time the value was originally written in milliseconds.
+     */
+    public void putIfAbsent(final K key, final V value, final long writeMillis) {
+
+        if (key == null || value == null) {
+            return;
+        }
+
+        final long refreshAt = this.refreshAtMillis(value, writeMillis);
+        ArrayList<Node<K, V>> evicted = null;
+
+        this.evictionLock.lock();
+        try {
+            final Node<K, V> existing = this.data.get(key);
+            if (existing != null && existing.alive) {
+                return;
+            }
+            final Node<K, V> node = new Node<K, V>(key, value, writeMillis, refreshAt);
+            this.data.put(key, node);
+            this.window.addLast(node);
+            this.sketch.increment(key);
+            evicted = this.evict();
+        } finally {
+            this.evictionLock.unlock();
+        }
+
+        this.notifyEvicted(evicted);
+
+    }
+
+    /**
+     * Removes a key.
+     * @param key is the key to remove.
+     */
+    public void invalidate(final K key) {
+        this.evictionLock.lock();
+        try {
+            final Node<K, V> node = this.data.remove(key);
+            if (node != null) {
+                this.unlink(node);
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every key.
+     */
+    public void invalidateAll() {
+        this.evictionLock.lock();
+        try {
+            for (Node<K, V> node : this.data.values()) {
+                node.alive = false;
+            }
+            this.data.clear();
+            this.window.clear();
+            this.probation.clear();
+            this.protectedArea.clear();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of entries, including any that have expired but not been removed yet.
+     * @return the entry count as an integer.
+     */
+    @SuppressWarnings("unused")
+    public int size() {
+        return this.data.size();
+    }
+
+    /**
+     * Gets the maximum number of entries.
+     * @return the maximum size as an integer.
+     */
+    @SuppressWarnings("unused")
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Gets the cache's running counters.
+     * @return the PCacheStats.
+     */
+    @SuppressWarnings("unused")
+    public PCacheStats getStats() {
+        return this.stats;
+    }
+
+    /* #################### READS #################### */
+
+    private Node<K, V> getLiveNode(final K key, final long now) {
+
+        final Node<K, V> node = (key == null) ? null : this.data.get(key);
+        if (node == null) {
+            this.stats.recordMiss();
+            return null;
+        }
+        if (now - node.writeMillis >= this.expireAfterWriteMillis) {
+            this.stats.recordMiss();
+            this.expire(node);
+            return null;
+        }
+
+        this.stats.recordHit();
+        this.recordRead(node);
+        return node;
+
+    }
+
+    /**
+     * Queues an access for the eviction policy.  The buffers are lossy: under heavy contention a few accesses are
+     * dropped, which only makes the frequency estimates slightly coarser.
+     */
+    private void recordRead(final Node<K, V> node) {
+        final int stripe = (int) Thread.currentThread().getId() & this.stripeMask;
+        final long count = this.readCounters[stripe].getAndIncrement();
+        this.readBuffers[stripe].lazySet((int) count & READ_BUFFER_MASK, node);
+        if ((count & READ_BUFFER_MASK) == READ_BUFFER_MASK && this.evictionLock.tryLock()) {
+            try {
+                this.drainReadBuffers();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replays buffered reads into the policy.  Called with evictionLock held.
+     */
+    private void drainReadBuffers() {
+        for (AtomicReferenceArray<Node<K, V>> buffer : this.readBuffers) {
+            for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+                final Node<K, V> node = buffer.getAndSet(i, null);
+                if (node != null && node.alive) {
+                    this.onAccess(node);
+                }
+            }
+        }
+    }
+
+    private void expire(final Node<K, V> node) {
+        this.evictionLock.lock();
+        try {
+            if (node.alive && this.data.remove(node.key, node)) {
+                this.unlink(node);
+                this.stats.recordExpiration();
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /* #################### REFRESH #################### */
+
+    private long refreshAtMillis(final V value, final long now) {
+        if (this.refreshPolicy == null || this.refreshExecutor == null) {
+            return Long.MAX_VALUE;
+        }
+        final long delay = this.refreshPolicy.refreshAfterMillis(value, now);
+        return (delay < 0) ? Long.MAX_VALUE : now + delay;
+    }
+
+    private void refreshAsync(final K key, final PCacheLoader<K, V> loader) {
+
+        if (this.refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+
+        try {
+            this.refreshExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        final V value = loader.load(key);
+                        if (value != null) {
+                            PTinyLFUCache.this.stats.recordRefresh();
+                            PTinyLFUCache.this.put(key, value);
+                        }
+                        else {
+                            PTinyLFUCache.this.stats.recordLoadFailure();
+                        }
+                    } catch (RuntimeException e) {
+                        PTinyLFUCache.this.stats.recordLoadFailure();
+                        PLog.severe("refreshAsync() -> Caught {0} refreshing {1}!", e.getClass().getName(), key);
+                    } finally {
+                        PTinyLFUCache.this.refreshing.remove(key);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.refreshing.remove(key);
+        }
+
+    }
+
+    private V await(final FutureTask<V> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            PLog.severe("await() -> Caught {0} loading a value!", e.getCause().getClass().getName());
+            return null;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /* #################### EVICTION POLICY #################### */
+
+    /**
+     * Moves an accessed entry within the policy.  Called with evictionLock held.
+     */
+    private void onAccess(final Node<K, V> node) {
+
+        this.sketch.increment(node.key);
+
+        if (node.queue == WINDOW) {
+            this.window.moveToBack(node);
+        }
+        else if (node.queue == PROBATION) {
+            // A second hit earns the entry a place in the protected area, demoting its least recent entry if full.
+            this.probation.remove(node);
+            node.queue = PROTECTED;
+            this.protectedArea.addLast(node);
+            if (this.protectedArea.size > this.protectedMaximum) {
+                final Node<K, V> demoted = this.protectedArea.pollFirst();
+                demoted.queue = PROBATION;
+                this.probation.addLast(demoted);
+            }
+        }
+        else {
+            this.protectedArea.moveToBack(node);
+        }
+
+    }
+
+    /**
+     * Evicts until the cache is within its maximum size.  Called with evictionLock held.
+     * @return the evicted nodes, or null if there were none.
+     */
+    private ArrayList<Node<K, V>> evict() {
+
+        // Entries that overflow the window become candidates at the back of probation.
+        while (this.window.size > this.windowMaximum) {
+            final Node<K, V> candidate = this.window.pollFirst();
+            candidate.queue = PROBATION;
+            this.probation.addLast(candidate);
+        }
+
+        ArrayList<Node<K, V>> evicted = null;
+        while (this.data.size() > this.maximumSize) {
+
+            Node<K, V> victim = this.probation.peekFirst();
+            final Node<K, V> candidate = this.probation.peekLast();
+            if (victim == null) {
+                victim = (this.protectedArea.size > 0) ? this.protectedArea.peekFirst() : this.window.peekFirst();
+            }
+            else if (victim != candidate && this.sketch.frequency(candidate.key) <= this.sketch.frequency(victim.key)) {
+                // The candidate is not more popular than the entry it would replace, so it is the one that goes.
+                victim = candidate;
+            }
+            if (victim == null) {
+                break;
+            }
+
+            this.data.remove(victim.key, victim);
+            this.unlink(victim);
+            this.stats.recordEviction();
+            if (this.removalListener != null) {
+                if (evicted == null) {
+                    evicted = new ArrayList<Node<K, V>>();
+                }
+                evicted.add(victim);
+            }
+
+        }
+        return evicted;
+
+    }
+
+    private void unlink(final Node<K, V> node) {
+        if (!node.alive) {
+            return;
+        }
+        node.alive = false;
+        if (node.queue == WINDOW) {
+            this.window.remove(node);
+        }
+        else if (node.queue == PROBATION) {
+            this.probation.remove(node);
+        }
+        else {
+            this.protectedArea.remove(node);
+        }
+    }
+
+    private void notifyEvicted(final ArrayList<Node<K, V>> evicted) {
+        if (evicted == null) {
+            return;
+        }
+        for (Node<K, V> node : evicted) {
+            try {
+                this.removalListener.onEvicted(node.key, node.value, node.writeMillis);
+            } catch (RuntimeException e) {
+                PLog.severe("notifyEvicted() -> Caught {0}!", e.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * A cache entry, linked into one of the policy's three queues.
+     */
+    private static final class Node<K, V> {
+
+        final K key;
+        volatile V value;
+        volatile long writeMillis;
+        volatile long refreshAtMillis;
+
+        // Policy state, guarded by evictionLock.
+        int queue = WINDOW;
+        boolean alive = true;
+        Node<K, V> previous;
+        Node<K, V> next;
+
+        Node(final K key, final V value, final long writeMillis, final long refreshAtMillis) {
+            this.key = key;
+            this.value = value;
+            this.writeMillis = writeMillis;
+            this.refreshAtMillis = refreshAtMillis;
+        }
+
+    }
+
+    /**
+     * An intrusive doubly linked list of nodes, least recently used first.
+     */
+    private static final class AccessDeque<K, V> {
+
+        Node<K, V> head;
+        Node<K, V> tail;
+        int size;
+
+        void addLast(final Node<K, V> node) {
+            node.previous = this.tail;
+            node.next = null;
+            if (this.tail == null) {
+                this.head = node;
+            }
+            else {
+                this.tail.next = node;
+            }
+            this.tail = node;
+            this.size++;
+        }
+
+        void remove(final Node<K, V> node) {
+            if (node.previous == null) {
+                this.head = node.next;
+            }
+            else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                this.tail = node.previous;
+            }
+            else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            this.size--;
+        }
+
+        void moveToBack(final Node<K, V> node) {
+            if (this.tail != node) {
+                this.remove(node);
+                this.addLast(node);
+            }
+        }
+
+        Node<K, V> peekFirst() {
+            return this.head;
+        }
+
+        Node<K, V> peekLast() {
+            return this.tail;
+        }
+
+        Node<K, V> pollFirst() {
+            final Node<K, V> node = this.head;
+            if (node != null) {
+                this.remove(node);
+            }
+            return node;
+        }
+
+        void clear() {
+            this.head = null;
+            this.tail = null;
+            this.size = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,452 @@
+package tv.present.cache;
+
+import tv.present.models.PUser;
+import tv.present.models.PUserProfile;
+import tv.present.util.PLogger;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Present User Prefix Index
+ * October 19, 2026
+ *
+ * An in-memory typeahead index over the users the client has seen.  Each user is filed under their username, vanity
+ * username, full name and each word of their full name, folded to lower case without accents, in a radix trie: edges
+ * carry whole runs of characters, so a node exists only where two terms part ways.  A prefix query walks at most the
+ * length of the prefix and then gathers users breadth first, so shorter (closer) matches come before longer ones.
+ *
+ * The index holds at most a fixed number of users.  Once full, the user indexed longest ago makes room for the next.
+ * Re-indexing a user whose names have changed moves them to their new terms.  Only an Entry of each user's ID and
+ * username is kept, never the PUser itself, so the index does not hold on to users the PModelCache has let go of;
+ * resolve the entries a search returns through the cache (see PAPIInteraction.typeahead()).
+ */
+public final class PUserPrefixIndex {
+
+    private static final String TAG = "tv.present.cache.PUserPrefixIndex";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int DEFAULT_MAXIMUM_USERS = 20000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final int[] NO_SLOTS = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static volatile PUserPrefixIndex defaultIndex = null;
+
+    /**
+     * One indexed user.
+     */
+    public static final class Entry {
+
+        private final String id;
+        private final String username;
+
+        private Entry(final String id, final String username) {
+            this.id = id;
+            this.username = username;
+        }
+
+        /**
+         * Gets the ID of the user.
+         * @return the user ID as a String.
+         */
+        public String getID() {
+            return this.id;
+        }
+
+        /**
+         * Gets the username of the user, as it was when they were indexed.
+         * @return the username as a String, or null if they had none.
+         */
+        @SuppressWarnings("unused")
+        public String getUsername() {
+            return this.username;
+        }
+
+    }
+
+    private final int maximumUsers;
+
+    // Guarded by this.
+    private final Node root = new Node(new char[0]);
+    private final Entry[] entries;
+    private final String[][] terms;
+    private final HashMap<String, Integer> slotsByID = new HashMap<String, Integer>();
+    private int nextSlot = 0;
+
+    /**
+     * Gets the index shared by every PAPIClient built without one of its own (see PAPIClient.Builder.userPrefixIndex()).
+     * @return the installed PUserPrefixIndex, or a default sized one if none has been installed.
+     */
+    public static PUserPrefixIndex getDefault() {
+        PUserPrefixIndex index = defaultIndex;
+        if (index == null) {
+            synchronized (PUserPrefixIndex.class) {
+                index = defaultIndex;
+                if (index == null) {
+                    index = new PUserPrefixIndex(DEFAULT_MAXIMUM_USERS);
+                    defaultIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Installs the index shared by every PAPIClient built without one of its own.  Clients already built keep theirs.
+     * @param index is the PUserPrefixIndex to use, or null to go back to a default sized one.
+     */
+    @SuppressWarnings("unused")
+    public static void setDefault(final PUserPrefixIndex index) {
+        defaultIndex = index;
+    }
+
+    /**
+     * Constructs a PUserPrefixIndex.
+     * @param maximumUsers is the most users to hold.
+     */
+    public PUserPrefixIndex(final int maximumUsers) {
+        this.maximumUsers = Math.max(1, maximumUsers);
+        this.entries = new Entry[this.maximumUsers];
+        this.terms = new String[this.maximumUsers][];
+    }
+
+    /**
+     * Files a user under their names, or updates them if they are already filed.
+     * @param user is the PUser to index (null, or one without an ID, is ignored).
+     */
+    public synchronized void add(final PUser user) {
+
+        if (user == null || user.getID() == null) {
+            return;
+        }
+        final String[] userTerms = termsFor(user);
+
+        final Entry entry = new Entry(user.getID(), user.getUsername());
+
+        final Integer existing = this.slotsByID.get(user.getID());
+        if (existing != null) {
+            final int slot = existing;
+            this.entries[slot] = entry;
+            if (!Arrays.equals(this.terms[slot], userTerms)) {
+                this.removeTerms(slot);
+                this.insertTerms(slot, userTerms);
+            }
+            return;
+        }
+
+        final int slot = this.nextSlot;
+        this.nextSlot = (this.nextSlot + 1) % this.maximumUsers;
+        if (this.entries[slot] != null) {
+            // Full: the user indexed longest ago makes room.
+            PLog.finest("add() -> Dropping {0} to make room for {1}", this.entries[slot].getID(), user.getID());
+            this.slotsByID.remove(this.entries[slot].getID());
+            this.removeTerms(slot);
+        }
+        this.entries[slot] = entry;
+        this.slotsByID.put(user.getID(), slot);
+        this.insertTerms(slot, userTerms);
+
+    }
+
+    /**
+     * Files a list of users.
+     * @param users is the List of PUser objects (null is ignored).
+     */
+    public void addAll(final Iterable<PUser> users) {
+        if (users == null) {
+            return;
+        }
+        for (PUser user : users) {
+            this.add(user);
+        }
+    }
+
+    /**
+     * Removes a user.
+     * @param id is the user ID as a String.
+     */
+    @SuppressWarnings("unused")
+    public synchronized void remove(final String id) {
+        final Integer slot = (id == null) ? null : this.slotsByID.remove(id);
+        if (slot != null) {
+            this.removeTerms(slot);
+            this.entries[slot] = null;
+        }
+    }
+
+    /**
+     * Finds users with a name starting with a prefix.
+     * @param prefix is the prefix as typed (case and accents are ignored).
+     * @param limit is the most users to return.
+     * @return an ArrayList<Entry> of matching users, closest matches first (empty if none match).
+     */
+    public synchronized ArrayList<Entry> search(final String prefix, final int limit) {
+
+        final ArrayList<Entry> product = new ArrayList<Entry>();
+        final String key = (prefix == null) ? "" : fold(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return product;
+        }
+
+        // Walk down to the node the prefix ends in (or part way along the edge into it).
+        Node node = this.root;
+        int matched = 0;
+        while (matched < key.length()) {
+            final Node child = node.child(key.charAt(matched));
+            if (child == null) {
+                return product;
+            }
+            final int common = commonLength(child.label, key, matched);
+            if (common < child.label.length && matched + common < key.length()) {
+                return product;
+            }
+            matched += common;
+            node = child;
+        }
+
+        final LinkedHashSet<Integer> found = new LinkedHashSet<Integer>();
+        final ArrayDeque<Node> queue = new ArrayDeque<Node>();
+        queue.add(node);
+        while (!queue.isEmpty() && found.size() < limit) {
+            final Node next = queue.poll();
+            for (int i = 0; i < next.slotCount && found.size() < limit; i++) {
+                found.add(next.slots[i]);
+            }
+            queue.addAll(Arrays.asList(next.children));
+        }
+        for (Integer slot : found) {
+            product.add(this.entries[slot]);
+        }
+        return product;
+
+    }
+
+    /**
+     * Gets the number of users held.
+     * @return the user count as an integer.
+     */
+    @SuppressWarnings("unused")
+    public synchronized int size() {
+        return this.slotsByID.size();
+    }
+
+    private void insertTerms(final int slot, final String[] userTerms) {
+        this.terms[slot] = userTerms;
+        for (String term : userTerms) {
+            this.insert(term, slot);
+        }
+    }
+
+    private void removeTerms(final int slot) {
+        final String[] userTerms = this.terms[slot];
+        if (userTerms != null) {
+            for (String term : userTerms) {
+                this.remove(this.root, term, 0, slot);
+            }
+        }
+        this.terms[slot] = null;
+    }
+
+    private void insert(final String term, final int slot) {
+
+        Node node = this.root;
+        int matched = 0;
+        while (matched < term.length()) {
+            final Node child = node.child(term.charAt(matched));
+            if (child == null) {
+                final Node leaf = new Node(term.substring(matched).toCharArray());
+                node.addChild(leaf);
+                node = leaf;
+                break;
+            }
+            final int common = commonLength(child.label, term, matched);
+            if (common < child.label.length) {
+                // Split the edge where the term parts from it.
+                final Node middle = new Node(Arrays.copyOf(child.label, common));
+                node.replaceChild(child, middle);
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                middle.addChild(child);
+                node = middle;
+                matched += common;
+                continue;
+            }
+            matched += common;
+            node = child;
+        }
+        node.addSlot(slot);
+
+    }
+
+    /**
+     * Removes a slot from the node a term ends in, then prunes empty nodes and merges nodes left with one child.
+     * @return true if the node at this level should be removed from its parent.
+     */
+    private boolean remove(final Node node, final String term, final int depth, final int slot) {
+
+        if (depth == term.length()) {
+            node.removeSlot(slot);
+        }
+        else {
+            final Node child = node.child(term.charAt(depth));
+            if (child == null || commonLength(child.label, term, depth) != child.label.length) {
+                return false;
+            }
+            if (this.remove(child, term, depth + child.label.length, slot)) {
+                node.removeChild(child);
+            }
+            else if (child.slotCount == 0 && child.children.length == 1) {
+                final Node grandchild = child.children[0];
+                final char[] merged = Arrays.copyOf(child.label, child.label.length + grandchild.label.length);
+                System.arraycopy(grandchild.label, 0, merged, child.label.length, grandchild.label.length);
+                grandchild.label = merged;
+                node.replaceChild(child, grandchild);
+            }
+        }
+        return node != this.root && node.slotCount == 0 && node.children.length == 0;
+
+    }
+
+    private static int commonLength(final char[] label, final String key, final int offset) {
+        final int max = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < max && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String[] termsFor(final PUser user) {
+        final LinkedHashSet<String> userTerms = new LinkedHashSet<String>();
+        addTerm(userTerms, user.getUsername());
+        addTerm(userTerms, user.getVanityUsername());
+        final PUserProfile profile = user.getProfile();
+        final String fullName = (profile == null) ? null : profile.getFullName();
+        if (fullName != null) {
+            addTerm(userTerms, fullName);
+            for (String word : SPACES.split(fullName)) {
+                addTerm(userTerms, word);
+            }
+        }
+        return userTerms.toArray(new String[userTerms.size()]);
+    }
+
+    private static void addTerm(final LinkedHashSet<String> userTerms, final String name) {
+        if (name != null) {
+            final String term = fold(name);
+            if (!term.isEmpty()) {
+                userTerms.add(term);
+            }
+        }
+    }
+
+    /**
+     * Folds a name or query to the form the trie is keyed by: trimmed, lower case, without accents or a leading @.
+     */
+    private static String fold(final String text) {
+        String folded = MARKS.matcher(Normalizer.normalize(text.trim(), Normalizer.Form.NFD)).replaceAll("");
+        folded = folded.toLowerCase(Locale.ROOT);
+        return folded.startsWith("@") ? folded.substring(1) : folded;
+    }
+
+    /**
+     * One node of the trie.  Children are kept sorted by the first character of their label.
+     */
+    private static final class Node {
+
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private int[] slots = NO_SLOTS;
+        private int slotCount = 0;
+
+        Node(final char[] label) {
+            this.label = label;
+        }
+
+        Node child(final char first) {
+            int low = 0;
+            int high = this.children.length - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final char c = this.children[middle].label[0];
+                if (c < first) {
+                    low = middle + 1;
+                }
+                else if (c > first) {
+                    high = middle - 1;
+                }
+                else {
+                    return this.children[middle];
+                }
+            }
+            return null;
+        }
+
+        void addChild(final Node child) {
+            int at = 0;
+            while (at < this.children.length && this.children[at].label[0] < child.label[0]) {
+                at++;
+            }
+            final Node[] grown = new Node[this.children.length + 1];
+            System.arraycopy(this.children, 0, grown, 0, at);
+            grown[at] = child;
+            System.arraycopy(this.children, at, grown, at + 1, this.children.length - at);
+            this.children = grown;
+        }
+
+        void replaceChild(final Node old, final Node replacement) {
+            for (int i = 0; i < this.children.length; i++) {
+                if (this.children[i] == old) {
+                    this.children[i] = replacement;
+                    return;
+                }
+            }
+        }
+
+        void removeChild(final Node child) {
+            for (int i = 0; i < this.children.length; i++) {
+                if (this.children[i] == child) {
+                    final Node[] shrunk = (this.children.length == 1) ? NO_CHILDREN : new Node[this.children.length - 1];
+                    System.arraycopy(this.children, 0, shrunk, 0, i);
+                    System.arraycopy(this.children, i + 1, shrunk, i, this.children.length - i - 1);
+                    this.children = shrunk;
+                    return;
+                }
+            }
+        }
+
+        void addSlot(final int slot) {
+            for (int i = 0; i < this.slotCount; i++) {
+                if (this.slots[i] == slot) {
+                    return;
+                }
+            }
+            if (this.slotCount == this.slots.length) {
+                this.slots = Arrays.copyOf(this.slots, Math.max(1, this.slotCount * 2));
+            }
+            this.slots[this.slotCount++] = slot;
+        }
+
+        void removeSlot(final int slot) {
+            for (int i = 0; i < this.slotCount; i++) {
+                if (this.slots[i] == slot) {
+                    this.slots[i] = this.slots[--this.slotCount];
+                    if (this.slotCount == 0) {
+                        this.slots = NO_SLOTS;
+                    }
+                    return;
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,15 @@
+package tv.present.exceptions;
+
+/**
+ * The APIRequestFailedException is passed to subscribers and callbacks when
+ * a request to the API did not produce a usable response.
+ */
+public class APIRequestFailedException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	public APIRequestFailedException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,1006 @@
+package tv.present.factories;
+
+import tv.present.enumerations.PGender;
+import tv.present.enumerations.PUserActivityType;
+import tv.present.enumerations.SubjectiveMetaDirection;
+import tv.present.models.*;
+import tv.present.util.PLazyValue;
+import tv.present.util.PLogger;
+import tv.present.util.PResultSet;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Present Binary Codec
+ * October 19, 2026
+ *
+ * Encodes model objects (and ArrayLists and PResultSets of them) to a compact binary form for caching, and decodes
+ * them back.  A document is a header (magic, format version) followed by one value.  A value is a type tag followed by
+ * a record; a record is a list of (field number, wire type) keys with their data and ends with a 0 key.  Because every
+ * field carries its wire type, a reader skips fields and whole records it does not know about, so fields and types can
+ * be added without bumping the version.  The version only changes for incompatible layout changes.
+ *
+ * Integers are zigzag varints and dates are epoch milliseconds.  Each distinct String is written once and referred to
+ * by index afterwards, and a PUser instance that appears more than once is written once and back-referenced after
+ * that.  Decoding reads straight out of the ByteBuffer into a reusable scratch array, so the only allocations are the
+ * model objects themselves and one String per distinct string in the document.
+ *
+ * Encoding materializes any lazy PVideo fields.  PComment.getTargetVideo() is not written (it would make a cycle, and
+ * PObjectFactory never sets it).  A PBinaryCodec keeps scratch state and must not be shared between threads.
+ */
+public final class PBinaryCodec {
+
+    private static final String TAG = "tv.present.factories.PBinaryCodec";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int MAGIC = 0x50425331; // "PBS1"
+    public static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 4096;
+
+    /* Wire types (the low 3 bits of every field key). */
+    private static final int VARINT = 0;
+    private static final int FIXED64 = 1;
+    private static final int STRING = 2;
+    private static final int VALUE = 3;
+
+    /* Value type tags. */
+    private static final int T_NULL = 0;
+    private static final int T_REF = 1;
+    private static final int T_USER = 2;
+    private static final int T_PROFILE = 3;
+    private static final int T_VIDEO = 4;
+    private static final int T_COMMENT = 5;
+    private static final int T_DEMAND = 6;
+    private static final int T_ACTIVITY = 7;
+    private static final int T_MEDIA_SEGMENT = 8;
+    private static final int T_PLAYLIST_SESSION = 9;
+    private static final int T_USER_CONTEXT = 10;
+    private static final int T_LIST = 11;
+    private static final int T_RESULT_SET = 12;
+
+    /* String references: 0 is null, 1 is a new literal, anything else is a table index + 2. */
+    private static final int S_NULL = 0;
+    private static final int S_LITERAL = 1;
+
+    /* Fields shared by every PObject record. */
+    private static final int F_ID = 1 << 3 | STRING;
+    private static final int F_META = 2 << 3 | VARINT;
+    private static final int F_CREATED = 3 << 3 | VARINT;
+    private static final int F_UPDATED = 4 << 3 | VARINT;
+
+    private static final int USER_USERNAME = 5 << 3 | STRING;
+    private static final int USER_VANITY_USERNAME = 6 << 3 | STRING;
+    private static final int USER_EMAIL = 7 << 3 | STRING;
+    private static final int USER_PROFILE = 8 << 3 | VALUE;
+    private static final int USER_DEMANDS = 9 << 3 | VARINT;
+    private static final int USER_FOLLOWERS = 10 << 3 | VARINT;
+    private static final int USER_FRIENDS = 11 << 3 | VARINT;
+    private static final int USER_LIKES = 12 << 3 | VARINT;
+    private static final int USER_VIDEOS = 13 << 3 | VARINT;
+    private static final int USER_VIEWS = 14 << 3 | VARINT;
+
+    private static final int PROFILE_FULL_NAME = 1 << 3 | STRING;
+    private static final int PROFILE_DESCRIPTION = 2 << 3 | STRING;
+    private static final int PROFILE_PICTURE = 3 << 3 | STRING;
+    private static final int PROFILE_WEBSITE = 4 << 3 | STRING;
+    private static final int PROFILE_GENDER = 5 << 3 | VARINT;
+
+    private static final int VIDEO_TITLE = 5 << 3 | STRING;
+    private static final int VIDEO_CREATOR = 6 << 3 | VALUE;
+    private static final int VIDEO_STILL_IMAGE = 7 << 3 | STRING;
+    private static final int VIDEO_LIVE = 8 << 3 | STRING;
+    private static final int VIDEO_REPLAY = 9 << 3 | STRING;
+    private static final int VIDEO_LIKES = 10 << 3 | VARINT;
+    private static final int VIDEO_VIEWS = 11 << 3 | VARINT;
+    private static final int VIDEO_AVAILABLE = 12 << 3 | VARINT;
+    private static final int VIDEO_VISIBILITY = 13 << 3 | VARINT;
+    private static final int VIDEO_COMMENTS = 14 << 3 | VALUE;
+    private static final int VIDEO_CREATION_START = 15 << 3 | VARINT;
+    private static final int VIDEO_CREATION_END = 16 << 3 | VARINT;
+    private static final int VIDEO_CREATOR_ID = 17 << 3 | STRING;
+
+    private static final int COMMENT_BODY = 5 << 3 | STRING;
+    private static final int COMMENT_SOURCE = 6 << 3 | VALUE;
+
+    private static final int DEMAND_SOURCE = 5 << 3 | VALUE;
+    private static final int DEMAND_TARGET = 6 << 3 | VALUE;
+
+    private static final int ACTIVITY_TYPE = 5 << 3 | VARINT;
+    private static final int ACTIVITY_SUBJECT = 6 << 3 | STRING;
+    private static final int ACTIVITY_SOURCE = 7 << 3 | VALUE;
+    private static final int ACTIVITY_VIDEO = 8 << 3 | VALUE;
+    private static final int ACTIVITY_TARGET = 9 << 3 | STRING;
+    private static final int ACTIVITY_UNREAD = 10 << 3 | VARINT;
+    private static final int ACTIVITY_COMMENT = 11 << 3 | VALUE;
+
+    private static final int SEGMENT_SEQUENCE = 1 << 3 | VARINT;
+    private static final int SEGMENT_DISCONTINUITY = 2 << 3 | VARINT;
+    private static final int SEGMENT_ELAPSED = 3 << 3 | FIXED64;
+    private static final int SEGMENT_DURATION = 4 << 3 | FIXED64;
+    private static final int SEGMENT_URI = 5 << 3 | STRING;
+
+    private static final int SESSION_SHOULD_FINISH = 5 << 3 | VARINT;
+    private static final int SESSION_FINISHED = 6 << 3 | VARINT;
+    private static final int SESSION_SHOULD_BE_AVAILABLE = 7 << 3 | VARINT;
+    private static final int SESSION_AVAILABLE = 8 << 3 | VARINT;
+    private static final int SESSION_WINDOW_LENGTH = 9 << 3 | VARINT;
+    private static final int SESSION_MAX_DURATION = 10 << 3 | VARINT;
+    private static final int SESSION_SEGMENTS = 11 << 3 | VALUE;
+
+    private static final int CONTEXT_TOKEN = 5 << 3 | STRING;
+    private static final int CONTEXT_USER = 6 << 3 | VALUE;
+
+    private static final int LIST_SIZE = 1 << 3 | VARINT;
+    private static final int LIST_ITEM = 2 << 3 | VALUE;
+    private static final int RESULT_SET_CURSOR = 3 << 3 | VARINT;
+
+    private static final PUserActivityType[] ACTIVITY_TYPES = PUserActivityType.values();
+    private static final PGender[] GENDERS = PGender.values();
+
+    /* Encoder state. */
+    private final HashMap<String, Integer> stringIndexes = new HashMap<String, Integer>();
+    private final IdentityHashMap<PUser, Integer> userIndexes = new IdentityHashMap<PUser, Integer>();
+
+    /* Decoder state. */
+    private final ArrayList<String> strings = new ArrayList<String>();
+    private final ArrayList<PUser> users = new ArrayList<PUser>();
+    private char[] scratch = new char[256];
+
+    /* #################### ENCODING #################### */
+
+    /**
+     * Encodes a value into a new ByteBuffer sized to fit.
+     * @param value is a model object, an ArrayList of them, a PResultSet of them, or null.
+     * @return a ByteBuffer positioned at 0 with the encoded document as its remaining bytes.
+     */
+    public final ByteBuffer encode(final Object value) {
+        int capacity = INITIAL_CAPACITY;
+        while (true) {
+            ByteBuffer out = ByteBuffer.allocate(capacity);
+            if (this.encode(value, out)) {
+                out.flip();
+                return out;
+            }
+            capacity <<= 1;
+        }
+    }
+
+    /**
+     * Encodes a value into a caller supplied ByteBuffer (ie: a direct or memory mapped buffer).
+     * @param value is a model object, an ArrayList of them, a PResultSet of them, or null.
+     * @param out is the ByteBuffer to write to, starting at its position.
+     * @return true if the document fit, false if out ran out of room (out's position is then restored).
+     */
+    public final boolean encode(final Object value, final ByteBuffer out) {
+        final int start = out.position();
+        try {
+            out.putInt(MAGIC);
+            writeVarint(out, FORMAT_VERSION);
+            this.writeValue(out, value);
+            return true;
+        } catch (BufferOverflowException e) {
+            out.position(start);
+            return false;
+        } finally {
+            this.stringIndexes.clear();
+            this.userIndexes.clear();
+        }
+    }
+
+    private void writeValue(final ByteBuffer out, final Object value) {
+
+        if (value == null) {
+            writeVarint(out, T_NULL);
+        }
+        else if (value instanceof PUser) {
+            this.writeUser(out, (PUser) value);
+        }
+        else if (value instanceof PVideo) {
+            this.writeVideo(out, (PVideo) value);
+        }
+        else if (value instanceof PUserActivity) {
+            this.writeActivity(out, (PUserActivity) value);
+        }
+        else if (value instanceof PComment) {
+            final PComment comment = (PComment) value;
+            writeVarint(out, T_COMMENT);
+            this.writeObjectFields(out, comment);
+            this.writeStringField(out, COMMENT_BODY, comment.getBody());
+            this.writeValueField(out, COMMENT_SOURCE, comment.getSourceUser());
+            writeVarint(out, 0);
+        }
+        else if (value instanceof PDemand) {
+            final PDemand demand = (PDemand) value;
+            writeVarint(out, T_DEMAND);
+            this.writeObjectFields(out, demand);
+            this.writeValueField(out, DEMAND_SOURCE, demand.getSourceUser());
+            this.writeValueField(out, DEMAND_TARGET, demand.getTargetUser());
+            writeVarint(out, 0);
+        }
+        else if (value instanceof PUserProfile) {
+            final PUserProfile profile = (PUserProfile) value;
+            writeVarint(out, T_PROFILE);
+            this.writeStringField(out, PROFILE_FULL_NAME, profile.getFullName());
+            this.writeStringField(out, PROFILE_DESCRIPTION, profile.getDescription());
+            this.writeStringField(out, PROFILE_PICTURE, profile.getProfilePictureURL());
+            this.writeStringField(out, PROFILE_WEBSITE, profile.getWebsiteURL());
+            if (profile.getGender() != null) {
+                writeVarint(out, PROFILE_GENDER);
+                writeVarint(out, profile.getGender().ordinal());
+            }
+            writeVarint(out, 0);
+        }
+        else if (value instanceof PMediaSegment) {
+            final PMediaSegment segment = (PMediaSegment) value;
+            writeVarint(out, T_MEDIA_SEGMENT);
+            writeIntField(out, SEGMENT_SEQUENCE, segment.getSequence());
+            writeIntField(out, SEGMENT_DISCONTINUITY, segment.getDiscontinuitySequence());
+            writeVarint(out, SEGMENT_ELAPSED);
+            out.putLong(Double.doubleToRawLongBits(segment.getTimeElapsed()));
+            writeVarint(out, SEGMENT_DURATION);
+            out.putLong(Double.doubleToRawLongBits(segment.getDuration()));
+            this.writeStringField(out, SEGMENT_URI, segment.getURI());
+            writeVarint(out, 0);
+        }
+        else if (value instanceof PPlaylistSession) {
+            final PPlaylistSession session = (PPlaylistSession) value;
+            writeVarint(out, T_PLAYLIST_SESSION);
+            this.writeObjectFields(out, session);
+            writeIntField(out, SESSION_SHOULD_FINISH, session.isShouldFinish() ? 1 : 0);
+            writeIntField(out, SESSION_FINISHED, session.isFinished() ? 1 : 0);
+            writeIntField(out, SESSION_SHOULD_BE_AVAILABLE, session.isShouldBeAvailable() ? 1 : 0);
+            writeIntField(out, SESSION_AVAILABLE, session.isAvailable() ? 1 : 0);
+            writeIntField(out, SESSION_WINDOW_LENGTH, session.getWindowLength());
+            writeIntField(out, SESSION_MAX_DURATION, session.getMaxDuration());
+            this.writeValueField(out, SESSION_SEGMENTS, session.getMediaSegments());
+            writeVarint(out, 0);
+        }
+        else if (value instanceof PUserContext) {
+            final PUserContext context = (PUserContext) value;
+            writeVarint(out, T_USER_CONTEXT);
+            this.writeObjectFields(out, context);
+            this.writeStringField(out, CONTEXT_TOKEN, context.getSessionToken());
+            this.writeValueField(out, CONTEXT_USER, context.getUser());
+            writeVarint(out, 0);
+        }
+        else if (value instanceof List) {
+            writeVarint(out, T_LIST);
+            this.writeItems(out, (List<?>) value);
+            writeVarint(out, 0);
+        }
+        else if (value instanceof PResultSet) {
+            final PResultSet<?> resultSet = (PResultSet<?>) value;
+            writeVarint(out, T_RESULT_SET);
+            writeIntField(out, RESULT_SET_CURSOR, resultSet.getCursor());
+            this.writeItems(out, resultSet.getResults());
+            writeVarint(out, 0);
+        }
+        else {
+            throw new IllegalArgumentException("PBinaryCodec cannot encode " + value.getClass().getName());
+        }
+
+    }
+
+    private void writeUser(final ByteBuffer out, final PUser user) {
+
+        final Integer index = this.userIndexes.get(user);
+        if (index != null) {
+            writeVarint(out, T_REF);
+            writeVarint(out, index);
+            return;
+        }
+
+        writeVarint(out, T_USER);
+        this.writeObjectFields(out, user);
+        this.writeStringField(out, USER_USERNAME, user.getUsername());
+        this.writeStringField(out, USER_VANITY_USERNAME, user.getVanityUsername());
+        this.writeStringField(out, USER_EMAIL, user.getEmailAddress());
+        this.writeValueField(out, USER_PROFILE, user.getProfile());
+        writeIntField(out, USER_DEMANDS, user.getNumDemands());
+        writeIntField(out, USER_FOLLOWERS, user.getNumFollowers());
+        writeIntField(out, USER_FRIENDS, user.getNumFriends());
+        writeIntField(out, USER_LIKES, user.getNumLikes());
+        writeIntField(out, USER_VIDEOS, user.getNumVideos());
+        writeIntField(out, USER_VIEWS, user.getNumViews());
+        writeVarint(out, 0);
+
+        // Indexes are handed out once a user is complete, which is also when the decoder can register it.
+        this.userIndexes.put(user, this.userIndexes.size());
+
+    }
+
+    private void writeVideo(final ByteBuffer out, final PVideo video) {
+        writeVarint(out, T_VIDEO);
+        this.writeObjectFields(out, video);
+        this.writeStringField(out, VIDEO_TITLE, video.getTitle());
+        this.writeValueField(out, VIDEO_CREATOR, video.getCreatorUser());
+        this.writeStringField(out, VIDEO_CREATOR_ID, video.getCreatorUserID());
+        final URL stillImage = video.getStillImage();
+        this.writeStringField(out, VIDEO_STILL_IMAGE, (stillImage == null) ? null : stillImage.toString());
+        this.writeStringField(out, VIDEO_LIVE, video.getLiveLink());
+        this.writeStringField(out, VIDEO_REPLAY, video.getReplayLink());
+        writeIntField(out, VIDEO_LIKES, video.getNumLikes());
+        writeIntField(out, VIDEO_VIEWS, video.getNumViews());
+        writeIntField(out, VIDEO_AVAILABLE, video.isAvailable() ? 1 : 0);
+        if (video.getVisibility() != null) {
+            writeIntField(out, VIDEO_VISIBILITY, video.getVisibility().get(PVisibility.PVisibilityEntity.Everyone) ? 1 : 0);
+        }
+        this.writeValueField(out, VIDEO_COMMENTS, video.getComments());
+        writeDateField(out, VIDEO_CREATION_START, video.getCreationStart());
+        writeDateField(out, VIDEO_CREATION_END, video.getCreationEnd());
+        writeVarint(out, 0);
+    }
+
+    private void writeActivity(final ByteBuffer out, final PUserActivity activity) {
+        writeVarint(out, T_ACTIVITY);
+        this.writeObjectFields(out, activity);
+        writeIntField(out, ACTIVITY_TYPE, activityTypeOf(activity).ordinal());
+        this.writeStringField(out, ACTIVITY_SUBJECT, activity.getSubject());
+        this.writeValueField(out, ACTIVITY_SOURCE, activity.getSourceUser());
+        this.writeValueField(out, ACTIVITY_VIDEO, activity.getVideo());
+        this.writeStringField(out, ACTIVITY_TARGET, activity.getTargetUserID());
+        writeIntField(out, ACTIVITY_UNREAD, activity.isUnread() ? 1 : 0);
+        if (activity instanceof PUserActivityNewCommentMention) {
+            this.writeValueField(out, ACTIVITY_COMMENT, ((PUserActivityNewCommentMention) activity).getComment());
+        }
+        writeVarint(out, 0);
+    }
+
+    private void writeItems(final ByteBuffer out, final List<?> items) {
+        final int size = items.size();
+        writeIntField(out, LIST_SIZE, size);
+        for (int i = 0; i < size; i++) {
+            writeVarint(out, LIST_ITEM);
+            this.writeValue(out, items.get(i));
+        }
+    }
+
+    private void writeObjectFields(final ByteBuffer out, final PObject object) {
+        this.writeStringField(out, F_ID, object.getID());
+        final PSubjectiveMeta subjectiveMeta = object.getSubjectiveMeta();
+        if (subjectiveMeta != null) {
+            writeIntField(out, F_META, packSubjectiveMeta(subjectiveMeta));
+        }
+        writeDateField(out, F_CREATED, object.getCreationDate());
+        writeDateField(out, F_UPDATED, object.getLastUpdateDate());
+    }
+
+    private void writeValueField(final ByteBuffer out, final int key, final Object value) {
+        if (value != null) {
+            writeVarint(out, key);
+            this.writeValue(out, value);
+        }
+    }
+
+    private void writeStringField(final ByteBuffer out, final int key, final String value) {
+
+        if (value == null) {
+            return;
+        }
+        writeVarint(out, key);
+
+        final Integer index = this.stringIndexes.get(value);
+        if (index != null) {
+            writeVarint(out, index + 2);
+            return;
+        }
+        this.stringIndexes.put(value, this.stringIndexes.size());
+        writeVarint(out, S_LITERAL);
+
+        // Measure first so the length can go in front without building a byte[].
+        final int length = value.length();
+        int byteLength = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                byteLength += 1;
+            }
+            else if (c < 0x800) {
+                byteLength += 2;
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                byteLength += 4;
+                i++;
+            }
+            else {
+                byteLength += 3;
+            }
+        }
+        writeVarint(out, byteLength);
+
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            }
+            else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            }
+            else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+
+    }
+
+    private static void writeIntField(final ByteBuffer out, final int key, final int value) {
+        writeVarint(out, key);
+        writeVarlong(out, ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    private static void writeDateField(final ByteBuffer out, final int key, final Calendar value) {
+        if (value != null) {
+            final long millis = value.getTimeInMillis();
+            writeVarint(out, key);
+            writeVarlong(out, (millis << 1) ^ (millis >> 63));
+        }
+    }
+
+    private static void writeVarint(final ByteBuffer out, final int value) {
+        writeVarlong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarlong(final ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /* #################### DECODING #################### */
+
+    /**
+     * Decodes a document written by encode().
+     * @param in is the ByteBuffer to read from, starting at its position.  Its position is left after the document.
+     * @return the decoded value, or null if the document is malformed, truncated or from an unsupported version.
+     */
+    public final Object decode(final ByteBuffer in) {
+        try {
+            if (in.getInt() != MAGIC) {
+                PLog.warning("decode() -> Buffer does not start with a PBinaryCodec document.");
+                return null;
+            }
+            final int version = readVarint(in);
+            if (version > FORMAT_VERSION) {
+                PLog.warning("decode() -> Unsupported format version {0}.", version);
+                return null;
+            }
+            return this.readValue(in);
+        } catch (BufferUnderflowException e) {
+            PLog.severe("decode() -> Caught BufferUnderflowException!");
+            return null;
+        } catch (IllegalStateException e) {
+            PLog.severe("decode() -> Caught IllegalStateException: {0}", e.getMessage());
+            return null;
+        } catch (IndexOutOfBoundsException e) {
+            PLog.severe("decode() -> Caught IndexOutOfBoundsException!");
+            return null;
+        } finally {
+            this.strings.clear();
+            this.users.clear();
+        }
+    }
+
+    /**
+     * Decodes a document written by encode() and checks its type.
+     * @param in is the ByteBuffer to read from.
+     * @param type is the expected Class of the value.
+     * @return the decoded value, or null if it is missing or of another type.
+     */
+    public final <Z> Z decode(final ByteBuffer in, final Class<Z> type) {
+        final Object value = this.decode(in);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    private Object readValue(final ByteBuffer in) {
+        switch (readVarint(in)) {
+            case T_NULL: return null;
+            case T_REF: return this.users.get(readVarint(in));
+            case T_USER: return this.readUser(in);
+            case T_PROFILE: return this.readProfile(in);
+            case T_VIDEO: return this.readVideo(in);
+            case T_COMMENT: return this.readComment(in);
+            case T_DEMAND: return this.readDemand(in);
+            case T_ACTIVITY: return this.readActivity(in);
+            case T_MEDIA_SEGMENT: return this.readMediaSegment(in);
+            case T_PLAYLIST_SESSION: return this.readPlaylistSession(in);
+            case T_USER_CONTEXT: return this.readUserContext(in);
+            case T_LIST: return this.readList(in, null);
+            case T_RESULT_SET:
+                final int[] cursor = new int[1];
+                final ArrayList<Object> results = this.readList(in, cursor);
+                return new PResultSet<Object>(cursor[0], results);
+            default:
+                // A record type from a newer writer; its fields still have to be read to keep the tables in step.
+                int key;
+                while ((key = readVarint(in)) != 0) {
+                    this.skipField(in, key);
+                }
+                return null;
+        }
+    }
+
+    private PUser readUser(final ByteBuffer in) {
+
+        String id = null, username = null, vanityUsername = null, emailAddress = null;
+        PSubjectiveMeta subjectiveMeta = null;
+        Calendar creationDate = null, lastUpdateDate = null;
+        PUserProfile profile = null;
+        int numDemands = 0, numFollowers = 0, numFriends = 0, numLikes = 0, numVideos = 0, numViews = 0;
+
+        int key;
+        while ((key = readVarint(in)) != 0) {
+            switch (key) {
+                case F_ID: id = this.readString(in); break;
+                case F_META: subjectiveMeta = unpackSubjectiveMeta(readInt(in)); break;
+                case F_CREATED: creationDate = readDate(in); break;
+                case F_UPDATED: lastUpdateDate = readDate(in); break;
+                case USER_USERNAME: username = this.readString(in); break;
+                case USER_VANITY_USERNAME: vanityUsername = this.readString(in); break;
+                case USER_EMAIL: emailAddress = this.readString(in); break;
+                case USER_PROFILE: profile = as(this.readValue(in), PUserProfile.class); break;
+                case USER_DEMANDS: numDemands = readInt(in); break;
+                case USER_FOLLOWERS: numFollowers = readInt(in); break;
+                case USER_FRIENDS: numFriends = readInt(in); break;
+                case USER_LIKES: numLikes = readInt(in); break;
+                case USER_VIDEOS: numVideos = readInt(in); break;
+                case USER_VIEWS: numViews = readInt(in); break;
+                default: this.skipField(in, key);
+            }
+        }
+
+        final PUser user = new PUser(id, subjectiveMeta, creationDate, lastUpdateDate, username, vanityUsername, emailAddress, profile, numDemands, numFollowers, numFriends, numLikes, numVideos, numViews);
+        this.users.add(user);
+        return user;
+
+    }
+
+    private PUserProfile readProfile(final ByteBuffer in) {
+
+        String fullName = null, description = null, pictureURL = null, websiteURL = null;
+        PGender gender = null;
+
+        int key;
+        while ((key = readVarint(in)) != 0) {
+            switch (key) {
+                case PROFILE_FULL_NAME: fullName = this.readString(in); break;
+                case PROFILE_DESCRIPTION: description = this.readString(in); break;
+                case PROFILE_PICTURE: pictureURL = this.readString(in); break;
+                case PROFILE_WEBSITE: websiteURL = this.readString(in); break;
+                case PROFILE_GENDER:
+                    final int ordinal = readVarint(in);
+                    gender = (ordinal < GENDERS.length) ? GENDERS[ordinal] : PGender.Unspecified;
+                    break;
+                default: this.skipField(in, key);
+            }
+        }
+
+        return (gender == null) ? new PUserProfile(fullName, description, pictureURL, websiteURL) : new PUserProfile(fullName, gender, description, pictureURL, websiteURL);
+
+    }
+
+    private PVideo readVideo(final ByteBuffer in) {
+
+        String id = null, title = null, creatorUserID = null, stillImage = null, live = null, replay = null;
+        PSubjectiveMeta subjectiveMeta = null;
+        Calendar creationDate = null, lastUpdateDate = null, creationStart = null, creationEnd = null;
+        PUser creatorUser = null;
+        int numLikes = 0, numViews = 0;
+        boolean isAvailable = false;
+        PVisibility visibility = null;
+        ArrayList<PComment> comments = null;
+
+        int key;
+        while ((key = readVarint(in)) != 0) {
+            switch (key) {
+                case F_ID: id = this.readString(in); break;
+                case F_META: subjectiveMeta = unpackSubjectiveMeta(readInt(in)); break;
+                case F_CREATED: creationDate = readDate(in); break;
+                case F_UPDATED: lastUpdateDate = readDate(in); break;
+                case VIDEO_TITLE: title = this.readString(in); break;
+                case VIDEO_CREATOR: creatorUser = as(this.readValue(in), PUser.class); break;
+                case VIDEO_CREATOR_ID: creatorUserID = this.readString(in); break;
+                case VIDEO_STILL_IMAGE: stillImage = this.readString(in); break;
+                case VIDEO_LIVE: live = this.readString(in); break;
+                case VIDEO_REPLAY: replay = this.readString(in); break;
+                case VIDEO_LIKES: numLikes = readInt(in); break;
+                case VIDEO_VIEWS: numViews = readInt(in); break;
+                case VIDEO_AVAILABLE: isAvailable = readInt(in) != 0; break;
+                case VIDEO_VISIBILITY:
+                    visibility = new PVisibility();
+                    visibility.set(PVisibility.PVisibilityEntity.Everyone, readInt(in) != 0);
+                    break;
+                case VIDEO_COMMENTS: comments = this.readTypedList(in, PComment.class); break;
+                case VIDEO_CREATION_START: creationStart = readDate(in); break;
+                case VIDEO_CREATION_END: creationEnd = readDate(in); break;
+                default: this.skipField(in, key);
+            }
+        }
+
+        // A creator that was never resolved is written as its ID alone, which is kept so it can still be loaded.
+        if (creatorUserID == null && creatorUser != null) {
+            creatorUserID = creatorUser.getID();
+        }
+        return new PVideo(id, subjectiveMeta, creationDate, lastUpdateDate, title, creatorUserID, PLazyValue.of(creatorUser), PLazyValue.of(toURL(stillImage)), PLazyValue.of(toURL(live)), PLazyValue.of(toURL(replay)), numLikes, numViews, isAvailable, visibility, PLazyValue.of((comments == null) ? new ArrayList<PComment>() : comments), creationStart, creationEnd);
+
+    }
+
+    private PComment readComment(final ByteBuffer in) {
+
+        String id = null, body = null;
+        Calendar creationDate = null, lastUpdateDate = null;
+        PUser sourceUser = null;
+
+        int key;
+        while ((key = readVarint(in)) != 0) {
+            switch (key) {
+                case F_ID: id = this.readString(in); break;
+                case F_CREATED: creationDate = readDate(in); break;
+                case F_UPDATED: lastUpdateDate = readDate(in); break;
+                case COMMENT_BODY: body = this.readString(in); break;
+                case COMMENT_SOURCE: sourceUser = as(this.readValue(in), PUser.class); break;
+                default: this.skipField(in, key);
+            }
+        }
+
+        return new PComment(id, body, null, sourceUser, creationDate, lastUpdateDate);
+
+    }
+
+    private PDemand readDemand(final ByteBuffer in) {
+
+        String id = null;
+        PSubjectiveMeta subjectiveMeta = null;
+        Calendar creationDate = null, lastUpdateDate = null;
+        PUser sourceUser = null, targetUser = null;
+
+        int key;
+        while ((key = readVarint(in)) != 0) {
+            switch (key) {
+                case F_ID: id = this.readString(in); break;
+                case F_META: subjectiveMeta = unpackSubjectiveMeta(readInt(in)); break;
+                case F_CREATED: creationDate = readDate(in); break;
+                case F_UPDATED: lastUpdateDate = readDate(in); break;
+                case DEMAND_SOURCE: sourceUser = as(this.readValue(in), PUser.class); break;
+                case DEMAND_TARGET: targetUser = as(this.readValue(in), PUser.class); break;
+                default: this.skipField(in, key);
+            }
+        }
+
+        return new PDemand(id, subjectiveMeta, sourceUser, targetUser, creationDate, lastUpdateDate);
+
+    }
+
+    private PUserActivity readActivity(final ByteBuffer in) {
+
+        String id = null, subject = null, targetUserID = null;
+        PSubjectiveMeta subjectiveMeta = null;
+        Calendar creationDate = null, lastUpdateDate = null;
+        int type = -1;
+        PUser sourceUser = null;
+        PVideo video = null;
+        PComment comment = null;
+        boolean isUnread = false;
+
+        int key;
+        while ((key = readVarint(in)) != 0) {
+            switch (key) {
+                case F_ID: id = this.readString(in); break;
+                case F_META: subjectiveMeta = unpackSubjectiveMeta(readInt(in)); break;
+                case F_CREATED: creationDate = readDate(in); break;
+                case F_UPDATED: lastUpdateDate = readDate(in); break;
+                case ACTIVITY_TYPE: type = readInt(in); break;
+                case ACTIVITY_SUBJECT: subject = this.readString(in); break;
+                case ACTIVITY_SOURCE: sourceUser = as(this.readValue(in), PUser.class); break;
+                case ACTIVITY_VIDEO: video = as(this.readValue(in), PVideo.class); break;
+                case ACTIVITY_TARGET: targetUserID = this.readString(in); break;
+                case ACTIVITY_UNREAD: isUnread = readInt(in) != 0; break;
+                case ACTIVITY_COMMENT: comment = as(this.readValue(in), PComment.class); break;
+                default: this.skipField(in, key);
+            }
+        }
+
+        if (type < 0 || type >= ACTIVITY_TYPES.length) {
+            PLog.warning("readActivity() -> Skipping activity {0} of unknown type {1}.", id, type);
+            return null;
+        }
+
+        switch (ACTIVITY_TYPES[type]) {
+            case NEW_COMMENT:
+                return new PUserActivityNewComment(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
+            case NEW_COMMENT_MENTION:
+                return new PUserActivityNewCommentMention(id, subjectiveMeta, creationDate, lastUpdateDate, subject, comment, sourceUser, video, targetUserID, isUnread);
+            case NEW_DEMAND:
+                return new PUserActivityNewDemand(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
+            case NEW_FOLLOWER:
+                return new PUserActivityNewFollower(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
+            case NEW_LIKE:
+                return new PUserActivityNewLike(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
+            case NEW_VIDEO_BY_DEMANDED_USER:
+                return new PUserActivityNewVideoByDemandedUser(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
+            case NEW_VIDEO_BY_FRIEND:
+                return new PUserActivityNewVideoByFriend(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
+            case NEW_VIDEO_MENTION:
+                return new PUserActivityNewVideoMention(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
+            default:
+                return new PUserActivityNewViewer(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
+        }
+
+    }
+
+    private PMediaSegment readMediaSegment(final ByteBuffer in) {
+
+        int sequence = 0, discontinuitySequence = 0;
+        double timeElapsed = 0, duration = 0;
+        String uri = null;
+
+        int key;
+        while ((key = readVarint(in)) != 0) {
+            switch (key) {
+                case SEGMENT_SEQUENCE: sequence = readInt(in); break;
+                case SEGMENT_DISCONTINUITY: discontinuitySequence = readInt(in); break;
+                case SEGMENT_ELAPSED: timeElapsed = Double.longBitsToDouble(in.getLong()); break;
+                case SEGMENT_DURATION: duration = Double.longBitsToDouble(in.getLong()); break;
+                case SEGMENT_URI: uri = this.readString(in); break;
+                default: this.skipField(in, key);
+            }
+        }
+
+        return new PMediaSegment(sequence, discontinuitySequence, timeElapsed, duration, uri);
+
+    }
+
+    private PPlaylistSession readPlaylistSession(final ByteBuffer in) {
+
+        String id = null;
+        boolean shouldFinish = false, isFinished = false, shouldBeAvailable = false, isAvailable = false;
+        int windowLength = 0, maxDuration = 0;
+        ArrayList<PMediaSegment> mediaSegments = null;
+
+        int key;
+        while ((key = readVarint(in)) != 0) {
+            switch (key) {
+                case F_ID: id = this.readString(in); break;
+                case SESSION_SHOULD_FINISH: shouldFinish = readInt(in) != 0; break;
+                case SESSION_FINISHED: isFinished = readInt(in) != 0; break;
+                case SESSION_SHOULD_BE_AVAILABLE: shouldBeAvailable = readInt(in) != 0; break;
+                case SESSION_AVAILABLE: isAvailable = readInt(in) != 0; break;
+                case SESSION_WINDOW_LENGTH: windowLength = readInt(in); break;
+                case SESSION_MAX_DURATION: maxDuration = readInt(in); break;
+                case SESSION_SEGMENTS: mediaSegments = this.readTypedList(in, PMediaSegment.class); break;
+                default: this.skipField(in, key);
+            }
+        }
+
+        return new PPlaylistSession(id, (mediaSegments == null) ? new ArrayList<PMediaSegment>() : mediaSegments, shouldFinish, isFinished, shouldBeAvailable, isAvailable, windowLength, maxDuration);
+
+    }
+
+    private PUserContext readUserContext(final ByteBuffer in) {
+
+        String id = null, sessionToken = null;
+        Calendar creationDate = null, lastUpdateDate = null;
+        PUser user = null;
+
+        int key;
+        while ((key = readVarint(in)) != 0) {
+            switch (key) {
+                case F_ID: id = this.readString(in); break;
+                case F_CREATED: creationDate = readDate(in); break;
+                case F_UPDATED: lastUpdateDate = readDate(in); break;
+                case CONTEXT_TOKEN: sessionToken = this.readString(in); break;
+                case CONTEXT_USER: user = as(this.readValue(in), PUser.class); break;
+                default: this.skipField(in, key);
+            }
+        }
+
+        return new PUserContext(id, creationDate, lastUpdateDate, sessionToken, user);
+
+    }
+
+    /**
+     * Reads a T_LIST or T_RESULT_SET record body.
+     * @param cursor receives the result set cursor if it is not null.
+     */
+    private ArrayList<Object> readList(final ByteBuffer in, final int[] cursor) {
+        ArrayList<Object> product = null;
+        int key;
+        while ((key = readVarint(in)) != 0) {
+            switch (key) {
+                case LIST_SIZE:
+                    product = new ArrayList<Object>(readInt(in));
+                    break;
+                case LIST_ITEM:
+                    if (product == null) {
+                        product = new ArrayList<Object>();
+                    }
+                    product.add(this.readValue(in));
+                    break;
+                case RESULT_SET_CURSOR:
+                    final int value = readInt(in);
+                    if (cursor != null) {
+                        cursor[0] = value;
+                    }
+                    break;
+                default:
+                    this.skipField(in, key);
+            }
+        }
+        return (product == null) ? new ArrayList<Object>() : product;
+    }
+
+    /**
+     * Reads a list value whose items should all be of one type, dropping any that are not.
+     */
+    private <Z> ArrayList<Z> readTypedList(final ByteBuffer in, final Class<Z> type) {
+        final Object value = this.readValue(in);
+        if (!(value instanceof ArrayList)) {
+            return null;
+        }
+        final ArrayList<?> items = (ArrayList<?>) value;
+        final ArrayList<Z> product = new ArrayList<Z>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            final Object item = items.get(i);
+            if (type.isInstance(item)) {
+                product.add(type.cast(item));
+            }
+        }
+        return product;
+    }
+
+    private void skipField(final ByteBuffer in, final int key) {
+        switch (key & 7) {
+            case VARINT: readVarlong(in); break;
+            case FIXED64: in.position(in.position() + 8); break;
+            case STRING: this.readString(in); break;
+            case VALUE: this.readValue(in); break;
+            default: throw new IllegalStateException("Unknown wire type " + (key & 7) + " at byte " + in.position());
+        }
+    }
+
+    private String readString(final ByteBuffer in) {
+
+        final int reference = readVarint(in);
+        if (reference == S_NULL) {
+            return null;
+        }
+        if (reference != S_LITERAL) {
+            return this.strings.get(reference - 2);
+        }
+
+        final int byteLength = readVarint(in);
+        if (byteLength > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (this.scratch.length < byteLength) {
+            this.scratch = new char[Math.max(byteLength, this.scratch.length << 1)];
+        }
+
+        final char[] chars = this.scratch;
+        final int end = in.position() + byteLength;
+        int length = 0;
+        while (in.position() < end) {
+            final int b = in.get() & 0xFF;
+            if (b < 0x80) {
+                chars[length++] = (char) b;
+            }
+            else if (b < 0xE0) {
+                chars[length++] = (char) (((b & 0x1F) << 6) | (in.get() & 0x3F));
+            }
+            else if (b < 0xF0) {
+                chars[length++] = (char) (((b & 0x0F) << 12) | ((in.get() & 0x3F) << 6) | (in.get() & 0x3F));
+            }
+            else {
+                final int codePoint = ((b & 0x07) << 18) | ((in.get() & 0x3F) << 12) | ((in.get() & 0x3F) << 6) | (in.get() & 0x3F);
+                chars[length++] = Character.highSurrogate(codePoint);
+                chars[length++] = Character.lowSurrogate(codePoint);
+            }
+        }
+
+        final String product = new String(chars, 0, length);
+        this.strings.add(product);
+        return product;
+
+    }
+
+    private static int readInt(final ByteBuffer in) {
+        final long zigzag = readVarlong(in);
+        return (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    private static Calendar readDate(final ByteBuffer in) {
+        final long zigzag = readVarlong(in);
+        final Calendar product = Calendar.getInstance();
+        product.setTimeInMillis((zigzag >>> 1) ^ -(zigzag & 1));
+        return product;
+    }
+
+    private static int readVarint(final ByteBuffer in) {
+        return (int) readVarlong(in);
+    }
+
+    private static long readVarlong(final ByteBuffer in) {
+        long product = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = in.get();
+            product |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return product;
+            }
+        }
+        throw new IllegalStateException("Malformed varint at byte " + in.position());
+    }
+
+    /* #################### HELPING #################### */
+
+    private static <Z> Z as(final Object value, final Class<Z> type) {
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    private static URL toURL(final String spec) {
+        if (spec == null) {
+            return null;
+        }
+        try {
+            return new URL(spec);
+        } catch (MalformedURLException e) {
+            PLog.severe("toURL() -> Caught MalformedURLException!");
+            return null;
+        }
+    }
+
+    private static int packSubjectiveMeta(final PSubjectiveMeta subjectiveMeta) {
+        int product = 0;
+        if (subjectiveMeta.getDemand(SubjectiveMetaDirection.Backward)) product |= 1;
+        if (subjectiveMeta.getDemand(SubjectiveMetaDirection.Forward)) product |= 1 << 1;
+        if (subjectiveMeta.getFriendship(SubjectiveMetaDirection.Backward)) product |= 1 << 2;
+        if (subjectiveMeta.getFriendship(SubjectiveMetaDirection.Forward)) product |= 1 << 3;
+        if (subjectiveMeta.getLike(SubjectiveMetaDirection.Backward)) product |= 1 << 4;
+        if (subjectiveMeta.getLike(SubjectiveMetaDirection.Forward)) product |= 1 << 5;
+        return product;
+    }
+
+    private static PSubjectiveMeta unpackSubjectiveMeta(final int bits) {
+        final PSubjectiveMeta product = new PSubjectiveMeta();
+        product.setDemand(SubjectiveMetaDirection.Backward, (bits & 1) != 0);
+        product.setDemand(SubjectiveMetaDirection.Forward, (bits & (1 << 1)) != 0);
+        product.setFriendship(SubjectiveMetaDirection.Backward, (bits & (1 << 2)) != 0);
+        product.setFriendship(SubjectiveMetaDirection.Forward, (bits & (1 << 3)) != 0);
+        product.setLike(SubjectiveMetaDirection.Backward, (bits & (1 << 4)) != 0);
+        product.setLike(SubjectiveMetaDirection.Forward, (bits & (1 << 5)) != 0);
+        return product;
+    }
+
+    private static PUserActivityType activityTypeOf(final PUserActivity activity) {
+        if (activity instanceof PUserActivityNewComment) return PUserActivityType.NEW_COMMENT;
+        if (activity instanceof PUserActivityNewCommentMention) return PUserActivityType.NEW_COMMENT_MENTION;
+        if (activity instanceof PUserActivityNewDemand) return PUserActivityType.NEW_DEMAND;
+        if (activity instanceof PUserActivityNewFollower) return PUserActivityType.NEW_FOLLOWER;
+        if (activity instanceof PUserActivityNewLike) return PUserActivityType.NEW_LIKE;
+        if (activity instanceof PUserActivityNewVideoByDemandedUser) return PUserActivityType.NEW_VIDEO_BY_DEMANDED_USER;
+        if (activity instanceof PUserActivityNewVideoByFriend) return PUserActivityType.NEW_VIDEO_BY_FRIEND;
+        if (activity instanceof PUserActivityNewVideoMention) return PUserActivityType.NEW_VIDEO_MENTION;
+        return PUserActivityType.NEW_VIEWER;
+    }
+
+}
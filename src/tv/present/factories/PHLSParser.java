@@ -0,0 +1,416 @@
+package tv.present.factories;
+
+import tv.present.models.PHLSMasterPlaylist;
+import tv.present.models.PMediaSegment;
+import tv.present.models.PPlaylistSession;
+import tv.present.util.PLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Present HLS Parser
+ * October 19, 2026
+ *
+ * Reads HLS (m3u8) master and media playlists line by line.  A media playlist is streamed to a MediaHandler one segment
+ * at a time, so nothing needs to hold the whole playlist (or even the whole file) in memory; parseMedia() builds a
+ * PPlaylistSession on top of that, keeping at most a given number of the newest segments.
+ *
+ * Relative URIs are resolved against the URL the playlist was read from.  Playlists can be read from anything a URL can
+ * open, including file: URLs of local fixtures, or straight from a Reader.
+ */
+public final class PHLSParser {
+
+    private static final String TAG = "tv.present.factories.PHLSParser";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int READ_TIMEOUT_MILLIS = 10000;
+
+    private static final String EXTM3U = "#EXTM3U";
+    private static final String EXTINF = "#EXTINF:";
+    private static final String TARGET_DURATION = "#EXT-X-TARGETDURATION:";
+    private static final String MEDIA_SEQUENCE = "#EXT-X-MEDIA-SEQUENCE:";
+    private static final String DISCONTINUITY_SEQUENCE = "#EXT-X-DISCONTINUITY-SEQUENCE:";
+    private static final String DISCONTINUITY = "#EXT-X-DISCONTINUITY";
+    private static final String ENDLIST = "#EXT-X-ENDLIST";
+    private static final String STREAM_INF = "#EXT-X-STREAM-INF:";
+
+    /**
+     * Receives a media playlist as it is read.
+     */
+    public interface MediaHandler {
+
+        /**
+         * Called once, before the first segment (or at the end for a playlist without segments).
+         * @param targetDuration is the #EXT-X-TARGETDURATION in seconds.
+         * @param mediaSequence is the sequence number of the first segment.
+         * @param discontinuitySequence is the discontinuity sequence of the first segment.
+         */
+        void onHeader(int targetDuration, int mediaSequence, int discontinuitySequence);
+
+        /**
+         * Called for each segment, in order.
+         * @param sequence is the segment's media sequence number.
+         * @param discontinuitySequence is the segment's discontinuity sequence.
+         * @param duration is the segment's #EXTINF duration in seconds.
+         * @param uri is the segment's absolute URI as a String.
+         */
+        void onSegment(int sequence, int discontinuitySequence, double duration, String uri);
+
+        /**
+         * Called after the last line.
+         * @param endList is true if the playlist had #EXT-X-ENDLIST (ie: a finished replay), false if it may grow.
+         */
+        void onEnd(boolean endList);
+
+    }
+
+    private PHLSParser() {
+        /* static only */
+    }
+
+    /* #################### MEDIA PLAYLISTS #################### */
+
+    /**
+     * Streams a media playlist to a handler.
+     * @param reader is the BufferedReader to read the playlist from.
+     * @param base is the URL to resolve relative URIs against, or null to leave them as they are.
+     * @param handler is the MediaHandler to hand the playlist to.
+     * @return true if the playlist was read to the end, false if it is not a playlist.
+     * @throws IOException if reading fails.
+     */
+    public static boolean streamMedia(final BufferedReader reader, final URL base, final MediaHandler handler) throws IOException {
+
+        if (!readHeaderLine(reader)) {
+            return false;
+        }
+
+        int targetDuration = 0;
+        int sequence = 0;
+        int discontinuitySequence = 0;
+        boolean headerSent = false;
+        boolean endList = false;
+        double duration = -1;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            if (line.startsWith("#")) {
+                if (line.startsWith(EXTINF)) {
+                    duration = parseDouble(line.substring(EXTINF.length(), endOfNumber(line, EXTINF.length())), 0);
+                }
+                else if (line.startsWith(TARGET_DURATION)) {
+                    targetDuration = parseInt(line.substring(TARGET_DURATION.length()), 0);
+                }
+                else if (line.startsWith(MEDIA_SEQUENCE)) {
+                    sequence = parseInt(line.substring(MEDIA_SEQUENCE.length()), 0);
+                }
+                else if (line.startsWith(DISCONTINUITY_SEQUENCE)) {
+                    discontinuitySequence = parseInt(line.substring(DISCONTINUITY_SEQUENCE.length()), 0);
+                }
+                else if (line.equals(DISCONTINUITY)) {
+                    discontinuitySequence++;
+                }
+                else if (line.equals(ENDLIST)) {
+                    endList = true;
+                }
+                // Every other tag (and comment) is ignored.
+                continue;
+            }
+
+            // A URI line closes the segment its #EXTINF opened.
+            if (duration < 0) {
+                PLog.warning("streamMedia() -> Skipping {0}, which has no #EXTINF", line);
+                continue;
+            }
+            if (!headerSent) {
+                // Discontinuities before the first segment have already been counted into its sequence.
+                handler.onHeader(targetDuration, sequence, discontinuitySequence);
+                headerSent = true;
+            }
+            handler.onSegment(sequence, discontinuitySequence, duration, resolve(base, line));
+            sequence++;
+            duration = -1;
+
+        }
+
+        if (!headerSent) {
+            handler.onHeader(targetDuration, sequence, discontinuitySequence);
+        }
+        handler.onEnd(endList);
+        return true;
+
+    }
+
+    /**
+     * Reads a media playlist into a PPlaylistSession, keeping only the newest segments.  Each segment's time elapsed is
+     * counted from the first segment in the playlist.
+     * @param reader is the BufferedReader to read the playlist from.
+     * @param base is the URL to resolve relative URIs against, or null.
+     * @param id is the ID to give the session (ie: the playlist's URL).
+     * @param maxSegments is the most segments to keep (0 or less for all of them).
+     * @return the PPlaylistSession, or null if the playlist could not be read.
+     */
+    public static PPlaylistSession parseMedia(final BufferedReader reader, final URL base, final String id, final int maxSegments) {
+
+        final ArrayDeque<PMediaSegment> segments = new ArrayDeque<PMediaSegment>();
+        final int[] targetDuration = new int[1];
+        final boolean[] finished = new boolean[1];
+
+        final MediaHandler handler = new MediaHandler() {
+            private double elapsed = 0;
+
+            @Override
+            public void onHeader(int duration, int mediaSequence, int discontinuitySequence) {
+                targetDuration[0] = duration;
+            }
+
+            @Override
+            public void onSegment(int sequence, int discontinuitySequence, double duration, String uri) {
+                segments.addLast(new PMediaSegment(sequence, discontinuitySequence, this.elapsed, duration, uri));
+                this.elapsed += duration;
+                if (maxSegments > 0 && segments.size() > maxSegments) {
+                    segments.removeFirst();
+                }
+            }
+
+            @Override
+            public void onEnd(boolean endList) {
+                finished[0] = endList;
+            }
+        };
+
+        try {
+            if (!streamMedia(reader, base, handler)) {
+                PLog.warning("parseMedia() -> {0} is not an HLS playlist", id);
+                return null;
+            }
+        } catch (IOException e) {
+            PLog.severe("parseMedia() -> Caught IOException reading {0}: {1}", id, e.getMessage());
+            return null;
+        }
+
+        return new PPlaylistSession(id, new ArrayList<PMediaSegment>(segments), finished[0], finished[0], true, true, segments.size(), targetDuration[0]);
+
+    }
+
+    /**
+     * Fetches and reads a media playlist into a PPlaylistSession, keeping only the newest segments.
+     * @param url is the URL of the playlist (http, https or file).
+     * @param maxSegments is the most segments to keep (0 or less for all of them).
+     * @return the PPlaylistSession, or null if the playlist could not be fetched or read.
+     */
+    @SuppressWarnings("unused")
+    public static PPlaylistSession fetchMedia(final String url, final int maxSegments) {
+        final URL location = toURL(url);
+        if (location == null) {
+            return null;
+        }
+        try (BufferedReader reader = open(location)) {
+            return parseMedia(reader, location, url, maxSegments);
+        } catch (IOException e) {
+            PLog.severe("fetchMedia() -> Caught IOException fetching {0}: {1}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    /* #################### MASTER PLAYLISTS #################### */
+
+    /**
+     * Reads a master playlist.
+     * @param reader is the BufferedReader to read the playlist from.
+     * @param base is the URL to resolve relative URIs against, or null.
+     * @return the PHLSMasterPlaylist, or null if the playlist could not be read.
+     */
+    public static PHLSMasterPlaylist parseMaster(final BufferedReader reader, final URL base) {
+
+        final ArrayList<PHLSMasterPlaylist.Variant> variants = new ArrayList<PHLSMasterPlaylist.Variant>();
+
+        try {
+            if (!readHeaderLine(reader)) {
+                PLog.warning("parseMaster() -> {0} is not an HLS playlist", base);
+                return null;
+            }
+
+            HashMap<String, String> pending = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.startsWith(STREAM_INF)) {
+                    pending = parseAttributes(line.substring(STREAM_INF.length()));
+                }
+                else if (!line.startsWith("#") && pending != null) {
+                    final String resolution = pending.get("RESOLUTION");
+                    int width = 0, height = 0;
+                    if (resolution != null && resolution.indexOf('x') > 0) {
+                        width = parseInt(resolution.substring(0, resolution.indexOf('x')), 0);
+                        height = parseInt(resolution.substring(resolution.indexOf('x') + 1), 0);
+                    }
+                    variants.add(new PHLSMasterPlaylist.Variant(resolve(base, line), parseLong(pending.get("BANDWIDTH"), 0),
+                            parseLong(pending.get("AVERAGE-BANDWIDTH"), 0), width, height, pending.get("CODECS")));
+                    pending = null;
+                }
+            }
+        } catch (IOException e) {
+            PLog.severe("parseMaster() -> Caught IOException reading {0}: {1}", base, e.getMessage());
+            return null;
+        }
+
+        return new PHLSMasterPlaylist((base == null) ? null : base.toString(), variants);
+
+    }
+
+    /**
+     * Fetches and reads a master playlist (ie: PVideo.getLiveLink() or getReplayLink()).
+     * @param url is the URL of the playlist (http, https or file).
+     * @return the PHLSMasterPlaylist, or null if the playlist could not be fetched or read.
+     */
+    public static PHLSMasterPlaylist fetchMaster(final String url) {
+        final URL location = toURL(url);
+        if (location == null) {
+            return null;
+        }
+        try (BufferedReader reader = open(location)) {
+            return parseMaster(reader, location);
+        } catch (IOException e) {
+            PLog.severe("fetchMaster() -> Caught IOException fetching {0}: {1}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    /* #################### HELPERS #################### */
+
+    /**
+     * Opens a playlist for reading.
+     * @param url is the URL of the playlist.
+     * @return a BufferedReader over the playlist.
+     * @throws IOException if it could not be opened.
+     */
+    public static BufferedReader open(final URL url) throws IOException {
+        final URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        if (connection instanceof HttpURLConnection) {
+            final int responseCode = ((HttpURLConnection) connection).getResponseCode();
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Got " + responseCode + " for " + url);
+            }
+        }
+        final Reader reader = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8);
+        return new BufferedReader(reader);
+    }
+
+    static URL toURL(final String url) {
+        try {
+            return (url == null) ? null : new URL(url);
+        } catch (MalformedURLException e) {
+            PLog.warning("toURL() -> Malformed URL {0}", url);
+            return null;
+        }
+    }
+
+    private static boolean readHeaderLine(final BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            // Tolerate a byte order mark in front of the tag.
+            if (line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (!line.isEmpty()) {
+                return line.startsWith(EXTM3U);
+            }
+        }
+        return false;
+    }
+
+    private static String resolve(final URL base, final String uri) {
+        if (base == null) {
+            return uri;
+        }
+        try {
+            return new URL(base, uri).toString();
+        } catch (MalformedURLException e) {
+            return uri;
+        }
+    }
+
+    /**
+     * Splits an attribute list (ie: BANDWIDTH=1280000,CODECS="avc1.4d401f,mp4a.40.2") on the commas outside quotes.
+     */
+    private static HashMap<String, String> parseAttributes(final String list) {
+        final HashMap<String, String> attributes = new HashMap<String, String>();
+        int start = 0;
+        boolean quoted = false;
+        for (int i = 0; i <= list.length(); i++) {
+            if (i < list.length() && list.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+            else if (i == list.length() || (list.charAt(i) == ',' && !quoted)) {
+                final String pair = list.substring(start, i);
+                final int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    String value = pair.substring(equals + 1).trim();
+                    if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                        value = value.substring(1, value.length() - 1);
+                    }
+                    attributes.put(pair.substring(0, equals).trim(), value);
+                }
+                start = i + 1;
+            }
+        }
+        return attributes;
+    }
+
+    private static int endOfNumber(final String line, final int from) {
+        final int comma = line.indexOf(',', from);
+        return (comma < 0) ? line.length() : comma;
+    }
+
+    private static int parseInt(final String value, final int fallback) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static long parseLong(final String value, final long fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static double parseDouble(final String value, final double fallback) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+}
@@ -0,0 +1,332 @@
+package tv.present.factories;
+
+import tv.present.models.PMediaSegment;
+import tv.present.models.PPlaylistSession;
+import tv.present.util.PLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Locale;
+
+/**
+ * Present HLS Writer
+ * October 19, 2026
+ *
+ * Writes a local HLS (m3u8) media playlist one segment at a time, for previewing or monitoring a session while it is
+ * being recorded.  The playlist is only ever replaced by renaming a whole temporary file over it, so readers always see
+ * a complete playlist:
+ *
+ *   - With a window (windowLength > 0, a live playlist) only the newest windowLength segments are kept.  Each append
+ *     renders that window to the temporary file and renames it over the playlist, which costs the same however long
+ *     the session has run.
+ *
+ *   - Without one (an event playlist that keeps every segment) the playlist is built up in a working file next to it.
+ *     Each append adds its lines to the end of the working file in a single write, without rendering anything that
+ *     came before; #EXT-X-TARGETDURATION is written with a fixed width so it can be raised in place if a segment runs
+ *     long.  The working file is then copied channel to channel into the temporary file and renamed over the playlist,
+ *     so publishing does grow with the playlist, but only as a copy of bytes already written.
+ *
+ * Segments must be appended in media sequence order; ones at or before the last appended are ignored.
+ */
+public final class PHLSWriter implements Closeable {
+
+    private static final String TAG = "tv.present.factories.PHLSWriter";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    private static final String EXTM3U = "#EXTM3U\n";
+    private static final String VERSION = "#EXT-X-VERSION:3\n";
+    private static final String PLAYLIST_TYPE_EVENT = "#EXT-X-PLAYLIST-TYPE:EVENT\n";
+    private static final String TARGET_DURATION = "#EXT-X-TARGETDURATION:";
+    private static final String MEDIA_SEQUENCE = "#EXT-X-MEDIA-SEQUENCE:";
+    private static final String DISCONTINUITY_SEQUENCE = "#EXT-X-DISCONTINUITY-SEQUENCE:";
+    private static final String DISCONTINUITY = "#EXT-X-DISCONTINUITY\n";
+    private static final String ENDLIST = "#EXT-X-ENDLIST\n";
+
+    // Wide enough for any target duration in seconds, so an event playlist's can be rewritten in place.
+    private static final int TARGET_DURATION_WIDTH = 5;
+    private static final int MAXIMUM_TARGET_DURATION = 99999;
+
+    private final File file;
+    private final File temporary;
+    private final File working;
+    private final int windowLength;
+
+    // Guarded by this.
+    private final ArrayDeque<Entry> window = new ArrayDeque<Entry>();
+    private int targetDuration;
+    private int lastSequence = -1;
+    private int lastDiscontinuitySequence = -1;
+    private int segmentCount = 0;
+    private boolean finished = false;
+    private FileChannel channel = null;
+    private long targetDurationPosition = -1;
+
+    /**
+     * Constructs a PHLSWriter.  Nothing is written until the first segment is appended.
+     * @param file is the File to write the playlist to.
+     * @param windowLength is the number of segments to keep (0 or less to keep every segment).
+     * @param targetDuration is the #EXT-X-TARGETDURATION in seconds (it is raised if a segment runs longer).
+     */
+    public PHLSWriter(final File file, final int windowLength, final int targetDuration) {
+        this.file = file;
+        this.temporary = new File(file.getPath() + ".part");
+        this.working = new File(file.getPath() + ".work");
+        this.windowLength = Math.max(0, windowLength);
+        this.targetDuration = Math.min(MAXIMUM_TARGET_DURATION, Math.max(1, targetDuration));
+    }
+
+    /**
+     * Constructs a PHLSWriter that follows a playlist session's window length and maximum duration.
+     * @param file is the File to write the playlist to.
+     * @param playlistSession is the PPlaylistSession being recorded.
+     */
+    public PHLSWriter(final File file, final PPlaylistSession playlistSession) {
+        this(file, playlistSession.getWindowLength(), playlistSession.getMaxDuration());
+    }
+
+    /**
+     * Appends a segment, using the URI it carries.
+     * @param segment is the PMediaSegment to append.
+     * @return true if the segment was written, false if it was at or before the last one appended.
+     * @throws IOException if the playlist could not be written.
+     */
+    public boolean append(final PMediaSegment segment) throws IOException {
+        return this.append(segment, segment.getURI());
+    }
+
+    /**
+     * Appends a segment.
+     * @param segment is the PMediaSegment to append.
+     * @param uri is the URI to list it under as a String (ie: the file name of a segment next to the playlist).
+     * @return true if the segment was written, false if it was at or before the last one appended.
+     * @throws IOException if the playlist could not be written, or it has been finished.
+     */
+    public synchronized boolean append(final PMediaSegment segment, final String uri) throws IOException {
+
+        if (this.finished) {
+            throw new IOException("Playlist " + this.file + " has already been finished");
+        }
+        if (uri == null) {
+            throw new IOException("Segment " + segment.getSequence() + " has no URI");
+        }
+        if (segment.getSequence() <= this.lastSequence) {
+            PLog.finest("append() -> Ignoring segment {0}, already at {1}", segment.getSequence(), this.lastSequence);
+            return false;
+        }
+
+        final boolean discontinuity = this.lastDiscontinuitySequence >= 0 && segment.getDiscontinuitySequence() != this.lastDiscontinuitySequence;
+        final Entry entry = new Entry(segment.getSequence(), segment.getDiscontinuitySequence(), discontinuity, String.format(Locale.US, "#EXTINF:%.3f,\n%s\n", segment.getDuration(), uri));
+        final boolean raised = this.raiseTargetDuration(segment.getDuration());
+
+        if (this.windowLength > 0) {
+            this.window.addLast(entry);
+            if (this.window.size() > this.windowLength) {
+                this.window.removeFirst();
+            }
+            this.replace(this.render(false));
+        }
+        else if (this.channel == null) {
+            this.window.addLast(entry);
+            final String playlist = this.render(false);
+            this.window.clear();
+            this.channel = FileChannel.open(this.working.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.writeAt(0, playlist);
+            this.publish();
+        }
+        else {
+            if (raised) {
+                this.writeAt(this.targetDurationPosition, this.paddedTargetDuration());
+            }
+            this.writeAt(this.channel.size(), entry.render(true));
+            this.publish();
+        }
+
+        this.lastSequence = segment.getSequence();
+        this.lastDiscontinuitySequence = segment.getDiscontinuitySequence();
+        this.segmentCount++;
+        return true;
+
+    }
+
+    /**
+     * Marks the playlist as finished (#EXT-X-ENDLIST) and closes it.  Does nothing if it is already finished.
+     * @throws IOException if the playlist could not be written.
+     */
+    public synchronized void finish() throws IOException {
+
+        if (this.finished) {
+            return;
+        }
+        this.finished = true;
+
+        if (this.channel != null) {
+            this.writeAt(this.channel.size(), ENDLIST);
+            this.publish();
+            this.close();
+        }
+        else {
+            this.replace(this.render(true));
+        }
+
+    }
+
+    /**
+     * Closes the playlist without finishing it, and removes an event playlist's working file.  A playlist left like
+     * this simply stops growing.
+     * @throws IOException if the working file could not be closed or removed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+            this.channel = null;
+            Files.deleteIfExists(this.working.toPath());
+        }
+    }
+
+    /**
+     * Gets the playlist file.
+     * @return the File the playlist is written to.
+     */
+    @SuppressWarnings("unused")
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Gets the sequence number of the newest segment written.
+     * @return the media sequence as an integer, or -1 before the first segment.
+     */
+    public synchronized int getLastSequence() {
+        return this.lastSequence;
+    }
+
+    /**
+     * Gets the number of segments appended so far, including any that have slid out of the window.
+     * @return the number of segments as an integer.
+     */
+    @SuppressWarnings("unused")
+    public synchronized int getSegmentCount() {
+        return this.segmentCount;
+    }
+
+    /**
+     * Gets whether the playlist has been finished.
+     * @return true if #EXT-X-ENDLIST has been written, false otherwise.
+     */
+    @SuppressWarnings("unused")
+    public synchronized boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * Raises the target duration to cover a segment (HLS requires each rounded #EXTINF to be no longer than it).
+     * @return true if the target duration changed, false otherwise.
+     */
+    private boolean raiseTargetDuration(final double duration) {
+        final int rounded = (int) Math.min(MAXIMUM_TARGET_DURATION, Math.round(duration));
+        if (rounded <= this.targetDuration) {
+            return false;
+        }
+        PLog.fine("append() -> Raising target duration of {0} from {1} to {2}", this.file, this.targetDuration, rounded);
+        this.targetDuration = rounded;
+        return true;
+    }
+
+    /**
+     * Renders the header and the segments in the window.  The first segment's discontinuity is carried by the header's
+     * discontinuity sequence rather than a tag.
+     */
+    private String render(final boolean endList) {
+
+        final StringBuilder builder = new StringBuilder(128 + this.window.size() * 48);
+        final Entry first = this.window.peekFirst();
+
+        builder.append(EXTM3U).append(VERSION);
+        if (this.windowLength == 0) {
+            builder.append(PLAYLIST_TYPE_EVENT);
+        }
+        builder.append(TARGET_DURATION);
+        // The header is ASCII, so its length in chars is its length in bytes.
+        this.targetDurationPosition = builder.length();
+        builder.append(this.paddedTargetDuration()).append('\n');
+        builder.append(MEDIA_SEQUENCE).append((first == null) ? Math.max(0, this.lastSequence) : first.sequence).append('\n');
+        builder.append(DISCONTINUITY_SEQUENCE).append((first == null) ? Math.max(0, this.lastDiscontinuitySequence) : first.discontinuitySequence).append('\n');
+
+        boolean leading = true;
+        for (Entry entry : this.window) {
+            builder.append(entry.render(!leading));
+            leading = false;
+        }
+        if (endList) {
+            builder.append(ENDLIST);
+        }
+        return builder.toString();
+
+    }
+
+    private String paddedTargetDuration() {
+        return String.format(Locale.US, "%0" + TARGET_DURATION_WIDTH + "d", this.targetDuration);
+    }
+
+    /**
+     * Writes the whole playlist to the temporary file and renames it over the playlist.
+     */
+    private void replace(final String playlist) throws IOException {
+        Files.write(this.temporary.toPath(), playlist.getBytes(StandardCharsets.UTF_8));
+        Files.move(this.temporary.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Copies the working file of an event playlist to the temporary file and renames it over the playlist.
+     */
+    private void publish() throws IOException {
+        try (FileChannel out = FileChannel.open(this.temporary.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final long size = this.channel.size();
+            long position = 0;
+            while (position < size) {
+                position += this.channel.transferTo(position, size - position, out);
+            }
+        }
+        Files.move(this.temporary.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeAt(long position, final String text) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            position += this.channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * One segment's lines, rendered once when it is appended.
+     */
+    private static final class Entry {
+
+        private final int sequence;
+        private final int discontinuitySequence;
+        private final boolean discontinuity;
+        private final String lines;
+
+        Entry(final int sequence, final int discontinuitySequence, final boolean discontinuity, final String lines) {
+            this.sequence = sequence;
+            this.discontinuitySequence = discontinuitySequence;
+            this.discontinuity = discontinuity;
+            this.lines = lines;
+        }
+
+        String render(final boolean withDiscontinuity) {
+            return (withDiscontinuity && this.discontinuity) ? DISCONTINUITY + this.lines : this.lines;
+        }
+
+    }
+
+}
@@ -0,0 +1,804 @@
+package tv.present.factories;
+
+import org.json.JSONException;
+import tv.present.api.PAPIClient;
+import tv.present.api.PAPIInteraction;
+import tv.present.cache.PModelCache;
+import tv.present.enumerations.SubjectiveMetaDirection;
+import tv.present.models.*;
+import tv.present.util.PJSONReader;
+import tv.present.util.PLazyValue;
+import tv.present.util.PLogger;
+import tv.present.util.PResultSet;
+import tv.present.util.PUtilities;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Calendar;
+
+/**
+ * Present Object Binder
+ * October 19, 2026
+ *
+ * Builds model objects straight from JSON text with a PJSONReader instead of first building a JSONObject tree and then
+ * walking it by key as PObjectFactory does.  Each model has a precomputed table of the field names it understands;
+ * keys are matched against that table in place and dispatched with a switch on the index, and anything unknown is
+ * skipped without being decoded.  There is no reflection.
+ *
+ * The binders produce the same objects as the matching PObjectFactory methods.  Fields that PObjectFactory reads with
+ * optString() default to an empty String; any other missing field keeps the model default (ie: 0, false or null).
+ * Because a whole document is consumed in one pass, PVideo comments and media URLs are decoded eagerly here, so
+ * PAPIInteraction only binds pages of users this way; pages of videos and activities keep going through the lazy,
+ * parallel PObjectFactory decode.
+ */
+public final class PObjectBinder {
+
+    private static final String TAG = "tv.present.factories.PObjectBinder";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    private static final String[] ENVELOPE_FIELDS = { "results", "nextCursor", "result" };
+    private static final String[] ROOT_FIELDS = { "subjectiveObjectMeta", "object" };
+    private static final String[] DIRECTION_FIELDS = { "backward", "forward" };
+    private static final String[] COUNT_FIELDS = { "count" };
+    private static final String[] USER_META_FIELDS = { "demand", "friendship" };
+    private static final String[] USER_FIELDS = { "_id", "username", "displayUsername", "email", "profile", "_creationDate", "_lastUpdateDate", "demands", "followers", "friends", "videos", "likes", "views" };
+    private static final String[] PROFILE_FIELDS = { "fullName", "description", "picture", "website" };
+    private static final String[] PICTURE_FIELDS = { "url" };
+    private static final String[] VIDEO_META_FIELDS = { "like" };
+    private static final String[] VIDEO_FIELDS = { "_id", "title", "_creationDate", "_lastUpdateDate", "creationTimeRange", "creatorUser", "mediaUrls", "likes", "views", "isAvailable", "visibility", "comments" };
+    private static final String[] TIME_RANGE_FIELDS = { "startDate", "endDate" };
+    private static final String[] MEDIA_URL_FIELDS = { "images", "playlists" };
+    private static final String[] IMAGE_FIELDS = { "480px" };
+    private static final String[] PLAYLIST_FIELDS = { "replay", "live" };
+    private static final String[] MASTER_FIELDS = { "master" };
+    private static final String[] VISIBILITY_FIELDS = { "everyone" };
+    private static final String[] RESULTS_FIELDS = { "results" };
+    private static final String[] OBJECT_FIELDS = { "object" };
+    private static final String[] COMMENT_FIELDS = { "_id", "body", "sourceUser", "_creationDate", "_lastUpdateDate" };
+    private static final String[] DEMAND_FIELDS = { "_id", "sourceUser", "targetUser", "_creationDate", "_lastUpdateDate" };
+    private static final String[] ACTIVITY_FIELDS = { "_id", "subject", "type", "_creationDate", "_lastUpdateDate", "isUnread", "sourceUser", "video", "targetUser", "comment" };
+    private static final String[] SESSION_FIELDS = { "config", "meta", "mediaSegments" };
+    private static final String[] SESSION_CONFIG_FIELDS = { "windowLength", "targetDuration" };
+    private static final String[] SESSION_META_FIELDS = { "id", "shouldFinish", "isFinished", "shouldBeAvailable", "isAvailable" };
+    private static final String[] SEGMENT_FIELDS = { "mediaSequence", "discontinuitySequence", "timeElapsed", "duration" };
+
+    private final PAPIInteraction interaction;
+
+    /**
+     * Constructs a PObjectBinder that looks up unembedded users through the default PAPIClient.
+     */
+    public PObjectBinder() {
+        this(null);
+    }
+
+    /**
+     * Constructs a PObjectBinder that looks up unembedded users (ie: the source of a demand) through a PAPIInteraction.
+     * @param interaction is the PAPIInteraction to look users up with, or null for the default PAPIClient's.
+     */
+    public PObjectBinder(final PAPIInteraction interaction) {
+        this.interaction = interaction;
+    }
+
+    /* #################### DOCUMENTS #################### */
+
+    /**
+     * Creates a PUser from the JSON text of a user root object.
+     * @param json is the JSON text.
+     * @return a valid PUser that represents the JSON data.
+     */
+    public final PUser bindUser(final String json) {
+        return this.readUser(new PJSONReader(json));
+    }
+
+    /**
+     * Creates a PUserProfile from the JSON text of a profile object.
+     * @param json is the JSON text.
+     * @return a valid PUserProfile that represents the JSON data.
+     */
+    @SuppressWarnings("unused")
+    public final PUserProfile bindUserProfile(final String json) {
+        return this.readUserProfile(new PJSONReader(json));
+    }
+
+    /**
+     * Creates a PVideo from the JSON text of a video root object.
+     * @param json is the JSON text.
+     * @return a valid PVideo if one could be created successfully, null otherwise.
+     */
+    public final PVideo bindVideo(final String json) {
+        try {
+            return this.readVideo(new PJSONReader(json));
+        } catch (JSONException e) {
+            PLog.severe("bindVideo() -> Caught JSONException: {0}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Creates a PComment from the JSON text of a comment root object.
+     * @param json is the JSON text.
+     * @return a valid PComment that represents the JSON data.
+     */
+    @SuppressWarnings("unused")
+    public final PComment bindComment(final String json) {
+        return this.readComment(new PJSONReader(json));
+    }
+
+    /**
+     * Creates a PDemand from the JSON text of a demand root object.
+     * @param json is the JSON text.
+     * @return a valid PDemand that represents the JSON data.
+     */
+    @SuppressWarnings("unused")
+    public final PDemand bindDemand(final String json) {
+        return this.readDemand(new PJSONReader(json));
+    }
+
+    /**
+     * Creates a PPlaylistSession from the JSON text of a playlist session object.
+     * @param json is the JSON text.
+     * @return a valid PPlaylistSession that represents the JSON data.
+     */
+    @SuppressWarnings("unused")
+    public final PPlaylistSession bindPlaylistSession(final String json) {
+        return this.readPlaylistSession(new PJSONReader(json));
+    }
+
+    /**
+     * Creates a PMediaSegment from the JSON text of a media segment object.
+     * @param json is the JSON text.
+     * @return a valid PMediaSegment that represents the JSON data.
+     */
+    @SuppressWarnings("unused")
+    public final PMediaSegment bindMediaSegment(final String json) {
+        return this.readMediaSegment(new PJSONReader(json));
+    }
+
+    /**
+     * Creates the matching PUserActivity subclass from the JSON text of an activity root object.
+     * @param json is the JSON text.
+     * @return a valid PUserActivity, or null if the activity type is unknown.
+     */
+    @SuppressWarnings("unused")
+    public final PUserActivity bindUserActivity(final String json) {
+        return this.readUserActivity(new PJSONReader(json));
+    }
+
+    /* #################### RESPONSE ENVELOPES #################### */
+
+    /**
+     * Creates a PResultSet of users from a whole list response ({"results": [...], "nextCursor": n}).
+     * @param json is the JSON text of the response.
+     * @return a PResultSet of PUsers; the cursor is 0 if the response has none.
+     */
+    @SuppressWarnings("unused")
+    public final PResultSet<PUser> bindUserResults(final String json) {
+        final PJSONReader reader = new PJSONReader(json);
+        final ArrayList<PUser> product = new ArrayList<PUser>();
+        int nextCursor = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(ENVELOPE_FIELDS)) {
+                case 0: // results
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        product.add(this.readUser(reader));
+                    }
+                    reader.endArray();
+                    break;
+                case 1: // nextCursor
+                    nextCursor = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new PResultSet<PUser>(nextCursor, product);
+    }
+
+    /**
+     * Creates a PResultSet of videos from a whole list response ({"results": [...], "nextCursor": n}).
+     * @param json is the JSON text of the response.
+     * @return a PResultSet of PVideos; the cursor is 0 if the response has none.
+     */
+    public final PResultSet<PVideo> bindVideoResults(final String json) {
+        final PJSONReader reader = new PJSONReader(json);
+        final ArrayList<PVideo> product = new ArrayList<PVideo>();
+        int nextCursor = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(ENVELOPE_FIELDS)) {
+                case 0: // results
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        product.add(this.readVideo(reader));
+                    }
+                    reader.endArray();
+                    break;
+                case 1: // nextCursor
+                    nextCursor = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new PResultSet<PVideo>(nextCursor, product);
+    }
+
+    /**
+     * Creates a PResultSet of activities from a whole list response ({"results": [...], "nextCursor": n}).
+     * @param json is the JSON text of the response.
+     * @return a PResultSet of PUserActivity objects; the cursor is 0 if the response has none.
+     */
+    @SuppressWarnings("unused")
+    public final PResultSet<PUserActivity> bindUserActivityResults(final String json) {
+        final PJSONReader reader = new PJSONReader(json);
+        final ArrayList<PUserActivity> product = new ArrayList<PUserActivity>();
+        int nextCursor = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(ENVELOPE_FIELDS)) {
+                case 0: // results
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        product.add(this.readUserActivity(reader));
+                    }
+                    reader.endArray();
+                    break;
+                case 1: // nextCursor
+                    nextCursor = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new PResultSet<PUserActivity>(nextCursor, product);
+    }
+
+    /* #################### READERS #################### */
+
+    final PUser readUser(final PJSONReader reader) {
+
+        final PSubjectiveMeta subjectiveMeta = new PSubjectiveMeta();
+        String id = null, username = null, vanityUsername = null, emailAddress = "";
+        PUserProfile profile = null;
+        Calendar creationDate = null, lastUpdate = null;
+        int numDemands = 0, numFollowers = 0, numFriends = 0, numVideos = 0, numLikes = 0, numViews = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(ROOT_FIELDS)) {
+                case 0: // subjectiveObjectMeta
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName(USER_META_FIELDS)) {
+                            case 0: // demand
+                                this.readDirections(reader, subjectiveMeta, 0);
+                                break;
+                            case 1: // friendship
+                                this.readDirections(reader, subjectiveMeta, 1);
+                                break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case 1: // object
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName(USER_FIELDS)) {
+                            case 0: id = reader.nextString(); break;
+                            case 1: username = reader.nextString(); break;
+                            case 2: vanityUsername = reader.nextString(); break;
+                            case 3: emailAddress = optString(reader); break;
+                            case 4: profile = this.readUserProfile(reader); break;
+                            case 5: creationDate = PUtilities.parseZulu(reader.nextString()); break;
+                            case 6: lastUpdate = PUtilities.parseZulu(reader.nextString()); break;
+                            case 7: numDemands = readCount(reader); break;
+                            case 8: numFollowers = readCount(reader); break;
+                            case 9: numFriends = readCount(reader); break;
+                            case 10: numVideos = readCount(reader); break;
+                            case 11: numLikes = readCount(reader); break;
+                            case 12: numViews = readCount(reader); break;
+                            default: reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new PUser(id, subjectiveMeta, creationDate, lastUpdate, username, vanityUsername, emailAddress, profile, numDemands, numFollowers, numFriends, numLikes, numVideos, numViews);
+
+    }
+
+    final PUserProfile readUserProfile(final PJSONReader reader) {
+
+        String fullName = "", description = "", pictureURL = null, websiteURL = "";
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(PROFILE_FIELDS)) {
+                case 0: fullName = optString(reader); break;
+                case 1: description = optString(reader); break;
+                case 2:
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName(PICTURE_FIELDS) == 0) {
+                            pictureURL = reader.nextString();
+                        }
+                        else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case 3: websiteURL = optString(reader); break;
+                default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new PUserProfile(fullName, description, pictureURL, websiteURL);
+
+    }
+
+    final PVideo readVideo(final PJSONReader reader) {
+
+        final PSubjectiveMeta subjectiveMeta = new PSubjectiveMeta();
+        final PVisibility visibility = new PVisibility();
+        final String[] mediaURLs = new String[3]; // still image, replay, live
+        String id = null, title = "", creatorUserID = null;
+        Calendar creationDate = null, lastUpdateDate = null, creationStart = null, creationEnd = null;
+        PUser creatorUser = null;
+        int numLikes = 0, numViews = 0;
+        boolean isAvailable = false;
+        ArrayList<PComment> comments = new ArrayList<PComment>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(ROOT_FIELDS)) {
+                case 0: // subjectiveObjectMeta
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName(VIDEO_META_FIELDS) == 0) {
+                            this.readDirections(reader, subjectiveMeta, 2);
+                        }
+                        else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case 1: // object
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName(VIDEO_FIELDS)) {
+                            case 0: id = reader.nextString(); break;
+                            case 1: title = optString(reader); break;
+                            case 2: creationDate = PUtilities.parseZulu(reader.nextString()); break;
+                            case 3: lastUpdateDate = PUtilities.parseZulu(reader.nextString()); break;
+                            case 4: // creationTimeRange
+                                reader.beginObject();
+                                while (reader.hasNext()) {
+                                    switch (reader.nextName(TIME_RANGE_FIELDS)) {
+                                        case 0: creationStart = PUtilities.parseZulu(reader.nextString()); break;
+                                        case 1: creationEnd = PUtilities.parseZulu(optString(reader)); break;
+                                        default: reader.skipValue();
+                                    }
+                                }
+                                reader.endObject();
+                                break;
+                            case 5: // creatorUser is either embedded or an ID
+                                if (reader.peek() == PJSONReader.Token.BEGIN_OBJECT) {
+                                    creatorUser = this.readUser(reader);
+                                }
+                                else {
+                                    creatorUserID = reader.nextString();
+                                }
+                                break;
+                            case 6: this.readMediaURLs(reader, mediaURLs); break;
+                            case 7: numLikes = readCount(reader); break;
+                            case 8: numViews = readCount(reader); break;
+                            case 9: isAvailable = reader.nextBoolean(); break;
+                            case 10: // visibility
+                                reader.beginObject();
+                                while (reader.hasNext()) {
+                                    if (reader.nextName(VISIBILITY_FIELDS) == 0) {
+                                        visibility.set(PVisibility.PVisibilityEntity.Everyone, reader.nextBoolean());
+                                    }
+                                    else {
+                                        reader.skipValue();
+                                    }
+                                }
+                                reader.endObject();
+                                break;
+                            case 11: // comments
+                                if (reader.peek() != PJSONReader.Token.BEGIN_OBJECT) {
+                                    reader.skipValue();
+                                    break;
+                                }
+                                reader.beginObject();
+                                while (reader.hasNext()) {
+                                    if (reader.nextName(RESULTS_FIELDS) == 0 && reader.peek() == PJSONReader.Token.BEGIN_ARRAY) {
+                                        reader.beginArray();
+                                        while (reader.hasNext()) {
+                                            comments.add(this.readComment(reader));
+                                        }
+                                        reader.endArray();
+                                    }
+                                    else {
+                                        reader.skipValue();
+                                    }
+                                }
+                                reader.endObject();
+                                break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        final URL stillImage = toURL(mediaURLs[0]);
+        final URL replay = toURL(mediaURLs[1]);
+        final URL live = toURL(mediaURLs[2]);
+
+        // Same as PObjectFactory, an unembedded creator is only ever resolved from the model cache.
+        final String lookupID = (creatorUser != null) ? creatorUser.getID() : creatorUserID;
+        PLazyValue<PUser> lazyCreatorUser = (creatorUser != null || lookupID == null) ? PLazyValue.of(creatorUser) : new PLazyValue<PUser>(new PLazyValue.Source<PUser>() {
+            @Override
+            public PUser compute() {
+                final PModelCache modelCache = PObjectBinder.this.interaction().getClient().getModelCache();
+                return (modelCache == null) ? null : modelCache.getCachedUser(lookupID);
+            }
+        });
+
+        return new PVideo(id, subjectiveMeta, creationDate, lastUpdateDate, title, lookupID, lazyCreatorUser, PLazyValue.of(stillImage), PLazyValue.of(live), PLazyValue.of(replay), numLikes, numViews, isAvailable, visibility, PLazyValue.of(comments), creationStart, creationEnd);
+
+    }
+
+    final PComment readComment(final PJSONReader reader) {
+
+        String id = null, body = null;
+        PUser sourceUser = null;
+        Calendar creationDate = null, lastUpdateDate = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName(OBJECT_FIELDS) != 0) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName(COMMENT_FIELDS)) {
+                    case 0: id = reader.nextString(); break;
+                    case 1: body = reader.nextString(); break;
+                    case 2: sourceUser = this.readUser(reader); break;
+                    case 3: creationDate = PUtilities.parseZulu(reader.nextString()); break;
+                    case 4: lastUpdateDate = PUtilities.parseZulu(reader.nextString()); break;
+                    default: reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+
+        return new PComment(id, body, null, sourceUser, creationDate, lastUpdateDate);
+
+    }
+
+    final PDemand readDemand(final PJSONReader reader) {
+
+        String id = null, sourceUserID = null;
+        PUser target = null;
+        Calendar creationDate = null, lastUpdateDate = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName(OBJECT_FIELDS) != 0) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName(DEMAND_FIELDS)) {
+                    case 0: id = reader.nextString(); break;
+                    case 1: sourceUserID = reader.nextString(); break;
+                    case 2: target = this.readUser(reader); break;
+                    case 3: creationDate = PUtilities.parseZulu(reader.nextString()); break;
+                    case 4: lastUpdateDate = PUtilities.parseZulu(reader.nextString()); break;
+                    default: reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+
+        // The source user only comes back as an ID, so it has to be looked up just like PObjectFactory does.
+        PUser source = this.interaction().getUserByID(sourceUserID);
+
+        return new PDemand(id, null, source, target, creationDate, lastUpdateDate);
+
+    }
+
+    final PPlaylistSession readPlaylistSession(final PJSONReader reader) {
+
+        int windowLength = 0, maxDuration = 0;
+        String id = null;
+        boolean shouldFinish = false, isFinished = false, shouldBeAvailable = false, isAvailable = false;
+        ArrayList<PMediaSegment> mediaSegments = new ArrayList<PMediaSegment>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(SESSION_FIELDS)) {
+                case 0: // config
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName(SESSION_CONFIG_FIELDS)) {
+                            case 0: windowLength = reader.nextInt(); break;
+                            case 1: maxDuration = reader.nextInt(); break;
+                            default: reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case 1: // meta
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName(SESSION_META_FIELDS)) {
+                            case 0: id = reader.nextString(); break;
+                            case 1: shouldFinish = reader.nextBoolean(); break;
+                            case 2: isFinished = reader.nextBoolean(); break;
+                            case 3: shouldBeAvailable = reader.nextBoolean(); break;
+                            case 4: isAvailable = reader.nextBoolean(); break;
+                            default: reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case 2: // mediaSegments
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        mediaSegments.add(this.readMediaSegment(reader));
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new PPlaylistSession(id, mediaSegments, shouldFinish, isFinished, shouldBeAvailable, isAvailable, windowLength, maxDuration);
+
+    }
+
+    final PMediaSegment readMediaSegment(final PJSONReader reader) {
+
+        int sequence = 0, discontinuitySequence = 0;
+        double timeElapsed = 0, duration = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(SEGMENT_FIELDS)) {
+                case 0: sequence = reader.nextInt(); break;
+                case 1: discontinuitySequence = reader.nextInt(); break;
+                case 2: timeElapsed = reader.nextDouble(); break;
+                case 3: duration = reader.nextDouble(); break;
+                default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new PMediaSegment(sequence, discontinuitySequence, timeElapsed, duration);
+
+    }
+
+    final PUserActivity readUserActivity(final PJSONReader reader) {
+
+        String id = null, subject = null, activityType = null, targetUserID = null;
+        Calendar creationDate = null, lastUpdate = null;
+        boolean isUnread = false;
+        PUser sourceUser = null;
+        PVideo sourceVideo = null;
+        PComment comment = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName(OBJECT_FIELDS) != 0) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName(ACTIVITY_FIELDS)) {
+                    case 0: id = reader.nextString(); break;
+                    case 1: subject = reader.nextString(); break;
+                    case 2: activityType = reader.nextString(); break;
+                    case 3: creationDate = PUtilities.parseZulu(reader.nextString()); break;
+                    case 4: lastUpdate = PUtilities.parseZulu(reader.nextString()); break;
+                    case 5: isUnread = reader.nextBoolean(); break;
+                    case 6: sourceUser = this.readUser(reader); break;
+                    case 7: sourceVideo = this.readVideo(reader); break;
+                    case 8: targetUserID = reader.nextString(); break;
+                    case 9: comment = this.readComment(reader); break;
+                    default: reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+
+        if (activityType == null) {
+            return null;
+        }
+
+        switch (activityType) {
+            case "newComment":
+                return new PUserActivityNewComment(id, null, creationDate, lastUpdate, subject, sourceUser, sourceVideo, targetUserID, isUnread);
+            case "newCommentMention":
+                return new PUserActivityNewCommentMention(id, null, creationDate, lastUpdate, subject, comment, sourceUser, sourceVideo, targetUserID, isUnread);
+            case "newDemand":
+                return new PUserActivityNewDemand(id, null, creationDate, lastUpdate, subject, sourceUser, sourceVideo, targetUserID, isUnread);
+            case "newFollower":
+                return new PUserActivityNewFollower(id, null, creationDate, lastUpdate, subject, sourceUser, sourceVideo, targetUserID, isUnread);
+            case "newLike":
+                return new PUserActivityNewLike(id, null, creationDate, lastUpdate, subject, sourceUser, sourceVideo, targetUserID, isUnread);
+            case "newVideoByDemandedUser":
+                return new PUserActivityNewVideoByDemandedUser(id, null, creationDate, lastUpdate, subject, sourceUser, sourceVideo, targetUserID, isUnread);
+            case "newVideoByFriend":
+                return new PUserActivityNewVideoByFriend(id, null, creationDate, lastUpdate, subject, sourceUser, sourceVideo, targetUserID, isUnread);
+            case "newVideoMention":
+                return new PUserActivityNewVideoMention(id, null, creationDate, lastUpdate, subject, sourceUser, sourceVideo, targetUserID, isUnread);
+            case "newViewer":
+                return new PUserActivityNewViewer(id, null, creationDate, lastUpdate, subject, sourceUser, sourceVideo, targetUserID, isUnread);
+            default:
+                return null;
+        }
+
+    }
+
+    /* #################### HELPING #################### */
+
+    /**
+     * Gets the PAPIInteraction to look unembedded users up with.
+     */
+    private PAPIInteraction interaction() {
+        return (this.interaction != null) ? this.interaction : PAPIClient.getDefault().interaction();
+    }
+
+    /**
+     * Reads a {"backward": bool, "forward": bool} object into the subjective meta.
+     * @param relation is 0 for demand, 1 for friendship and 2 for like.
+     */
+    private void readDirections(final PJSONReader reader, final PSubjectiveMeta subjectiveMeta, final int relation) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final int field = reader.nextName(DIRECTION_FIELDS);
+            if (field < 0) {
+                reader.skipValue();
+                continue;
+            }
+            final SubjectiveMetaDirection direction = (field == 0) ? SubjectiveMetaDirection.Backward : SubjectiveMetaDirection.Forward;
+            final boolean value = reader.nextBoolean();
+            if (relation == 0) {
+                subjectiveMeta.setDemand(direction, value);
+            }
+            else if (relation == 1) {
+                subjectiveMeta.setFriendship(direction, value);
+            }
+            else {
+                subjectiveMeta.setLike(direction, value);
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Reads the mediaUrls object into {still image, replay, live}.
+     */
+    private void readMediaURLs(final PJSONReader reader, final String[] mediaURLs) {
+        if (reader.peek() != PJSONReader.Token.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(MEDIA_URL_FIELDS)) {
+                case 0: // images
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName(IMAGE_FIELDS) == 0) {
+                            mediaURLs[0] = reader.nextString();
+                        }
+                        else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case 1: // playlists
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        final int playlist = reader.nextName(PLAYLIST_FIELDS);
+                        if (playlist < 0) {
+                            reader.skipValue();
+                            continue;
+                        }
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (reader.nextName(MASTER_FIELDS) == 0) {
+                                mediaURLs[1 + playlist] = reader.nextString();
+                            }
+                            else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Converts a media URL, giving null for a missing or malformed one just as the lazy PObjectFactory media URLs do.
+     */
+    private static URL toURL(final String spec) {
+        if (spec == null) {
+            return null;
+        }
+        try {
+            return new URL(spec);
+        } catch (MalformedURLException e) {
+            PLog.severe("toURL() -> Caught MalformedURLException!");
+            return null;
+        }
+    }
+
+    /**
+     * Reads a {"count": n} object.
+     */
+    private static int readCount(final PJSONReader reader) {
+        int count = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName(COUNT_FIELDS) == 0) {
+                count = reader.nextInt();
+            }
+            else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return count;
+    }
+
+    /**
+     * Reads a value the way JSONObject.optString() would: JSON null becomes an empty String.
+     */
+    private static String optString(final PJSONReader reader) {
+        final String value = reader.nextString();
+        return (value == null) ? "" : value;
+    }
+
+}
@@ -3,16 +3,23 @@ package tv.present.factories;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import tv.present.api.PAPIClient;
 import tv.present.api.PAPIInteraction;
+import tv.present.util.PExecutors;
+import tv.present.util.PLazyValue;
+import tv.present.util.PLogger;
 import tv.present.util.PUtilities;
+import tv.present.cache.PModelCache;
 import tv.present.enumerations.SubjectiveMetaDirection;
 import tv.present.models.*;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
-import java.util.logging.Logger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Present Object Factory
@@ -22,11 +29,36 @@ import java.util.logging.Logger;
 public class PObjectFactory {
 
     private static final String TAG = "tv.present.factories.PObjectFactory";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    /* Results arrays shorter than this are decoded on the calling thread. */
+    public static final int PARALLEL_THRESHOLD = 32;
+    private static final int MIN_SLICE = 8;
+
+    private static final int K_USER = 0;
+    private static final int K_VIDEO = 1;
+    private static final int K_USER_ACTIVITY = 2;
+
+    private final PAPIInteraction interaction;
+
+    /**
+     * Constructs a PObjectFactory that looks up unembedded users through the default PAPIClient.
+     */
+    public PObjectFactory() {
+        this(null);
+    }
+
+    /**
+     * Constructs a PObjectFactory that looks up unembedded users (ie: the source of a demand) through a PAPIInteraction.
+     * @param interaction is the PAPIInteraction to look users up with, or null for the default PAPIClient's.
+     */
+    public PObjectFactory(final PAPIInteraction interaction) {
+        this.interaction = interaction;
+    }
 
     public final PComment constructCommentFromJSON(JSONObject json) {
 
-        PLog.info("Constructing comment object from source JSON: " + json.toString());
+        PLog.payload("Constructing comment object from source JSON: {0}", json);
 
         JSONObject commentObjectJSON = json.getJSONObject("object");
 
@@ -48,8 +80,7 @@ public class PObjectFactory {
 
         Calendar creationDate = PUtilities.parseZulu(demandObjectJSON.getString("_creationDate"));
         Calendar lastUpdateDate = PUtilities.parseZulu(demandObjectJSON.getString("_lastUpdateDate"));
-        PAPIInteraction apiInteractionManager = new PAPIInteraction();
-        PUser source = apiInteractionManager.getUserByID(demandObjectJSON.getString("sourceUser"));
+        PUser source = this.interaction().getUserByID(demandObjectJSON.getString("sourceUser"));
         PUser target = this.constructUserFromJSON(demandObjectJSON.getJSONObject("targetUser"));
         String id = demandObjectJSON.getString("_id");
 
@@ -177,8 +208,7 @@ public class PObjectFactory {
         Calendar creationDate = PUtilities.parseZulu(activityObject.getString("_creationDate"));
         boolean isUnread = activityObject.getBoolean("isUnread");
         PUser sourceUser = this.constructUserFromJSON(activityObject.getJSONObject("sourceUser"));
-        PObjectFactory objectFactory = new PObjectFactory();
-        PVideo sourceVideo = objectFactory.constructVideoFromJSON(activityObject.getJSONObject("video"));
+        PVideo sourceVideo = this.constructVideoFromJSON(activityObject.getJSONObject("video"));
         String targetUserID = activityObject.getString("targetUser");
 
         if (activityType.equals(T_NEW_COMMENT)) {
@@ -207,7 +237,7 @@ public class PObjectFactory {
         }
         else if (activityType.equals(T_NEW_COMMENT_MENTION)) {
             JSONObject commentJSON = activityObject.getJSONObject("comment");
-            PComment comment = objectFactory.constructCommentFromJSON(commentJSON);
+            PComment comment = this.constructCommentFromJSON(commentJSON);
             return new PUserActivityNewCommentMention(id, null, creationDate, lastUpdate, subject, comment, sourceUser, sourceVideo, targetUserID, isUnread);
         }
         else {
@@ -216,7 +246,9 @@ public class PObjectFactory {
     }
 
     /**
-     * Creates a PVideo object from a JSON representation.
+     * Creates a PVideo object from a JSON representation.  Only the fields needed to list a video (ie: title, counts,
+     * dates) are decoded here.  The creator, media URLs and comments keep a reference to their own JSON subtree and are
+     * decoded the first time they are accessed on the PVideo.
      * @param videoJSON is the JSON object that represents the video.
      * @return a valid PVideo object if one could be created successfully.
      */
@@ -225,8 +257,8 @@ public class PObjectFactory {
         try {
             // Separate the video meta and video object objects.
             JSONObject videoMetaJSON = videoJSON.getJSONObject("subjectiveObjectMeta");
-            JSONObject videoObjectJSON = videoJSON.getJSONObject("object");
-            JSONObject videoMediaURLJSON = videoObjectJSON.optJSONObject("mediaUrls");
+            final JSONObject videoObjectJSON = videoJSON.getJSONObject("object");
+            final JSONObject videoMediaURLJSON = videoObjectJSON.optJSONObject("mediaUrls");
 
             // Set all of the subjective meta to be used by the user object.
             PSubjectiveMeta subjectiveMeta = new PSubjectiveMeta();
@@ -243,25 +275,37 @@ public class PObjectFactory {
             String id = videoObjectJSON.getString("_id");
             String title = videoObjectJSON.optString("title");
 
-            JSONObject creatorUserJSON = videoObjectJSON.optJSONObject("creatorUser");
-            PUser creatorUser;
-
-            if (creatorUserJSON == null) {
-                PAPIInteraction apiInteractionManager = new PAPIInteraction();
-                creatorUser = apiInteractionManager.getUserByID(videoObjectJSON.getString("creatorUser"));
-            } else {
-                creatorUser = this.constructUserFromJSON(creatorUserJSON);
+            // The creator is either embedded, and decoded when asked for, or just an ID.  An ID is only ever resolved
+            // from the model cache here; PAPIInteraction.loadCreatorUser() is what goes to the network for it.
+            final JSONObject creatorUserJSON = videoObjectJSON.optJSONObject("creatorUser");
+            final JSONObject creatorUserObjectJSON = (creatorUserJSON == null) ? null : creatorUserJSON.optJSONObject("object");
+            final String creatorUserID = (creatorUserJSON == null) ? videoObjectJSON.optString("creatorUser", null) : ((creatorUserObjectJSON == null) ? null : creatorUserObjectJSON.optString("_id", null));
+            PLazyValue<PUser> creatorUser;
+            if (creatorUserJSON != null) {
+                creatorUser = new PLazyValue<PUser>(new PLazyValue.Source<PUser>() {
+                    @Override
+                    public PUser compute() {
+                        return PObjectFactory.this.constructUserFromJSON(creatorUserJSON);
+                    }
+                });
             }
-
-            URL live = null, replay = null, stillImage = null;
-
-            if(videoMediaURLJSON != null) {
-                // Media URLs
-                stillImage = new URL(videoMediaURLJSON.getJSONObject("images").getString("480px"));
-                replay = new URL(videoMediaURLJSON.getJSONObject("playlists").getJSONObject("replay").getString("master"));
-                live = new URL(videoMediaURLJSON.getJSONObject("playlists").getJSONObject("live").getString("master"));
+            else if (creatorUserID != null) {
+                creatorUser = new PLazyValue<PUser>(new PLazyValue.Source<PUser>() {
+                    @Override
+                    public PUser compute() {
+                        final PModelCache modelCache = PObjectFactory.this.interaction().getClient().getModelCache();
+                        return (modelCache == null) ? null : modelCache.getCachedUser(creatorUserID);
+                    }
+                });
+            }
+            else {
+                creatorUser = PLazyValue.of(null);
             }
 
+            // Media URLs
+            PLazyValue<URL> stillImage = this.lazyMediaURL(videoMediaURLJSON, "images", null, "480px");
+            PLazyValue<URL> replay = this.lazyMediaURL(videoMediaURLJSON, "playlists", "replay", "master");
+            PLazyValue<URL> live = this.lazyMediaURL(videoMediaURLJSON, "playlists", "live", "master");
 
             // Counts
             int numLikes = videoObjectJSON.getJSONObject("likes").getInt("count");
@@ -273,34 +317,187 @@ public class PObjectFactory {
             visibility.set(PVisibility.PVisibilityEntity.Everyone, videoObjectJSON.getJSONObject("visibility").getBoolean("everyone"));
 
             // Comments
-            PLog.info("Video object JSON is: " + videoObjectJSON.toString());
-            JSONArray commentsJSON = videoObjectJSON.optJSONObject("comments").optJSONArray("results");
-            ArrayList<PComment> comments = new ArrayList<PComment>();
+            JSONObject commentsRootJSON = videoObjectJSON.optJSONObject("comments");
+            final JSONArray commentsJSON = (commentsRootJSON == null) ? null : commentsRootJSON.optJSONArray("results");
+            PLazyValue<ArrayList<PComment>> comments = new PLazyValue<ArrayList<PComment>>(new PLazyValue.Source<ArrayList<PComment>>() {
+                @Override
+                public ArrayList<PComment> compute() {
+                    ArrayList<PComment> product = new ArrayList<PComment>();
+                    if (commentsJSON != null) {
+                        // Loop through the JSON comment objects and create Java objects
+                        for (int i = 0; i < commentsJSON.length(); i++) {
+                            try {
+                                PComment comment = PObjectFactory.this.constructCommentFromJSON(commentsJSON.getJSONObject(i));
+
+                                // Add comment to the collection product that we will return
+                                if (comment != null) {
+                                    product.add(comment);
+                                }
+                            }
+                            catch (JSONException e) {
+                                PLog.severe("constructVideoFromJSON() -> Caught JSONException decoding comment {0}!", i);
+                            }
+                        }
+                    }
+                    return product;
+                }
+            });
 
-            if (commentsJSON != null) {
-                // Loop through the JSON user objects and create Java objects
-                PObjectFactory pObjectFactory = new PObjectFactory();
-                for (int i = 0; i < commentsJSON.length(); i++) {
+            return new PVideo(id, subjectiveMeta, creationDate, lastUpdateDate, title, creatorUserID, creatorUser, stillImage, live, replay, numLikes, numViews, isAvailable, visibility, comments, creationStart, creationEnd);
+        }
+        catch (JSONException e) {
+            PLog.severe("create() -> Caught JSONException!");
+            return null;
+        }
 
-                    PComment comment = pObjectFactory.constructCommentFromJSON(commentsJSON.getJSONObject(i));
+    }
 
-                    // Add comment to the collection product that we will return
-                    if (comment != null) {
-                        comments.add(comment);
-                    }
+    /**
+     * Gets the PAPIInteraction to look unembedded users up with.
+     */
+    private PAPIInteraction interaction() {
+        return (this.interaction != null) ? this.interaction : PAPIClient.getDefault().interaction();
+    }
+
+    /**
+     * Creates a PLazyValue that decodes one of the video media URLs from the mediaUrls JSON subtree when accessed.
+     * @param mediaURLJSON is the mediaUrls JSONObject of the video (null is valid).
+     * @param group is the key of the group inside mediaUrls (ie: "images" or "playlists").
+     * @param entry is the key of the entry inside the group, or null if the URL is directly inside the group.
+     * @param key is the key of the URL String.
+     * @return a PLazyValue that produces the URL, or null if it is missing or malformed.
+     */
+    private PLazyValue<URL> lazyMediaURL(final JSONObject mediaURLJSON, final String group, final String entry, final String key) {
+
+        if (mediaURLJSON == null) {
+            return PLazyValue.<URL>of(null);
+        }
 
+        return new PLazyValue<URL>(new PLazyValue.Source<URL>() {
+            @Override
+            public URL compute() {
+                try {
+                    JSONObject container = mediaURLJSON.getJSONObject(group);
+                    if (entry != null) {
+                        container = container.getJSONObject(entry);
+                    }
+                    return new URL(container.getString(key));
+                }
+                catch (MalformedURLException e) {
+                    PLog.severe("lazyMediaURL() -> Caught MalformedURLException for {0}/{1}!", group, key);
+                    return null;
+                }
+                catch (JSONException e) {
+                    PLog.severe("lazyMediaURL() -> Caught JSONException for {0}/{1}!", group, key);
+                    return null;
                 }
             }
+        });
+
+    }
+
+    /**
+     * Creates PUser objects from a JSON results array, in order.  Large arrays are decoded in parallel.
+     * @param resultsJSON is the JSONArray of user root objects.
+     * @return an ArrayList<PUser> with one entry per element of the array.
+     */
+    public final ArrayList<PUser> constructUsersFromJSON(final JSONArray resultsJSON) {
+        final PUser[] product = new PUser[resultsJSON.length()];
+        this.constructAllFromJSON(resultsJSON, K_USER, product);
+        return new ArrayList<PUser>(Arrays.asList(product));
+    }
+
+    /**
+     * Creates PVideo objects from a JSON results array, in order.  Large arrays are decoded in parallel.
+     * @param resultsJSON is the JSONArray of video root objects.
+     * @return an ArrayList<PVideo> with one entry per element of the array (null where a video could not be created).
+     */
+    public final ArrayList<PVideo> constructVideosFromJSON(final JSONArray resultsJSON) {
+        final PVideo[] product = new PVideo[resultsJSON.length()];
+        this.constructAllFromJSON(resultsJSON, K_VIDEO, product);
+        return new ArrayList<PVideo>(Arrays.asList(product));
+    }
+
+    /**
+     * Creates PUserActivity objects from a JSON results array, in order.  Large arrays are decoded in parallel.
+     * @param resultsJSON is the JSONArray of activity root objects.
+     * @return an ArrayList<PUserActivity> with one entry per element of the array (null for unknown activity types).
+     */
+    public final ArrayList<PUserActivity> constructUserActivitiesFromJSON(final JSONArray resultsJSON) {
+        final PUserActivity[] product = new PUserActivity[resultsJSON.length()];
+        this.constructAllFromJSON(resultsJSON, K_USER_ACTIVITY, product);
+        return new ArrayList<PUserActivity>(Arrays.asList(product));
+    }
+
+    /**
+     * Decodes every element of a results array into the slot with the same index.  Arrays of at least
+     * PARALLEL_THRESHOLD elements are split into slices across the shared pool; each slice writes only its own slots,
+     * so the order is preserved without any merging.
+     */
+    private void constructAllFromJSON(final JSONArray resultsJSON, final int kind, final Object[] product) {
+
+        final int length = product.length;
+        final ForkJoinPool pool = PExecutors.getSharedPool();
 
-            return new PVideo(id, subjectiveMeta, creationDate, lastUpdateDate, title, creatorUser, stillImage, live, replay, numLikes, numViews, isAvailable, visibility, comments, creationStart, creationEnd);
+        if (length < PARALLEL_THRESHOLD || pool.getParallelism() < 2) {
+            this.constructRangeFromJSON(resultsJSON, kind, product, 0, length);
+            return;
         }
-        catch (MalformedURLException e) {
-            PLog.severe("create() -> Caught MalformedURLException!");
-            return null;
+
+        // Aim for a few slices per worker so an uneven page (ie: some videos with many comments) still balances.
+        final int slice = Math.max(MIN_SLICE, length / (pool.getParallelism() * 4));
+        PLog.fine("constructAllFromJSON() -> Decoding {0} results in slices of {1}", length, slice);
+        pool.invoke(new DecodeTask(this, resultsJSON, kind, product, 0, length, slice));
+
+    }
+
+    private void constructRangeFromJSON(final JSONArray resultsJSON, final int kind, final Object[] product, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            final JSONObject elementJSON = resultsJSON.getJSONObject(i);
+            switch (kind) {
+                case K_USER:
+                    product[i] = this.constructUserFromJSON(elementJSON);
+                    break;
+                case K_VIDEO:
+                    product[i] = this.constructVideoFromJSON(elementJSON);
+                    break;
+                default:
+                    product[i] = this.constructUserActivityFromJSON(elementJSON);
+            }
         }
-        catch (JSONException e) {
-            PLog.severe("create() -> Caught JSONException!");
-            return null;
+    }
+
+    private static final class DecodeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PObjectFactory objectFactory;
+        private final JSONArray resultsJSON;
+        private final int kind;
+        private final Object[] product;
+        private final int from;
+        private final int to;
+        private final int slice;
+
+        DecodeTask(final PObjectFactory objectFactory, final JSONArray resultsJSON, final int kind, final Object[] product, final int from, final int to, final int slice) {
+            this.objectFactory = objectFactory;
+            this.resultsJSON = resultsJSON;
+            this.kind = kind;
+            this.product = product;
+            this.from = from;
+            this.to = to;
+            this.slice = slice;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.slice) {
+                this.objectFactory.constructRangeFromJSON(this.resultsJSON, this.kind, this.product, this.from, this.to);
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new DecodeTask(this.objectFactory, this.resultsJSON, this.kind, this.product, this.from, middle, this.slice),
+                      new DecodeTask(this.objectFactory, this.resultsJSON, this.kind, this.product, middle, this.to, this.slice));
         }
 
     }
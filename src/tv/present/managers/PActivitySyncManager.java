@@ -0,0 +1,457 @@
+package tv.present.managers;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import tv.present.api.PAPIBridge;
+import tv.present.api.PAPIClient;
+import tv.present.factories.PObjectFactory;
+import tv.present.models.PUserActivity;
+import tv.present.models.PUserContext;
+import tv.present.util.PExecutors;
+import tv.present.util.PLogger;
+import tv.present.util.PUtilities;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Present Activity Sync Manager
+ * October 19, 2026
+ *
+ * Keeps one user context's activity feed up to date without re-reading it.  The manager remembers a high-water mark
+ * (the _id and _creationDate of the newest activity it has seen) and each sync walks the feed from the top only until
+ * it reaches that mark.  Items are peeked at in their raw JSON form, so only the new ones are ever built into
+ * PUserActivity objects, and an idle feed costs one small page per poll.  The mark only moves once a walk has reached
+ * it (or given up after MAX_PAGES_PER_SYNC pages); a walk cut short by a failed request reports nothing and leaves the
+ * mark where it was, so the next sync picks up the same activities again.  Activities created in the same instant are
+ * ordered by _id.
+ *
+ * Pages start small and double while every item on them is new, so a burst of activity is caught up in a few requests.
+ * The poll interval follows the observed activity rate (an exponentially weighted moving average), aiming for about one
+ * new activity per poll, clamped between MIN_INTERVAL_MILLIS and MAX_INTERVAL_MILLIS.  Failed polls back off towards the
+ * maximum.
+ *
+ * Listeners are called on the client's executor (or the thread calling sync()) after the sync state has been
+ * unlocked, so a listener may call back into the manager.  They are never called concurrently with each other for the
+ * same manager, and see the results of syncs in the order the syncs finished.
+ */
+@SuppressWarnings("unused")
+public final class PActivitySyncManager {
+
+    private static final String TAG = "tv.present.managers.PActivitySyncManager";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int STEADY_PAGE_SIZE = 5;
+    public static final int MAX_PAGE_SIZE = 40;
+    public static final int MAX_PAGES_PER_SYNC = 8;
+    public static final long MIN_INTERVAL_MILLIS = 5000;
+    public static final long MAX_INTERVAL_MILLIS = 300000;
+
+    // Weight of the newest rate sample in the moving average.
+    private static final double RATE_ALPHA = 0.3;
+    // Unread IDs remembered for the unread count; the oldest are forgotten past this.
+    private static final int MAX_TRACKED_UNREAD = 1000;
+
+    /**
+     * Receives the results of each sync.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a sync finds activities newer than the high-water mark.
+         * @param activities is an ArrayList<PUserActivity> of just the new activities, newest first.
+         */
+        void onNewActivities(ArrayList<PUserActivity> activities);
+
+        /**
+         * Called when the number of unread activities changes.
+         * @param unreadCount is the new unread count as an integer.
+         */
+        void onUnreadCountChanged(int unreadCount);
+
+    }
+
+    private final PAPIClient client;
+    private final PUserContext userContext;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+    // Sync state, guarded by syncLock so that stop() never waits on the network.
+    private final Object syncLock = new Object();
+    private String highWaterID = null;
+    private Calendar highWaterDate = null;
+    private final LinkedHashSet<String> unreadIDs = new LinkedHashSet<String>();
+    private int lastReportedUnread = -1;
+    private double ratePerMilli = 0;
+    private long lastSyncMillis = 0;
+    private long intervalMillis = MIN_INTERVAL_MILLIS;
+
+    // Results waiting to be handed to the listeners, in the order the syncs finished.  Whoever moves notifyWip from 0
+    // delivers them; everyone else just bumps it.
+    private final ConcurrentLinkedQueue<Notification> notifications = new ConcurrentLinkedQueue<Notification>();
+    private final AtomicInteger notifyWip = new AtomicInteger(0);
+
+    // Polling state, guarded by this.
+    private boolean running = false;
+    private ScheduledFuture<?> pending = null;
+
+    /**
+     * Constructs a PActivitySyncManager that makes its requests through the default PAPIClient.
+     * @param userContext is the PUserContext whose activities to sync.
+     */
+    public PActivitySyncManager(final PUserContext userContext) {
+        this(PAPIClient.getDefault(), userContext);
+    }
+
+    /**
+     * Constructs a PActivitySyncManager (see PAPIClient.newActivitySync()).
+     * @param client is the PAPIClient to make requests through.
+     * @param userContext is the PUserContext whose activities to sync.
+     */
+    public PActivitySyncManager(final PAPIClient client, final PUserContext userContext) {
+        this.client = client;
+        this.userContext = userContext;
+    }
+
+    /**
+     * Adds a listener.
+     * @param listener is the Listener to add.
+     */
+    public void addListener(final Listener listener) {
+        this.listeners.addIfAbsent(listener);
+    }
+
+    /**
+     * Removes a listener.
+     * @param listener is the Listener to remove.
+     */
+    public void removeListener(final Listener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Starts polling, with the first sync right away.  Does nothing if already started.
+     */
+    public synchronized void start() {
+        if (this.running) {
+            return;
+        }
+        this.running = true;
+        this.scheduleNext(0);
+    }
+
+    /**
+     * Stops polling.  A sync that is already running finishes, but nothing further is scheduled.
+     */
+    public synchronized void stop() {
+        this.running = false;
+        if (this.pending != null) {
+            this.pending.cancel(false);
+            this.pending = null;
+        }
+    }
+
+    /**
+     * Gets whether the manager is polling.
+     * @return true if started and not stopped, false otherwise.
+     */
+    public synchronized boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Gets the current poll interval.
+     * @return the delay before the next poll in milliseconds.
+     */
+    public long getIntervalMillis() {
+        synchronized (this.syncLock) {
+            return this.intervalMillis;
+        }
+    }
+
+    /**
+     * Gets the number of unread activities the manager knows of.
+     * @return the unread count as an integer.
+     */
+    public int getUnreadCount() {
+        synchronized (this.syncLock) {
+            return this.unreadIDs.size();
+        }
+    }
+
+    /**
+     * Syncs once on the calling thread and notifies the listeners.  The first sync reports the newest page as new.
+     * @return an ArrayList<PUserActivity> of the new activities (possibly empty), or null if the feed could not be read.
+     */
+    public ArrayList<PUserActivity> sync() {
+        final ArrayList<PUserActivity> activities;
+        synchronized (this.syncLock) {
+            activities = this.syncLocked();
+        }
+        this.deliverNotifications();
+        return activities;
+    }
+
+    private ArrayList<PUserActivity> syncLocked() {
+
+        final long now = System.currentTimeMillis();
+        final JSONArray fresh = new JSONArray();
+        if (!this.collectNew(fresh)) {
+            // Reporting a partial walk would move the mark past the activities that were never reached.
+            this.intervalMillis = Math.min(MAX_INTERVAL_MILLIS, this.intervalMillis * 2);
+            return null;
+        }
+
+        // Only the new items are turned into objects.
+        final ArrayList<PUserActivity> activities = new ArrayList<PUserActivity>(fresh.length());
+        if (fresh.length() > 0) {
+            final PObjectFactory objectFactory = this.client.getObjectFactory();
+            for (PUserActivity activity : objectFactory.constructUserActivitiesFromJSON(fresh)) {
+                if (activity != null) {
+                    activities.add(activity);
+                }
+            }
+            final JSONObject newest = fresh.getJSONObject(0).getJSONObject("object");
+            this.highWaterID = newest.getString("_id");
+            this.highWaterDate = PUtilities.parseZulu(newest.optString("_creationDate"));
+            for (int i = activities.size() - 1; i >= 0; i--) {
+                if (activities.get(i).isUnread()) {
+                    this.unreadIDs.add(activities.get(i).getID());
+                }
+            }
+            while (this.unreadIDs.size() > MAX_TRACKED_UNREAD) {
+                this.unreadIDs.remove(this.unreadIDs.iterator().next());
+            }
+        }
+
+        this.updateInterval(activities.size(), now);
+        PLog.fine("sync() -> {0} new activities, next poll in {1} ms", activities.size(), this.intervalMillis);
+
+        int unreadCount = -1;
+        if (this.unreadIDs.size() != this.lastReportedUnread) {
+            this.lastReportedUnread = this.unreadIDs.size();
+            unreadCount = this.lastReportedUnread;
+        }
+        if (!activities.isEmpty() || unreadCount >= 0) {
+            this.notifications.add(new Notification(activities, unreadCount));
+        }
+
+        return activities;
+
+    }
+
+    /**
+     * Hands queued sync results to the listeners.  Must be called without syncLock held.
+     */
+    private void deliverNotifications() {
+
+        if (this.notifyWip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        while (true) {
+            Notification notification;
+            while ((notification = this.notifications.poll()) != null) {
+                for (Listener listener : this.listeners) {
+                    try {
+                        if (!notification.activities.isEmpty()) {
+                            listener.onNewActivities(notification.activities);
+                        }
+                        if (notification.unreadCount >= 0) {
+                            listener.onUnreadCountChanged(notification.unreadCount);
+                        }
+                    } catch (RuntimeException e) {
+                        PLog.severe("deliverNotifications() -> Listener threw {0}!", e.getClass().getName());
+                    }
+                }
+            }
+            missed = this.notifyWip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+
+    }
+
+    /**
+     * The results of one sync, waiting to be handed to the listeners.
+     */
+    private static final class Notification {
+
+        private final ArrayList<PUserActivity> activities;
+        private final int unreadCount;
+
+        private Notification(final ArrayList<PUserActivity> activities, final int unreadCount) {
+            this.activities = activities;
+            this.unreadCount = unreadCount;
+        }
+
+    }
+
+    /**
+     * Walks the feed from the top, adding the raw JSON of every item newer than the high-water mark.  Items at or below
+     * the mark are only peeked at to pick up read state changes.  Called with syncLock held.
+     * @param fresh is the JSONArray to add new items to, newest first.
+     * @return true if the walk reached the high-water mark, the end of the feed or MAX_PAGES_PER_SYNC pages, false if a
+     * request failed before then (in which case fresh holds only part of what is new).
+     */
+    private boolean collectNew(final JSONArray fresh) {
+
+        final boolean firstSync = (this.highWaterID == null);
+        int cursor = 0;
+        int pageSize = firstSync ? MAX_PAGE_SIZE / 2 : STEADY_PAGE_SIZE;
+
+        for (int pageNumber = 0; pageNumber < MAX_PAGES_PER_SYNC; pageNumber++) {
+
+            final JSONObject response = this.fetchRaw(cursor, pageSize);
+            if (response == null) {
+                return false;
+            }
+
+            final JSONArray results = response.optJSONArray("results");
+            if (results == null || results.length() == 0) {
+                return true;
+            }
+
+            boolean reachedMark = false;
+            for (int i = 0; i < results.length(); i++) {
+                final JSONObject item = results.optJSONObject(i);
+                final JSONObject object = (item == null) ? null : item.optJSONObject("object");
+                if (object == null) {
+                    continue;
+                }
+                if (!firstSync && (reachedMark || this.isSeen(object))) {
+                    reachedMark = true;
+                    if (!object.optBoolean("isUnread", true)) {
+                        this.unreadIDs.remove(object.optString("_id"));
+                    }
+                    continue;
+                }
+                fresh.put(item);
+            }
+
+            // The first sync has no mark to walk back to, so the newest page is all it reports.
+            if (reachedMark || firstSync) {
+                return true;
+            }
+
+            final int nextCursor = response.optInt("nextCursor", cursor);
+            if (nextCursor <= cursor) {
+                return true;
+            }
+            cursor = nextCursor;
+            // Every item on this page was new, so there are likely more; ask for them in bigger pages.
+            pageSize = Math.min(MAX_PAGE_SIZE, pageSize * 2);
+
+        }
+
+        PLog.warning("collectNew() -> Stopped after {0} pages without reaching the high-water mark; older activities were skipped", MAX_PAGES_PER_SYNC);
+        return true;
+
+    }
+
+    /**
+     * Checks an activity against the high-water mark using only its _id and _creationDate.  Activities created in the
+     * same instant as the mark are ordered by _id, so one that arrives later but shares the mark's timestamp is new.
+     * @param object is the activity's "object" JSONObject.
+     * @return true if the activity is the mark or older, false if it is new.
+     */
+    private boolean isSeen(final JSONObject object) {
+        final String id = object.optString("_id");
+        if (this.highWaterID.equals(id)) {
+            return true;
+        }
+        if (this.highWaterDate == null) {
+            return false;
+        }
+        final Calendar creationDate = PUtilities.parseZulu(object.optString("_creationDate"));
+        if (creationDate == null) {
+            return false;
+        }
+        final int order = creationDate.compareTo(this.highWaterDate);
+        return order < 0 || (order == 0 && id.compareTo(this.highWaterID) < 0);
+    }
+
+    private JSONObject fetchRaw(final int cursor, final int limit) {
+
+        final String requestString = "activities/list_my_activities?cursor=" + cursor + "&limit=" + limit;
+        final PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.GET, requestString, this.userContext);
+
+        try {
+            final JSONObject response = connector.makeRequest();
+            if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+                return response;
+            }
+            PLog.warning("fetchRaw() -> Request failed with code {0}", connector.getResponseCode());
+        } catch (JSONException e) {
+            PLog.severe("fetchRaw() -> Caught JSONException!");
+        }
+        return null;
+
+    }
+
+    /**
+     * Folds the latest sync into the activity rate and derives the next interval from it.  Called with syncLock held.
+     */
+    private void updateInterval(final int newCount, final long now) {
+
+        if (this.lastSyncMillis > 0) {
+            final long elapsed = Math.max(1, now - this.lastSyncMillis);
+            final double sample = (double) newCount / elapsed;
+            this.ratePerMilli = RATE_ALPHA * sample + (1 - RATE_ALPHA) * this.ratePerMilli;
+        }
+        this.lastSyncMillis = now;
+
+        final double target = (this.ratePerMilli > 0) ? 1 / this.ratePerMilli : MAX_INTERVAL_MILLIS;
+        this.intervalMillis = (long) Math.max(MIN_INTERVAL_MILLIS, Math.min(MAX_INTERVAL_MILLIS, target));
+
+    }
+
+    /**
+     * Schedules the next poll.  The scheduler thread only hands the sync off to the client's executor.  Called with the
+     * lock held.
+     */
+    private void scheduleNext(final long delayMillis) {
+        this.pending = PExecutors.getScheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                PActivitySyncManager.this.client.getExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        PActivitySyncManager.this.poll();
+                    }
+                });
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        if (!this.isRunning()) {
+            return;
+        }
+        long delayMillis;
+        synchronized (this.syncLock) {
+            try {
+                this.syncLocked();
+            } catch (RuntimeException e) {
+                PLog.severe("poll() -> Caught {0}!", e.getClass().getName());
+                this.intervalMillis = Math.min(MAX_INTERVAL_MILLIS, this.intervalMillis * 2);
+            }
+            delayMillis = this.intervalMillis;
+        }
+        this.deliverNotifications();
+        synchronized (this) {
+            if (this.running) {
+                this.scheduleNext(delayMillis);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,212 @@
+package tv.present.managers;
+
+import tv.present.factories.PHLSParser;
+import tv.present.models.PHLSMasterPlaylist;
+import tv.present.models.PMediaSegment;
+import tv.present.models.PPlaylistSession;
+import tv.present.models.PVideo;
+import tv.present.util.PLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * Present HLS Playlist Manager
+ * October 19, 2026
+ *
+ * Follows one HLS media playlist across reloads.  Each reload streams the playlist through PHLSParser and turns only
+ * the segments after the last media sequence already seen into PMediaSegment objects, so a live playlist costs a few
+ * new segments per reload however long its window is.  The time elapsed of each segment is carried across reloads,
+ * counted from the first segment the manager saw.
+ *
+ * Only the newest maxRetained segments are kept (and at most that many are handed back from one reload), so following a
+ * long replay uses bounded memory; use PHLSParser.streamMedia() directly to walk every segment of one.
+ */
+@SuppressWarnings("unused")
+public final class PHLSPlaylistManager {
+
+    private static final String TAG = "tv.present.managers.PHLSPlaylistManager";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int DEFAULT_MAX_RETAINED = 64;
+
+    private final URL playlistURL;
+    private final int maxRetained;
+
+    // Guarded by this.
+    private final ArrayDeque<PMediaSegment> window = new ArrayDeque<PMediaSegment>();
+    private int lastSequence = -1;
+    private double nextElapsed = 0;
+    private int targetDuration = 0;
+    private boolean finished = false;
+    private boolean changedOnLastReload = true;
+
+    /**
+     * Constructs a PHLSPlaylistManager for a media playlist.
+     * @param playlistURL is the URL of the media playlist (http, https or file).
+     * @param maxRetained is the most segments to keep.
+     */
+    public PHLSPlaylistManager(final URL playlistURL, final int maxRetained) {
+        this.playlistURL = playlistURL;
+        this.maxRetained = Math.max(1, maxRetained);
+    }
+
+    /**
+     * Constructs a PHLSPlaylistManager for one of a video's streams, picking the variant from its master playlist.
+     * @param video is the PVideo to follow.
+     * @param live is true for the live link, false for the replay link.
+     * @param maxBandwidth is the bandwidth budget in bits per second for picking a variant (0 or less for the best).
+     * @return the PHLSPlaylistManager, or null if the video has no such link or its master playlist could not be read.
+     */
+    public static PHLSPlaylistManager forVideo(final PVideo video, final boolean live, final long maxBandwidth) {
+
+        final String link = live ? video.getLiveLink() : video.getReplayLink();
+        if (link == null) {
+            return null;
+        }
+
+        final PHLSMasterPlaylist master = PHLSParser.fetchMaster(link);
+        final PHLSMasterPlaylist.Variant variant = (master == null) ? null : master.selectVariant(maxBandwidth);
+        if (variant == null) {
+            PLog.warning("forVideo() -> No variant to play in {0}", link);
+            return null;
+        }
+
+        try {
+            return new PHLSPlaylistManager(new URL(variant.getURI()), DEFAULT_MAX_RETAINED);
+        } catch (MalformedURLException e) {
+            PLog.warning("forVideo() -> Malformed variant URI {0}", variant.getURI());
+            return null;
+        }
+
+    }
+
+    /**
+     * Fetches the playlist and takes in whatever is new.
+     * @return an ArrayList<PMediaSegment> of the segments added since the last reload (possibly empty), or null if the
+     *         playlist could not be fetched or read.
+     */
+    public ArrayList<PMediaSegment> reload() {
+        try (BufferedReader reader = PHLSParser.open(this.playlistURL)) {
+            return this.update(reader);
+        } catch (IOException e) {
+            PLog.severe("reload() -> Caught IOException fetching {0}: {1}", this.playlistURL, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Takes in a copy of the playlist read from elsewhere (ie: a local fixture).
+     * @param reader is the BufferedReader to read the playlist from.
+     * @return an ArrayList<PMediaSegment> of the segments added since the last update (possibly empty), or null if the
+     *         playlist could not be read.
+     */
+    public synchronized ArrayList<PMediaSegment> update(final BufferedReader reader) {
+
+        final ArrayDeque<PMediaSegment> added = new ArrayDeque<PMediaSegment>();
+
+        // Staged here and only committed once the whole playlist has been read, so a read that fails part way leaves
+        // the manager as it was and the next reload picks up the same segments again.
+        final int[] stagedTargetDuration = {this.targetDuration};
+        final int[] stagedLastSequence = {this.lastSequence};
+        final double[] stagedElapsed = {this.nextElapsed};
+        final boolean[] stagedFinished = {this.finished};
+
+        final PHLSParser.MediaHandler handler = new PHLSParser.MediaHandler() {
+            @Override
+            public void onHeader(int duration, int mediaSequence, int discontinuitySequence) {
+                stagedTargetDuration[0] = duration;
+            }
+
+            @Override
+            public void onSegment(int sequence, int discontinuitySequence, double duration, String uri) {
+                if (sequence <= stagedLastSequence[0]) {
+                    return;
+                }
+                // Segments that slid out of the window between reloads are only known by count.
+                if (stagedLastSequence[0] >= 0 && sequence > stagedLastSequence[0] + 1) {
+                    final int missed = sequence - stagedLastSequence[0] - 1;
+                    PLog.warning("update() -> Missed {0} segments before sequence {1}", missed, sequence);
+                    stagedElapsed[0] += missed * (double) stagedTargetDuration[0];
+                }
+                added.addLast(new PMediaSegment(sequence, discontinuitySequence, stagedElapsed[0], duration, uri));
+                if (added.size() > PHLSPlaylistManager.this.maxRetained) {
+                    added.removeFirst();
+                }
+                stagedElapsed[0] += duration;
+                stagedLastSequence[0] = sequence;
+            }
+
+            @Override
+            public void onEnd(boolean endList) {
+                stagedFinished[0] = endList;
+            }
+        };
+
+        try {
+            if (!PHLSParser.streamMedia(reader, this.playlistURL, handler)) {
+                PLog.warning("update() -> {0} is not an HLS playlist", this.playlistURL);
+                return null;
+            }
+        } catch (IOException e) {
+            PLog.severe("update() -> Caught IOException reading {0}: {1}", this.playlistURL, e.getMessage());
+            return null;
+        }
+
+        this.targetDuration = stagedTargetDuration[0];
+        this.lastSequence = stagedLastSequence[0];
+        this.nextElapsed = stagedElapsed[0];
+        this.finished = stagedFinished[0];
+        for (PMediaSegment segment : added) {
+            this.window.addLast(segment);
+            if (this.window.size() > this.maxRetained) {
+                this.window.removeFirst();
+            }
+        }
+        this.changedOnLastReload = !added.isEmpty();
+        return new ArrayList<PMediaSegment>(added);
+
+    }
+
+    /**
+     * Gets the retained segments as a PPlaylistSession.
+     * @return a PPlaylistSession of the newest retained segments, identified by the playlist URL.
+     */
+    public synchronized PPlaylistSession getSession() {
+        return new PPlaylistSession(this.playlistURL.toString(), new ArrayList<PMediaSegment>(this.window), this.finished, this.finished, true, true, this.window.size(), this.targetDuration);
+    }
+
+    /**
+     * Gets how long to wait before the next reload, following the HLS rules: the target duration after a reload that
+     * found something new, half of it after one that did not.
+     * @return the delay in milliseconds, or -1 if the playlist has ended and needs no more reloads.
+     */
+    public synchronized long getReloadDelayMillis() {
+        if (this.finished) {
+            return -1;
+        }
+        final long target = Math.max(1, this.targetDuration) * 1000L;
+        return this.changedOnLastReload ? target : target / 2;
+    }
+
+    /**
+     * Gets the sequence number of the newest segment seen.
+     * @return the media sequence as an integer, or -1 before the first segment.
+     */
+    public synchronized int getLastSequence() {
+        return this.lastSequence;
+    }
+
+    /**
+     * Gets whether the playlist has ended (#EXT-X-ENDLIST).
+     * @return true if no more segments will be added, false otherwise.
+     */
+    public synchronized boolean isFinished() {
+        return this.finished;
+    }
+
+}
@@ -2,15 +2,19 @@ package tv.present.managers;
 
 import org.json.JSONObject;
 import tv.present.api.PAPIBridge;
+import tv.present.api.PAPIClient;
 import tv.present.exceptions.APIRequestStateException;
+import tv.present.factories.PHLSWriter;
 import tv.present.factories.PObjectFactory;
+import tv.present.models.PMediaSegment;
 import tv.present.models.PPlaylistSession;
 import tv.present.models.PUserContext;
 import tv.present.models.PVideo;
+import tv.present.util.PLogger;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.logging.Logger;
+import java.util.ArrayList;
 
 /**
  * Present Recording Session Manager
@@ -23,18 +27,31 @@ import java.util.logging.Logger;
 public final class PRecordingSessionManager {
 
     private static final String TAG = "tv.present.managers.PRecordingSessionManager";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
+    private final PAPIClient client;
     private PVideo video;
     private PPlaylistSession playlistSession;
     private PUserContext userContext;
     private boolean appendOnly = false;
+    private File localPlaylistFile = null;
+    private PHLSWriter localPlaylist = null;
 
     /**
-     * Constructs a PRecordingSessionManager.
+     * Constructs a PRecordingSessionManager that makes its requests through the default PAPIClient.
      * @param userContext is the UserContext to use.
      */
     public PRecordingSessionManager(PUserContext userContext) {
+        this(PAPIClient.getDefault(), userContext);
+    }
+
+    /**
+     * Constructs a PRecordingSessionManager (see PAPIClient.newRecordingSession()).
+     * @param client is the PAPIClient to make requests through.
+     * @param userContext is the UserContext to use.
+     */
+    public PRecordingSessionManager(PAPIClient client, PUserContext userContext) {
+        this.client = client;
         this.userContext = userContext;
     }
 
@@ -52,16 +69,16 @@ public final class PRecordingSessionManager {
             JSONObject requestParams = new JSONObject();
             requestParams.put("title", title);
 
-            PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST, "videos/create", this.userContext, requestParams);
+            PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST, "videos/create", this.userContext, requestParams);
 
             JSONObject response = connector.makeRequest();
 
 
             // Don't continue if we don't have a valid result code.
-            if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+            if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
 
-                PObjectFactory objectFactory = new PObjectFactory();
-                PLog.info("createVideo() -> Response from server: " + response.toString());
+                PObjectFactory objectFactory = this.client.getObjectFactory();
+                PLog.payload("createVideo() -> Response from server: {0}", response);
 
                 JSONObject videoRootJSON = response.getJSONObject("result");
                 JSONObject playlistSessionJSON = videoRootJSON.getJSONObject("playlistSession");
@@ -73,11 +90,14 @@ public final class PRecordingSessionManager {
                     this.appendOnly = true;
                 }
 
+                this.openLocalPlaylist();
+
             }
 
             // Return null if we are unable to create a video
             else {
-                PLog.severe("createVideo() -> Error creating video.  Response is: " + response.toString());
+                PLog.severe("createVideo() -> Error creating video.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+                PLog.payload("createVideo() -> Error creating video.  Response is: {0}", response);
             }
 
         }
@@ -103,7 +123,7 @@ public final class PRecordingSessionManager {
         requestParams.put("media_sequence", this.playlistSession.getNumMediaSegments() + 1);
         requestParams.put("playlist_session", this.playlistSession.toJSON().toString());
 
-        PAPIBridge connector = new PAPIBridge(PAPIBridge.HTTPRequestMethod.POST_MULTIPART, "videos/append", this.userContext, requestParams);
+        PAPIBridge connector = this.client.newBridge(PAPIBridge.HTTPRequestMethod.POST_MULTIPART, "videos/append", this.userContext, requestParams);
 
         File mediaSegment = new File(filePath);
         connector.addMultipartFile("media_segment", mediaSegment);
@@ -111,24 +131,92 @@ public final class PRecordingSessionManager {
         JSONObject response = connector.makeRequest();
 
         // Don't continue if we don't have a valid result code.
-        if (connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
+        if (response != null && connector.getResponseCode() <= PAPIBridge.MAX_SUCCESS_CODE) {
 
-            PLog.info("append() --> Response from server: " + response.toString());
-            PObjectFactory pObjectFactory = new PObjectFactory();
+            PLog.payload("append() --> Response from server: {0}", response);
+            PObjectFactory pObjectFactory = this.client.getObjectFactory();
             JSONObject videoRootJSON = response.getJSONObject("result");
             JSONObject playlistSessionJSON = videoRootJSON.getJSONObject("playlistSession");
-            PObjectFactory objectFactory = new PObjectFactory();
+            PObjectFactory objectFactory = this.client.getObjectFactory();
             this.video = objectFactory.constructVideoFromJSON(videoRootJSON);
             this.playlistSession = pObjectFactory.constructPlaylistSessionFromJSON(playlistSessionJSON);
+            this.writeLocalPlaylist(mediaSegment);
 
         }
 
         // Return null if we are unable to create a video
         else {
-            PLog.severe("createVideo() -> Error appending video.  Response is: " + response.toString());
+            PLog.severe("createVideo() -> Error appending video.  Status {0}: {1}", connector.getResponseCode(), connector.getErrorMessage());
+            PLog.payload("createVideo() -> Error appending video.  Response is: {0}", response);
         }
 
     }
 
-}
+    /**
+     * Keeps a local HLS playlist of the session's segments (ie: for previewing or monitoring the recording), updated
+     * after every append.  The segments are listed by the paths they were appended from, relative to the playlist when
+     * they sit in the same directory.
+     * @param playlistFile is the File to write the playlist to, or null to stop keeping one.
+     */
+    public final void setLocalPlaylist(File playlistFile) {
+        this.finishLocalPlaylist();
+        this.localPlaylistFile = playlistFile;
+        if (this.playlistSession != null) {
+            this.openLocalPlaylist();
+        }
+    }
+
+    /**
+     * Marks the local HLS playlist as finished (#EXT-X-ENDLIST) and closes it.  Does nothing if there is none.
+     */
+    public final void finishLocalPlaylist() {
+        if (this.localPlaylist != null) {
+            try {
+                this.localPlaylist.finish();
+            } catch (IOException e) {
+                PLog.warning("finishLocalPlaylist() -> Caught IOException finishing {0}: {1}", this.localPlaylistFile, e.getMessage());
+            }
+            this.localPlaylist = null;
+        }
+    }
 
+    private void openLocalPlaylist() {
+        if (this.localPlaylistFile != null && this.playlistSession != null && this.localPlaylist == null) {
+            this.localPlaylist = new PHLSWriter(this.localPlaylistFile, this.playlistSession);
+        }
+    }
+
+    /**
+     * Lists the segment just appended in the local playlist.  Only the tail of the session is looked at, so this costs
+     * the same however many segments the session already has.
+     */
+    private void writeLocalPlaylist(File mediaSegment) {
+
+        if (this.localPlaylist == null || this.playlistSession == null) {
+            return;
+        }
+        final ArrayList<PMediaSegment> segments = this.playlistSession.getMediaSegments();
+        if (segments == null || segments.isEmpty()) {
+            return;
+        }
+
+        final PMediaSegment newest = segments.get(segments.size() - 1);
+        final File playlistDirectory = this.localPlaylistFile.getAbsoluteFile().getParentFile();
+        String uri = newest.getURI();
+        if (uri == null) {
+            final boolean alongside = mediaSegment.getAbsoluteFile().getParentFile().equals(playlistDirectory);
+            uri = alongside ? mediaSegment.getName() : mediaSegment.toURI().toString();
+        }
+
+        try {
+            this.localPlaylist.append(newest, uri);
+            if (this.playlistSession.isFinished()) {
+                this.finishLocalPlaylist();
+            }
+        } catch (IOException e) {
+            PLog.warning("writeLocalPlaylist() -> Caught IOException writing {0}: {1}", this.localPlaylistFile, e.getMessage());
+        }
+
+    }
+
+}
@@ -0,0 +1,346 @@
+package tv.present.managers;
+
+import tv.present.api.PAPICancellationToken;
+import tv.present.api.PAPIInteraction;
+import tv.present.models.PUser;
+import tv.present.models.PUserProfile;
+import tv.present.models.PVideo;
+import tv.present.util.PExecutors;
+import tv.present.util.PLogger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Present Search Session Manager
+ * October 19, 2026
+ *
+ * Sits between a search box and PAPIInteraction's user or video search.  Call setQuery() on every keystroke; only the
+ * query the user pauses on is searched for:
+ *
+ *   - A query is sent DEFAULT_DEBOUNCE_MILLIS after the last keystroke, not before.
+ *   - A newer query cancels the one in flight, disconnecting its connection, and its results are never delivered.
+ *   - A query that extends an earlier one whose results were complete (fewer than the limit came back) is answered by
+ *     filtering those results, without the network.  So is a query searched for recently.
+ *
+ * Results are handed to the Listener on an I/O thread, at most once per query, and only while that query is current.
+ * A session runs at most MAX_CONCURRENT_SEARCHES searches at a time, however fast queries are set.
+ */
+@SuppressWarnings("unused")
+public final class PSearchSessionManager<Z> {
+
+    private static final String TAG = "tv.present.managers.PSearchSessionManager";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+    public static final int DEFAULT_LIMIT = 20;
+    private static final int REMEMBERED_QUERIES = 32;
+    // The current query and the one it superseded, which holds its thread until its connection is torn down.
+    private static final int MAX_CONCURRENT_SEARCHES = 2;
+
+    /**
+     * Runs one search against the API.
+     */
+    public interface Searcher<Z> {
+
+        /**
+         * Searches for a query.
+         * @param query is the query as a String.
+         * @param limit is the most results wanted.
+         * @param cancellationToken is the PAPICancellationToken that abandons the request when the query is superseded.
+         * @return an ArrayList of results, or null if the search failed or was cancelled.
+         */
+        ArrayList<Z> search(String query, int limit, PAPICancellationToken cancellationToken);
+
+        /**
+         * Checks whether a result of an earlier search also matches a longer query, the way the API would match it.
+         * @param result is the result.
+         * @param query is the longer query, folded to lower case.
+         * @return true if the result matches, false otherwise.
+         */
+        boolean matches(Z result, String query);
+
+    }
+
+    /**
+     * Receives the results of the current query.
+     */
+    public interface Listener<Z> {
+
+        /**
+         * Called with the results for a query that is still current.
+         * @param query is the query as it was set.
+         * @param results is an ArrayList of results (empty if there are none).
+         */
+        void onResults(String query, ArrayList<Z> results);
+
+        /**
+         * Called if the search for a query that is still current failed.
+         * @param query is the query as it was set.
+         */
+        void onFailed(String query);
+
+    }
+
+    private final Searcher<Z> searcher;
+    private final Listener<Z> listener;
+    private final long debounceMillis;
+    private final int limit;
+    private final Executor executor;
+
+    // Guarded by this.
+    private final LinkedHashMap<String, ArrayList<Z>> remembered = new LinkedHashMap<String, ArrayList<Z>>(REMEMBERED_QUERIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ArrayList<Z>> eldest) {
+            return this.size() > REMEMBERED_QUERIES;
+        }
+    };
+    private long generation = 0;
+    private ScheduledFuture<?> pending = null;
+    private PAPICancellationToken inFlight = null;
+    private boolean closed = false;
+
+    private final AtomicLong requestsSent = new AtomicLong(0);
+    private final AtomicLong requestsCancelled = new AtomicLong(0);
+    private final AtomicLong answeredLocally = new AtomicLong(0);
+
+    /**
+     * Constructs a PSearchSessionManager.
+     * @param searcher is the Searcher that runs the API search.
+     * @param listener is the Listener to hand results to.
+     * @param debounceMillis is how long input must pause before a query is sent, in milliseconds.
+     * @param limit is the most results wanted per query.
+     */
+    public PSearchSessionManager(final Searcher<Z> searcher, final Listener<Z> listener, final long debounceMillis, final int limit) {
+        this.searcher = searcher;
+        this.listener = listener;
+        this.debounceMillis = Math.max(0, debounceMillis);
+        this.limit = Math.max(1, limit);
+        this.executor = PExecutors.limit(PExecutors.getIOExecutor(), MAX_CONCURRENT_SEARCHES);
+    }
+
+    /**
+     * Constructs a PSearchSessionManager over user search (users/search by query).
+     * @param interaction is the PAPIInteraction to search with.
+     * @param listener is the Listener to hand results to.
+     * @return the PSearchSessionManager.
+     */
+    public static PSearchSessionManager<PUser> forUsers(final PAPIInteraction interaction, final Listener<PUser> listener) {
+        return new PSearchSessionManager<PUser>(new Searcher<PUser>() {
+            @Override
+            public ArrayList<PUser> search(String query, int limit, PAPICancellationToken cancellationToken) {
+                return interaction.searchByQuery(query, limit, 0, cancellationToken);
+            }
+
+            @Override
+            public boolean matches(PUser user, String query) {
+                final PUserProfile profile = user.getProfile();
+                return contains(user.getUsername(), query) || contains(user.getVanityUsername(), query)
+                        || (profile != null && contains(profile.getFullName(), query));
+            }
+        }, listener, DEFAULT_DEBOUNCE_MILLIS, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Constructs a PSearchSessionManager over video search (videos/search).
+     * @param interaction is the PAPIInteraction to search with.
+     * @param listener is the Listener to hand results to.
+     * @return the PSearchSessionManager.
+     */
+    public static PSearchSessionManager<PVideo> forVideos(final PAPIInteraction interaction, final Listener<PVideo> listener) {
+        return new PSearchSessionManager<PVideo>(new Searcher<PVideo>() {
+            @Override
+            public ArrayList<PVideo> search(String query, int limit, PAPICancellationToken cancellationToken) {
+                return interaction.search(query, limit, 0, cancellationToken);
+            }
+
+            @Override
+            public boolean matches(PVideo video, String query) {
+                return contains(video.getTitle(), query);
+            }
+        }, listener, DEFAULT_DEBOUNCE_MILLIS, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Sets the query as typed so far, superseding any earlier one.  An empty query just cancels.
+     * @param query is the query as a String.
+     */
+    public synchronized void setQuery(final String query) {
+
+        if (this.closed) {
+            return;
+        }
+        final long current = ++this.generation;
+        this.cancelPending();
+
+        final String key = (query == null) ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        final ArrayList<Z> local = this.answerLocally(key);
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                if (local != null) {
+                    PSearchSessionManager.this.deliver(current, query, local);
+                }
+                else {
+                    PSearchSessionManager.this.send(current, query, key);
+                }
+            }
+        };
+
+        try {
+            // A local answer skips the debounce; it costs nothing to throw away.
+            this.pending = PExecutors.getScheduler().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        PSearchSessionManager.this.executor.execute(task);
+                    } catch (RejectedExecutionException e) {
+                        PLog.warning("setQuery() -> Caught RejectedExecutionException!");
+                    }
+                }
+            }, (local != null) ? 0 : this.debounceMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            PLog.warning("setQuery() -> Caught RejectedExecutionException!");
+        }
+
+    }
+
+    /**
+     * Cancels whatever is pending or in flight and stops taking queries.
+     */
+    public synchronized void close() {
+        this.closed = true;
+        this.generation++;
+        this.cancelPending();
+    }
+
+    /**
+     * Gets the number of searches sent to the API.
+     * @return the count as a long.
+     */
+    public long getRequestsSent() {
+        return this.requestsSent.get();
+    }
+
+    /**
+     * Gets the number of searches cancelled while in flight.
+     * @return the count as a long.
+     */
+    public long getRequestsCancelled() {
+        return this.requestsCancelled.get();
+    }
+
+    /**
+     * Gets the number of queries answered from earlier results instead of the API.
+     * @return the count as a long.
+     */
+    public long getAnsweredLocally() {
+        return this.answeredLocally.get();
+    }
+
+    /**
+     * Finds an answer without the network: the same query searched for recently, or the longest earlier query this one
+     * extends whose results were complete.  Called with the lock held.
+     * @return the results, or null if the API has to be asked.
+     */
+    private ArrayList<Z> answerLocally(final String key) {
+
+        final ArrayList<Z> exact = this.remembered.get(key);
+        if (exact != null) {
+            this.answeredLocally.incrementAndGet();
+            return exact;
+        }
+
+        for (int length = key.length() - 1; length > 0; length--) {
+            final ArrayList<Z> shorter = this.remembered.get(key.substring(0, length));
+            if (shorter != null && shorter.size() < this.limit) {
+                final ArrayList<Z> filtered = new ArrayList<Z>();
+                for (Z result : shorter) {
+                    if (this.searcher.matches(result, key)) {
+                        filtered.add(result);
+                    }
+                }
+                this.remembered.put(key, filtered);
+                this.answeredLocally.incrementAndGet();
+                return filtered;
+            }
+        }
+        return null;
+
+    }
+
+    private void send(final long current, final String query, final String key) {
+
+        final PAPICancellationToken token = new PAPICancellationToken();
+        synchronized (this) {
+            if (current != this.generation) {
+                return;
+            }
+            this.inFlight = token;
+        }
+
+        this.requestsSent.incrementAndGet();
+        final ArrayList<Z> results = this.searcher.search(query, this.limit, token);
+
+        synchronized (this) {
+            if (this.inFlight == token) {
+                this.inFlight = null;
+            }
+            if (current != this.generation) {
+                return;
+            }
+            if (results != null) {
+                this.remembered.put(key, results);
+            }
+        }
+
+        if (results != null) {
+            this.deliver(current, query, results);
+        }
+        else if (this.isCurrent(current)) {
+            this.listener.onFailed(query);
+        }
+
+    }
+
+    private void deliver(final long current, final String query, final ArrayList<Z> results) {
+        if (this.isCurrent(current)) {
+            this.listener.onResults(query, new ArrayList<Z>(results));
+        }
+    }
+
+    private synchronized boolean isCurrent(final long current) {
+        return current == this.generation;
+    }
+
+    /**
+     * Drops the pending query, if it has not been sent, and cancels the one in flight.  Called with the lock held.
+     */
+    private void cancelPending() {
+        if (this.pending != null) {
+            this.pending.cancel(false);
+            this.pending = null;
+        }
+        if (this.inFlight != null) {
+            this.requestsCancelled.incrementAndGet();
+            this.inFlight.cancel();
+            this.inFlight = null;
+        }
+    }
+
+    private static boolean contains(final String text, final String query) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(query);
+    }
+
+}
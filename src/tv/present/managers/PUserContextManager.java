@@ -0,0 +1,280 @@
+package tv.present.managers;
+
+import tv.present.api.PAPIClient;
+import tv.present.api.PAPIInteraction;
+import tv.present.models.PUserContext;
+import tv.present.util.PBulkExecutor;
+import tv.present.util.PBulkResult;
+import tv.present.util.PLogger;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Present User Context Manager
+ * October 19, 2026
+ *
+ * Keeps one signed in PUserContext per account for a service that acts as many accounts, so that a workflow does not
+ * pay for a login (user_contexts/create and a full PUser decode) before it can do any real work.  Add each account's
+ * credentials once, then ask for its context whenever it is needed:
+ *
+ *   - The first getContext() for an account signs in; every thread asking at the same time waits for that one login
+ *     instead of starting its own.  Later calls return the same context without a request.
+ *   - A context is safe to use from any number of threads at once, so one per account is enough.  Its session token
+ *     never changes; its user record (after updateUserDetails()) and its demand flags may, and are safely published.
+ *   - What an account sees of other users (ie: whether it demands them) is kept on its own context, never in the
+ *     client's shared PModelCache, so accounts do not see each other's state.  Destroying a context drops only that.
+ *   - When the API refuses a context (401 or 403), PAPIBridge marks it rejected; the next getContext() signs in again.
+ *     execute() does this by itself, retrying an operation once with the new context.
+ *   - A login that fails is not retried for LOGIN_RETRY_MILLIS, so a wrong password does not cost a request per call.
+ *   - close() destroys every live session, several at a time, and stops handing contexts out.
+ */
+@SuppressWarnings("unused")
+public final class PUserContextManager {
+
+    private static final String TAG = "tv.present.managers.PUserContextManager";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final long LOGIN_RETRY_MILLIS = 10 * 1000;
+
+    /**
+     * An operation that needs to act as an account.
+     */
+    public interface ContextOperation<R> {
+
+        /**
+         * Runs the operation.
+         * @param userContext is the signed in PUserContext of the account.
+         * @return the result, or null if the operation failed.
+         */
+        R run(PUserContext userContext);
+
+    }
+
+    /**
+     * One account: its credentials, its current context and when its last login failed.  The lock of an Account is
+     * held while signing it in, which is what keeps the login single flight.
+     */
+    private static final class Account {
+
+        private final String username;
+        private final String password;
+        private volatile PUserContext context = null;
+        private long failedLoginMillis = 0; // Guarded by this.
+
+        private Account(final String username, final String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        private PUserContext liveContext() {
+            final PUserContext current = this.context;
+            return (current != null && !current.isRejected()) ? current : null;
+        }
+
+    }
+
+    private final PAPIClient client;
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<String, Account>();
+    private volatile boolean closed = false;
+
+    /**
+     * Constructs a PUserContextManager that signs in through the default PAPIClient.
+     */
+    public PUserContextManager() {
+        this(PAPIClient.getDefault());
+    }
+
+    /**
+     * Constructs a PUserContextManager (see PAPIClient.newUserContextManager()).
+     * @param client is the PAPIClient to sign in through.
+     */
+    public PUserContextManager(final PAPIClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Adds an account, or replaces its password.  Replacing the password drops any context signed in with the old one.
+     * @param username is the username as a String.
+     * @param password is the password as a String.
+     */
+    public void addAccount(final String username, final String password) {
+        final Account previous = this.accounts.put(username, new Account(username, password));
+        if (previous != null) {
+            PLog.fine("addAccount() -> Replaced the account {0}", username);
+        }
+    }
+
+    /**
+     * Adds an account that is already signed in, so its context is used until the API refuses it.
+     * @param username is the username as a String.
+     * @param password is the password as a String, used to sign in again once the context is refused.
+     * @param userContext is the signed in PUserContext.
+     */
+    public void addAccount(final String username, final String password, final PUserContext userContext) {
+        final Account account = new Account(username, password);
+        account.context = userContext;
+        this.accounts.put(username, account);
+    }
+
+    /**
+     * Removes an account.  Its context is left signed in; pass it to PAPIInteraction.invalidateUserContext() if needed.
+     * @param username is the username as a String.
+     * @return the account's live PUserContext, or null if it had none.
+     */
+    public PUserContext removeAccount(final String username) {
+        final Account account = this.accounts.remove(username);
+        return (account == null) ? null : account.liveContext();
+    }
+
+    /**
+     * Gets a signed in context for an account, signing in only if there is no context the API still accepts.
+     * @param username is the username as a String.
+     * @return the PUserContext, or null if the account is unknown, the login failed (now or within the last
+     *         LOGIN_RETRY_MILLIS), or the manager is closed.
+     */
+    public PUserContext getContext(final String username) {
+
+        final Account account = this.accounts.get(username);
+        if (account == null || this.closed) {
+            return null;
+        }
+
+        final PUserContext live = account.liveContext();
+        if (live != null) {
+            return live;
+        }
+
+        synchronized (account) {
+            // Another thread may have signed in while this one waited for the lock.
+            final PUserContext current = account.liveContext();
+            if (current != null) {
+                return current;
+            }
+            if (System.currentTimeMillis() - account.failedLoginMillis < LOGIN_RETRY_MILLIS) {
+                return null;
+            }
+            PLog.fine("getContext() -> Signing in as {0}", username);
+            final PUserContext created = this.client.interaction().getUserContext(account.username, account.password);
+            if (created == null) {
+                account.failedLoginMillis = System.currentTimeMillis();
+                return null;
+            }
+            account.failedLoginMillis = 0;
+            account.context = created;
+            if (this.closed) {
+                // close() may already have gone past this account; do not leave the session behind.
+                this.client.interaction().invalidateUserContext(created);
+                account.context = null;
+                return null;
+            }
+            return created;
+        }
+
+    }
+
+    /**
+     * Runs an operation as an account.  If the API refuses the context while the operation runs, the account signs in
+     * again and the operation is run once more with the new context.
+     * @param username is the username as a String.
+     * @param operation is the ContextOperation to run.
+     * @return the result of the operation, or null if it failed or no context could be had.
+     */
+    public <R> R execute(final String username, final ContextOperation<R> operation) {
+        PUserContext userContext = this.getContext(username);
+        if (userContext == null) {
+            return null;
+        }
+        final R result = operation.run(userContext);
+        if (result != null || !userContext.isRejected()) {
+            return result;
+        }
+        PLog.fine("execute() -> The context of {0} was refused, signing in again", username);
+        userContext = this.getContext(username);
+        return (userContext == null) ? null : operation.run(userContext);
+    }
+
+    /**
+     * Drops an account's context so the next getContext() signs in again.  Does nothing if the context has already
+     * been replaced.
+     * @param username is the username as a String.
+     * @param userContext is the PUserContext that should no longer be used.
+     */
+    public void reportRejected(final String username, final PUserContext userContext) {
+        final Account account = this.accounts.get(username);
+        if (userContext != null) {
+            userContext.markRejected();
+        }
+        if (account != null) {
+            synchronized (account) {
+                if (account.context == userContext) {
+                    account.context = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of accounts that currently hold a context the API has not refused.
+     * @return the count as an integer.
+     */
+    public int getLiveContextCount() {
+        int count = 0;
+        for (Account account : this.accounts.values()) {
+            if (account.liveContext() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Destroys the live session of every account, several at a time, and stops handing contexts out.
+     * @return a PBulkResult with an outcome for every account that had a live session.
+     */
+    public PBulkResult<Boolean> close() {
+        return this.close(new PBulkExecutor(this.client.getExecutor(), PBulkExecutor.DEFAULT_PARALLELISM, 0));
+    }
+
+    /**
+     * Destroys the live session of every account with a PBulkExecutor, and stops handing contexts out.
+     * @param bulkExecutor is the PBulkExecutor to destroy the sessions with.
+     * @return a PBulkResult with an outcome for every account that had a live session.
+     */
+    public PBulkResult<Boolean> close(final PBulkExecutor bulkExecutor) {
+
+        this.closed = true;
+
+        final ArrayList<String> usernames = new ArrayList<String>();
+        for (Account account : this.accounts.values()) {
+            if (account.liveContext() != null) {
+                usernames.add(account.username);
+            }
+        }
+        PLog.fine("close() -> Destroying {0} sessions", usernames.size());
+
+        final PAPIInteraction interaction = this.client.interaction();
+        return bulkExecutor.run(usernames, new PBulkExecutor.Operation<Boolean>() {
+            @Override
+            public Boolean apply(String username) {
+                final Account account = PUserContextManager.this.accounts.get(username);
+                if (account == null) {
+                    return Boolean.TRUE;
+                }
+                final PUserContext userContext;
+                synchronized (account) {
+                    userContext = account.context;
+                    account.context = null;
+                }
+                return (userContext == null || interaction.invalidateUserContext(userContext)) ? Boolean.TRUE : null;
+            }
+
+            @Override
+            public boolean isNotFound(String username) {
+                return false;
+            }
+        });
+
+    }
+
+}
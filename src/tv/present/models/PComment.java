@@ -1,7 +1,8 @@
 package tv.present.models;
 
+import tv.present.util.PLogger;
+
 import java.util.Calendar;
-import java.util.logging.Logger;
 
 /**
  * Present Comment Model
@@ -12,7 +13,7 @@ import java.util.logging.Logger;
 public final class PComment extends PObject {
 
     private static final String TAG = "tv.present.models.PComment";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     private final PVideo targetVideo;
     private final PUser sourceUser;
@@ -32,7 +33,7 @@ public final class PComment extends PObject {
         this.body = body;
         this.targetVideo = target;
         this.sourceUser = source;
-        PLog.info("Constructing PComment object with ID: " + id);
+        PLog.finest("Constructing PComment object with ID: {0}", id);
     }
 
     /**
@@ -1,7 +1,8 @@
 package tv.present.models;
 
+import tv.present.util.PLogger;
+
 import java.util.Calendar;
-import java.util.logging.Logger;
 
 /**
  * Present Demand Model
@@ -11,7 +12,7 @@ import java.util.logging.Logger;
 public final class PDemand extends PObject {
 
     private static final String TAG = "tv.present.models.PDemand";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     private final PUser sourceUser;
     private final PUser targetUser;
@@ -28,7 +29,7 @@ public final class PDemand extends PObject {
         super(id, subjectiveMeta, creationDate, lastUpdateDate);
         this.sourceUser = sourceUser;
         this.targetUser = targetUser;
-        PLog.info("Constructing PDemand object with ID: " + id);
+        PLog.finest("Constructing PDemand object with ID: {0}", id);
     }
 
     /**
@@ -0,0 +1,150 @@
+package tv.present.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Present HLS Master Playlist Model
+ * October 19, 2026
+ *
+ * The variant streams listed by an HLS master playlist (ie: the one behind PVideo's live or replay link), in the order
+ * the playlist lists them.
+ */
+public final class PHLSMasterPlaylist {
+
+    private final String uri;
+    private final ArrayList<Variant> variants;
+
+    /**
+     * Constructs a PHLSMasterPlaylist object.
+     * @param uri is the URI the playlist was read from as a String, or null.
+     * @param variants is an ArrayList<Variant> of the variant streams.
+     */
+    public PHLSMasterPlaylist(final String uri, final ArrayList<Variant> variants) {
+        this.uri = uri;
+        this.variants = variants;
+    }
+
+    /**
+     * Gets the URI the playlist was read from.
+     * @return the URI as a String, or null if it was read from somewhere without one.
+     */
+    @SuppressWarnings("unused")
+    public String getURI() {
+        return this.uri;
+    }
+
+    /**
+     * Gets the variant streams.
+     * @return an unmodifiable List<Variant> of the variants, in playlist order.
+     */
+    @SuppressWarnings("unused")
+    public List<Variant> getVariants() {
+        return Collections.unmodifiableList(this.variants);
+    }
+
+    /**
+     * Picks the highest bandwidth variant that fits within a bandwidth budget.
+     * @param maxBandwidth is the budget in bits per second (0 or less for no limit).
+     * @return the best fitting Variant, the lowest bandwidth one if none fits, or null if there are no variants.
+     */
+    public Variant selectVariant(final long maxBandwidth) {
+        Variant best = null;
+        Variant lowest = null;
+        for (Variant variant : this.variants) {
+            if (lowest == null || variant.getBandwidth() < lowest.getBandwidth()) {
+                lowest = variant;
+            }
+            if ((maxBandwidth <= 0 || variant.getBandwidth() <= maxBandwidth) && (best == null || variant.getBandwidth() > best.getBandwidth())) {
+                best = variant;
+            }
+        }
+        return (best != null) ? best : lowest;
+    }
+
+    /**
+     * One variant stream (an #EXT-X-STREAM-INF entry).
+     */
+    public static final class Variant {
+
+        private final String uri;
+        private final long bandwidth;
+        private final long averageBandwidth;
+        private final int width;
+        private final int height;
+        private final String codecs;
+
+        /**
+         * Constructs a Variant object.
+         * @param uri is the absolute URI of the variant's media playlist as a String.
+         * @param bandwidth is the peak bandwidth in bits per second.
+         * @param averageBandwidth is the average bandwidth in bits per second (0 if not given).
+         * @param width is the width of the video in pixels (0 if not given).
+         * @param height is the height of the video in pixels (0 if not given).
+         * @param codecs is the codecs attribute as a String, or null.
+         */
+        public Variant(final String uri, final long bandwidth, final long averageBandwidth, final int width, final int height, final String codecs) {
+            this.uri = uri;
+            this.bandwidth = bandwidth;
+            this.averageBandwidth = averageBandwidth;
+            this.width = width;
+            this.height = height;
+            this.codecs = codecs;
+        }
+
+        /**
+         * Gets the URI of the variant's media playlist.
+         * @return the URI as a String.
+         */
+        public String getURI() {
+            return this.uri;
+        }
+
+        /**
+         * Gets the peak bandwidth.
+         * @return the bandwidth in bits per second as a long.
+         */
+        public long getBandwidth() {
+            return this.bandwidth;
+        }
+
+        /**
+         * Gets the average bandwidth.
+         * @return the average bandwidth in bits per second as a long, or 0 if not given.
+         */
+        @SuppressWarnings("unused")
+        public long getAverageBandwidth() {
+            return this.averageBandwidth;
+        }
+
+        /**
+         * Gets the width of the video.
+         * @return the width in pixels as an integer, or 0 if not given.
+         */
+        @SuppressWarnings("unused")
+        public int getWidth() {
+            return this.width;
+        }
+
+        /**
+         * Gets the height of the video.
+         * @return the height in pixels as an integer, or 0 if not given.
+         */
+        @SuppressWarnings("unused")
+        public int getHeight() {
+            return this.height;
+        }
+
+        /**
+         * Gets the codecs attribute.
+         * @return the codecs as a String, or null if not given.
+         */
+        @SuppressWarnings("unused")
+        public String getCodecs() {
+            return this.codecs;
+        }
+
+    }
+
+}
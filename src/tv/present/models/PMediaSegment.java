@@ -1,6 +1,6 @@
 package tv.present.models;
 
-import java.util.logging.Logger;
+import tv.present.util.PLogger;
 
 /**
  * Present Media Segment Model
@@ -10,12 +10,13 @@ import java.util.logging.Logger;
 public final class PMediaSegment extends PObject {
 
     private static final String TAG = "tv.present.models.PMediaSegment";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     private int sequence = 0;
     private int discontinuitySequence = 0;
     private double timeElapsed = 0;
     private double duration = 0;
+    private String uri = null;
 
     /**
      * Constructs a PMediaSegment object.
@@ -25,12 +26,25 @@ public final class PMediaSegment extends PObject {
      * @param duration is a double.
      */
     public PMediaSegment(final int sequence, final int discontinuitySequence, final double timeElapsed, final double duration) {
+        this(sequence, discontinuitySequence, timeElapsed, duration, null);
+    }
+
+    /**
+     * Constructs a PMediaSegment object with the location of its media.
+     * @param sequence is the sequence number of this segment as an integer.
+     * @param discontinuitySequence is an integer.
+     * @param timeElapsed is a double.
+     * @param duration is a double.
+     * @param uri is the URI of the segment's media as a String (ie: from an HLS media playlist), or null.
+     */
+    public PMediaSegment(final int sequence, final int discontinuitySequence, final double timeElapsed, final double duration, final String uri) {
         super(null, null, null, null);
         this.sequence = sequence;
         this.discontinuitySequence = discontinuitySequence;
         this.timeElapsed = timeElapsed;
         this.duration = duration;
-        PLog.info("Constructing MediaSegment sequence " + sequence);
+        this.uri = uri;
+        PLog.finest("Constructing MediaSegment sequence {0}", sequence);
     }
 
     /**
@@ -65,4 +79,13 @@ public final class PMediaSegment extends PObject {
         return this.duration;
     }
 
+    /**
+     * Gets the URI of the segment's media.
+     * @return the URI as a String, or null if the segment did not come with one.
+     */
+    @SuppressWarnings("unused")
+    public final String getURI() {
+        return this.uri;
+    }
+
 }
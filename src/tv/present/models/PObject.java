@@ -1,7 +1,8 @@
 package tv.present.models;
 
+import tv.present.util.PLogger;
+
 import java.util.Calendar;
-import java.util.logging.Logger;
 
 /**
  * Present Abstract Object Model
@@ -11,7 +12,7 @@ import java.util.logging.Logger;
 public abstract class PObject {
 
     private static final String TAG = "tv.present.models.PObject";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     protected final String id;
     protected PSubjectiveMeta subjectiveMeta;
@@ -30,7 +31,7 @@ public abstract class PObject {
         this.id = id;
         this.lastUpdateDate = lastUpdateDate;
         this.subjectiveMeta = subjectiveMeta;
-        PLog.info("Constructing PObject object with ID: " + id);
+        PLog.finest("Constructing PObject object with ID: {0}", id);
     }
 
     /**
@@ -2,9 +2,9 @@ package tv.present.models;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import tv.present.util.PLogger;
 
 import java.util.ArrayList;
-import java.util.logging.Logger;
 
 /**
  * Present Playlist Session Model
@@ -14,7 +14,7 @@ import java.util.logging.Logger;
 public final class PPlaylistSession extends PObject {
 
     private static final String TAG = "tv.present.models.PPlaylistSession";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     private boolean shouldFinish;
     private boolean isFinished;
@@ -44,7 +44,7 @@ public final class PPlaylistSession extends PObject {
         this.isAvailable = isAvailable;
         this.windowLength = windowLength;
         this.maxDuration = maxDuration;
-        PLog.info("Constructing PPlaylistSession with ID: " + id);
+        PLog.finest("Constructing PPlaylistSession with ID: {0}", id);
     }
 
     /**
@@ -1,8 +1,7 @@
 package tv.present.models;
 
 import tv.present.enumerations.SubjectiveMetaDirection;
-
-import java.util.logging.Logger;
+import tv.present.util.PLogger;
 
 /**
  * Present Subjective Metadata Model
@@ -12,7 +11,7 @@ import java.util.logging.Logger;
 public final class PSubjectiveMeta extends PObject {
 
     private static final String TAG = "tv.present.models.PSubjectiveMeta";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
 	private boolean demandBackward = false;
 	private boolean demandForward = false;
@@ -24,7 +23,7 @@ public final class PSubjectiveMeta extends PObject {
 	public PSubjectiveMeta() {
         super(null, null, null, null);
 		/* empty constructor */
-        PLog.info("Constructing PSubjectiveMeta object.");
+        PLog.finest("Constructing PSubjectiveMeta object.");
 	}
 	
 	/**
@@ -1,9 +1,9 @@
 package tv.present.models;
 
 import tv.present.enumerations.PGender;
+import tv.present.util.PLogger;
 
 import java.util.Calendar;
-import java.util.logging.Logger;
 
 /**
  * Present User Model
@@ -13,7 +13,7 @@ import java.util.logging.Logger;
 public class PUser extends PObject {
 
     private static final String TAG = "tv.present.factories.PUser";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     private Integer numDemands = 0;
     private Integer numFollowers = 0;
@@ -35,7 +35,7 @@ public class PUser extends PObject {
         super(id, null, null, null);
         this.username = username;
         this.profile = profile;
-        PLog.info("Constructing PUser object with ID: " + id + " and username: " + username);
+        PLog.finest("Constructing PUser object with ID: {0} and username: {1}", id, username);
     }
 
     /**
@@ -1,7 +1,8 @@
 package tv.present.models;
 
+import tv.present.util.PLogger;
+
 import java.util.Calendar;
-import java.util.logging.Logger;
 
 /**
  * Present User Activity Model
@@ -11,7 +12,7 @@ import java.util.logging.Logger;
 public abstract class PUserActivity extends PObject {
 
     private static final String TAG = "tv.present.factories.PUserActivity";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     protected boolean isUnread;
     protected String subject;
@@ -38,7 +39,7 @@ public abstract class PUserActivity extends PObject {
         this.subject = subject;
         this.targetUser = targetUserID;
         this.video = video;
-        PLog.info("Constructing PUserActivity object with ID: " + id);
+        PLog.finest("Constructing PUserActivity object with ID: {0}", id);
     }
 
     /**
@@ -57,4 +58,28 @@ public abstract class PUserActivity extends PObject {
         return this.sourceUser;
     }
 
+    /**
+     * Gets the video this activity involves.
+     * @return the PVideo of the activity.
+     */
+    public PVideo getVideo() {
+        return this.video;
+    }
+
+    /**
+     * Gets the ID of the target user of this activity.
+     * @return the String ID of the target user.
+     */
+    public String getTargetUserID() {
+        return this.targetUser;
+    }
+
+    /**
+     * Gets whether this activity is unread.
+     * @return true if the activity is unread, false otherwise.
+     */
+    public boolean isUnread() {
+        return this.isUnread;
+    }
+
 }
@@ -1,7 +1,8 @@
 package tv.present.models;
 
+import tv.present.util.PLogger;
+
 import java.util.Calendar;
-import java.util.logging.Logger;
 
 /**
  * Present User Activity New Comment Model
@@ -11,7 +12,7 @@ import java.util.logging.Logger;
 public final class PUserActivityNewComment extends PUserActivity {
 
     private static final String TAG = "tv.present.factories.PUserActivityNewComment";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
 	/**
 	 * Constructs a new PUserActivityNewComment object.
@@ -27,7 +28,7 @@ public final class PUserActivityNewComment extends PUserActivity {
 	 */
 	public PUserActivityNewComment(String id, PSubjectiveMeta subjectiveMeta, Calendar creationDate, Calendar lastUpdateDate, String subject, PUser sourceUser, PVideo video, String targetUserID, boolean isUnread) {
         super(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
-        PLog.info("Constructing PUserActivityNewComment object with ID: " + id);
+        PLog.finest("Constructing PUserActivityNewComment object with ID: {0}", id);
 	}
 
 }
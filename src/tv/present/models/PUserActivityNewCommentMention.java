@@ -1,7 +1,8 @@
 package tv.present.models;
 
+import tv.present.util.PLogger;
+
 import java.util.Calendar;
-import java.util.logging.Logger;
 
 /**
  * Present User Activity New Comment Mention Model
@@ -11,7 +12,7 @@ import java.util.logging.Logger;
 public final class PUserActivityNewCommentMention extends PUserActivity {
 
     private static final String TAG = "tv.present.factories.PUserActivityNewCommentMention";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     protected PComment comment;
 
@@ -31,7 +32,15 @@ public final class PUserActivityNewCommentMention extends PUserActivity {
     public PUserActivityNewCommentMention(String id, PSubjectiveMeta subjectiveMeta, Calendar creationDate, Calendar lastUpdateDate, String subject, PComment comment, PUser sourceUser, PVideo video, String targetUserID, boolean isUnread) {
         super(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
         this.comment = comment;
-        PLog.info("Constructing PUserActivityNewCommentMention object with ID: " + id);
+        PLog.finest("Constructing PUserActivityNewCommentMention object with ID: {0}", id);
+    }
+
+    /**
+     * Gets the comment that the mention came from.
+     * @return the PComment of the mention.
+     */
+    public PComment getComment() {
+        return this.comment;
     }
-	
+
 }
@@ -1,7 +1,8 @@
 package tv.present.models;
 
+import tv.present.util.PLogger;
+
 import java.util.Calendar;
-import java.util.logging.Logger;
 
 /**
  * Present User Activity New Demand Model
@@ -11,7 +12,7 @@ import java.util.logging.Logger;
 public final class PUserActivityNewDemand extends PUserActivity {
 
     private static final String TAG = "tv.present.factories.PUserActivityNewDemand";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     /**
      * Constructs a new PUserActivityNewDemand object.
@@ -27,7 +28,7 @@ public final class PUserActivityNewDemand extends PUserActivity {
      */
     public PUserActivityNewDemand(String id, PSubjectiveMeta subjectiveMeta, Calendar creationDate, Calendar lastUpdateDate, String subject, PUser sourceUser, PVideo video, String targetUserID, boolean isUnread) {
         super(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
-        PLog.info("Constructing PUserActivityNewDemand object with ID: " + id);
+        PLog.finest("Constructing PUserActivityNewDemand object with ID: {0}", id);
     }
 
 }
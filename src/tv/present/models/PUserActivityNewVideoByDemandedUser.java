@@ -1,7 +1,8 @@
 package tv.present.models;
 
+import tv.present.util.PLogger;
+
 import java.util.Calendar;
-import java.util.logging.Logger;
 
 /**
  * Present User Activity New Video By Demanded User Model
@@ -11,7 +12,7 @@ import java.util.logging.Logger;
 public final class PUserActivityNewVideoByDemandedUser extends PUserActivity {
 
     private static final String TAG = "tv.present.factories.PUserActivityVideoByDemandedUser";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     /**
      * Constructs a new PUserActivityNewVideoByDemandedUser object.
@@ -27,7 +28,7 @@ public final class PUserActivityNewVideoByDemandedUser extends PUserActivity {
      */
     public PUserActivityNewVideoByDemandedUser(String id, PSubjectiveMeta subjectiveMeta, Calendar creationDate, Calendar lastUpdateDate, String subject, PUser sourceUser, PVideo video, String targetUserID, boolean isUnread) {
         super(id, subjectiveMeta, creationDate, lastUpdateDate, subject, sourceUser, video, targetUserID, isUnread);
-        PLog.info("Constructing PUserActivityNewVideoByDemandedUser object with ID: " + id);
+        PLog.finest("Constructing PUserActivityNewVideoByDemandedUser object with ID: {0}", id);
     }
 
 }
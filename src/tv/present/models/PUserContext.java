@@ -1,20 +1,29 @@
 package tv.present.models;
 
+import tv.present.util.PLogger;
+
 import java.util.Calendar;
-import java.util.logging.Logger;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Present User Context Model
  * June 05, 2014
+ *
+ * Besides the session, a context holds what only its user sees: whether they demand another user, for the demands made
+ * and removed through it.  That state is kept here rather than on shared PUser objects (ie: those in a PModelCache), so
+ * one account's flags are never shown to another and go away with the context.
+ *
  * @author Kyle Weisel (kyle@present.tv)
  */
 public class PUserContext extends PObject {
 
     private static final String TAG = "tv.present.factories.PUserContext";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
-    private PUser user;
+    private volatile PUser user;
     private final String sessionToken;
+    private volatile boolean rejected = false;
+    private final ConcurrentHashMap<String, Boolean> demands = new ConcurrentHashMap<String, Boolean>();
 
     /**
      * Constructs a PUserContext object.
@@ -28,7 +37,7 @@ public class PUserContext extends PObject {
         super(id, null, creationDate, lastUpdateDate);
         this.sessionToken = sessionToken;
         this.user = user;
-        PLog.info("Construction PUserContext with ID: " + id + " & session token: " + sessionToken);
+        PLog.finest("Constructing PUserContext with ID: {0}", id);
     }
 
     /**
@@ -47,6 +56,24 @@ public class PUserContext extends PObject {
         return this.sessionToken;
     }
 
+    /**
+     * Checks whether the API has refused this context's session (ie: it expired or was destroyed elsewhere).
+     * @return true if a request made with this context was refused as unauthorized, false otherwise.
+     */
+    public boolean isRejected() {
+        return this.rejected;
+    }
+
+    /**
+     * Marks this context's session as refused by the API.  Once rejected, a context stays rejected.
+     */
+    public void markRejected() {
+        if (!this.rejected) {
+            this.rejected = true;
+            PLog.fine("User context {0} was rejected by the API", this.getID());
+        }
+    }
+
     /**
      * Gets the user object.
      * @return the user as a PUser object.
@@ -63,4 +90,43 @@ public class PUserContext extends PObject {
         this.user = user;
     }
 
-}
\ No newline at end of file
+    /**
+     * Gets whether this context's user demands another user, as far as demands made through this context go.  This is
+     * what PAPIInteraction.getUserByID(PUserContext, String) and getUserByUsername(PUserContext, String) overlay on the
+     * shared user they return.
+     * @param username is the username of the other user as a String.
+     * @return TRUE or FALSE if a demand was made or removed through this context, null if it is not known.
+     */
+    public Boolean getDemand(String username) {
+        return this.demands.get(username);
+    }
+
+    /**
+     * Records that this context's user demands, or no longer demands, another user.
+     * @param username is the username of the other user as a String.
+     * @param demanded is true if the user is now demanded, false otherwise.
+     * @return the previous flag, or null if it was not known.
+     */
+    public Boolean putDemand(String username, boolean demanded) {
+        return this.demands.put(username, demanded);
+    }
+
+    /**
+     * Puts back the flag putDemand() replaced, unless the flag has been changed again since.
+     * @param username is the username of the other user as a String.
+     * @param demanded is the flag that was put.
+     * @param previous is the flag putDemand() returned.
+     * @return true if the flag was put back, false if it had changed since.
+     */
+    public boolean restoreDemand(String username, boolean demanded, Boolean previous) {
+        return (previous == null) ? this.demands.remove(username, demanded) : this.demands.replace(username, demanded, previous);
+    }
+
+    /**
+     * Forgets every demand flag (ie: once the session has been destroyed).
+     */
+    public void clearDemands() {
+        this.demands.clear();
+    }
+
+}
@@ -1,8 +1,7 @@
 package tv.present.models;
 
 import tv.present.enumerations.PGender;
-
-import java.util.logging.Logger;
+import tv.present.util.PLogger;
 
 /**
  * Present User Profile Model
@@ -12,7 +11,7 @@ import java.util.logging.Logger;
 public final class PUserProfile extends PObject {
 
     private static final String TAG = "tv.present.factories.PUserProfile";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
 	private String description;
 	private String fullName;
@@ -33,7 +32,7 @@ public final class PUserProfile extends PObject {
 		this.description = description;
 		this.pictureURL = pictureURL;
 		this.websiteURL = websiteURL;
-        PLog.info("Constructing PUserProfile for user: " + fullName);
+        PLog.finest("Constructing PUserProfile for user: {0}", fullName);
 	}
 	
 	/**
@@ -1,9 +1,11 @@
 package tv.present.models;
 
+import tv.present.util.PLazyValue;
+import tv.present.util.PLogger;
+
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.logging.Logger;
 
 /**
  * Present Video Model
@@ -13,19 +15,20 @@ import java.util.logging.Logger;
 public class PVideo extends PObject {
 
     private static final String TAG = "tv.present.factories.PVideo";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
-    protected ArrayList<PComment> comments = new ArrayList<PComment>();
+    protected PLazyValue<ArrayList<PComment>> comments;
     protected boolean isAvailable;
     protected Calendar creationStart;
     protected Calendar creationEnd;
-    protected PUser creatorUser;
+    protected String creatorUserID;
+    protected PLazyValue<PUser> creatorUser;
     private String title;
     protected int likes;
     protected int views;
-    protected URL stillImage;
-    private URL replay;
-    private URL live;
+    protected PLazyValue<URL> stillImage;
+    private PLazyValue<URL> replay;
+    private PLazyValue<URL> live;
     protected PVisibility visibility;
 
     /**
@@ -48,8 +51,33 @@ public class PVideo extends PObject {
      * @param creationEnd is the creation end time as a Calendar.
      */
     public PVideo(String id, PSubjectiveMeta subjectiveMeta, Calendar creationDate, Calendar lastUpdateDate, String title, PUser creatorUser, URL stillImage, URL live, URL replay, int numLikes, int numViews, boolean isAvailable, PVisibility visibility, ArrayList<PComment> comments, Calendar creationStart, Calendar creationEnd) {
+        this(id, subjectiveMeta, creationDate, lastUpdateDate, title, (creatorUser == null) ? null : creatorUser.getID(), PLazyValue.of(creatorUser), PLazyValue.of(stillImage), PLazyValue.of(live), PLazyValue.of(replay), numLikes, numViews, isAvailable, visibility, PLazyValue.of(comments), creationStart, creationEnd);
+    }
+
+    /**
+     * Constructs a PVideo object whose creator, media URLs and comments are decoded on first access.
+     * @param id is the String ID of the video.
+     * @param subjectiveMeta is PSubjectiveMeta for the video.
+     * @param creationDate is the creation date as a Calendar.
+     * @param lastUpdateDate is the last update date as a Calendar.
+     * @param title is the title of the video as a String.
+     * @param creatorUserID is the String ID of the user who created the video (null if unknown).
+     * @param creatorUser is a PLazyValue that produces the PUser who created the video.
+     * @param stillImage is a PLazyValue that produces the URL for a still image for this video.
+     * @param live is a PLazyValue that produces the URL for a live stream to this video.
+     * @param replay is a PLazyValue that produces the URL for a replay stream to this video.
+     * @param numLikes is the integer number of likes.
+     * @param numViews os the integer number of views.
+     * @param isAvailable is a boolean.
+     * @param visibility is a PVisibility object.
+     * @param comments is a PLazyValue that produces the ArrayList<PComment> of comments.
+     * @param creationStart is the creation start time as a Calendar.
+     * @param creationEnd is the creation end time as a Calendar.
+     */
+    public PVideo(String id, PSubjectiveMeta subjectiveMeta, Calendar creationDate, Calendar lastUpdateDate, String title, String creatorUserID, PLazyValue<PUser> creatorUser, PLazyValue<URL> stillImage, PLazyValue<URL> live, PLazyValue<URL> replay, int numLikes, int numViews, boolean isAvailable, PVisibility visibility, PLazyValue<ArrayList<PComment>> comments, Calendar creationStart, Calendar creationEnd) {
         super(id, subjectiveMeta, creationDate, lastUpdateDate);
         this.title = title;
+        this.creatorUserID = creatorUserID;
         this.creatorUser = creatorUser;
         this.stillImage = stillImage;
         this.live = live;
@@ -61,7 +89,7 @@ public class PVideo extends PObject {
         this.comments = comments;
         this.creationStart = creationStart;
         this.creationEnd = creationEnd;
-        PLog.info("Constructing PVideo object with ID: " + id);
+        PLog.finest("Constructing PVideo object with ID: {0}", id);
     }
 
     /**
@@ -79,7 +107,13 @@ public class PVideo extends PObject {
      */
     @SuppressWarnings("unused")
     public String getLiveLink() {
-        return this.live.toString();
+        URL live = this.live.get();
+        if (live != null) {
+            return live.toString();
+        }
+        else {
+            return null;
+        }
     }
 
     /**
@@ -88,8 +122,9 @@ public class PVideo extends PObject {
      */
     @SuppressWarnings("unused")
     public String getReplayLink() {
+        URL replay = this.replay.get();
         if(replay != null) {
-            return this.replay.toString();
+            return replay.toString();
         }
         else {
             return null;
@@ -97,4 +132,104 @@ public class PVideo extends PObject {
 
     }
 
+    /**
+     * Gets the comments on the video.  They are decoded the first time this is called.
+     * @return an ArrayList<PComment> of comments.
+     */
+    @SuppressWarnings("unused")
+    public ArrayList<PComment> getComments() {
+        return this.comments.get();
+    }
+
+    /**
+     * Gets the user who created the video.  An embedded creator is decoded the first time this is called; one the API
+     * only sent the ID of is taken from the model cache and never fetched (see PAPIInteraction.loadCreatorUser()).
+     * @return the PUser who created the video, or null if it was not embedded and is not cached.
+     */
+    @SuppressWarnings("unused")
+    public PUser getCreatorUser() {
+        return this.creatorUser.get();
+    }
+
+    /**
+     * Gets the ID of the user who created the video, whether or not the user itself is available.
+     * @return the creator user ID as a String, or null if unknown.
+     */
+    @SuppressWarnings("unused")
+    public String getCreatorUserID() {
+        return this.creatorUserID;
+    }
+
+    /**
+     * Checks whether the creator has been decoded (or found in the cache) yet.
+     * @return true if getCreatorUser() returns without any work, false otherwise.
+     */
+    @SuppressWarnings("unused")
+    public boolean isCreatorUserLoaded() {
+        return this.creatorUser.isComputed();
+    }
+
+    /**
+     * Gets the still image for the video.
+     * @return the URL of the still image, or null if there is none.
+     */
+    @SuppressWarnings("unused")
+    public URL getStillImage() {
+        return this.stillImage.get();
+    }
+
+    /**
+     * Gets the number of likes on the video.
+     * @return the number of likes as an integer.
+     */
+    @SuppressWarnings("unused")
+    public int getNumLikes() {
+        return this.likes;
+    }
+
+    /**
+     * Gets the number of views of the video.
+     * @return the number of views as an integer.
+     */
+    @SuppressWarnings("unused")
+    public int getNumViews() {
+        return this.views;
+    }
+
+    /**
+     * Gets whether the video is available.
+     * @return true if the video is available, false otherwise.
+     */
+    @SuppressWarnings("unused")
+    public boolean isAvailable() {
+        return this.isAvailable;
+    }
+
+    /**
+     * Gets the visibility of the video.
+     * @return the PVisibility of the video.
+     */
+    @SuppressWarnings("unused")
+    public PVisibility getVisibility() {
+        return this.visibility;
+    }
+
+    /**
+     * Gets the time the video started being created.
+     * @return the creation start time as a Calendar.
+     */
+    @SuppressWarnings("unused")
+    public Calendar getCreationStart() {
+        return this.creationStart;
+    }
+
+    /**
+     * Gets the time the video stopped being created.
+     * @return the creation end time as a Calendar.
+     */
+    @SuppressWarnings("unused")
+    public Calendar getCreationEnd() {
+        return this.creationEnd;
+    }
+
 }
@@ -1,6 +1,6 @@
 package tv.present.models;
 
-import java.util.logging.Logger;
+import tv.present.util.PLogger;
 
 /**
  * Present Visibility Model
@@ -14,7 +14,7 @@ public class PVisibility {
 	}
 
     private static final String TAG = "tv.present.factories.PVisibility";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 	private boolean everyone = false;
 
     /**
@@ -22,7 +22,7 @@ public class PVisibility {
      */
 	public PVisibility() {
 		/* empty constructor */
-        PLog.info("Constructing new PVisibility object.");
+        PLog.finest("Constructing new PVisibility object.");
 	}
 	
 	/**
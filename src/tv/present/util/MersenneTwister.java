@@ -198,6 +198,11 @@ public strictfp class MersenneTwister extends java.util.Random implements Serial
     private double __nextNextGaussian;
     private boolean __haveNextNextGaussian;
 
+    // Splitting; see split().  Not part of the state that readState() and writeState() carry.
+    private static final int INITIAL_SPLIT_LOG2 = 192;
+    private static final int MINIMUM_SPLIT_LOG2 = 64;
+    private int splitDepth;
+
     /* We're overriding all internal data, to my knowledge, so this should be okay */
     public Object clone()
     {
@@ -253,6 +258,39 @@ public strictfp class MersenneTwister extends java.util.Random implements Serial
         stream.writeBoolean(__haveNextNextGaussian);
     }
 
+    /**
+     * Moves the generator forward by 2^log2Steps words without generating them, leaving it
+     * exactly where that many calls to nextInt() would have.  (nextLong() and nextDouble()
+     * use two words each.)  The first jump by a given power of two works out and caches its
+     * jump polynomial, which takes a few milliseconds per power of two above 2^14; later
+     * jumps take a few milliseconds whatever the distance.
+     */
+    synchronized public void jump(int log2Steps)
+    {
+        mti = PMersenneTwisterJump.jump(mt, mti, log2Steps);
+        __haveNextNextGaussian = false;
+    }
+
+    /**
+     * Splits off a generator for another task, reproducibly and without overlap.  The new
+     * generator carries on from this one's current position and this one jumps ahead past
+     * everything the new one can use.  Either one can be split again: a generator that has
+     * never been split covers 2^192 words, and each split halves that between the two.
+     * Both can always draw at least 2^64 words before they could meet another stream
+     * split off the same ancestor; splitting more than 128 levels deep throws an
+     * IllegalStateException.
+     */
+    synchronized public MersenneTwister split()
+    {
+        final int log2Steps = INITIAL_SPLIT_LOG2 - splitDepth - 1;
+        if (log2Steps < MINIMUM_SPLIT_LOG2)
+            throw new IllegalStateException("Cannot split more than " + (INITIAL_SPLIT_LOG2 - MINIMUM_SPLIT_LOG2) + " levels deep");
+        splitDepth++;
+        MersenneTwister f = (MersenneTwister)(clone());
+        jump(log2Steps);
+        return f;
+    }
+
 
     /**
      * Constructor using the default seed.
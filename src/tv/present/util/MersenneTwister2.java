@@ -1,5 +1,7 @@
 package tv.present.util;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.*;
 
 /**
@@ -201,6 +203,11 @@ public strictfp class MersenneTwister2 implements Serializable, Cloneable {
     private double __nextNextGaussian;
     private boolean __haveNextNextGaussian;
 
+    // Splitting; see split().  Not part of the state that readState() and writeState() carry.
+    private static final int INITIAL_SPLIT_LOG2 = 192;
+    private static final int MINIMUM_SPLIT_LOG2 = 64;
+    private int splitDepth;
+
     /* We're overriding all internal data, to my knowledge, so this should be okay */
     public Object clone()
     {
@@ -256,6 +263,39 @@ public strictfp class MersenneTwister2 implements Serializable, Cloneable {
         stream.writeBoolean(__haveNextNextGaussian);
     }
 
+    /**
+     * Moves the generator forward by 2^log2Steps words without generating them, leaving it
+     * exactly where that many calls to nextInt() would have.  (nextLong() and nextDouble()
+     * use two words each.)  The first jump by a given power of two works out and caches its
+     * jump polynomial, which takes a few milliseconds per power of two above 2^14; later
+     * jumps take a few milliseconds whatever the distance.
+     */
+    public void jump(int log2Steps)
+    {
+        mti = PMersenneTwisterJump.jump(mt, mti, log2Steps);
+        __haveNextNextGaussian = false;
+    }
+
+    /**
+     * Splits off a generator for another task, reproducibly and without overlap.  The new
+     * generator carries on from this one's current position and this one jumps ahead past
+     * everything the new one can use.  Either one can be split again: a generator that has
+     * never been split covers 2^192 words, and each split halves that between the two.
+     * Both can always draw at least 2^64 words before they could meet another stream
+     * split off the same ancestor; splitting more than 128 levels deep throws an
+     * IllegalStateException.
+     */
+    public MersenneTwister2 split()
+    {
+        final int log2Steps = INITIAL_SPLIT_LOG2 - splitDepth - 1;
+        if (log2Steps < MINIMUM_SPLIT_LOG2)
+            throw new IllegalStateException("Cannot split more than " + (INITIAL_SPLIT_LOG2 - MINIMUM_SPLIT_LOG2) + " levels deep");
+        splitDepth++;
+        MersenneTwister2 f = (MersenneTwister2)(clone());
+        jump(log2Steps);
+        return f;
+    }
+
     /**
      * Constructor using the default seed.
      */
@@ -700,6 +740,210 @@ public strictfp class MersenneTwister2 implements Serializable, Cloneable {
     }
 
 
+    /**
+     * Fills an array with the ints that the same number of calls to nextInt() would return,
+     * leaving the generator in the same state as those calls would.  Each 624-word block is
+     * regenerated once and then tempered in one tight loop, which is several times faster
+     * than calling nextInt() for every element.
+     */
+    public void fill(int[] ints)
+    {
+        fill(ints, 0, ints.length);
+    }
+
+    /**
+     * Fills ints[offset] through ints[offset+length-1] as fill(int[]) does.
+     */
+    public void fill(int[] ints, int offset, int length)
+    {
+        checkRange(ints.length, offset, length);
+        final int[] mt = this.mt;
+        final int end = offset + length;
+        int i = offset;
+        while (i < end)
+        {
+            if (mti >= N) twist();
+            final int count = Math.min(N - mti, end - i);
+            final int from = mti;
+            for (int k = 0; k < count; k++)
+            {
+                int y = mt[from + k];
+                y ^= y >>> 11;                          // TEMPERING_SHIFT_U(y)
+                y ^= (y << 7) & TEMPERING_MASK_B;       // TEMPERING_SHIFT_S(y)
+                y ^= (y << 15) & TEMPERING_MASK_C;      // TEMPERING_SHIFT_T(y)
+                y ^= (y >>> 18);                        // TEMPERING_SHIFT_L(y)
+                ints[i + k] = y;
+            }
+            mti += count;
+            i += count;
+        }
+    }
+
+    /**
+     * Fills an array with the longs that the same number of calls to nextLong() would return,
+     * leaving the generator in the same state as those calls would.
+     */
+    public void fill(long[] longs)
+    {
+        final int[] mt = this.mt;
+        final int end = longs.length;
+        int i = 0;
+        while (i < end)
+        {
+            if (mti >= N) twist();
+            if (mti == N - 1)
+            {
+                // this long straddles a regeneration
+                longs[i++] = nextLong();
+                continue;
+            }
+            final int count = Math.min((N - mti) >> 1, end - i);
+            final int from = mti;
+            for (int k = 0; k < count; k++)
+            {
+                int y = mt[from + (k << 1)];
+                y ^= y >>> 11;                          // TEMPERING_SHIFT_U(y)
+                y ^= (y << 7) & TEMPERING_MASK_B;       // TEMPERING_SHIFT_S(y)
+                y ^= (y << 15) & TEMPERING_MASK_C;      // TEMPERING_SHIFT_T(y)
+                y ^= (y >>> 18);                        // TEMPERING_SHIFT_L(y)
+                int z = mt[from + (k << 1) + 1];
+                z ^= z >>> 11;                          // TEMPERING_SHIFT_U(z)
+                z ^= (z << 7) & TEMPERING_MASK_B;       // TEMPERING_SHIFT_S(z)
+                z ^= (z << 15) & TEMPERING_MASK_C;      // TEMPERING_SHIFT_T(z)
+                z ^= (z >>> 18);                        // TEMPERING_SHIFT_L(z)
+                longs[i + k] = (((long)y) << 32) + (long)z;
+            }
+            mti = from + (count << 1);
+            i += count;
+        }
+    }
+
+    /**
+     * Fills an array with the doubles that the same number of calls to nextDouble() would
+     * return, leaving the generator in the same state as those calls would.
+     */
+    public void fill(double[] doubles)
+    {
+        final int[] mt = this.mt;
+        final int end = doubles.length;
+        int i = 0;
+        while (i < end)
+        {
+            if (mti >= N) twist();
+            if (mti == N - 1)
+            {
+                // this double straddles a regeneration
+                doubles[i++] = nextDouble();
+                continue;
+            }
+            final int count = Math.min((N - mti) >> 1, end - i);
+            final int from = mti;
+            for (int k = 0; k < count; k++)
+            {
+                int y = mt[from + (k << 1)];
+                y ^= y >>> 11;                          // TEMPERING_SHIFT_U(y)
+                y ^= (y << 7) & TEMPERING_MASK_B;       // TEMPERING_SHIFT_S(y)
+                y ^= (y << 15) & TEMPERING_MASK_C;      // TEMPERING_SHIFT_T(y)
+                y ^= (y >>> 18);                        // TEMPERING_SHIFT_L(y)
+                int z = mt[from + (k << 1) + 1];
+                z ^= z >>> 11;                          // TEMPERING_SHIFT_U(z)
+                z ^= (z << 7) & TEMPERING_MASK_B;       // TEMPERING_SHIFT_S(z)
+                z ^= (z << 15) & TEMPERING_MASK_C;      // TEMPERING_SHIFT_T(z)
+                z ^= (z >>> 18);                        // TEMPERING_SHIFT_L(z)
+                doubles[i + k] = ((((long)(y >>> 6)) << 27) + (z >>> 5)) / (double)(1L << 53);
+            }
+            mti = from + (count << 1);
+            i += count;
+        }
+    }
+
+    /**
+     * Fills an array with the bytes nextBytes(bytes) would, leaving the generator in the same
+     * state.  Like nextBytes(), this spends a whole word on every byte; to fill a large buffer
+     * quickly, use fill(ByteBuffer) instead.
+     */
+    public void fill(byte[] bytes)
+    {
+        final int[] mt = this.mt;
+        final int end = bytes.length;
+        int i = 0;
+        while (i < end)
+        {
+            if (mti >= N) twist();
+            final int count = Math.min(N - mti, end - i);
+            final int from = mti;
+            for (int k = 0; k < count; k++)
+            {
+                int y = mt[from + k];
+                y ^= y >>> 11;                          // TEMPERING_SHIFT_U(y)
+                y ^= (y << 7) & TEMPERING_MASK_B;       // TEMPERING_SHIFT_S(y)
+                y ^= (y << 15) & TEMPERING_MASK_C;      // TEMPERING_SHIFT_T(y)
+                y ^= (y >>> 18);                        // TEMPERING_SHIFT_L(y)
+                bytes[i + k] = (byte)(y >>> 24);
+            }
+            mti += count;
+            i += count;
+        }
+    }
+
+    /**
+     * Fills the remaining bytes of a buffer, four bytes to a word: each group of four is the
+     * int nextInt() would return, written in the buffer's byte order, and the last one to three
+     * bytes are the most significant bytes of one more such int.  The buffer's position is moved
+     * to its limit.
+     */
+    public void fill(ByteBuffer buffer)
+    {
+        final IntBuffer ints = buffer.asIntBuffer();
+        final int[] block = new int[N];
+        int words = buffer.remaining() >> 2;
+        while (words > 0)
+        {
+            final int count = Math.min(N, words);
+            fill(block, 0, count);
+            ints.put(block, 0, count);
+            words -= count;
+        }
+        buffer.position(buffer.position() + (ints.position() << 2));
+        if (buffer.hasRemaining())
+        {
+            final int y = nextInt();
+            for (int shift = 24; buffer.hasRemaining(); shift -= 8)
+                buffer.put((byte)(y >>> shift));
+        }
+    }
+
+    /** Regenerates all N words of the state at once, as every next method does inline. */
+    private void twist()
+    {
+        int y;
+        int kk;
+        final int[] mt = this.mt; // locals are slightly faster 
+        final int[] mag01 = this.mag01; // locals are slightly faster 
+
+        for (kk = 0; kk < N - M; kk++)
+        {
+            y = (mt[kk] & UPPER_MASK) | (mt[kk+1] & LOWER_MASK);
+            mt[kk] = mt[kk+M] ^ (y >>> 1) ^ mag01[y & 0x1];
+        }
+        for (; kk < N-1; kk++)
+        {
+            y = (mt[kk] & UPPER_MASK) | (mt[kk+1] & LOWER_MASK);
+            mt[kk] = mt[kk+(M-N)] ^ (y >>> 1) ^ mag01[y & 0x1];
+        }
+        y = (mt[N-1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+        mt[N-1] = mt[M-1] ^ (y >>> 1) ^ mag01[y & 0x1];
+
+        mti = 0;
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length)
+    {
+        if (offset < 0 || length < 0 || offset > arrayLength - length)
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array length " + arrayLength);
+    }
+
+
     public long nextLong()
     {
         int y;
@@ -1278,6 +1522,17 @@ public strictfp class MersenneTwister2 implements Serializable, Cloneable {
             xx += r.nextInt();
         System.out.println("Mersenne Twister Fast: " + (System.currentTimeMillis()-ms) + "          Ignore this: " + xx);
 
+        r = new MersenneTwister2(SEED);
+        int[] block = new int[1 << 16];
+        ms = System.currentTimeMillis();
+        xx=0;
+        for (j = 0; j < 100000000; j += block.length)
+        {
+            r.fill(block);
+            xx += block[0];
+        }
+        System.out.println("Mersenne Twister Fast, fill(int[]): " + (System.currentTimeMillis()-ms) + "          Ignore this: " + xx);
+
         // TEST TO COMPARE TYPE CONVERSION BETWEEN
         // MersenneTwister2.java AND MersenneTwister2.java
 
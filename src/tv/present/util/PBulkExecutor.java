@@ -0,0 +1,204 @@
+package tv.present.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Present Bulk Executor
+ * October 19, 2026
+ *
+ * Runs one blocking operation (ie: a demand or a user lookup) over many keys, at most parallelism at a time, and
+ * collects a PBulkResult with an outcome for every key.  Keys are run in the order given by a fixed set of workers that
+ * each take the next key as they finish one, so a slow key holds up only its own worker.
+ *
+ * A run of tripAfterFailures failures in a row (across all workers) trips a circuit breaker: no further keys are
+ * started, the ones in flight are allowed to finish, and every key never started is SKIPPED.  Keys the API says do not
+ * exist are not failures and reset the run, as do successes.
+ *
+ * An executor is immutable and can be shared by any number of threads and runs.
+ */
+public final class PBulkExecutor {
+
+    private static final String TAG = "tv.present.util.PBulkExecutor";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int DEFAULT_PARALLELISM = 8;
+    public static final int DEFAULT_VIRTUAL_PARALLELISM = 64;
+    public static final int DEFAULT_TRIP_AFTER_FAILURES = 10;
+
+    /**
+     * The operation to run for each key.
+     */
+    public interface Operation<R> {
+
+        /**
+         * Runs the operation for one key.  Called concurrently from several threads.
+         * @param key is the key as a String.
+         * @return the value produced, or null if the operation failed.
+         */
+        R apply(String key);
+
+        /**
+         * Checks, after apply() returned null, whether it failed only because the key does not exist.
+         * @param key is the key as a String.
+         * @return true if the key does not exist, false if the operation failed for another reason.
+         */
+        boolean isNotFound(String key);
+
+    }
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int tripAfterFailures;
+
+    /**
+     * Constructs a PBulkExecutor.
+     * @param executor is the ExecutorService to run the workers on (ie: PAPIClient.getExecutor()), or null for the
+     *                 shared I/O executor.
+     * @param parallelism is the most keys to run at the same time.
+     * @param tripAfterFailures is the number of failures in a row that stops the run, or 0 to never stop early.
+     */
+    public PBulkExecutor(final ExecutorService executor, final int parallelism, final int tripAfterFailures) {
+        this.executor = (executor != null) ? executor : PExecutors.getIOExecutor();
+        this.parallelism = Math.max(1, parallelism);
+        this.tripAfterFailures = Math.max(0, tripAfterFailures);
+    }
+
+    /**
+     * Constructs a PBulkExecutor that runs each key on a virtual thread, falling back to the shared I/O executor on a
+     * JVM without virtual threads.
+     * @param parallelism is the most keys to run at the same time.
+     * @param tripAfterFailures is the number of failures in a row that stops the run, or 0 to never stop early.
+     * @return the PBulkExecutor.
+     */
+    @SuppressWarnings("unused")
+    public static PBulkExecutor onVirtualThreads(final int parallelism, final int tripAfterFailures) {
+        final ExecutorService virtual = PExecutors.getVirtualThreadExecutor();
+        if (virtual == null) {
+            PLog.fine("onVirtualThreads() -> No virtual threads on this JVM, using the I/O executor");
+        }
+        return new PBulkExecutor(virtual, parallelism, tripAfterFailures);
+    }
+
+    /**
+     * Gets the most keys run at the same time.
+     * @return the parallelism as an integer.
+     */
+    @SuppressWarnings("unused")
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Runs an operation over keys and waits for it to finish.  Null and repeated keys are dropped.  If the calling
+     * thread is interrupted, no further keys are started; the ones in flight still finish and the interrupt is kept.
+     * @param keys is a Collection of keys.
+     * @param operation is the Operation to run for each key.
+     * @return the PBulkResult.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> PBulkResult<R> run(final Collection<String> keys, final Operation<R> operation) {
+
+        final LinkedHashSet<String> distinct = new LinkedHashSet<String>(keys);
+        distinct.remove(null);
+        final String[] order = distinct.toArray(new String[distinct.size()]);
+        final PBulkResult.Outcome[] outcomes = new PBulkResult.Outcome[order.length];
+        final Object[] values = new Object[order.length];
+
+        final AtomicInteger nextKey = new AtomicInteger(0);
+        final AtomicInteger failuresInARow = new AtomicInteger(0);
+        final AtomicBoolean tripped = new AtomicBoolean(false);
+        // Set by the circuit breaker and by an interrupt of the caller; only the first also counts as tripping.
+        final AtomicBoolean stopped = new AtomicBoolean(false);
+
+        final int numWorkers = Math.min(this.parallelism, order.length);
+        final CountDownLatch done = new CountDownLatch(numWorkers);
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    int index;
+                    while (!stopped.get() && (index = nextKey.getAndIncrement()) < order.length) {
+                        final String key = order[index];
+                        Object value;
+                        try {
+                            value = operation.apply(key);
+                        } catch (RuntimeException e) {
+                            PLog.severe("run() -> Operation on {0} threw {1}", key, e);
+                            value = null;
+                        }
+                        if (value != null) {
+                            values[index] = value;
+                            outcomes[index] = PBulkResult.Outcome.SUCCEEDED;
+                            failuresInARow.set(0);
+                        }
+                        else if (operation.isNotFound(key)) {
+                            outcomes[index] = PBulkResult.Outcome.NOT_FOUND;
+                            failuresInARow.set(0);
+                        }
+                        else {
+                            outcomes[index] = PBulkResult.Outcome.FAILED;
+                            if (PBulkExecutor.this.tripAfterFailures > 0 && failuresInARow.incrementAndGet() >= PBulkExecutor.this.tripAfterFailures
+                                    && tripped.compareAndSet(false, true)) {
+                                stopped.set(true);
+                                PLog.warning("run() -> {0} failures in a row, stopping after {1} of {2} keys", PBulkExecutor.this.tripAfterFailures, index + 1, order.length);
+                            }
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+
+        for (int i = 0; i < numWorkers; i++) {
+            try {
+                this.executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                PLog.warning("run() -> Caught RejectedExecutionException, running the worker on the calling thread");
+                worker.run();
+            }
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+                stopped.set(true);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        final LinkedHashMap<String, PBulkResult.Outcome> outcomeMap = new LinkedHashMap<String, PBulkResult.Outcome>(order.length * 2);
+        final HashMap<String, R> valueMap = new HashMap<String, R>();
+        for (int i = 0; i < order.length; i++) {
+            if (outcomes[i] == null) {
+                outcomeMap.put(order[i], PBulkResult.Outcome.SKIPPED);
+            }
+            else {
+                outcomeMap.put(order[i], outcomes[i]);
+                if (values[i] != null) {
+                    valueMap.put(order[i], (R) values[i]);
+                }
+            }
+        }
+
+        final PBulkResult<R> result = new PBulkResult<R>(outcomeMap, valueMap, tripped.get());
+        PLog.fine("run() -> {0}", result);
+        return result;
+
+    }
+
+}
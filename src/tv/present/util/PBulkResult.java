@@ -0,0 +1,160 @@
+package tv.present.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Present Bulk Result
+ * October 19, 2026
+ *
+ * The outcome of running one operation over many keys with a PBulkExecutor (ie: demanding a list of usernames).  Every
+ * distinct key that was handed in has exactly one Outcome, in the order the keys were given.
+ */
+public final class PBulkResult<R> {
+
+    private static final String TAG = "tv.present.util.PBulkResult";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    /**
+     * What happened to one key.
+     */
+    public enum Outcome {
+        /** The operation succeeded and produced a value. */
+        SUCCEEDED,
+        /** The API said the key does not exist; this does not count towards the circuit breaker. */
+        NOT_FOUND,
+        /** The operation failed (ie: a network error or an error response). */
+        FAILED,
+        /** The operation was never run, because the circuit breaker tripped or the caller was interrupted first. */
+        SKIPPED
+    }
+
+    private final LinkedHashMap<String, Outcome> outcomes;
+    private final Map<String, R> values;
+    private final boolean tripped;
+    private final int[] counts = new int[Outcome.values().length];
+
+    /**
+     * Constructs a PBulkResult.
+     * @param outcomes is a LinkedHashMap from each key, in input order, to its Outcome.
+     * @param values is a Map from each key that succeeded to the value it produced.
+     * @param tripped is true if the circuit breaker tripped (an interrupt of the caller alone does not count).
+     */
+    PBulkResult(final LinkedHashMap<String, Outcome> outcomes, final Map<String, R> values, final boolean tripped) {
+        this.outcomes = outcomes;
+        this.values = values;
+        this.tripped = tripped;
+        for (Outcome outcome : outcomes.values()) {
+            this.counts[outcome.ordinal()]++;
+        }
+        PLog.finest("Created PBulkResult of {0} keys", outcomes.size());
+    }
+
+    /**
+     * Gets the outcome for a key.
+     * @param key is the key as it was handed in.
+     * @return the Outcome, or null if the key was not part of the run.
+     */
+    @SuppressWarnings("unused")
+    public Outcome getOutcome(final String key) {
+        return this.outcomes.get(key);
+    }
+
+    /**
+     * Gets the value a key produced.
+     * @param key is the key as it was handed in.
+     * @return the value, or null if the key did not succeed.
+     */
+    @SuppressWarnings("unused")
+    public R getValue(final String key) {
+        return this.values.get(key);
+    }
+
+    /**
+     * Gets every outcome.
+     * @return an unmodifiable Map from each key, in input order, to its Outcome.
+     */
+    @SuppressWarnings("unused")
+    public Map<String, Outcome> getOutcomes() {
+        return Collections.unmodifiableMap(this.outcomes);
+    }
+
+    /**
+     * Gets the values of the keys that succeeded.
+     * @return an ArrayList of the values, in input order.
+     */
+    @SuppressWarnings("unused")
+    public ArrayList<R> getValues() {
+        final ArrayList<R> product = new ArrayList<R>(this.values.size());
+        for (String key : this.outcomes.keySet()) {
+            final R value = this.values.get(key);
+            if (value != null) {
+                product.add(value);
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Gets the keys with one outcome (ie: the ones to retry later after a trip).
+     * @param outcome is the Outcome wanted.
+     * @return a List of the keys, in input order.
+     */
+    @SuppressWarnings("unused")
+    public List<String> getKeys(final Outcome outcome) {
+        final ArrayList<String> product = new ArrayList<String>(this.count(outcome));
+        for (Map.Entry<String, Outcome> entry : this.outcomes.entrySet()) {
+            if (entry.getValue() == outcome) {
+                product.add(entry.getKey());
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Counts the keys with one outcome.
+     * @param outcome is the Outcome wanted.
+     * @return the count as an integer.
+     */
+    public int count(final Outcome outcome) {
+        return this.counts[outcome.ordinal()];
+    }
+
+    /**
+     * Gets the number of distinct keys in the run.
+     * @return the count as an integer.
+     */
+    @SuppressWarnings("unused")
+    public int size() {
+        return this.outcomes.size();
+    }
+
+    /**
+     * Checks whether the circuit breaker stopped the run early.  A run cut short by interrupting the caller leaves keys
+     * SKIPPED without tripping.
+     * @return true if it tripped, false otherwise.
+     */
+    @SuppressWarnings("unused")
+    public boolean isTripped() {
+        return this.tripped;
+    }
+
+    /**
+     * Checks whether every key got a definitive answer.
+     * @return true if no key failed or was skipped, false otherwise.
+     */
+    @SuppressWarnings("unused")
+    public boolean isComplete() {
+        return this.count(Outcome.FAILED) == 0 && this.count(Outcome.SKIPPED) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "PBulkResult{succeeded=" + this.count(Outcome.SUCCEEDED) + ", notFound=" + this.count(Outcome.NOT_FOUND)
+                + ", failed=" + this.count(Outcome.FAILED) + ", skipped=" + this.count(Outcome.SKIPPED) + ", tripped=" + this.tripped + "}";
+    }
+
+}
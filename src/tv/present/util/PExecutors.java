@@ -0,0 +1,249 @@
+package tv.present.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Present Executors
+ * October 19, 2026
+ *
+ * Holds the pool that the client runs its CPU bound background work on (ie: parallel decoding of result pages).  By
+ * default this is the JVM wide common ForkJoinPool, so the client competes for the same cores as the application's own
+ * parallel work rather than adding threads of its own on top.  An application that wants to isolate or size the
+ * client's work can install its own pool with setSharedPool().
+ *
+ * Work that mostly waits on the network (ie: prefetching the next page of a feed) must not tie up those CPU threads,
+ * so it runs on a separate I/O executor of at most IO_MAX_THREADS daemon threads, created on demand and retired when
+ * idle.  Once they are all busy tasks wait in a queue of IO_QUEUE_CAPACITY, and once that is full the thread submitting
+ * a task runs it itself (CallerRunsPolicy), which slows whoever is flooding the executor instead of starting more
+ * threads or dropping work.  Timed work (ie: polling) is kicked off by a single daemon scheduler thread, which should
+ * hand the actual work to one of the other two.
+ *
+ * A caller that can submit an unbounded amount of background work (ie: cache refreshes) wraps the I/O executor with
+ * limit(), so that it never holds more than a few of the shared threads at a time.
+ */
+public final class PExecutors {
+
+    private static final String TAG = "tv.present.util.PExecutors";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int IO_MAX_THREADS = 64;
+    public static final int IO_QUEUE_CAPACITY = 1024;
+    private static final long IO_KEEP_ALIVE_SECONDS = 30;
+
+    private static volatile ForkJoinPool sharedPool = null;
+    private static volatile ExecutorService ioExecutor = null;
+    private static volatile ScheduledExecutorService scheduler = null;
+    private static volatile ExecutorService virtualThreadExecutor = null;
+    private static volatile boolean virtualThreadsChecked = false;
+
+    private PExecutors() {
+        /* static only */
+    }
+
+    /**
+     * Gets the pool shared by all client work.
+     * @return the installed ForkJoinPool, or the common pool if none has been installed.
+     */
+    public static ForkJoinPool getSharedPool() {
+        final ForkJoinPool pool = sharedPool;
+        return (pool == null) ? ForkJoinPool.commonPool() : pool;
+    }
+
+    /**
+     * Installs the pool shared by all client work.  The caller stays responsible for shutting it down.
+     * @param pool is the ForkJoinPool to use, or null to go back to the common pool.
+     */
+    @SuppressWarnings("unused")
+    public static void setSharedPool(final ForkJoinPool pool) {
+        sharedPool = pool;
+    }
+
+    /**
+     * Gets the executor used for blocking network work.
+     * @return the installed ExecutorService, or the client's default I/O executor if none has been installed.
+     */
+    public static ExecutorService getIOExecutor() {
+        ExecutorService executor = ioExecutor;
+        if (executor == null) {
+            synchronized (PExecutors.class) {
+                executor = ioExecutor;
+                if (executor == null) {
+                    executor = createIOExecutor();
+                    ioExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Installs the executor used for blocking network work.  The caller stays responsible for shutting it down.
+     * @param executor is the ExecutorService to use, or null to go back to the client's default I/O executor.
+     */
+    @SuppressWarnings("unused")
+    public static void setIOExecutor(final ExecutorService executor) {
+        ioExecutor = executor;
+    }
+
+    /**
+     * Gets the scheduler for timed client work.  Tasks run on the scheduler thread itself, so they should only hand
+     * work off to getIOExecutor() or getSharedPool().
+     * @return the client's ScheduledExecutorService.
+     */
+    public static ScheduledExecutorService getScheduler() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null) {
+            synchronized (PExecutors.class) {
+                executor = scheduler;
+                if (executor == null) {
+                    final ScheduledThreadPoolExecutor created = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                        @Override
+                        public Thread newThread(final Runnable runnable) {
+                            final Thread thread = new Thread(runnable, "PresentClient-scheduler");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                    created.setRemoveOnCancelPolicy(true);
+                    executor = created;
+                    scheduler = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Gets an executor that runs every task on a virtual thread of its own, for fanning blocking calls out wider than a
+     * pool of platform threads could.  Virtual threads only exist on newer JVMs, so this is looked up reflectively.
+     * @return the shared virtual thread ExecutorService, or null if the JVM has no virtual threads.
+     */
+    public static ExecutorService getVirtualThreadExecutor() {
+        if (!virtualThreadsChecked) {
+            synchronized (PExecutors.class) {
+                if (!virtualThreadsChecked) {
+                    try {
+                        virtualThreadExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                    } catch (ReflectiveOperationException e) {
+                        virtualThreadExecutor = null;
+                    }
+                    virtualThreadsChecked = true;
+                }
+            }
+        }
+        return virtualThreadExecutor;
+    }
+
+    /**
+     * Wraps an executor so that at most maxConcurrent of the tasks given to the wrapper run on it at the same time.  The
+     * rest wait in the wrapper, in order, without holding a thread of the delegate.
+     * @param delegate is the Executor to run the tasks on (ie: getIOExecutor()).
+     * @param maxConcurrent is the most tasks to run at the same time.
+     * @return the limited Executor.
+     * @throws IllegalArgumentException if maxConcurrent is not positive.
+     */
+    public static Executor limit(final Executor delegate, final int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        return new LimitedExecutor(delegate, maxConcurrent);
+    }
+
+    private static ExecutorService createIOExecutor() {
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(IO_MAX_THREADS, IO_MAX_THREADS, IO_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(IO_QUEUE_CAPACITY), new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "PresentClient-io-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Present Limited Executor -- runs the tasks given to it on a delegate, at most maxConcurrent at a time.
+     */
+    private static final class LimitedExecutor implements Executor {
+
+        private final Executor delegate;
+        private final int maxConcurrent;
+        private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<Runnable>();
+        private final AtomicInteger running = new AtomicInteger(0);
+
+        // Each worker holds one slot and runs queued tasks until there are none left.
+        private final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Runnable task;
+                    while ((task = LimitedExecutor.this.queue.poll()) != null) {
+                        try {
+                            task.run();
+                        } catch (RuntimeException e) {
+                            PLog.severe("run() -> Caught {0} running a limited task!", e.getClass().getName());
+                        }
+                    }
+                } finally {
+                    LimitedExecutor.this.running.decrementAndGet();
+                }
+                // A task queued while the slot was being given up would otherwise wait for the next execute().
+                LimitedExecutor.this.startWorkers();
+            }
+        };
+
+        private LimitedExecutor(final Executor delegate, final int maxConcurrent) {
+            this.delegate = delegate;
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        @Override
+        public void execute(final Runnable task) {
+            if (task == null) {
+                throw new NullPointerException("task must not be null");
+            }
+            this.queue.add(task);
+            try {
+                this.startWorkers();
+            } catch (RejectedExecutionException e) {
+                if (this.queue.remove(task)) {
+                    throw e;
+                }
+            }
+        }
+
+        private void startWorkers() {
+            while (!this.queue.isEmpty()) {
+                final int current = this.running.get();
+                if (current >= this.maxConcurrent) {
+                    return;
+                }
+                if (this.running.compareAndSet(current, current + 1)) {
+                    try {
+                        this.delegate.execute(this.worker);
+                    } catch (RejectedExecutionException e) {
+                        this.running.decrementAndGet();
+                        throw e;
+                    }
+                }
+            }
+        }
+
+    }
+
+}
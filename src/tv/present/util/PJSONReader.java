@@ -0,0 +1,528 @@
+package tv.present.util;
+
+import org.json.JSONException;
+
+/**
+ * Present JSON Reader
+ * October 19, 2026
+ *
+ * A pull-style JSON tokenizer that walks a response body one token at a time without building JSONObject or JSONArray
+ * trees.  Object keys can be matched against a precomputed table of field names with nextName(String[]), which
+ * compares the key in place and returns its index, so dispatching on a field never allocates.  Malformed input is
+ * reported with a JSONException so that callers can treat it the same way as org.json failures.
+ */
+public final class PJSONReader {
+
+    /**
+     * The kinds of token that peek() can return.
+     */
+    public enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        END_DOCUMENT
+    }
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private final String in;
+    private final int limit;
+    private int pos = 0;
+
+    private int[] stack = new int[32];
+    private int depth = 0;
+    private Token peeked = null;
+
+    /**
+     * Constructs a PJSONReader over a complete JSON document.
+     * @param json is the JSON text as a String.
+     */
+    public PJSONReader(final String json) {
+        this.in = json;
+        this.limit = json.length();
+        this.stack[this.depth++] = EMPTY_DOCUMENT;
+    }
+
+    /* #################### TOKENS #################### */
+
+    /**
+     * Gets the type of the next token without consuming it.
+     * @return the next Token.
+     */
+    public Token peek() {
+
+        if (this.peeked != null) {
+            return this.peeked;
+        }
+
+        final int scope = this.stack[this.depth - 1];
+        int c;
+
+        switch (scope) {
+            case EMPTY_ARRAY:
+                this.stack[this.depth - 1] = NONEMPTY_ARRAY;
+                if (this.nextNonWhitespace() == ']') {
+                    this.pos++;
+                    return this.peeked = Token.END_ARRAY;
+                }
+                break;
+            case NONEMPTY_ARRAY:
+                c = this.nextNonWhitespace();
+                if (c == ']') {
+                    this.pos++;
+                    return this.peeked = Token.END_ARRAY;
+                }
+                this.expect(c, ',');
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = this.nextNonWhitespace();
+                if (c == '}') {
+                    this.pos++;
+                    return this.peeked = Token.END_OBJECT;
+                }
+                if (scope == NONEMPTY_OBJECT) {
+                    this.expect(c, ',');
+                    c = this.nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw this.syntaxError("Expected a name");
+                }
+                this.stack[this.depth - 1] = DANGLING_NAME;
+                return this.peeked = Token.NAME;
+            case DANGLING_NAME:
+                this.stack[this.depth - 1] = NONEMPTY_OBJECT;
+                this.expect(this.nextNonWhitespace(), ':');
+                break;
+            case EMPTY_DOCUMENT:
+                this.stack[this.depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            default:
+                if (this.nextNonWhitespace() == -1) {
+                    return this.peeked = Token.END_DOCUMENT;
+                }
+                throw this.syntaxError("Expected end of document");
+        }
+
+        c = this.nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return this.peeked = Token.BEGIN_OBJECT;
+            case '[':
+                return this.peeked = Token.BEGIN_ARRAY;
+            case '"':
+                return this.peeked = Token.STRING;
+            case 't':
+            case 'f':
+                return this.peeked = Token.BOOLEAN;
+            case 'n':
+                return this.peeked = Token.NULL;
+            case -1:
+                throw this.syntaxError("Unexpected end of input");
+            default:
+                return this.peeked = Token.NUMBER;
+        }
+
+    }
+
+    /**
+     * Consumes the start of an object.
+     */
+    public void beginObject() {
+        this.consume(Token.BEGIN_OBJECT);
+        this.pos++;
+        this.push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consumes the end of an object.
+     */
+    public void endObject() {
+        this.consume(Token.END_OBJECT);
+        this.depth--;
+    }
+
+    /**
+     * Consumes the start of an array.
+     */
+    public void beginArray() {
+        this.consume(Token.BEGIN_ARRAY);
+        this.pos++;
+        this.push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consumes the end of an array.
+     */
+    public void endArray() {
+        this.consume(Token.END_ARRAY);
+        this.depth--;
+    }
+
+    /**
+     * Checks whether the current object or array has another element.
+     * @return true if there is another element, false if the next token closes the object or array.
+     */
+    public boolean hasNext() {
+        final Token token = this.peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the next object key and returns it.
+     * @return the key as a String.
+     */
+    public String nextName() {
+        this.consume(Token.NAME);
+        return this.readString();
+    }
+
+    /**
+     * Consumes the next object key and looks it up in a table of known field names without allocating.
+     * @param names is the table of field names to match against.
+     * @return the index of the key in names, or -1 if it is not one of them.
+     */
+    public int nextName(final String[] names) {
+
+        this.consume(Token.NAME);
+
+        // Find the closing quote; bail out to the slow path if the key is escaped.
+        final int start = this.pos + 1;
+        int end = start;
+        while (end < this.limit) {
+            final char c = this.in.charAt(end);
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                return indexOf(names, this.readString());
+            }
+            end++;
+        }
+        if (end >= this.limit) {
+            throw this.syntaxError("Unterminated name");
+        }
+        this.pos = end + 1;
+
+        final int length = end - start;
+        for (int i = 0; i < names.length; i++) {
+            final String name = names[i];
+            if (name.length() == length && this.in.regionMatches(start, name, 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+
+    }
+
+    /**
+     * Consumes the next value as a String.  Numbers and booleans are returned as their literal text.
+     * @return the value as a String, or null if the value is a JSON null.
+     */
+    public String nextString() {
+        final Token token = this.peek();
+        if (token == Token.STRING) {
+            this.peeked = null;
+            return this.readString();
+        }
+        else if (token == Token.NULL) {
+            this.nextNull();
+            return null;
+        }
+        else if (token == Token.NUMBER || token == Token.BOOLEAN) {
+            this.peeked = null;
+            final int start = this.pos;
+            this.pos = this.literalEnd();
+            return this.in.substring(start, this.pos);
+        }
+        throw this.syntaxError("Expected a string but was " + token);
+    }
+
+    /**
+     * Consumes the next value as a boolean.
+     * @return the boolean value.
+     */
+    public boolean nextBoolean() {
+        this.consume(Token.BOOLEAN);
+        if (this.in.startsWith("true", this.pos)) {
+            this.pos += 4;
+            return true;
+        }
+        else if (this.in.startsWith("false", this.pos)) {
+            this.pos += 5;
+            return false;
+        }
+        throw this.syntaxError("Expected a boolean");
+    }
+
+    /**
+     * Consumes a JSON null.
+     */
+    public void nextNull() {
+        this.consume(Token.NULL);
+        if (!this.in.startsWith("null", this.pos)) {
+            throw this.syntaxError("Expected null");
+        }
+        this.pos += 4;
+    }
+
+    /**
+     * Consumes the next value as an int.  Integral values are parsed in place; anything else goes through
+     * Double.parseDouble() and is truncated.
+     * @return the value as an integer.
+     */
+    public int nextInt() {
+        final Token token = this.peek();
+        if (token == Token.STRING) {
+            return (int) Double.parseDouble(this.nextString());
+        }
+        this.consume(Token.NUMBER);
+
+        final int start = this.pos;
+        final int end = this.literalEnd();
+        int i = start;
+        boolean negative = false;
+        if (i < end && this.in.charAt(i) == '-') {
+            negative = true;
+            i++;
+        }
+        long value = 0;
+        boolean integral = i < end;
+        for (; i < end && integral; i++) {
+            final char c = this.in.charAt(i);
+            if (c >= '0' && c <= '9' && value < Integer.MAX_VALUE) {
+                value = value * 10 + (c - '0');
+            }
+            else {
+                integral = false;
+            }
+        }
+        this.pos = end;
+        if (integral) {
+            return (int) (negative ? -value : value);
+        }
+        return (int) this.parseDouble(start, end);
+    }
+
+    /**
+     * Consumes the next value as a double.
+     * @return the value as a double.
+     */
+    public double nextDouble() {
+        final Token token = this.peek();
+        if (token == Token.STRING) {
+            return Double.parseDouble(this.nextString());
+        }
+        this.consume(Token.NUMBER);
+        final int start = this.pos;
+        this.pos = this.literalEnd();
+        return this.parseDouble(start, this.pos);
+    }
+
+    /**
+     * Skips the next value, including everything nested inside it.
+     */
+    public void skipValue() {
+        int nesting = 0;
+        do {
+            final Token token = this.peek();
+            switch (token) {
+                case BEGIN_OBJECT:
+                    this.beginObject();
+                    nesting++;
+                    break;
+                case BEGIN_ARRAY:
+                    this.beginArray();
+                    nesting++;
+                    break;
+                case END_OBJECT:
+                    this.endObject();
+                    nesting--;
+                    break;
+                case END_ARRAY:
+                    this.endArray();
+                    nesting--;
+                    break;
+                case NAME:
+                    this.peeked = null;
+                    this.skipString();
+                    break;
+                case STRING:
+                    this.peeked = null;
+                    this.skipString();
+                    break;
+                case NULL:
+                case BOOLEAN:
+                case NUMBER:
+                    this.peeked = null;
+                    this.pos = this.literalEnd();
+                    break;
+                default:
+                    throw this.syntaxError("Unexpected end of input");
+            }
+        } while (nesting > 0);
+    }
+
+    /* #################### HELPING #################### */
+
+    private static int indexOf(final String[] names, final String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void consume(final Token expected) {
+        final Token token = this.peek();
+        if (token != expected) {
+            throw this.syntaxError("Expected " + expected + " but was " + token);
+        }
+        this.peeked = null;
+    }
+
+    private void push(final int scope) {
+        if (this.depth == this.stack.length) {
+            int[] grown = new int[this.depth * 2];
+            System.arraycopy(this.stack, 0, grown, 0, this.depth);
+            this.stack = grown;
+        }
+        this.stack[this.depth++] = scope;
+    }
+
+    private void expect(final int c, final char expected) {
+        if (c != expected) {
+            throw this.syntaxError("Expected '" + expected + "'");
+        }
+        this.pos++;
+    }
+
+    private int nextNonWhitespace() {
+        while (this.pos < this.limit) {
+            final char c = this.in.charAt(this.pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            this.pos++;
+        }
+        return -1;
+    }
+
+    private int literalEnd() {
+        int end = this.pos;
+        while (end < this.limit) {
+            final char c = this.in.charAt(end);
+            if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == ':') {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private double parseDouble(final int start, final int end) {
+        try {
+            return Double.parseDouble(this.in.substring(start, end));
+        } catch (NumberFormatException e) {
+            throw this.syntaxError("Expected a number");
+        }
+    }
+
+    private void skipString() {
+        int i = this.pos + 1;
+        while (i < this.limit) {
+            final char c = this.in.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            }
+            else if (c == '"') {
+                this.pos = i + 1;
+                return;
+            }
+            else {
+                i++;
+            }
+        }
+        throw this.syntaxError("Unterminated string");
+    }
+
+    /**
+     * Reads a quoted string starting at pos (which must point at the opening quote) and leaves pos after the closing
+     * quote.  Strings without escapes are returned as a substring of the input.
+     */
+    private String readString() {
+
+        final int start = this.pos + 1;
+        int i = start;
+        while (i < this.limit) {
+            final char c = this.in.charAt(i);
+            if (c == '"') {
+                this.pos = i + 1;
+                return this.in.substring(start, i);
+            }
+            if (c == '\\') {
+                break;
+            }
+            i++;
+        }
+
+        StringBuilder builder = new StringBuilder(Math.max(16, (i - start) * 2));
+        builder.append(this.in, start, i);
+        while (i < this.limit) {
+            char c = this.in.charAt(i++);
+            if (c == '"') {
+                this.pos = i;
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (i >= this.limit) {
+                break;
+            }
+            c = this.in.charAt(i++);
+            switch (c) {
+                case 'b': builder.append('\b'); break;
+                case 'f': builder.append('\f'); break;
+                case 'n': builder.append('\n'); break;
+                case 'r': builder.append('\r'); break;
+                case 't': builder.append('\t'); break;
+                case 'u':
+                    if (i + 4 > this.limit) {
+                        throw this.syntaxError("Unterminated escape sequence");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(this.in.substring(i, i + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw this.syntaxError("Invalid escape sequence");
+                    }
+                    i += 4;
+                    break;
+                default:
+                    builder.append(c);
+                    break;
+            }
+        }
+        throw this.syntaxError("Unterminated string");
+
+    }
+
+    private JSONException syntaxError(final String message) {
+        return new JSONException(message + " at character " + this.pos);
+    }
+
+}
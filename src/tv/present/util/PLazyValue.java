@@ -0,0 +1,82 @@
+package tv.present.util;
+
+/**
+ * Present Lazy Value
+ * October 19, 2026
+ *
+ * Holds a value that is only computed the first time it is asked for, from a Source that keeps whatever data it needs
+ * (ie: an undecoded JSON subtree).  Once the value has been computed the Source is dropped, so a holder costs the memory
+ * of its source or of its value, never both.  Initialization is thread-safe and happens at most once.
+ *
+ * A Source that produces null (ie: a lookup that found nothing this time) is kept and asked again on the next get(),
+ * so a passing failure is never remembered as the value.
+ */
+public final class PLazyValue<Z> {
+
+    /**
+     * Produces the value of a PLazyValue.
+     */
+    public interface Source<Z> {
+
+        /**
+         * Computes the value.  Called until it returns something other than null, one call at a time.
+         * @return the computed value, or null if there is none yet.
+         */
+        Z compute();
+
+    }
+
+    // Null once the value has been computed; the volatile write publishes value.
+    private volatile Source<Z> source;
+    private Z value;
+
+    /**
+     * Constructs a PLazyValue that will be computed on first access.
+     * @param source is the Source to compute the value with.
+     */
+    public PLazyValue(final Source<Z> source) {
+        this.source = source;
+    }
+
+    /**
+     * Creates a PLazyValue that is already computed.
+     * @param value is the value to hold (null is valid).
+     * @return a PLazyValue that returns value without ever computing.
+     */
+    public static <Z> PLazyValue<Z> of(final Z value) {
+        final PLazyValue<Z> product = new PLazyValue<Z>(null);
+        product.value = value;
+        return product;
+    }
+
+    /**
+     * Gets the value, computing it if it has not been computed yet.
+     * @return the value, or null if there is none (yet).
+     */
+    public Z get() {
+        if (this.source != null) {
+            synchronized (this) {
+                final Source<Z> current = this.source;
+                if (current != null) {
+                    final Z computed = current.compute();
+                    if (computed == null) {
+                        return null;
+                    }
+                    this.value = computed;
+                    this.source = null;
+                }
+            }
+        }
+        return this.value;
+    }
+
+    /**
+     * Checks whether the value has been computed yet.
+     * @return true if get() returns without any work, false otherwise.
+     */
+    @SuppressWarnings("unused")
+    public boolean isComputed() {
+        return this.source == null;
+    }
+
+}
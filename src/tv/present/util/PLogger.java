@@ -0,0 +1,347 @@
+package tv.present.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Present Logger
+ * October 19, 2026
+ *
+ * A thin facade over java.util.logging that keeps logging off the hot path.  Every call is guarded by a level check
+ * before anything is allocated, messages are parameterized ({0}, {1}, ... as in java.util.logging) so they are only
+ * formatted if they are actually written, and records are handed to a single background writer through a bounded ring
+ * buffer.  When the buffer is full, records below WARNING are dropped (and counted) rather than blocking the caller.
+ *
+ * Each category (the TAG passed to getLogger()) can be sampled so that only one in every N records below WARNING is
+ * written.  Full request and response payloads are only ever dumped through payload(), which does nothing unless
+ * payload dumps have been switched on with setPayloadDumpsEnabled() or -Dtv.present.debugPayloads=true.  Values that
+ * could change after the call (anything but strings, numbers, booleans, characters and enums) are turned into Strings
+ * on the calling thread, so the writer always shows them as they were when logged.
+ */
+public final class PLogger {
+
+    private static final int RING_CAPACITY = 4096;
+    private static final long SHUTDOWN_DRAIN_MILLIS = 1000;
+
+    private static final ConcurrentHashMap<String, PLogger> LOGGERS = new ConcurrentHashMap<String, PLogger>();
+    private static final ArrayBlockingQueue<LogRecord> RING = new ArrayBlockingQueue<LogRecord>(RING_CAPACITY);
+    private static final AtomicLong DROPPED = new AtomicLong(0);
+    private static volatile boolean payloadDumpsEnabled = Boolean.getBoolean("tv.present.debugPayloads");
+
+    static {
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        PLogger.write(RING.take());
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }, "PLogger-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        // Make a best effort to get anything still buffered out before the VM goes away.
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final long deadline = System.currentTimeMillis() + SHUTDOWN_DRAIN_MILLIS;
+                LogRecord record;
+                while (System.currentTimeMillis() < deadline && (record = RING.poll()) != null) {
+                    PLogger.write(record);
+                }
+            }
+        }, "PLogger-drain"));
+    }
+
+    private final Logger logger;
+    private final String category;
+    private volatile int sampleRate = 1;
+    private final AtomicLong sampleCounter = new AtomicLong(0);
+
+    private PLogger(final String category) {
+        this.category = category;
+        this.logger = Logger.getLogger(category);
+    }
+
+    /* #################### FACTORY #################### */
+
+    /**
+     * Gets the PLogger for a category, creating it if needed.
+     * @param tag is the category (generally the TAG of the calling class) as a String.
+     * @return the shared PLogger for that category.
+     */
+    public static PLogger getLogger(final String tag) {
+        PLogger existing = LOGGERS.get(tag);
+        if (existing == null) {
+            PLogger created = new PLogger(tag);
+            existing = LOGGERS.putIfAbsent(tag, created);
+            if (existing == null) {
+                existing = created;
+            }
+        }
+        return existing;
+    }
+
+    /* #################### CONFIGURATION #################### */
+
+    /**
+     * Sets the sampling rate of a category.  Only one in every oneInN records below WARNING will be written.
+     * @param tag is the category as a String.
+     * @param oneInN is the sampling rate as an integer; 1 (the default) writes everything.
+     */
+    @SuppressWarnings("unused")
+    public static void setSampling(final String tag, final int oneInN) {
+        getLogger(tag).sampleRate = (oneInN < 1) ? 1 : oneInN;
+    }
+
+    /**
+     * Turns full payload dumps (request and response bodies) on or off for every category.
+     * @param enabled is true to allow payload dumps, false otherwise.
+     */
+    @SuppressWarnings("unused")
+    public static void setPayloadDumpsEnabled(final boolean enabled) {
+        payloadDumpsEnabled = enabled;
+    }
+
+    /**
+     * Gets the number of records that were dropped because the ring buffer was full.
+     * @return the number of dropped records as a long.
+     */
+    @SuppressWarnings("unused")
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    /* #################### LOGGING #################### */
+
+    /**
+     * Checks whether a record at a level would be written by the underlying logger.
+     * @param level is the Level to check.
+     * @return true if the level is enabled, false otherwise.
+     */
+    public boolean isLoggable(final Level level) {
+        return this.logger.isLoggable(level);
+    }
+
+    /**
+     * Logs a message at SEVERE.
+     * @param message is the message as a String.
+     */
+    public void severe(final String message) {
+        this.log(Level.SEVERE, message, null);
+    }
+
+    /**
+     * Logs a parameterized message at SEVERE.  The message is only formatted if it is actually written.
+     * @param pattern is the message pattern as a String (ie: "Constructing object with ID: {0}").
+     * @param params are the values for the pattern.
+     */
+    public void severe(final String pattern, final Object... params) {
+        this.log(Level.SEVERE, pattern, params);
+    }
+
+    /**
+     * Logs a message at WARNING.
+     * @param message is the message as a String.
+     */
+    public void warning(final String message) {
+        this.log(Level.WARNING, message, null);
+    }
+
+    /**
+     * Logs a parameterized message at WARNING.  The message is only formatted if it is actually written.
+     * @param pattern is the message pattern as a String (ie: "Constructing object with ID: {0}").
+     * @param params are the values for the pattern.
+     */
+    public void warning(final String pattern, final Object... params) {
+        this.log(Level.WARNING, pattern, params);
+    }
+
+    /**
+     * Logs a message at INFO.
+     * @param message is the message as a String.
+     */
+    public void info(final String message) {
+        this.log(Level.INFO, message, null);
+    }
+
+    /**
+     * Logs a parameterized message at INFO.  The message is only formatted if it is actually written.
+     * @param pattern is the message pattern as a String (ie: "Constructing object with ID: {0}").
+     * @param params are the values for the pattern.
+     */
+    public void info(final String pattern, final Object... params) {
+        this.log(Level.INFO, pattern, params);
+    }
+
+    /**
+     * Logs a message at FINE.
+     * @param message is the message as a String.
+     */
+    public void fine(final String message) {
+        this.log(Level.FINE, message, null);
+    }
+
+    /**
+     * Logs a parameterized message at FINE.  The message is only formatted if it is actually written.
+     * @param pattern is the message pattern as a String (ie: "Constructing object with ID: {0}").
+     * @param params are the values for the pattern.
+     */
+    public void fine(final String pattern, final Object... params) {
+        this.log(Level.FINE, pattern, params);
+    }
+
+    /**
+     * Logs a parameterized message with one value at FINE.  Unlike the varargs form, this does not allocate anything
+     * when FINE is disabled, so it is safe to call from constructors and decode loops.
+     * @param pattern is the message pattern as a String.
+     * @param param is the value for {0}.
+     */
+    public void fine(final String pattern, final Object param) {
+        if (this.logger.isLoggable(Level.FINE)) {
+            this.log(Level.FINE, pattern, new Object[] { param });
+        }
+    }
+
+    /**
+     * Logs a parameterized message with two values at FINE without allocating anything when FINE is disabled.
+     * @param pattern is the message pattern as a String.
+     * @param param0 is the value for {0}.
+     * @param param1 is the value for {1}.
+     */
+    public void fine(final String pattern, final Object param0, final Object param1) {
+        if (this.logger.isLoggable(Level.FINE)) {
+            this.log(Level.FINE, pattern, new Object[] { param0, param1 });
+        }
+    }
+
+    /**
+     * Logs a message at FINEST.
+     * @param message is the message as a String.
+     */
+    public void finest(final String message) {
+        this.log(Level.FINEST, message, null);
+    }
+
+    /**
+     * Logs a parameterized message at FINEST.  The message is only formatted if it is actually written.
+     * @param pattern is the message pattern as a String (ie: "Constructing object with ID: {0}").
+     * @param params are the values for the pattern.
+     */
+    public void finest(final String pattern, final Object... params) {
+        this.log(Level.FINEST, pattern, params);
+    }
+
+    /**
+     * Logs a parameterized message with one value at FINEST.  Unlike the varargs form, this does not allocate anything
+     * when FINEST is disabled, so it is safe to call from constructors and decode loops.
+     * @param pattern is the message pattern as a String.
+     * @param param is the value for {0}.
+     */
+    public void finest(final String pattern, final Object param) {
+        if (this.logger.isLoggable(Level.FINEST)) {
+            this.log(Level.FINEST, pattern, new Object[] { param });
+        }
+    }
+
+    /**
+     * Logs a parameterized message with two values at FINEST without allocating anything when FINEST is disabled.
+     * @param pattern is the message pattern as a String.
+     * @param param0 is the value for {0}.
+     * @param param1 is the value for {1}.
+     */
+    public void finest(final String pattern, final Object param0, final Object param1) {
+        if (this.logger.isLoggable(Level.FINEST)) {
+            this.log(Level.FINEST, pattern, new Object[] { param0, param1 });
+        }
+    }
+
+    /**
+     * Dumps a full payload (ie: a JSON request or response body) at FINE.  This does nothing, and costs nothing beyond
+     * a volatile read, unless payload dumps have been enabled.
+     * @param pattern is the message pattern; {0} is replaced by the payload.
+     * @param payload is the payload to dump.  It is converted to a String on the calling thread.
+     */
+    public void payload(final String pattern, final Object payload) {
+        if (payloadDumpsEnabled && this.logger.isLoggable(Level.FINE)) {
+            this.log(Level.FINE, pattern, new Object[] { String.valueOf(payload) });
+        }
+    }
+
+    private void log(final Level level, final String pattern, final Object[] params) {
+
+        if (!this.logger.isLoggable(level)) {
+            return;
+        }
+
+        final boolean important = level.intValue() >= Level.WARNING.intValue();
+        final int rate = this.sampleRate;
+        if (!important && rate > 1 && (this.sampleCounter.getAndIncrement() % rate) != 0) {
+            return;
+        }
+
+        LogRecord record = new LogRecord(level, pattern);
+        record.setLoggerName(this.category);
+        record.setParameters(snapshot(params));
+        // Caller inference would run on the writer thread and be wrong, so say where it came from up front.
+        record.setSourceClassName(this.category);
+        record.setSourceMethodName("");
+
+        if (!RING.offer(record)) {
+            if (important) {
+                // Never lose warnings; wait for room instead.
+                try {
+                    if (!RING.offer(record, SHUTDOWN_DRAIN_MILLIS, TimeUnit.MILLISECONDS)) {
+                        DROPPED.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    DROPPED.incrementAndGet();
+                }
+            }
+            else {
+                DROPPED.incrementAndGet();
+            }
+        }
+
+    }
+
+    /**
+     * Turns every value that could still change before the writer gets to it (ie: a JSONObject being filled in, or a
+     * Calendar) into a String now.  Strings, numbers, booleans, characters and enums cannot change and are kept as they
+     * are, so the pattern can still format them.
+     */
+    private static Object[] snapshot(final Object[] params) {
+        if (params == null) {
+            return null;
+        }
+        Object[] product = params;
+        for (int i = 0; i < params.length; i++) {
+            final Object param = params[i];
+            if (param == null || param instanceof String || param instanceof Number || param instanceof Boolean
+                    || param instanceof Character || param instanceof Enum) {
+                continue;
+            }
+            if (product == params) {
+                // Varargs arrays belong to the caller too.
+                product = params.clone();
+            }
+            product[i] = String.valueOf(param);
+        }
+        return product;
+    }
+
+    private static void write(final LogRecord record) {
+        LOGGERS.get(record.getLoggerName()).logger.log(record);
+    }
+
+}
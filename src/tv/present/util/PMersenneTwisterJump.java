@@ -0,0 +1,301 @@
+package tv.present.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Present Mersenne Twister Jump
+ * October 19, 2026
+ *
+ * Moves a MersenneTwister or MersenneTwister2 state forward by 2^k words without generating them, so that one seed can
+ * be cut into streams that are guaranteed not to overlap.  MT19937 is linear over GF(2): one step is a matrix T on its
+ * 19937 bit state, with characteristic polynomial phi(x) of degree 19937.  Stepping 2^k times is T^(2^k), and since
+ * phi(T) = 0, T^(2^k) = p(T) where p(x) = x^(2^k) mod phi(x).  p(T) applied to a state is worked out by Horner's rule,
+ * which needs only about 19937 single steps and one XOR of the state for every set coefficient, whatever k is.
+ *
+ * phi is found once, by running Berlekamp-Massey over the top bits of 2 * 19937 generated words, and each p is found by
+ * squaring x modulo phi k times.  Both are cached, so only the first jump by a given 2^k pays for them.
+ *
+ * The state is handled as the window of the next N words the generator will hand out.  Stepping that window is the
+ * MT19937 recurrence, and a window taken from the generator's state array at any position mti can be written back as
+ * a state array positioned at 0, which hands out exactly the same words from then on.
+ */
+final class PMersenneTwisterJump {
+
+    private static final String TAG = "tv.present.util.PMersenneTwisterJump";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    private static final int N = 624;
+    private static final int M = 397;
+    private static final int MATRIX_A = 0x9908b0df;
+    private static final int UPPER_MASK = 0x80000000;
+    private static final int LOWER_MASK = 0x7fffffff;
+
+    static final int DEGREE = 19937;
+    private static final int WORDS = (DEGREE >>> 6) + 1;
+
+    private static volatile long[] characteristic = null;
+    private static final ConcurrentHashMap<Integer, long[]> jumpPolynomials = new ConcurrentHashMap<Integer, long[]>();
+
+    private PMersenneTwisterJump() {
+        /* static only */
+    }
+
+    /**
+     * Moves a generator's state forward by 2^log2Steps words, as if nextInt() had been called that many times.
+     * @param mt is the generator's state array, which is overwritten.
+     * @param mti is the generator's position in the state array (N if it must regenerate before the next word).
+     * @param log2Steps is the base 2 logarithm of the number of words to skip; must not be negative.
+     * @return the generator's new position in the state array (always 0).
+     */
+    static int jump(final int[] mt, final int mti, final int log2Steps) {
+
+        if (log2Steps < 0) {
+            throw new IllegalArgumentException("log2Steps must not be negative: " + log2Steps);
+        }
+        final long[] polynomial = jumpPolynomial(log2Steps);
+
+        // The window of the next N words, oldest at index start.
+        final int[] window = mt.clone();
+        int start = 0;
+        for (int k = 0; k < mti; k++) {
+            step(window, start);
+            start = (start == N - 1) ? 0 : start + 1;
+        }
+
+        // Horner's rule: sum = T(sum) + c[d] * window, for d from the top coefficient down.
+        final int[] sum = new int[N];
+        int sumStart = 0;
+        for (int d = DEGREE - 1; d >= 0; d--) {
+            step(sum, sumStart);
+            sumStart = (sumStart == N - 1) ? 0 : sumStart + 1;
+            if ((polynomial[d >>> 6] & (1L << (d & 63))) != 0) {
+                add(sum, sumStart, window, start);
+            }
+        }
+
+        for (int j = 0; j < N; j++) {
+            mt[j] = sum[(sumStart + j) % N];
+        }
+        return 0;
+
+    }
+
+    /**
+     * Gets x^(2^log2Steps) mod phi(x), working it out (and every smaller power on the way) if it is not cached.
+     */
+    private static long[] jumpPolynomial(final int log2Steps) {
+
+        // phi is irreducible of degree DEGREE, so x^(2^DEGREE) = x mod phi and the powers repeat.
+        final int k = log2Steps % DEGREE;
+        final long[] cached = jumpPolynomials.get(k);
+        if (cached != null) {
+            return cached;
+        }
+
+        final long[] phi = characteristic();
+        long[] polynomial;
+        int from;
+        if (k < 15) {
+            // x^(2^k) is already below phi's degree.
+            polynomial = new long[WORDS];
+            polynomial[(1 << k) >>> 6] = 1L << ((1 << k) & 63);
+            jumpPolynomials.putIfAbsent(k, polynomial);
+            return polynomial;
+        }
+        from = k - 1;
+        while (from >= 15 && !jumpPolynomials.containsKey(from)) {
+            from--;
+        }
+        polynomial = jumpPolynomial(from);
+
+        final long started = System.nanoTime();
+        for (int j = from + 1; j <= k; j++) {
+            polynomial = squareMod(polynomial, phi);
+            jumpPolynomials.putIfAbsent(j, polynomial);
+        }
+        PLog.fine("jumpPolynomial() -> Worked out x^(2^{0}) mod phi with {1} squarings in {2} ms", k, k - from, (System.nanoTime() - started) / 1000000);
+        return jumpPolynomials.get(k);
+
+    }
+
+    /**
+     * Gets phi(x), the characteristic polynomial of MT19937, working it out the first time.
+     */
+    private static long[] characteristic() {
+        long[] phi = characteristic;
+        if (phi == null) {
+            synchronized (PMersenneTwisterJump.class) {
+                phi = characteristic;
+                if (phi == null) {
+                    final long started = System.nanoTime();
+                    phi = berlekampMassey(sequence(2 * DEGREE));
+                    characteristic = phi;
+                    PLog.fine("characteristic() -> Worked out phi in {0} ms", (System.nanoTime() - started) / 1000000);
+                }
+            }
+        }
+        return phi;
+    }
+
+    /**
+     * Generates the top bits of the first words of MT19937 seeded with 5489, packed into longs.
+     */
+    private static long[] sequence(final int length) {
+        final int[] window = new int[N];
+        window[0] = 5489;
+        for (int i = 1; i < N; i++) {
+            window[i] = 1812433253 * (window[i - 1] ^ (window[i - 1] >>> 30)) + i;
+        }
+        final long[] bits = new long[(length >>> 6) + 1];
+        int start = 0;
+        for (int n = 0; n < length; n++) {
+            step(window, start);
+            if (window[start] < 0) {
+                bits[n >>> 6] |= 1L << (n & 63);
+            }
+            start = (start == N - 1) ? 0 : start + 1;
+        }
+        return bits;
+    }
+
+    /**
+     * Finds the shortest linear recurrence that generates a bit sequence, as its connection polynomial C(x) with
+     * C(0) = 1, and returns the reciprocal x^L C(1/x), which is the characteristic polynomial of the recurrence.
+     */
+    private static long[] berlekampMassey(final long[] sequence) {
+
+        final int length = 2 * DEGREE;
+        final int words = (length >>> 6) + 2;
+        long[] c = new long[words];
+        long[] b = new long[words];
+        long[] t = new long[words];
+        c[0] = 1;
+        b[0] = 1;
+        // recent holds s[n], s[n-1], ... at bits 0, 1, ... so the discrepancy is the parity of c & recent.
+        final long[] recent = new long[words];
+        int l = 0;
+        int m = 1;
+
+        for (int n = 0; n < length; n++) {
+
+            // Shift recent up by one and bring in s[n].
+            for (int w = Math.min(words - 1, (n >>> 6) + 1); w > 0; w--) {
+                recent[w] = (recent[w] << 1) | (recent[w - 1] >>> 63);
+            }
+            recent[0] = (recent[0] << 1) | ((sequence[n >>> 6] >>> (n & 63)) & 1);
+
+            long parity = 0;
+            for (int w = 0; w <= (l >>> 6); w++) {
+                parity ^= c[w] & recent[w];
+            }
+            if ((Long.bitCount(parity) & 1) == 0) {
+                m++;
+            }
+            else if (2 * l <= n) {
+                System.arraycopy(c, 0, t, 0, words);
+                xorShifted(c, b, m, words);
+                l = n + 1 - l;
+                final long[] swap = b;
+                b = t;
+                t = swap;
+                m = 1;
+            }
+            else {
+                xorShifted(c, b, m, words);
+                m++;
+            }
+
+        }
+
+        if (l != DEGREE) {
+            throw new IllegalStateException("Expected a recurrence of degree " + DEGREE + ", found " + l);
+        }
+        final long[] phi = new long[WORDS];
+        for (int i = 0; i <= l; i++) {
+            if ((c[i >>> 6] & (1L << (i & 63))) != 0) {
+                final int j = l - i;
+                phi[j >>> 6] |= 1L << (j & 63);
+            }
+        }
+        return phi;
+
+    }
+
+    /**
+     * Squares a polynomial of degree below DEGREE and reduces it modulo phi.
+     */
+    private static long[] squareMod(final long[] polynomial, final long[] phi) {
+
+        // Over GF(2), squaring just spreads the coefficients out: bit i moves to bit 2i.
+        final long[] square = new long[2 * WORDS + 1];
+        for (int w = 0; w < WORDS; w++) {
+            square[2 * w] = spread((int) polynomial[w]);
+            square[2 * w + 1] = spread((int) (polynomial[w] >>> 32));
+        }
+
+        for (int bit = 2 * (DEGREE - 1); bit >= DEGREE; bit--) {
+            if ((square[bit >>> 6] & (1L << (bit & 63))) != 0) {
+                xorShifted(square, phi, bit - DEGREE, square.length);
+            }
+        }
+
+        final long[] product = new long[WORDS];
+        System.arraycopy(square, 0, product, 0, WORDS);
+        product[WORDS - 1] &= (1L << (DEGREE & 63)) - 1;
+        return product;
+
+    }
+
+    /**
+     * Spreads the 32 bits of an int out to the even bits of a long.
+     */
+    private static long spread(final int bits) {
+        long x = bits & 0xffffffffL;
+        x = (x | (x << 16)) & 0x0000ffff0000ffffL;
+        x = (x | (x << 8)) & 0x00ff00ff00ff00ffL;
+        x = (x | (x << 4)) & 0x0f0f0f0f0f0f0f0fL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+
+    /**
+     * XORs source, shifted up by shift bits, into target, dropping anything past limit words.
+     */
+    private static void xorShifted(final long[] target, final long[] source, final int shift, final int limit) {
+        final int wordShift = shift >>> 6;
+        final int bitShift = shift & 63;
+        for (int w = 0; w < source.length && w + wordShift < limit; w++) {
+            final long word = source[w];
+            if (word == 0) {
+                continue;
+            }
+            target[w + wordShift] ^= word << bitShift;
+            if (bitShift != 0 && w + wordShift + 1 < limit) {
+                target[w + wordShift + 1] ^= word >>> (64 - bitShift);
+            }
+        }
+    }
+
+    /**
+     * Replaces the oldest word of a window (at index start) with the next word of the recurrence.
+     */
+    private static void step(final int[] window, final int start) {
+        final int next = (start == N - 1) ? 0 : start + 1;
+        final int far = (start < N - M) ? start + M : start + M - N;
+        final int y = (window[start] & UPPER_MASK) | (window[next] & LOWER_MASK);
+        window[start] = window[far] ^ (y >>> 1) ^ ((y & 1) != 0 ? MATRIX_A : 0);
+    }
+
+    /**
+     * XORs one window into another, lining them up by their oldest words.
+     */
+    private static void add(final int[] target, final int targetStart, final int[] source, final int sourceStart) {
+        for (int j = 0; j < N; j++) {
+            int t = targetStart + j;
+            int s = sourceStart + j;
+            target[(t < N) ? t : t - N] ^= source[(s < N) ? s : s - N];
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package tv.present.util;
+
+import tv.present.api.PAPICancellationToken;
+
+import java.util.ArrayList;
+
+/**
+ * Present Offset Page Fetcher
+ * October 19, 2026
+ *
+ * Fetches one page of a list whose cursor is a plain offset into the results (ie: videos/list_user_videos).
+ */
+public interface POffsetPageFetcher<Z> {
+
+    /**
+     * Fetches the page that starts at an offset.
+     * @param offset is the integer offset of the first result in the page.
+     * @param limit is the integer page size.
+     * @param cancellationToken is the PAPICancellationToken to make the request with.  It is cancelled if the page
+     *        stops being wanted while it is fetched, which disconnects the request.
+     * @return the results of the page (fewer than limit on the last page), or null if the fetch failed or was
+     *         cancelled.
+     */
+    ArrayList<Z> fetchPage(int offset, int limit, PAPICancellationToken cancellationToken);
+
+}
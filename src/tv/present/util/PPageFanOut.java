@@ -0,0 +1,198 @@
+package tv.present.util;
+
+import tv.present.api.PAPICancellationToken;
+import tv.present.models.PObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Present Page Fan Out
+ * October 19, 2026
+ *
+ * Fetches the first N results of an offset paged list by working out every page offset up front and fetching the pages
+ * concurrently, at most parallelism at a time, instead of one round trip after another.  The pages are merged in offset
+ * order and results whose ID has already been seen (ie: because the list shifted between two page fetches) are
+ * dropped.  The first page that comes back short marks the end of the list: later pages are not started, and any that
+ * are already in flight are cancelled through their PAPICancellationToken (which disconnects the request) and ignored.
+ * A failed page also ends the list, so the result is always a contiguous prefix.
+ */
+public final class PPageFanOut {
+
+    private static final String TAG = "tv.present.util.PPageFanOut";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private PPageFanOut() {
+        /* static only */
+    }
+
+    /**
+     * Fetches up to maxResults results with the default page size and parallelism on the shared I/O executor.
+     * @param fetcher is the POffsetPageFetcher that fetches each page.
+     * @param maxResults is the maximum number of results wanted.
+     * @return the de-duplicated results in list order.
+     */
+    public static <Z extends PObject> ArrayList<Z> fetchAll(final POffsetPageFetcher<Z> fetcher, final int maxResults) {
+        return fetchAll(fetcher, maxResults, DEFAULT_PAGE_SIZE, DEFAULT_PARALLELISM, PExecutors.getIOExecutor());
+    }
+
+    /**
+     * Fetches up to maxResults results.
+     * @param fetcher is the POffsetPageFetcher that fetches each page.
+     * @param maxResults is the maximum number of results wanted.
+     * @param pageSize is the number of results to ask for per page.
+     * @param parallelism is the maximum number of pages to fetch at the same time.
+     * @param executor is the ExecutorService to fetch the pages on.
+     * @return the de-duplicated results in list order.
+     * @throws IllegalArgumentException if maxResults is negative, or pageSize or parallelism is not positive.
+     */
+    public static <Z extends PObject> ArrayList<Z> fetchAll(final POffsetPageFetcher<Z> fetcher, final int maxResults, final int pageSize, final int parallelism, final ExecutorService executor) {
+
+        if (maxResults < 0) {
+            throw new IllegalArgumentException("maxResults must not be negative: " + maxResults);
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+
+        final int numPages = (int) (((long) maxResults + pageSize - 1) / pageSize);
+        @SuppressWarnings("unchecked")
+        final ArrayList<Z>[] pages = (ArrayList<Z>[]) new ArrayList<?>[numPages];
+        final CompletionService<ArrayList<Z>> completionService = new ExecutorCompletionService<ArrayList<Z>>(executor);
+        final IdentityHashMap<Future<ArrayList<Z>>, PendingPage> pending = new IdentityHashMap<Future<ArrayList<Z>>, PendingPage>();
+
+        int nextPage = 0;
+        int endPage = numPages; // Exclusive; moves down once the end of the list has been seen.
+
+        while (nextPage < endPage && pending.size() < parallelism) {
+            submitPage(completionService, pending, fetcher, nextPage++, pageSize);
+        }
+
+        while (!pending.isEmpty()) {
+
+            final Future<ArrayList<Z>> future;
+            try {
+                future = completionService.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                endPage = Math.min(endPage, firstMissingPage(pages, endPage));
+                cancelFrom(pending, 0);
+                break;
+            }
+
+            final int index = pending.remove(future).index;
+            ArrayList<Z> page;
+            try {
+                page = future.get();
+            } catch (CancellationException e) {
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                page = null;
+            } catch (ExecutionException e) {
+                PLog.severe("fetchAll() -> Page at offset {0} failed with {1}", index * pageSize, e.getCause());
+                page = null;
+            }
+
+            if (index >= endPage) {
+                continue;
+            }
+
+            if (page == null) {
+                endPage = index;
+                cancelFrom(pending, endPage);
+            }
+            else {
+                pages[index] = page;
+                if (page.size() < pageSize) {
+                    endPage = index + 1;
+                    cancelFrom(pending, endPage);
+                }
+            }
+
+            while (nextPage < endPage && pending.size() < parallelism) {
+                submitPage(completionService, pending, fetcher, nextPage++, pageSize);
+            }
+
+        }
+
+        // Merge the pages in order, dropping anything already seen on an earlier page.
+        final ArrayList<Z> product = new ArrayList<Z>(Math.min(maxResults, endPage * pageSize));
+        final HashSet<String> seenIDs = new HashSet<String>();
+        for (int i = 0; i < endPage && pages[i] != null && product.size() < maxResults; i++) {
+            for (Z result : pages[i]) {
+                if (product.size() >= maxResults) {
+                    break;
+                }
+                if (result == null || (result.getID() != null && !seenIDs.add(result.getID()))) {
+                    continue;
+                }
+                product.add(result);
+            }
+        }
+
+        PLog.fine("fetchAll() -> Fetched {0} results from {1} pages", product.size(), endPage);
+        return product;
+
+    }
+
+    /**
+     * A page that has been submitted: its index and the token that abandons its request.
+     */
+    private static final class PendingPage {
+
+        private final int index;
+        private final PAPICancellationToken token = new PAPICancellationToken();
+
+        private PendingPage(final int index) {
+            this.index = index;
+        }
+
+    }
+
+    private static <Z> void submitPage(final CompletionService<ArrayList<Z>> completionService, final IdentityHashMap<Future<ArrayList<Z>>, PendingPage> pending, final POffsetPageFetcher<Z> fetcher, final int index, final int pageSize) {
+        final PendingPage page = new PendingPage(index);
+        final Future<ArrayList<Z>> future = completionService.submit(new Callable<ArrayList<Z>>() {
+            @Override
+            public ArrayList<Z> call() {
+                return fetcher.fetchPage(index * pageSize, pageSize, page.token);
+            }
+        });
+        pending.put(future, page);
+    }
+
+    private static <Z> void cancelFrom(final IdentityHashMap<Future<ArrayList<Z>>, PendingPage> pending, final int firstPage) {
+        for (Map.Entry<Future<ArrayList<Z>>, PendingPage> entry : pending.entrySet()) {
+            if (entry.getValue().index >= firstPage) {
+                // Interrupting would not stop a blocking read; disconnecting through the token does.
+                entry.getValue().token.cancel();
+                entry.getKey().cancel(false);
+            }
+        }
+    }
+
+    private static int firstMissingPage(final Object[] pages, final int endPage) {
+        for (int i = 0; i < endPage; i++) {
+            if (pages[i] == null) {
+                return i;
+            }
+        }
+        return endPage;
+    }
+
+}
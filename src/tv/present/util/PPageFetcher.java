@@ -0,0 +1,23 @@
+package tv.present.util;
+
+import tv.present.api.PAPICancellationToken;
+
+/**
+ * Present Page Fetcher
+ * October 19, 2026
+ *
+ * Fetches one page of a cursor paged list (ie: getUserActivities or getHomeVideos with a fixed limit).
+ */
+public interface PPageFetcher<Z> {
+
+    /**
+     * Fetches the page that starts at a cursor.
+     * @param cursor is the integer cursor of the page (0 for the first page).
+     * @param cancellationToken is the PAPICancellationToken to make the request with.  It is cancelled if the page
+     *        stops being wanted while it is fetched, which disconnects the request.
+     * @return the page as a PResultSet whose cursor is the cursor of the following page, or null if the fetch failed or
+     *         was cancelled.
+     */
+    PResultSet<Z> fetchPage(int cursor, PAPICancellationToken cancellationToken);
+
+}
@@ -0,0 +1,363 @@
+package tv.present.util;
+
+import tv.present.api.PAPICancellationToken;
+import tv.present.exceptions.APIRequestFailedException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Present Paged Publisher
+ * October 19, 2026
+ *
+ * Publishes every result of a cursor paged list to Flow subscribers, following nextCursor from page to page.  A page
+ * is only fetched (and decoded) once the subscriber has outstanding demand and everything from the previous page has
+ * been delivered, so each subscription holds at most one page no matter how slowly it is consumed.  Cancelling a
+ * subscription cancels the fetch in flight through its PAPICancellationToken, which disconnects the request.
+ *
+ * The publisher bounds how many pages its subscriptions fetch at the same time (maxConcurrentFetches).  A subscription
+ * that wants a page while that many are in flight waits its turn without holding a thread, so a burst of subscribers
+ * cannot take over the shared I/O executor or flood the network.  Null results (ie: activities of an unknown type) are
+ * skipped, since Flow does not allow them.  The list ends at an empty page or a cursor that does not move forward; a failed fetch is
+ * signalled with onError(APIRequestFailedException).
+ *
+ * Each subscribe() starts its own walk from the first cursor.  Signals to a subscriber are never concurrent.
+ */
+public final class PPagedPublisher<Z> implements Flow.Publisher<Z> {
+
+    private static final String TAG = "tv.present.util.PPagedPublisher";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int DEFAULT_MAX_CONCURRENT_FETCHES = 4;
+
+    private final PPageFetcher<Z> fetcher;
+    private final int firstCursor;
+    private final ExecutorService executor;
+    private final int maxConcurrentFetches;
+
+    // Guarded by waiting.
+    private final ArrayDeque<PagedSubscription> waiting = new ArrayDeque<PagedSubscription>();
+    private int fetching = 0;
+
+    /**
+     * Constructs a PPagedPublisher that fetches on the shared I/O executor.
+     * @param fetcher is the PPageFetcher that fetches each page.
+     * @param firstCursor is the cursor of the first page (usually 0).
+     */
+    public PPagedPublisher(final PPageFetcher<Z> fetcher, final int firstCursor) {
+        this(fetcher, firstCursor, PExecutors.getIOExecutor());
+    }
+
+    /**
+     * Constructs a PPagedPublisher that fetches at most DEFAULT_MAX_CONCURRENT_FETCHES pages at the same time.
+     * @param fetcher is the PPageFetcher that fetches each page.
+     * @param firstCursor is the cursor of the first page (usually 0).
+     * @param executor is the ExecutorService to fetch pages and deliver results on.
+     */
+    public PPagedPublisher(final PPageFetcher<Z> fetcher, final int firstCursor, final ExecutorService executor) {
+        this(fetcher, firstCursor, executor, DEFAULT_MAX_CONCURRENT_FETCHES);
+    }
+
+    /**
+     * Constructs a PPagedPublisher.
+     * @param fetcher is the PPageFetcher that fetches each page.
+     * @param firstCursor is the cursor of the first page (usually 0).
+     * @param executor is the ExecutorService to fetch pages and deliver results on.
+     * @param maxConcurrentFetches is the most pages all of its subscriptions together may fetch at the same time.
+     * @throws IllegalArgumentException if maxConcurrentFetches is not positive.
+     */
+    public PPagedPublisher(final PPageFetcher<Z> fetcher, final int firstCursor, final ExecutorService executor, final int maxConcurrentFetches) {
+        if (maxConcurrentFetches <= 0) {
+            throw new IllegalArgumentException("maxConcurrentFetches must be positive: " + maxConcurrentFetches);
+        }
+        this.fetcher = fetcher;
+        this.firstCursor = firstCursor;
+        this.executor = executor;
+        this.maxConcurrentFetches = maxConcurrentFetches;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super Z> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        final PagedSubscription subscription = new PagedSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Takes a fetch slot for a subscription, or queues the subscription for the next free one.
+     * @return true if the subscription may fetch now, false if it has been queued.
+     */
+    private boolean acquireFetch(final PagedSubscription subscription) {
+        synchronized (this.waiting) {
+            if (this.fetching < this.maxConcurrentFetches) {
+                this.fetching++;
+                return true;
+            }
+            this.waiting.add(subscription);
+            return false;
+        }
+    }
+
+    /**
+     * Hands a finished fetch's slot to the longest waiting subscription, or frees it.  Must not be called with a
+     * subscription's lock held.
+     */
+    private void releaseFetch() {
+        final PagedSubscription next;
+        synchronized (this.waiting) {
+            next = this.waiting.poll();
+            if (next == null) {
+                this.fetching--;
+                return;
+            }
+        }
+        next.startFetch();
+    }
+
+    /**
+     * Takes a cancelled subscription out of the queue.
+     * @return true if it was still queued, false if a slot has already been handed to it.
+     */
+    private boolean removeWaiting(final PagedSubscription subscription) {
+        synchronized (this.waiting) {
+            return this.waiting.remove(subscription);
+        }
+    }
+
+    private final class PagedSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super Z> subscriber;
+
+        // Drain serialization: whoever moves this from 0 runs the drain loop; everyone else just bumps it.
+        private final AtomicInteger wip = new AtomicInteger(0);
+
+        // Guarded by this.
+        private final ArrayDeque<Z> buffered = new ArrayDeque<Z>();
+        private long demand = 0;
+        private int nextCursor;
+        private boolean exhausted = false;
+        private boolean cancelled = false;
+        private boolean terminated = false;
+        private Throwable failure = null;
+        private boolean inFlight = false;
+        private boolean queued = false;
+        private PAPICancellationToken inFlightToken = null;
+
+        PagedSubscription(final Flow.Subscriber<? super Z> subscriber) {
+            this.subscriber = subscriber;
+            this.nextCursor = PPagedPublisher.this.firstCursor;
+        }
+
+        @Override
+        public void request(final long n) {
+            synchronized (this) {
+                if (this.cancelled || this.terminated) {
+                    return;
+                }
+                if (n <= 0) {
+                    this.failure = new IllegalArgumentException("Flow.Subscription.request() needs a positive count, got " + n);
+                    this.exhausted = true;
+                    this.buffered.clear();
+                }
+                else {
+                    this.demand = (this.demand + n < 0) ? Long.MAX_VALUE : this.demand + n;
+                }
+            }
+            this.drain();
+        }
+
+        @Override
+        public void cancel() {
+            final PAPICancellationToken token;
+            synchronized (this) {
+                if (this.cancelled) {
+                    return;
+                }
+                this.cancelled = true;
+                this.buffered.clear();
+                token = this.inFlightToken;
+                this.inFlightToken = null;
+                if (this.queued && PPagedPublisher.this.removeWaiting(this)) {
+                    this.queued = false;
+                }
+            }
+            // Interrupting would not stop a blocking read; disconnecting through the token does.  The fetch still
+            // finishes (quickly) and gives its slot back.
+            if (token != null) {
+                token.cancel();
+            }
+        }
+
+        private void drain() {
+
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            while (true) {
+
+                while (true) {
+
+                    final Z next;
+                    final boolean complete;
+                    final Throwable error;
+                    synchronized (this) {
+                        if (this.cancelled || this.terminated) {
+                            return;
+                        }
+                        error = this.failure;
+                        if (error != null) {
+                            this.terminated = true;
+                            next = null;
+                            complete = false;
+                        }
+                        else if (this.demand > 0 && !this.buffered.isEmpty()) {
+                            this.demand--;
+                            next = this.buffered.poll();
+                            complete = false;
+                        }
+                        else if (this.buffered.isEmpty() && this.exhausted && !this.inFlight && !this.queued) {
+                            this.terminated = true;
+                            next = null;
+                            complete = true;
+                        }
+                        else {
+                            if (this.demand > 0 && this.buffered.isEmpty()) {
+                                this.fetchNextPage();
+                            }
+                            break;
+                        }
+                    }
+
+                    // Signal outside the lock so the subscriber can call request() or cancel() from inside.
+                    if (error != null) {
+                        this.subscriber.onError(error);
+                        return;
+                    }
+                    if (complete) {
+                        this.subscriber.onComplete();
+                        return;
+                    }
+                    this.subscriber.onNext(next);
+
+                }
+
+                missed = this.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+
+            }
+
+        }
+
+        /**
+         * Starts fetching the next page, or queues for a fetch slot, unless one is already in flight or queued.  Called
+         * with the lock held.
+         */
+        private void fetchNextPage() {
+
+            if (this.exhausted || this.inFlight || this.queued) {
+                return;
+            }
+
+            if (PPagedPublisher.this.acquireFetch(this)) {
+                this.submitFetch();
+            }
+            else {
+                this.queued = true;
+            }
+
+        }
+
+        /**
+         * Starts the fetch of a subscription that was queued, now that a slot has been handed to it.
+         */
+        private void startFetch() {
+            synchronized (this) {
+                this.queued = false;
+                if (!this.cancelled && !this.exhausted) {
+                    this.submitFetch();
+                    return;
+                }
+            }
+            PPagedPublisher.this.releaseFetch();
+        }
+
+        /**
+         * Submits the fetch of the next page to the executor.  Called with the lock held and a fetch slot taken.
+         */
+        private void submitFetch() {
+
+            final int cursor = this.nextCursor;
+            final PAPICancellationToken token = new PAPICancellationToken();
+            this.inFlight = true;
+            this.inFlightToken = token;
+            PPagedPublisher.this.executor.execute(new Runnable() {
+                @Override
+                public void run() {
+
+                    PResultSet<Z> page;
+                    try {
+                        page = PPagedPublisher.this.fetcher.fetchPage(cursor, token);
+                    } catch (RuntimeException e) {
+                        PLog.severe("fetchNextPage() -> Caught {0} fetching cursor {1}!", e.getClass().getName(), cursor);
+                        page = null;
+                    }
+
+                    final boolean cancelled;
+                    synchronized (PagedSubscription.this) {
+                        PagedSubscription.this.inFlight = false;
+                        PagedSubscription.this.inFlightToken = null;
+                        cancelled = PagedSubscription.this.cancelled;
+                        if (!cancelled) {
+                            PagedSubscription.this.acceptPage(cursor, page);
+                        }
+                    }
+                    PPagedPublisher.this.releaseFetch();
+                    if (!cancelled) {
+                        PagedSubscription.this.drain();
+                    }
+
+                }
+            });
+
+        }
+
+        /**
+         * Buffers a fetched page and moves the cursor past it.  Called with the lock held.
+         */
+        private void acceptPage(final int cursor, final PResultSet<Z> page) {
+
+            if (page == null) {
+                this.exhausted = true;
+                this.failure = new APIRequestFailedException("Fetching the page at cursor " + cursor + " failed.");
+                return;
+            }
+
+            final ArrayList<Z> results = page.getResults();
+            if (results == null || results.isEmpty() || page.getCursor() <= cursor) {
+                this.exhausted = true;
+            }
+            this.nextCursor = page.getCursor();
+
+            if (results != null) {
+                for (int i = 0; i < results.size(); i++) {
+                    final Z result = results.get(i);
+                    if (result != null) {
+                        this.buffered.add(result);
+                    }
+                }
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,292 @@
+package tv.present.util;
+
+import tv.present.api.PAPICancellationToken;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Present Paged Results
+ * October 19, 2026
+ *
+ * Presents every result of a cursor paged list as one lazy sequence, following nextCursor from page to page.  While a
+ * page is being consumed, up to lookahead further pages are fetched in the background, so the caller only waits on the
+ * network when it gets ahead of the prefetch.  A walk has at most one fetch in flight however large lookahead is, so it
+ * never holds more than one thread of the executor.  Paging stops at the first empty page, at a page whose cursor does
+ * not move forward, or at the first failed fetch.
+ *
+ * Every call to iterator(), spliterator() or stream() starts its own walk from the first cursor.  Closing the iterator
+ * (or the stream) before the end cancels the fetch still in flight through its PAPICancellationToken, which
+ * disconnects the request, and drops the buffered pages; an iterator that reaches the end closes itself.  A
+ * Spliterator cannot be closed, so spliterator() walks without prefetching: every page is fetched on the thread that
+ * asks for it, and a Spliterator that is abandoned part way leaves nothing running.
+ */
+public final class PPagedResults<Z> implements Iterable<Z> {
+
+    private static final String TAG = "tv.present.util.PPagedResults";
+    private static final PLogger PLog = PLogger.getLogger(TAG);
+
+    public static final int DEFAULT_LOOKAHEAD = 1;
+
+    private final PPageFetcher<Z> fetcher;
+    private final int firstCursor;
+    private final int lookahead;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a PPagedResults that prefetches one page ahead on the shared I/O executor.
+     * @param fetcher is the PPageFetcher that fetches each page.
+     * @param firstCursor is the cursor of the first page (usually 0).
+     */
+    public PPagedResults(final PPageFetcher<Z> fetcher, final int firstCursor) {
+        this(fetcher, firstCursor, DEFAULT_LOOKAHEAD, PExecutors.getIOExecutor());
+    }
+
+    /**
+     * Constructs a PPagedResults.
+     * @param fetcher is the PPageFetcher that fetches each page.
+     * @param firstCursor is the cursor of the first page (usually 0).
+     * @param lookahead is the number of pages to fetch ahead of the one being consumed (0 turns prefetching off).
+     * @param executor is the ExecutorService to fetch pages on.
+     */
+    public PPagedResults(final PPageFetcher<Z> fetcher, final int firstCursor, final int lookahead, final ExecutorService executor) {
+        this.fetcher = fetcher;
+        this.firstCursor = firstCursor;
+        this.lookahead = Math.max(0, lookahead);
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a walk over every result.
+     * @return a PPagedIterator positioned before the first result.
+     */
+    @Override
+    public final PPagedIterator<Z> iterator() {
+        return new PPagedIterator<Z>(this.fetcher, this.firstCursor, this.lookahead, this.executor);
+    }
+
+    /**
+     * Starts a walk over every result as an ordered Spliterator of unknown size.  Nothing is prefetched, since a
+     * Spliterator has no way to be closed.
+     * @return a Spliterator over the results.
+     */
+    @Override
+    public final Spliterator<Z> spliterator() {
+        return Spliterators.spliteratorUnknownSize(new PPagedIterator<Z>(this.fetcher, this.firstCursor, 0, this.executor), Spliterator.ORDERED);
+    }
+
+    /**
+     * Starts a walk over every result as a sequential Stream that prefetches like iterator().  Close the Stream (ie: in
+     * a try-with-resources) if it may not be consumed to the end, so that the fetch in flight is cancelled.
+     * @return a Stream over the results.
+     */
+    public final Stream<Z> stream() {
+        final PPagedIterator<Z> iterator = this.iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false).onClose(new Runnable() {
+            @Override
+            public void run() {
+                iterator.close();
+            }
+        });
+    }
+
+    /**
+     * Present Paged Iterator -- one walk over a PPagedResults.
+     */
+    public static final class PPagedIterator<Z> implements Iterator<Z>, Closeable {
+
+        private final PPageFetcher<Z> fetcher;
+        private final int lookahead;
+        private final ExecutorService executor;
+
+        // Guarded by this.
+        private final ArrayDeque<PResultSet<Z>> buffered = new ArrayDeque<PResultSet<Z>>();
+        private Future<?> inFlight = null;
+        private PAPICancellationToken inFlightToken = null;
+        private int nextCursor;
+        private boolean exhausted = false;
+        private boolean closed = false;
+
+        private ArrayList<Z> current = null;
+        private int index = 0;
+
+        PPagedIterator(final PPageFetcher<Z> fetcher, final int firstCursor, final int lookahead, final ExecutorService executor) {
+            this.fetcher = fetcher;
+            this.nextCursor = firstCursor;
+            this.lookahead = lookahead;
+            this.executor = executor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.current == null || this.index >= this.current.size()) {
+                final PResultSet<Z> page = this.takePage();
+                if (page == null) {
+                    this.close();
+                    return false;
+                }
+                this.current = page.getResults();
+                this.index = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public Z next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.current.get(this.index++);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("PPagedIterator is read only.");
+        }
+
+        /**
+         * Stops the walk, cancels any fetch that is still outstanding and drops the buffered pages.  Safe to call from
+         * any thread, including while another thread waits in hasNext().
+         */
+        @Override
+        public void close() {
+            final PAPICancellationToken token;
+            synchronized (this) {
+                if (this.closed) {
+                    return;
+                }
+                this.closed = true;
+                this.buffered.clear();
+                if (this.inFlight != null) {
+                    // Only stops a fetch that has not started yet; the token is what disconnects one that has.
+                    this.inFlight.cancel(false);
+                    this.inFlight = null;
+                }
+                token = this.inFlightToken;
+                this.inFlightToken = null;
+                this.notifyAll();
+            }
+            if (token != null) {
+                token.cancel();
+            }
+        }
+
+        /**
+         * Waits for the next page, fetching it on the calling thread when prefetching is off.
+         * @return the next page, or null at the end.
+         */
+        private PResultSet<Z> takePage() {
+
+            if (this.lookahead == 0) {
+                // Fetch without the lock, so that close() can get in to cancel the request.
+                final int cursor;
+                final PAPICancellationToken token = new PAPICancellationToken();
+                synchronized (this) {
+                    if (this.closed || this.exhausted) {
+                        return null;
+                    }
+                    cursor = this.nextCursor;
+                    this.inFlightToken = token;
+                }
+                final PResultSet<Z> page = this.fetchQuietly(cursor, token);
+                synchronized (this) {
+                    this.inFlightToken = null;
+                    return (!this.closed && this.accept(cursor, page)) ? page : null;
+                }
+            }
+
+            synchronized (this) {
+                this.scheduleFetch();
+                while (this.buffered.isEmpty()) {
+                    if (this.closed || (this.exhausted && this.inFlight == null)) {
+                        return null;
+                    }
+                    try {
+                        this.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                final PResultSet<Z> page = this.buffered.poll();
+                if (page != null) {
+                    this.scheduleFetch();
+                    return page;
+                }
+            }
+            // Interrupted while waiting.
+            this.close();
+            return null;
+
+        }
+
+        /**
+         * Starts fetching the next page if nothing is in flight and the buffer has room.  Called with the lock held.
+         */
+        private void scheduleFetch() {
+
+            if (this.closed || this.exhausted || this.inFlight != null || this.buffered.size() >= this.lookahead) {
+                return;
+            }
+
+            final int cursor = this.nextCursor;
+            final PAPICancellationToken token = new PAPICancellationToken();
+            this.inFlightToken = token;
+            this.inFlight = this.executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    final PResultSet<Z> page = PPagedIterator.this.fetchQuietly(cursor, token);
+                    synchronized (PPagedIterator.this) {
+                        PPagedIterator.this.inFlight = null;
+                        PPagedIterator.this.inFlightToken = null;
+                        if (PPagedIterator.this.closed) {
+                            return;
+                        }
+                        if (PPagedIterator.this.accept(cursor, page)) {
+                            PPagedIterator.this.buffered.add(page);
+                        }
+                        PPagedIterator.this.scheduleFetch();
+                        PPagedIterator.this.notifyAll();
+                    }
+                }
+            });
+
+        }
+
+        /**
+         * Moves the cursor past a fetched page.  Called with the lock held (or on the only thread, with no lookahead).
+         * @return true if the page has results to hand out, false if it ends the walk.
+         */
+        private boolean accept(final int cursor, final PResultSet<Z> page) {
+            if (page == null || page.getResults() == null || page.getResults().isEmpty()) {
+                this.exhausted = true;
+                return false;
+            }
+            if (page.getCursor() <= cursor) {
+                this.exhausted = true;
+            }
+            this.nextCursor = page.getCursor();
+            return true;
+        }
+
+        private PResultSet<Z> fetchQuietly(final int cursor, final PAPICancellationToken token) {
+            try {
+                return this.fetcher.fetchPage(cursor, token);
+            } catch (RuntimeException e) {
+                PLog.severe("fetchPage() -> Caught {0} fetching cursor {1}!", e.getClass().getName(), cursor);
+                return null;
+            }
+        }
+
+    }
+
+}
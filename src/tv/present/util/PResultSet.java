@@ -1,7 +1,6 @@
 package tv.present.util;
 
 import java.util.ArrayList;
-import java.util.logging.Logger;
 
 /**
  * Present Result Set
@@ -11,7 +10,7 @@ import java.util.logging.Logger;
 public final class PResultSet<Z> {
 
     private static final String TAG = "tv.present.util.PResultSet";
-    private static final Logger PLog = Logger.getLogger(TAG);
+    private static final PLogger PLog = PLogger.getLogger(TAG);
 
     private int cursor;
     private ArrayList<Z> results;
@@ -24,7 +23,7 @@ public final class PResultSet<Z> {
     public PResultSet(final int cursor, final ArrayList<Z> resultsArray) {
         this.results = resultsArray;
         this.cursor = cursor;
-        PLog.info("Created PResultSet with a resultArray size of " + resultsArray.size());
+        PLog.finest("Created PResultSet with a resultArray size of {0}", resultsArray.size());
     }
 
     /**
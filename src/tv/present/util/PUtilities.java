@@ -12,7 +12,7 @@ public class PUtilities {
 	
 	public static Calendar parseZulu(String date) {
 		try {
-			if (date.equals("")) {
+			if (date != null && !date.equals("")) {
 				Date oDate = (new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ")).parse(date.replaceAll("Z$", "+0000"));
 				Calendar product = Calendar.getInstance();
 				product.setTime(oDate);
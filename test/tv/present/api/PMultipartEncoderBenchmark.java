@@ -0,0 +1,138 @@
+package tv.present.api;
+
+import org.json.JSONObject;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.net.URLConnection;
+import java.util.Iterator;
+
+/**
+ * Present Multipart Encoder Benchmark
+ * October 19, 2026
+ *
+ * Compares the allocation and time per segment upload body of PMultipartEncoder with the writer it replaced.  Needs a
+ * JVM whose ThreadMXBean is a com.sun.management.ThreadMXBean.
+ */
+public final class PMultipartEncoderBenchmark {
+
+    /**
+     * Measures bytes allocated per segment upload body for the old exception-probing writer and for PMultipartEncoder.  Both
+     * write an appendSegment() sized payload and a media segment file to a discarding stream.
+     * Usage: PMultipartEncoderBenchmark [segment size in KB] [iterations]
+     */
+    public static void main(String args[]) throws Exception {
+
+        final int segmentKB = (args.length > 0) ? Integer.parseInt(args[0]) : 256;
+        final int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 2000;
+
+        final File segment = File.createTempFile("segment", ".ts");
+        segment.deleteOnExit();
+        final FileOutputStream segmentStream = new FileOutputStream(segment);
+        segmentStream.write(new byte[segmentKB * 1024]);
+        segmentStream.close();
+
+        final JSONObject payload = new JSONObject();
+        payload.put("video_id", "53a1b2c3d4e5f60718293a4b");
+        payload.put("media_sequence", 42);
+        payload.put("playlist_session", "{\"meta\":{\"id\":\"53a1b2c3\",\"isFinished\":false},\"config\":{\"windowLength\":6,\"targetDuration\":4},\"mediaSegments\":[]}");
+
+        final OutputStream sink = new OutputStream() {
+            @Override public void write(int b) { /* discard */ }
+            @Override public void write(byte[] b, int off, int len) { /* discard */ }
+        };
+
+        final Object threadBean = ManagementFactory.getThreadMXBean();
+        final Method allocatedBytes = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+        final long threadID = Thread.currentThread().getId();
+
+        for (int round = 0; round < 3; round++) {
+
+            long before = (Long) allocatedBytes.invoke(threadBean, threadID);
+            long ns = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                legacyWriteMultipart(payload, "media_segment", segment, sink);
+            }
+            final long legacyNanos = System.nanoTime() - ns;
+            final long legacyBytes = (Long) allocatedBytes.invoke(threadBean, threadID) - before;
+
+            before = (Long) allocatedBytes.invoke(threadBean, threadID);
+            ns = System.nanoTime();
+            long contentLength = 0;
+            for (int n = 0; n < iterations; n++) {
+                PMultipartEncoder encoder = new PMultipartEncoder();
+                encoder.addFields(payload);
+                encoder.addFile("media_segment", segment);
+                contentLength = encoder.getContentLength();
+                encoder.writeTo(sink);
+            }
+            final long encoderNanos = System.nanoTime() - ns;
+            final long encoderBytes = (Long) allocatedBytes.invoke(threadBean, threadID) - before;
+
+            System.out.println("Round " + round + ": legacy " + (legacyBytes / iterations) + " B/upload " + (legacyNanos / iterations / 1000) + " us/upload; encoder " + (encoderBytes / iterations) + " B/upload " + (encoderNanos / iterations / 1000) + " us/upload; Content-Length " + contentLength);
+
+        }
+
+    }
+
+    /**
+     * The type probing and writing that PAPIBridge.writeMultipart() did before this encoder, kept for comparison.
+     */
+    private static void legacyWriteMultipart(final JSONObject payload, final String fileKey, final File file, final OutputStream sink) throws IOException {
+
+        DataOutputStream outputStream = new DataOutputStream(sink);
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(outputStream, "UTF-8"), true);
+
+        @SuppressWarnings("unchecked")
+        Iterator<String> keys = payload.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            String value;
+            try {
+                value = payload.getJSONObject(key).toString();
+            } catch (org.json.JSONException e) {
+                try {
+                    value = payload.getString(key);
+                } catch (org.json.JSONException f) {
+                    try {
+                        value = ((Integer) payload.getInt(key)).toString();
+                    } catch (org.json.JSONException g) {
+                        value = ((Double) payload.getDouble(key)).toString();
+                    }
+                }
+            }
+            writer.append("--" + PMultipartEncoder.DEFAULT_BOUNDARY).append("\r\n");
+            writer.append("Content-Disposition: form-data; name=\"" + key + "\"").append("\r\n");
+            writer.append("Content-Type: text/plain; charset=UTF-8").append("\r\n");
+            writer.append("\r\n");
+            writer.append(value).append("\r\n");
+            writer.flush();
+        }
+
+        writer.append("--" + PMultipartEncoder.DEFAULT_BOUNDARY).append("\r\n");
+        writer.append("Content-Disposition: form-data; name=\"" + fileKey + "\"; filename=\"" + file.getName() + "\"").append("\r\n");
+        writer.append("Content-Type: " + URLConnection.guessContentTypeFromName(file.getName())).append("\r\n");
+        writer.append("Content-Transfer-Encoding: binary").append("\r\n");
+        writer.append("\r\n");
+        writer.flush();
+
+        FileInputStream inputStream = new FileInputStream(file);
+        byte[] buffer = new byte[4096];
+        int bytesRead;
+        while ((bytesRead = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, bytesRead);
+        }
+        outputStream.flush();
+        inputStream.close();
+
+        writer.append("\r\n").flush();
+        writer.append("\r\n").flush();
+        writer.append("--" + PMultipartEncoder.DEFAULT_BOUNDARY + "--").append("\r\n");
+        writer.flush();
+        outputStream.writeBytes(payload.toString());
+        outputStream.flush();
+
+    }
+
+}
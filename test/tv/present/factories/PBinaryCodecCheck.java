@@ -0,0 +1,62 @@
+package tv.present.factories;
+
+import tv.present.models.PComment;
+import tv.present.models.PSubjectiveMeta;
+import tv.present.models.PUser;
+import tv.present.models.PUserProfile;
+import tv.present.models.PVideo;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Calendar;
+
+/**
+ * Present Binary Codec Check
+ * October 19, 2026
+ *
+ * Round trips users and videos whose integer fields sit on the zigzag boundaries through PBinaryCodec.
+ */
+public final class PBinaryCodecCheck {
+
+    private static final int[] BOUNDARIES = {0, 1, -1, (1 << 30) - 1, 1 << 30, -(1 << 30), -(1 << 30) - 1, Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+    /**
+     * Runs the check.
+     * @param args are ignored.
+     */
+    public static void main(String[] args) {
+
+        boolean passed = true;
+        final Calendar now = Calendar.getInstance();
+
+        for (int value : BOUNDARIES) {
+            final PUser user = new PUser("u" + value, new PSubjectiveMeta(), now, now, "user" + value, null, null,
+                    new PUserProfile("Full Name", "description", null, null), value, value, value, value, value, value);
+            final PUser decodedUser = roundTrip(user, PUser.class);
+            final boolean userPassed = decodedUser != null && decodedUser.getNumDemands() == value && decodedUser.getNumFollowers() == value
+                    && decodedUser.getNumFriends() == value && decodedUser.getNumLikes() == value && decodedUser.getNumVideos() == value
+                    && decodedUser.getNumViews() == value;
+
+            final PVideo video = new PVideo("v" + value, new PSubjectiveMeta(), now, now, "video" + value, user, null, null, null,
+                    value, value, true, null, new ArrayList<PComment>(), now, now);
+            final PVideo decodedVideo = roundTrip(video, PVideo.class);
+            final boolean videoPassed = decodedVideo != null && decodedVideo.getNumLikes() == value && decodedVideo.getNumViews() == value
+                    && decodedVideo.getCreatorUser() != null && decodedVideo.getCreatorUser().getNumViews() == value;
+
+            System.out.println(value + " -> user " + (userPassed ? "ok" : "FAILED") + ", video " + (videoPassed ? "ok" : "FAILED"));
+            passed &= userPassed && videoPassed;
+        }
+
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+
+    }
+
+    private static <Z> Z roundTrip(final Z value, final Class<Z> type) {
+        final ByteBuffer encoded = new PBinaryCodec().encode(value);
+        return new PBinaryCodec().decode(encoded, type);
+    }
+
+}
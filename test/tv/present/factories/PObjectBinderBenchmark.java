@@ -0,0 +1,145 @@
+package tv.present.factories;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import tv.present.models.PUser;
+import tv.present.models.PVideo;
+
+import java.util.ArrayList;
+
+/**
+ * Present Object Binder Benchmark
+ * October 19, 2026
+ *
+ * Compares PObjectBinder with JSONObject + PObjectFactory on synthetic pages of users (the pages PAPIInteraction binds
+ * from text) and of videos, after checking that both produce the same users.
+ * Usage: PObjectBinderBenchmark [items per page] [comments per video] [iterations]
+ */
+public final class PObjectBinderBenchmark {
+
+    /**
+     * Runs the benchmark.
+     * @param args are the page size, the comments per video and the iterations, all optional.
+     */
+    public static void main(String[] args) {
+
+        final int pageSize = (args.length > 0) ? Integer.parseInt(args[0]) : 50;
+        final int numComments = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+        final int iterations = (args.length > 2) ? Integer.parseInt(args[2]) : 2000;
+
+        final PObjectFactory objectFactory = new PObjectFactory();
+        final PObjectBinder objectBinder = new PObjectBinder();
+
+        final String userPage = userPage(pageSize);
+        final String videoPage = videoPage(pageSize, numComments);
+
+        if (!sameUsers(objectFactory.constructUsersFromJSON(new JSONObject(userPage).getJSONArray("results")), objectBinder.bindUserResults(userPage).getResults())) {
+            System.out.println("FAILED: PObjectBinder and PObjectFactory disagree on the user page");
+            System.exit(1);
+        }
+
+        long checksum = 0;
+        System.out.println("Decoding pages of " + pageSize + " users (" + userPage.length() + " chars) and " + pageSize + " videos with " + numComments + " comments each (" + videoPage.length() + " chars), " + iterations + " iterations");
+
+        for (int round = 0; round < 3; round++) {
+
+            long ns = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                checksum += objectFactory.constructUsersFromJSON(new JSONObject(userPage).getJSONArray("results")).size();
+            }
+            final long userFactoryNanos = System.nanoTime() - ns;
+
+            ns = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                checksum += objectBinder.bindUserResults(userPage).getResults().size();
+            }
+            final long userBinderNanos = System.nanoTime() - ns;
+
+            ns = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                JSONArray resultsJSON = new JSONObject(videoPage).getJSONArray("results");
+                for (int i = 0; i < resultsJSON.length(); i++) {
+                    PVideo video = objectFactory.constructVideoFromJSON(resultsJSON.getJSONObject(i));
+                    checksum += video.getComments().size();
+                }
+            }
+            final long videoFactoryNanos = System.nanoTime() - ns;
+
+            ns = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                for (PVideo video : objectBinder.bindVideoResults(videoPage).getResults()) {
+                    checksum += video.getComments().size();
+                }
+            }
+            final long videoBinderNanos = System.nanoTime() - ns;
+
+            System.out.println("Round " + round + ": users PObjectFactory " + (userFactoryNanos / iterations / 1000) + " us/page, PObjectBinder " + (userBinderNanos / iterations / 1000)
+                    + " us/page; videos PObjectFactory " + (videoFactoryNanos / iterations / 1000) + " us/page, PObjectBinder " + (videoBinderNanos / iterations / 1000) + " us/page");
+
+        }
+
+        System.out.println("Checksum: " + checksum);
+
+    }
+
+    private static boolean sameUsers(final ArrayList<PUser> expected, final ArrayList<PUser> actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            final PUser a = expected.get(i);
+            final PUser b = actual.get(i);
+            if (!a.getID().equals(b.getID()) || !a.getUsername().equals(b.getUsername()) || !a.getVanityUsername().equals(b.getVanityUsername())
+                    || !a.getEmailAddress().equals(b.getEmailAddress()) || a.getNumFollowers() != b.getNumFollowers() || a.getNumViews() != b.getNumViews()
+                    || !a.getProfile().getProfilePictureURL().equals(b.getProfile().getProfilePictureURL())
+                    || !a.getCreationDate().equals(b.getCreationDate())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String userPage(final int numUsers) {
+        JSONArray results = new JSONArray();
+        for (int i = 0; i < numUsers; i++) {
+            results.put(user("u" + i, i));
+        }
+        return new JSONObject().put("results", results).put("nextCursor", numUsers).toString();
+    }
+
+    private static String videoPage(final int numVideos, final int numComments) {
+        JSONArray results = new JSONArray();
+        for (int i = 0; i < numVideos; i++) {
+            JSONArray comments = new JSONArray();
+            for (int j = 0; j < numComments; j++) {
+                comments.put(new JSONObject().put("object", new JSONObject().put("_id", "c" + i + "_" + j).put("body", "Comment body " + j).put("_creationDate", "2014-06-05T12:00:00.000Z").put("_lastUpdateDate", "2014-06-05T12:00:00.000Z").put("sourceUser", user("u" + j, j))));
+            }
+            JSONObject object = new JSONObject()
+                    .put("_id", "v" + i).put("title", "Video " + i).put("_creationDate", "2014-06-05T12:00:00.000Z").put("_lastUpdateDate", "2014-06-05T12:00:00.000Z")
+                    .put("creationTimeRange", new JSONObject().put("startDate", "2014-06-05T12:00:00.000Z").put("endDate", "2014-06-05T12:10:00.000Z"))
+                    .put("creatorUser", user("creator" + i, i))
+                    .put("mediaUrls", new JSONObject()
+                            .put("images", new JSONObject().put("480px", "https://media.present.tv/" + i + "/480.jpg"))
+                            .put("playlists", new JSONObject()
+                                    .put("live", new JSONObject().put("master", "https://media.present.tv/" + i + "/live.m3u8"))
+                                    .put("replay", new JSONObject().put("master", "https://media.present.tv/" + i + "/replay.m3u8"))))
+                    .put("likes", new JSONObject().put("count", i)).put("views", new JSONObject().put("count", i * 3))
+                    .put("isAvailable", true).put("visibility", new JSONObject().put("everyone", true))
+                    .put("comments", new JSONObject().put("results", comments));
+            results.put(new JSONObject().put("subjectiveObjectMeta", new JSONObject().put("like", new JSONObject().put("forward", false).put("backward", false))).put("object", object));
+        }
+        return new JSONObject().put("results", results).put("nextCursor", numVideos).toString();
+    }
+
+    private static JSONObject user(final String id, final int count) {
+        JSONObject counter = new JSONObject().put("count", count);
+        JSONObject direction = new JSONObject().put("forward", false).put("backward", true);
+        JSONObject object = new JSONObject()
+                .put("_id", id).put("username", id).put("displayUsername", id.toUpperCase()).put("email", id + "@present.tv")
+                .put("_creationDate", "2014-06-05T12:00:00.000Z").put("_lastUpdateDate", "2014-06-05T12:00:00.000Z")
+                .put("profile", new JSONObject().put("fullName", "User " + id).put("description", "").put("website", "").put("picture", new JSONObject().put("url", "https://media.present.tv/" + id + ".jpg")))
+                .put("demands", counter).put("followers", counter).put("friends", counter).put("videos", counter).put("likes", counter).put("views", counter);
+        return new JSONObject().put("subjectiveObjectMeta", new JSONObject().put("demand", direction).put("friendship", direction)).put("object", object);
+    }
+
+}
@@ -0,0 +1,83 @@
+package tv.present.managers;
+
+import tv.present.models.PMediaSegment;
+
+import java.io.BufferedReader;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Present HLS Playlist Manager Check
+ * October 19, 2026
+ *
+ * Replays recorded playlists from the fixtures directory next to this class through a PHLSPlaylistManager.
+ */
+public final class PHLSPlaylistManagerCheck {
+
+    /**
+     * Replays the playlists in tv/present/managers/fixtures through one manager: a sliding live window, a gap the
+     * window slid past, a reload whose connection drops part way and the end of the stream.
+     * @param args are ignored.
+     * @throws IOException if a fixture cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+
+        final PHLSPlaylistManager manager = new PHLSPlaylistManager(fixture("live-1.m3u8"), PHLSPlaylistManager.DEFAULT_MAX_RETAINED);
+        boolean passed = true;
+
+        passed &= check("live-1", replay(manager, "live-1.m3u8", false), manager, 3, 10, 12, 0.0);
+        passed &= check("live-2", replay(manager, "live-2.m3u8", false), manager, 2, 13, 14, 11.5);
+        // Sequences 15 and 16 slid out of the window and are counted at the target duration.
+        passed &= check("live-3", replay(manager, "live-3.m3u8", false), manager, 2, 17, 18, 27.5);
+        // A dropped connection must leave the manager as it was, so the retry picks up the same segments.
+        final ArrayList<PMediaSegment> dropped = replay(manager, "live-4.m3u8", true);
+        System.out.println("live-4 (dropped) -> " + dropped + ", last sequence " + manager.getLastSequence());
+        passed &= (dropped == null && manager.getLastSequence() == 18);
+        passed &= check("live-4", replay(manager, "live-4.m3u8", false), manager, 2, 19, 20, 35.5);
+        passed &= check("ended", replay(manager, "ended.m3u8", false), manager, 1, 21, 21, 41.5);
+        passed &= manager.isFinished() && manager.getReloadDelayMillis() == -1 && manager.getSession().getMediaSegments().size() == 10;
+
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+
+    }
+
+    private static URL fixture(final String name) {
+        return PHLSPlaylistManagerCheck.class.getResource("fixtures/" + name);
+    }
+
+    private static ArrayList<PMediaSegment> replay(final PHLSPlaylistManager manager, final String name, final boolean drop) throws IOException {
+        final InputStreamReader in = new InputStreamReader(fixture(name).openStream(), StandardCharsets.UTF_8);
+        // Dropping the connection at the end of the file means every segment has already been handed to the parser.
+        try (BufferedReader reader = new BufferedReader(drop ? new FilterReader(in) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                final int read = super.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new IOException("Connection reset");
+                }
+                return read;
+            }
+        } : in)) {
+            return manager.update(reader);
+        }
+    }
+
+    private static boolean check(final String name, final ArrayList<PMediaSegment> added, final PHLSPlaylistManager manager,
+                                 final int count, final int firstSequence, final int lastSequence, final double firstElapsed) {
+        System.out.println(name + " -> " + ((added == null) ? null : added.size()) + " added, last sequence " + manager.getLastSequence());
+        if (added == null || added.size() != count || manager.getLastSequence() != lastSequence) {
+            return false;
+        }
+        final PMediaSegment first = added.get(0);
+        System.out.println("    first " + first.getSequence() + " at " + first.getTimeElapsed() + "s, " + first.getURI());
+        return first.getSequence() == firstSequence && first.getTimeElapsed() == firstElapsed;
+    }
+
+}
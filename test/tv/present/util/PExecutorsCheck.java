@@ -0,0 +1,82 @@
+package tv.present.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Present Executors Check
+ * October 19, 2026
+ *
+ * Floods the default I/O executor and a limit() wrapper around it, and checks that every task runs, that the pool never
+ * grows past IO_MAX_THREADS and that the wrapper never runs more than its limit at a time.
+ */
+public final class PExecutorsCheck {
+
+    private static final int LIMIT = 3;
+    private static final int LIMITED_TASKS = 500;
+    private static final int FLOOD_TASKS = PExecutors.IO_MAX_THREADS + PExecutors.IO_QUEUE_CAPACITY * 2;
+
+    /**
+     * Runs the check.
+     * @param args are ignored.
+     */
+    public static void main(String[] args) throws InterruptedException {
+
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger mostRunning = new AtomicInteger(0);
+        final CountDownLatch limitedDone = new CountDownLatch(LIMITED_TASKS);
+        final Executor limited = PExecutors.limit(PExecutors.getIOExecutor(), LIMIT);
+        for (int i = 0; i < LIMITED_TASKS; i++) {
+            limited.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final int now = running.incrementAndGet();
+                    int most;
+                    while ((most = mostRunning.get()) < now && !mostRunning.compareAndSet(most, now)) {
+                        /* retry */
+                    }
+                    sleepQuietly(1);
+                    running.decrementAndGet();
+                    limitedDone.countDown();
+                }
+            });
+        }
+        final boolean limitedFinished = limitedDone.await(30, TimeUnit.SECONDS);
+        final boolean limitPassed = limitedFinished && mostRunning.get() <= LIMIT;
+        System.out.println("limit(" + LIMIT + ") -> finished " + limitedFinished + ", most running " + mostRunning.get() + (limitPassed ? " ok" : " FAILED"));
+
+        final ThreadPoolExecutor executor = (ThreadPoolExecutor) PExecutors.getIOExecutor();
+        final CountDownLatch floodDone = new CountDownLatch(FLOOD_TASKS);
+        for (int i = 0; i < FLOOD_TASKS; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    sleepQuietly(2);
+                    floodDone.countDown();
+                }
+            });
+        }
+        final boolean floodFinished = floodDone.await(60, TimeUnit.SECONDS);
+        final boolean poolPassed = floodFinished && executor.getLargestPoolSize() <= PExecutors.IO_MAX_THREADS;
+        System.out.println("I/O executor -> finished " + floodFinished + ", largest pool " + executor.getLargestPoolSize() + (poolPassed ? " ok" : " FAILED"));
+
+        final boolean passed = limitPassed && poolPassed;
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+
+    }
+
+    private static void sleepQuietly(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
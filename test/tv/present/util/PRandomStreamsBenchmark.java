@@ -0,0 +1,93 @@
+package tv.present.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Present Random Streams Benchmark
+ * October 19, 2026
+ *
+ * Measures the draw throughput of a shared MersenneTwister against PRandomStreams' per thread generators.
+ */
+public final class PRandomStreamsBenchmark {
+
+    /**
+     * Compares drawing from one shared, synchronized MersenneTwister against drawing from each thread's own generator,
+     * with the same total number of draws split across 1 to 64 threads.
+     * @param args is optionally the total number of draws per run.
+     */
+    public static void main(String[] args) throws InterruptedException {
+
+        final int draws = (args.length > 0) ? Integer.parseInt(args[0]) : 1 << 25;
+        final MersenneTwister shared = new MersenneTwister(4357);
+        final PRandomStreams streams = new PRandomStreams(4357);
+        // Every draw is summed in here and printed at the end, so none of them can be optimized away.
+        final AtomicLong checksum = new AtomicLong(0);
+
+        System.out.println("Drawing " + draws + " ints per run, " + Runtime.getRuntime().availableProcessors() + " processors");
+        System.out.println("threads   synchronized MersenneTwister   per thread MersenneTwister2");
+
+        for (int round = 0; round < 2; round++) {
+            for (int threads = 1; threads <= 64; threads *= 2) {
+                final long sharedNanos = run(threads, draws / threads, checksum, new Draw() {
+                    @Override
+                    public int next() {
+                        return shared.nextInt();
+                    }
+                });
+                final long streamNanos = run(threads, draws / threads, checksum, new Draw() {
+                    @Override
+                    public int next() {
+                        return streams.current().nextInt();
+                    }
+                });
+                // The first round only warms up the JIT.
+                if (round > 0) {
+                    System.out.println(String.format("%7d   %13.1f M/s %8.2f ns   %13.1f M/s %8.2f ns", threads,
+                            draws * 1000.0 / sharedNanos, (double) sharedNanos / draws, draws * 1000.0 / streamNanos, (double) streamNanos / draws));
+                }
+            }
+        }
+        System.out.println("checksum " + checksum.get());
+
+    }
+
+    private interface Draw {
+        int next();
+    }
+
+    private static long run(final int threads, final int drawsPerThread, final AtomicLong sink, final Draw draw) throws InterruptedException {
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        int sum = 0;
+                        for (int i = 0; i < drawsPerThread; i++) {
+                            sum += draw.next();
+                        }
+                        sink.addAndGet(sum);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }, "PRandomStreamsBenchmark-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        final long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+
+    }
+
+}